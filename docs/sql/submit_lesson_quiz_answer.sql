@@ -0,0 +1,145 @@
+-- Persists one graded lesson quiz answer in a single transaction.
+-- Called by LessonQuizServiceImpl with the service role through POST /rest/v1/rpc/submit_lesson_quiz_answer.
+-- The parameters (score, pass state, XP and badge) are computed by the backend, so the function must
+-- never be executable by end users; it is granted to service_role only.
+-- The backend falls back to sequential PostgREST writes while this function is not installed
+-- (or when LESSON_QUIZ_ANSWER_RPC_ENABLED=false).
+--
+-- Conflicts are raised with SQLSTATE PT409 so PostgREST answers 409 and the whole answer rolls back.
+
+create or replace function public.submit_lesson_quiz_answer(
+    p_user_id uuid,
+    p_lesson_id uuid,
+    p_attempt_id uuid,
+    p_quiz_id uuid,
+    p_expected_question_index integer,
+    p_expected_status text,
+    p_answers jsonb,
+    p_next_question_index integer,
+    p_correct_count integer,
+    p_earned_score integer,
+    p_max_score integer,
+    p_status text,
+    p_answered_at timestamptz,
+    p_completed boolean,
+    p_passed boolean,
+    p_result_answers jsonb,
+    p_percentage numeric,
+    p_expected_hearts integer,
+    p_expected_refill_at timestamptz,
+    p_hearts_remaining integer,
+    p_hearts_refill_at timestamptz,
+    p_last_section_id text,
+    p_xp_reward integer,
+    p_badge_name text
+)
+returns table (hearts_remaining integer, refill_at timestamptz, reward_granted boolean)
+language plpgsql
+set search_path = public
+as $$
+declare
+    v_progress_id uuid;
+    v_reward_granted boolean := false;
+begin
+    update user_lesson_quiz_attempts a
+       set answers = p_answers,
+           current_question_index = p_next_question_index,
+           correct_count = p_correct_count,
+           earned_score = p_earned_score,
+           max_score = p_max_score,
+           status = p_status,
+           updated_at = p_answered_at,
+           completed_at = case when p_completed then p_answered_at else null end
+     where a.id = p_attempt_id
+       and a.user_id = p_user_id
+       and a.lesson_id = p_lesson_id
+       and a.current_question_index = p_expected_question_index
+       and (p_expected_status is null or a.status = p_expected_status);
+    if not found then
+        raise exception 'Quiz answer is stale' using errcode = 'PT409';
+    end if;
+
+    if p_hearts_remaining is not null then
+        update user_quiz_hearts h
+           set hearts_remaining = p_hearts_remaining,
+               refill_at = p_hearts_refill_at,
+               updated_at = p_answered_at
+         where h.user_id = p_user_id
+           and h.hearts_remaining = p_expected_hearts
+           and h.refill_at is not distinct from p_expected_refill_at;
+        if not found then
+            raise exception 'Hearts state is out of sync' using errcode = 'PT409';
+        end if;
+    end if;
+
+    if p_completed then
+        insert into user_quiz_results (user_id, quiz_id, score, max_score, percentage, passed, answers, attempted_at)
+        values (p_user_id, p_quiz_id, p_earned_score, p_max_score, p_percentage, p_passed, p_result_answers, p_answered_at);
+    end if;
+
+    if p_completed and p_passed then
+        select p.id into v_progress_id
+          from user_lesson_progress p
+         where p.user_id = p_user_id
+           and p.lesson_id = p_lesson_id
+         order by p.progress_percentage desc, p.last_accessed_at desc, p.created_at asc
+         limit 1
+         for update;
+
+        if v_progress_id is null then
+            insert into user_lesson_progress (
+                user_id, lesson_id, status, progress_percentage, current_section,
+                started_at, completed_at, last_accessed_at
+            )
+            values (
+                p_user_id, p_lesson_id, 'completed', 100, p_last_section_id,
+                p_answered_at, p_answered_at, p_answered_at
+            );
+        else
+            update user_lesson_progress p
+               set status = 'completed',
+                   progress_percentage = 100,
+                   current_section = p_last_section_id,
+                   started_at = coalesce(p.started_at, p_answered_at),
+                   completed_at = p_answered_at,
+                   last_accessed_at = p_answered_at
+             where p.id = v_progress_id;
+        end if;
+
+        insert into user_lesson_rewards (user_id, lesson_id, xp_awarded, badge_name, awarded_at)
+        select p_user_id, p_lesson_id, p_xp_reward, p_badge_name, p_answered_at
+         where not exists (
+            select 1 from user_lesson_rewards r where r.user_id = p_user_id and r.lesson_id = p_lesson_id
+         )
+        on conflict do nothing;
+        v_reward_granted := found;
+
+        if v_reward_granted then
+            update profiles
+               set reputation_points = coalesce(reputation_points, 0) + greatest(p_xp_reward, 0),
+                   updated_at = p_answered_at
+             where user_id = p_user_id;
+
+            if p_badge_name is not null then
+                insert into user_achievements (user_id, achievement_name, achievement_type, description, earned_at)
+                values (p_user_id, p_badge_name, 'lesson_badge', 'Earned by passing lesson quiz', p_answered_at)
+                on conflict do nothing;
+            end if;
+
+            update lessons
+               set completion_count = coalesce(completion_count, 0) + 1,
+                   updated_at = p_answered_at
+             where id = p_lesson_id;
+        end if;
+    end if;
+
+    return query
+        select h.hearts_remaining, h.refill_at, v_reward_granted
+          from user_quiz_hearts h
+         where h.user_id = p_user_id;
+end;
+$$;
+
+revoke all on function public.submit_lesson_quiz_answer from public;
+revoke all on function public.submit_lesson_quiz_answer from anon, authenticated;
+grant execute on function public.submit_lesson_quiz_answer to service_role;
@@ -1,5 +1,6 @@
 import React, { useState, useRef, useEffect } from "react";
-import { sendChatMessage, getChatHistory, startNewChat } from "@/lib/api.ts";
+import { sendChatMessage, getChatHistoryPage, startNewChat } from "@/lib/api.ts";
+import type { ChatbotMessageDTO } from "@/lib/api.ts";
 import { ApiError } from "@/lib/apiClient";
 import { formatRateLimitMessage } from "@/lib/rateLimit";
 
@@ -9,6 +10,14 @@ type ChatMessage = {
   timestamp: string;
 };
 
+// History pages arrive newest first; the chat window shows them oldest first.
+const toChronological = (page: ChatbotMessageDTO[]): ChatMessage[] =>
+  [...page].reverse().map(d => ({
+    role: d.role === "user" ? "user" : "assistant",
+    message: d.message,
+    timestamp: d.timestamp,
+  }));
+
 interface ChatbotProps {
   mobileBottomOffsetClass?: string;
 }
@@ -19,10 +28,14 @@ const Chatbot = ({ mobileBottomOffsetClass = "bottom-24" }: ChatbotProps) => {
   const [input, setInput] = useState("");
   const [loading, setLoading] = useState(false);
   const [messagesLoaded, setMessagesLoaded] = useState(false);
+  const [historyCursor, setHistoryCursor] = useState<string | null>(null);
+  const [loadingOlder, setLoadingOlder] = useState(false);
 
   const chatRef = useRef<HTMLDivElement>(null);
   const messagesRef = useRef<HTMLDivElement>(null);
   const chatButtonRef = useRef<HTMLButtonElement>(null);
+  // Set while older messages are prepended so the view keeps its place instead of jumping to the bottom.
+  const preserveScrollRef = useRef<number | null>(null);
 
   // Toggle chat window
   const toggleChat = (e: React.MouseEvent<HTMLButtonElement>) => {
@@ -45,6 +58,7 @@ const Chatbot = ({ mobileBottomOffsetClass = "bottom-24" }: ChatbotProps) => {
         timestamp: new Date().toISOString(),
       };
       setMessages([greeting]);
+      setHistoryCursor(null);
       setInput("");
       setMessagesLoaded(true);
     } catch (error) {
@@ -94,13 +108,9 @@ const Chatbot = ({ mobileBottomOffsetClass = "bottom-24" }: ChatbotProps) => {
   // Fetch chat history on open
   useEffect(() => {
     if (isOpen) {
-      getChatHistory()
-        .then(data => {
-          const formatted: ChatMessage[] = data.map(d => ({
-            role: d.role === "user" ? "user" : "assistant",
-            message: d.message,
-            timestamp: d.timestamp,
-          }));
+      getChatHistoryPage()
+        .then(page => {
+          const formatted = toChronological(page.items);
 
           const greeting: ChatMessage = {
             role: "assistant",
@@ -110,12 +120,30 @@ const Chatbot = ({ mobileBottomOffsetClass = "bottom-24" }: ChatbotProps) => {
           };
 
           setMessages([greeting, ...formatted]);
+          setHistoryCursor(page.hasMore ? page.nextCursor ?? null : null);
         })
         .catch(() => console.error("Failed to fetch chat history"))
         .finally(() => setMessagesLoaded(true));
     }
   }, [isOpen]);
 
+  // Load the page of messages before the oldest one shown, keeping the greeting on top
+  const handleLoadOlder = async () => {
+    if (!historyCursor || loadingOlder) return;
+    setLoadingOlder(true);
+    try {
+      const page = await getChatHistoryPage(historyCursor);
+      const container = messagesRef.current;
+      preserveScrollRef.current = container ? container.scrollHeight - container.scrollTop : null;
+      setMessages(prev => [prev[0], ...toChronological(page.items), ...prev.slice(1)]);
+      setHistoryCursor(page.hasMore ? page.nextCursor ?? null : null);
+    } catch {
+      console.error("Failed to fetch older chat history");
+    } finally {
+      setLoadingOlder(false);
+    }
+  };
+
   // Close chat when clicking outside
   useEffect(() => {
     const handleClickOutside = (event: MouseEvent) => {
@@ -136,7 +164,9 @@ const Chatbot = ({ mobileBottomOffsetClass = "bottom-24" }: ChatbotProps) => {
   useEffect(() => {
     const container = messagesRef.current;
     if (container) {
-      container.scrollTop = container.scrollHeight;
+      const fromBottom = preserveScrollRef.current;
+      preserveScrollRef.current = null;
+      container.scrollTop = fromBottom === null ? container.scrollHeight : container.scrollHeight - fromBottom;
     }
   }, [messages]);
 
@@ -192,6 +222,16 @@ const Chatbot = ({ mobileBottomOffsetClass = "bottom-24" }: ChatbotProps) => {
           ref={messagesRef}
           className="flex-1 p-3 flex flex-col gap-2 overflow-y-scroll scrollbar-thin scrollbar-thumb-gray-300 dark:scrollbar-thumb-gray-600"
         >
+          {messagesLoaded && historyCursor && (
+            <button
+              onClick={handleLoadOlder}
+              disabled={loadingOlder}
+              className="self-center text-xs font-medium text-blue-500 hover:text-blue-600 disabled:opacity-50"
+            >
+              {loadingOlder ? "Loading..." : "Load earlier messages"}
+            </button>
+          )}
+
           {messagesLoaded ? (
             messages.map((msg, idx) => (
               <div
@@ -133,10 +133,14 @@ const normalizeAcceptedAnswers = (question: AdminQuizQuestionDraft) => {
   return [trimmed];
 };
 
-const serializeAcceptedAnswers = (answers: string[]) =>
-  JSON.stringify({
+const serializeAcceptedAnswers = (answers: string[], current: string) => {
+  const trimmed = current.trim();
+  const existing = trimmed.startsWith("{") ? safeJsonParse<Record<string, unknown>>(trimmed, {}) : {};
+  return JSON.stringify({
+    ...existing,
     accepted: answers.map((answer) => answer.trim()),
   });
+};
 
 const mediaAcceptForKind = (kind: LessonMediaKind) => {
   if (kind === "video") {
@@ -328,7 +332,7 @@ export const AdminQuestionEditor = ({
                 next[index] = event.target.value;
                 onChange({
                   ...question,
-                  correct_answer: serializeAcceptedAnswers(next),
+                  correct_answer: serializeAcceptedAnswers(next, question.correct_answer),
                 });
               }}
             />
@@ -342,7 +346,7 @@ export const AdminQuestionEditor = ({
                 const next = acceptedAnswers.filter((_, answerIndex) => answerIndex !== index);
                 onChange({
                   ...question,
-                  correct_answer: serializeAcceptedAnswers(next),
+                  correct_answer: serializeAcceptedAnswers(next, question.correct_answer),
                 });
               }}
             >
@@ -385,7 +389,7 @@ export const AdminQuestionEditor = ({
           onClick={() =>
             onChange({
               ...question,
-              correct_answer: serializeAcceptedAnswers([...acceptedAnswers, ""]),
+              correct_answer: serializeAcceptedAnswers([...acceptedAnswers, ""], question.correct_answer),
             })
           }
         >
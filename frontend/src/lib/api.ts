@@ -15,6 +15,7 @@ import type {
   Lesson,
   LessonMediaStartResponse,
   LessonMediaStatusResponse,
+  MediaJobProgress,
   LessonHubResponse,
   LessonHeartsStatus,
   LessonProgressDetail,
@@ -68,8 +69,15 @@ export type ChatbotMessageDTO = {
   role: string;
   message: string;
   timestamp: string;
+  id?: string;
 }
 
+export type ChatHistoryPageResponse = {
+  items: ChatbotMessageDTO[];
+  hasMore: boolean;
+  nextCursor?: string | null;
+};
+
 export type FeedResponse = {
   items: Content[];
   hasMore: boolean;
@@ -180,6 +188,7 @@ export type ContentMediaStatusResponse = {
   hlsUrl?: string | null;
   thumbnailUrl?: string | null;
   errorMessage?: string | null;
+  progress?: MediaJobProgress | null;
 };
 
 export type ContentComment = {
@@ -417,8 +426,14 @@ export const searchContent = (query: string, filter?: string | null) =>
 export const sendChatMessage = (message: string) =>
   apiPost<ChatResponse>(`/chat`, message);
 
-export const getChatHistory = () =>
-  apiGet<ChatbotMessageDTO[]>(`/users/me/chat`);
+export const getChatHistoryPage = (cursor?: string | null) => {
+  const params = new URLSearchParams();
+  if (cursor) {
+    params.set("cursor", cursor);
+  }
+  const query = params.toString();
+  return apiGet<ChatHistoryPageResponse>(`/users/me/chat/page${query ? `?${query}` : ""}`);
+};
 
 export const startNewChat = () =>
   apiDelete<void>(`/users/me/chat`);
@@ -76,6 +76,8 @@ export interface Content {
   stream_url?: string | null;
   stream_type?: 'hls' | 'file' | 'image';
   thumbnail_url: string | null;
+  thumbnail_srcset?: string | null;
+  media_srcset?: string | null;
   category_id: string | null;
   status: ContentStatus;
   learning_objective: string | null;
@@ -459,6 +461,18 @@ export interface LessonMediaStartResponse {
   pollUrl: string;
 }
 
+export interface MediaJobProgress {
+  stage: "queued" | "downloading" | "encoding" | "uploading" | "finalizing" | "finished";
+  percent: number;
+  downloadPercent: number;
+  encodedMs: number;
+  durationMs: number;
+  encodeSpeed: number;
+  segmentsUploaded: number;
+  segmentsTotal: number;
+  updatedAt: string;
+}
+
 export interface LessonMediaStatusResponse {
   assetId: string;
   status: "processing" | "ready" | "failed";
@@ -466,6 +480,7 @@ export interface LessonMediaStatusResponse {
   playbackUrl?: string | null;
   thumbnailUrl?: string | null;
   errorMessage?: string | null;
+  progress?: MediaJobProgress | null;
 }
 
 export interface AdminLessonWizardState {
@@ -0,0 +1,95 @@
+package com.rotiprata.api.lesson.utils.quiz;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Grading from the raw question row, parsed on every grade, against grading through the answer key
+ * compiled once, for each grader type.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="LessonQuizGraderBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LessonQuizGraderBenchmark {
+
+    @Param({"short_text", "multiple_choice", "true_false", "match_pairs"})
+    public String type;
+
+    private LessonQuizQuestionGrader grader;
+    private Map<String, Object> question;
+    private Map<String, Object> response;
+    private LessonQuizAnswerKey key;
+
+    @Setup
+    public void setUp() {
+        switch (type) {
+            case "short_text" -> {
+                grader = new ShortTextQuestionGrader();
+                question = Map.of("correct_answer", "{\"accepted\":[\"no cap\",\"for real\",\"deadass\",\"on god\"]}");
+                response = Map.of("text", "  For   Real ");
+            }
+            case "multiple_choice" -> {
+                grader = new MultipleChoiceQuestionGrader();
+                question = Map.of(
+                    "correct_answer", "C",
+                    "options", Map.of("choices", Map.of("A", "Cringe", "B", "Mid", "C", "Bussin", "D", "Sus"))
+                );
+                response = Map.of("choiceId", "c");
+            }
+            case "true_false" -> {
+                grader = new TrueFalseQuestionGrader();
+                question = Map.of("correct_answer", "true");
+                response = Map.of("value", "TRUE");
+            }
+            case "match_pairs" -> {
+                grader = new MatchPairsQuestionGrader();
+                question = Map.of(
+                    "correct_answer", "{\"l1\":\"r1\",\"l2\":\"r2\",\"l3\":\"r3\"}",
+                    "options", Map.of(
+                        "left", List.of(side("l1"), side("l2"), side("l3")),
+                        "right", List.of(side("r1"), side("r2"), side("r3"))
+                    )
+                );
+                response = Map.of("pairs", Map.of("l1", "r1", "l2", "r2", "l3", "r3"));
+            }
+            default -> throw new IllegalStateException("Unknown grader type " + type);
+        }
+        key = grader.compile(question);
+        if (!key.grade(response).correct()) {
+            throw new IllegalStateException("Benchmark answer for " + type + " should be graded correct");
+        }
+    }
+
+    @Benchmark
+    public LessonQuizGradeResult gradeRaw() {
+        return grader.grade(question, response);
+    }
+
+    @Benchmark
+    public LessonQuizGradeResult gradeCompiled() {
+        return key.grade(response);
+    }
+
+    private static Map<String, Object> side(String id) {
+        return Map.of("id", id, "text", "item " + id);
+    }
+}
@@ -0,0 +1,144 @@
+package com.rotiprata.media.encoding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rotiprata.config.MediaProcessingProperties;
+import com.rotiprata.config.MediaProcessingProperties.EncodingProfile;
+import com.rotiprata.config.MediaProcessingProperties.SegmentFormat;
+import com.rotiprata.media.process.MediaProcessMetrics;
+import com.rotiprata.media.process.MediaProcessRequest;
+import com.rotiprata.media.process.MediaProcessRunner;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encode time against HLS output size for each encoding profile and segment container (MPEG-TS vs
+ * CMAF fMP4) on the same source clip.
+ *
+ * <p>The score is the wall time of one full encode of every rendition. The output size is fixed for
+ * a given clip, profile and container, so it is printed once per trial as bytes and KB per minute of
+ * video; comparing the ts and fmp4 lines shows the container overhead per minute.
+ * Needs ffmpeg and ffprobe on the path, or {@code -Dffmpeg=} and {@code -Dffprobe=}:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec \
+ *   -Djmh.args="EncodingProfileBenchmark -p clip=/path/to/clip.mp4 -p profile=abr,capped-crf,efficient -p segments=ts,fmp4"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class EncodingProfileBenchmark {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Param({""})
+    public String clip;
+
+    @Param({"abr", "capped-crf", "efficient"})
+    public String profile;
+
+    @Param({"ts", "fmp4"})
+    public String segments;
+
+    private MediaProcessingProperties properties;
+    private MediaProcessRunner runner;
+    private HlsEncodingCommandBuilder builder;
+    private EncodingProfile encodingProfile;
+    private SegmentFormat segmentFormat;
+    private MediaProbe probe;
+    private Path input;
+    private long outputBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        if (clip.isBlank()) {
+            throw new IllegalStateException("Pass a source video with -p clip=/path/to/clip.mp4");
+        }
+        properties = new MediaProcessingProperties();
+        properties.setFfmpegPath(System.getProperty("ffmpeg", "ffmpeg"));
+        properties.setFfprobePath(System.getProperty("ffprobe", "ffprobe"));
+        properties.getProcess().setTimeoutSeconds(0);
+        encodingProfile = properties.getEncoding().getProfiles().get(profile);
+        if (encodingProfile == null) {
+            throw new IllegalStateException("Unknown encoding profile " + profile);
+        }
+        segmentFormat = SegmentFormat.valueOf(segments.toUpperCase(Locale.ROOT));
+        runner = new MediaProcessRunner(properties, new MediaProcessMetrics());
+        builder = new HlsEncodingCommandBuilder(properties);
+        input = Path.of(clip);
+        probe = MediaProbe.fromFfprobeJson(OBJECT_MAPPER.readTree(
+            runner.run(MediaProcessRequest.of(MediaProbe.ffprobeCommand(properties.getFfprobePath(), input), "ffprobe")
+                .withOutputLimitBytes(1024 * 1024)).output()
+        ));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        runner.shutdown();
+        double minutes = Math.max(probe.durationSeconds(), 1) / 60.0;
+        System.out.printf(
+            Locale.ROOT,
+            "%n# output %s profile=%s segments=%s bytes=%d kb_per_min=%.0f%n",
+            input.getFileName(),
+            profile,
+            segments,
+            outputBytes,
+            outputBytes / 1024.0 / minutes
+        );
+    }
+
+    @Benchmark
+    public long encode() throws IOException, InterruptedException {
+        Path outputDir = Files.createTempDirectory("hls-bench-");
+        try {
+            int hlsTime = builder.segmentDurationSeconds(probe.durationSeconds());
+            for (HlsRendition rendition : builder.renditions(encodingProfile, probe)) {
+                Path renditionDir = outputDir.resolve(rendition.directoryName());
+                Files.createDirectories(renditionDir);
+                runner.run(MediaProcessRequest.of(
+                    builder.buildCommand(encodingProfile, probe, rendition, input, renditionDir, hlsTime, segmentFormat),
+                    "ffmpeg"
+                ));
+            }
+            outputBytes = directorySize(outputDir);
+            return outputBytes;
+        } finally {
+            deleteDirectory(outputDir);
+        }
+    }
+
+    private static long directorySize(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+        }
+    }
+
+    private static void deleteDirectory(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            List<Path> paths = files.sorted(Comparator.reverseOrder()).toList();
+            for (Path path : paths) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -20,14 +20,18 @@ import com.rotiprata.api.content.service.ContentService;
 import com.rotiprata.api.feed.service.ContentLessonLinkService;
 import com.rotiprata.api.user.domain.Profile;
 import com.rotiprata.api.user.domain.UserRole;
+import com.rotiprata.api.user.service.LeaderboardEngine;
 import com.rotiprata.api.user.service.UserService;
+import com.rotiprata.infrastructure.supabase.PostgrestQuery;
 import com.rotiprata.security.authorization.AppRole;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminClient;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminRestClient;
+import com.rotiprata.infrastructure.supabase.SupabaseBatchFetcher;
 import java.util.ArrayList;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -42,7 +46,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
-import org.springframework.web.util.UriComponentsBuilder;
 
 /**
  * Implements the admin service workflows and persistence coordination used by the API layer.
@@ -73,6 +76,8 @@ public class AdminServiceImpl implements AdminService {
     private final ContentLessonLinkService contentLessonLinkService;
     private final UserService userService;
     private final AdminLoggingService adminLoggingService;
+    private final SupabaseBatchFetcher supabaseBatchFetcher;
+    private final LeaderboardEngine leaderboardEngine;
 
     @Autowired
     public AdminServiceImpl(
@@ -82,7 +87,9 @@ public class AdminServiceImpl implements AdminService {
         ContentService contentService,
         ContentLessonLinkService contentLessonLinkService,
         UserService userService,
-        AdminLoggingService adminLoggingService
+        AdminLoggingService adminLoggingService,
+        SupabaseBatchFetcher supabaseBatchFetcher,
+        LeaderboardEngine leaderboardEngine
     ) {
         this.supabaseAdminClient = supabaseAdminClient;
         this.supabaseAdminRestClient = supabaseAdminRestClient;
@@ -91,6 +98,8 @@ public class AdminServiceImpl implements AdminService {
         this.contentLessonLinkService = contentLessonLinkService;
         this.userService = userService;
         this.adminLoggingService = adminLoggingService;
+        this.supabaseBatchFetcher = supabaseBatchFetcher;
+        this.leaderboardEngine = leaderboardEngine;
     }
 
     /**
@@ -574,6 +583,7 @@ public class AdminServiceImpl implements AdminService {
         insert.put("assigned_at", OffsetDateTime.now());
         insert.put("assigned_by", adminUserId);
         supabaseAdminRestClient.postList("user_roles", insert, USER_ROLE_LIST);
+        leaderboardEngine.markChanged(targetUserId);
 
         adminLoggingService.logAdminAction(adminUserId, AdminAction.UPDATE_USER_ROLE, targetUserId, AdminLoggingService.TargetType.USER, "Updated user role to " + role.name());
 
@@ -692,15 +702,19 @@ public class AdminServiceImpl implements AdminService {
             if (!profiles.isEmpty()) {
                 Profile profile = profiles.get(0);
                 int currentXp = profile.getReputationPoints() == null ? 0 : profile.getReputationPoints();
+                int nextXp = Math.max(0, currentXp - xpToRemove);
                 supabaseAdminRestClient.patchList(
                     "profiles",
                     buildQuery(Map.of("user_id", "eq." + targetUserId)),
                     Map.of(
-                        "reputation_points", Math.max(0, currentXp - xpToRemove),
+                        "reputation_points", nextXp,
                         "updated_at", OffsetDateTime.now()
                     ),
                     PROFILE_LIST
                 );
+                leaderboardEngine.recordXp(targetUserId, nextXp);
+                // The removed rewards also leave the weekly and monthly boards.
+                leaderboardEngine.markChanged(targetUserId);
             }
         }
 
@@ -746,15 +760,17 @@ public class AdminServiceImpl implements AdminService {
      * Fetches the profiles for users.
      */
     private Map<UUID, Profile> fetchProfilesForUsers(Set<UUID> userIds) {
-        Map<String, String> params = new LinkedHashMap<>();
-        params.put(
-            "select",
+        PostgrestQuery query = PostgrestQuery.select(
             "user_id,display_name,avatar_url,reputation_points,current_streak,longest_streak,last_activity_date,total_hours_learned"
         );
-        if (userIds != null && !userIds.isEmpty()) {
-            params.put("user_id", "in.(" + joinUuids(userIds) + ")");
-        }
-        List<Profile> profiles = supabaseAdminRestClient.getList("profiles", buildQuery(params), PROFILE_LIST);
+        List<Profile> profiles = userIds == null || userIds.isEmpty()
+            ? supabaseAdminRestClient.getList("profiles", query.build(), PROFILE_LIST)
+            : supabaseBatchFetcher.fetchIn(
+                query,
+                "user_id",
+                userIds,
+                chunkQuery -> supabaseAdminRestClient.getList("profiles", chunkQuery, PROFILE_LIST)
+            );
         Map<UUID, Profile> byUserId = new LinkedHashMap<>();
         for (Profile profile : profiles) {
             if (profile != null && profile.getUserId() != null) {
@@ -775,12 +791,15 @@ public class AdminServiceImpl implements AdminService {
      * Fetches the roles for users.
      */
     private Map<UUID, List<AppRole>> fetchRolesForUsers(Set<UUID> userIds) {
-        Map<String, String> params = new LinkedHashMap<>();
-        params.put("select", "user_id,role");
-        if (userIds != null && !userIds.isEmpty()) {
-            params.put("user_id", "in.(" + joinUuids(userIds) + ")");
-        }
-        List<UserRole> roles = supabaseAdminRestClient.getList("user_roles", buildQuery(params), USER_ROLE_LIST);
+        PostgrestQuery query = PostgrestQuery.select("user_id,role");
+        List<UserRole> roles = userIds == null || userIds.isEmpty()
+            ? supabaseAdminRestClient.getList("user_roles", query.build(), USER_ROLE_LIST)
+            : supabaseBatchFetcher.fetchIn(
+                query,
+                "user_id",
+                userIds,
+                chunkQuery -> supabaseAdminRestClient.getList("user_roles", chunkQuery, USER_ROLE_LIST)
+            );
         Map<UUID, List<AppRole>> byUserId = new LinkedHashMap<>();
         for (UserRole userRole : roles) {
             if (userRole == null || userRole.getUserId() == null || userRole.getRole() == null) {
@@ -954,13 +973,11 @@ public class AdminServiceImpl implements AdminService {
         if (contentIds == null || contentIds.isEmpty()) {
             return Map.of();
         }
-        List<Map<String, Object>> rows = supabaseAdminRestClient.getList(
-            "content",
-            buildQuery(Map.of(
-                "select", "id,title",
-                "id", "in.(" + joinUuids(contentIds) + ")"
-            )),
-            MAP_LIST
+        List<Map<String, Object>> rows = supabaseBatchFetcher.fetchIn(
+            PostgrestQuery.select("id,title"),
+            "id",
+            contentIds,
+            query -> supabaseAdminRestClient.getList("content", query, MAP_LIST)
         );
         Map<UUID, String> byId = new LinkedHashMap<>();
         for (Map<String, Object> row : rows) {
@@ -1027,13 +1044,11 @@ public class AdminServiceImpl implements AdminService {
         if (lessonIds == null || lessonIds.isEmpty()) {
             return Map.of();
         }
-        List<Map<String, Object>> rows = supabaseAdminRestClient.getList(
-            "lessons",
-            buildQuery(Map.of(
-                "select", "id,title",
-                "id", "in.(" + joinUuids(lessonIds) + ")"
-            )),
-            MAP_LIST
+        List<Map<String, Object>> rows = supabaseBatchFetcher.fetchIn(
+            PostgrestQuery.select("id,title"),
+            "id",
+            lessonIds,
+            query -> supabaseAdminRestClient.getList("lessons", query, MAP_LIST)
         );
         Map<UUID, String> byId = new LinkedHashMap<>();
         for (Map<String, Object> row : rows) {
@@ -1143,15 +1158,19 @@ public class AdminServiceImpl implements AdminService {
      * Fetches the user chat history.
      */
     private List<ChatbotMessageDTO> fetchUserChatHistory(UUID userId) {
-        return supabaseAdminRestClient.getList(
+        // Newest 100 messages, returned oldest first; ascending order with a limit kept the oldest instead.
+        List<ChatbotMessageDTO> newestFirst = supabaseAdminRestClient.getList(
             "user_chatbot_history",
             buildQuery(Map.of(
                 "user_id", "eq." + userId,
-                "order", "timestamp.asc",
+                "order", "timestamp.desc",
                 "limit", "100"
             )),
             CHAT_HISTORY_LIST
         );
+        List<ChatbotMessageDTO> messages = new ArrayList<>(newestFirst);
+        Collections.reverse(messages);
+        return messages;
     }
 
     /**
@@ -1425,13 +1444,11 @@ public class AdminServiceImpl implements AdminService {
             return Map.of();
         }
 
-        List<Map<String, Object>> profiles = supabaseAdminRestClient.getList(
-            "profiles",
-            buildQuery(Map.of(
-                "select", "user_id,display_name,avatar_url",
-                "user_id", "in.(" + joinUuids(userIds) + ")"
-            )),
-            MAP_LIST
+        List<Map<String, Object>> profiles = supabaseBatchFetcher.fetchIn(
+            PostgrestQuery.select("user_id,display_name,avatar_url"),
+            "user_id",
+            userIds,
+            query -> supabaseAdminRestClient.getList("profiles", query, MAP_LIST)
         );
 
         Map<UUID, Map<String, Object>> byUserId = new LinkedHashMap<>();
@@ -1577,10 +1594,7 @@ public class AdminServiceImpl implements AdminService {
      * Builds the query.
      */
     private String buildQuery(Map<String, String> params) {
-        UriComponentsBuilder builder = UriComponentsBuilder.newInstance();
-        params.forEach(builder::queryParam);
-        String uri = builder.build().encode().toUriString();
-        return uri.startsWith("?") ? uri.substring(1) : uri;
+        return PostgrestQuery.of(params);
     }
 
     /**
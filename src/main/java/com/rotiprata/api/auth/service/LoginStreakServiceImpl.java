@@ -2,6 +2,7 @@ package com.rotiprata.api.auth.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.rotiprata.api.auth.response.LoginStreakTouchResponse;
+import com.rotiprata.infrastructure.supabase.PostgrestQuery;
 import com.rotiprata.infrastructure.supabase.SupabaseRestClient;
 import java.time.DateTimeException;
 import java.time.LocalDate;
@@ -16,7 +17,6 @@ import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.server.ResponseStatusException;
-import org.springframework.web.util.UriComponentsBuilder;
 
 /**
  * Implements the login streak service application workflow.
@@ -236,10 +236,7 @@ public class LoginStreakServiceImpl implements LoginStreakService {
      * Builds the query.
      */
     private String buildQuery(Map<String, String> params) {
-        UriComponentsBuilder builder = UriComponentsBuilder.newInstance();
-        params.forEach(builder::queryParam);
-        String uri = builder.build().encode().toUriString();
-        return uri.startsWith("?") ? uri.substring(1) : uri;
+        return PostgrestQuery.of(params);
     }
 
     /**
@@ -3,6 +3,7 @@ package com.rotiprata.api.browsing.controller;
 import java.util.List;
 
 import com.rotiprata.api.browsing.dto.ContentSearchDTO;
+import com.rotiprata.api.browsing.dto.SearchPageResponse;
 import com.rotiprata.api.browsing.service.BrowsingService;
 import io.swagger.v3.oas.annotations.Hidden;
 
@@ -35,6 +36,18 @@ public class BrowsingController {
         return browsingService.search(query, filter, accessToken);
     }
 
+    // Returns one page of ranked search results; pass nextCursor back to continue
+    @GetMapping("/search-results/page")
+    public SearchPageResponse searchResultsPage(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal Jwt jwt
+    ) {
+        return browsingService.searchPage(query, filter, cursor, limit, jwt.getTokenValue());
+    }
+
     @Hidden
     @Deprecated
     @GetMapping("/search")
@@ -0,0 +1,9 @@
+package com.rotiprata.api.browsing.dto;
+
+import java.util.List;
+
+public record SearchPageResponse(
+    List<ContentSearchDTO> items,
+    boolean hasMore,
+    String nextCursor
+) {}
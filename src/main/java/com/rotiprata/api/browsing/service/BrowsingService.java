@@ -2,6 +2,7 @@ package com.rotiprata.api.browsing.service;
 
 import com.rotiprata.api.browsing.dto.ContentSearchDTO;
 import com.rotiprata.api.browsing.dto.GetHistoryDTO;
+import com.rotiprata.api.browsing.dto.SearchPageResponse;
 import java.time.Instant;
 import java.util.List;
 
@@ -15,7 +16,7 @@ public interface BrowsingService {
      * Handles search.
      */
     /**
-     * Searches for content and lessons based on a query and optional filter.
+     * Searches for content and lessons based on a query and optional filter, best match first.
      * If filter is "video", only video content is returned.
      * If filter is "lesson", only lessons are returned.
      * If filter is empty or null, both videos and lessons are returned.
@@ -28,6 +29,19 @@ public interface BrowsingService {
      */
     List<ContentSearchDTO> search(String query, String filter, String accessToken);
 
+    /**
+     * Returns one page of the same ranked results as {@link #search}, continuing after the given cursor.
+     *
+     * @param query       the search query string
+     * @param filter      optional filter: "video" or "lesson"
+     * @param cursor      opaque cursor from the previous page, or null for the first page
+     * @param limit       page size; defaults to 20 and is capped at 50
+     * @param accessToken user's access token for authorization
+     * @return the page of results, whether more remain and the cursor for the next page
+     * @throws org.springframework.web.server.ResponseStatusException if the cursor is malformed
+     */
+    SearchPageResponse searchPage(String query, String filter, String cursor, Integer limit, String accessToken);
+
     /**
      * Handles search.
      */
@@ -4,16 +4,32 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.rotiprata.api.browsing.dto.ContentSearchDTO;
 import com.rotiprata.api.browsing.dto.GetHistoryDTO;
 import com.rotiprata.api.browsing.dto.SaveHistoryDTO;
+import com.rotiprata.api.browsing.dto.SearchPageResponse;
+import com.rotiprata.api.browsing.service.SearchRanking.Candidate;
+import com.rotiprata.api.browsing.service.SearchRanking.Ranked;
+import com.rotiprata.api.content.dto.ContentSearchHit;
 import com.rotiprata.api.content.service.ContentService;
+import com.rotiprata.api.lesson.dto.LessonCardResponse;
 import com.rotiprata.api.lesson.service.LessonService;
 import com.rotiprata.infrastructure.supabase.SupabaseRestClient;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 @Service
 public class BrowsingServiceImpl implements BrowsingService {
@@ -21,6 +37,7 @@ public class BrowsingServiceImpl implements BrowsingService {
     private final ContentService contentService;
     private final LessonService lessonService;
     private final SupabaseRestClient supabaseRestClient;
+    private final Executor searchExecutor;
 
     // Constant
     private static final String TABLE_HISTORY = "search_history";
@@ -28,6 +45,10 @@ public class BrowsingServiceImpl implements BrowsingService {
     private static final String TYPE_VIDEO = "video";
 
     private static final int SNIPPET_LENGTH = 100;
+    private static final int DEFAULT_PAGE_LIMIT = 20;
+    private static final int MAX_PAGE_LIMIT = 50;
+    private static final long VIDEO_LIKE_WEIGHT = 3;
+    private static final long LESSON_COMPLETION_WEIGHT = 5;
 
     /**
      * Constructor for dependency injection.
@@ -35,32 +56,105 @@ public class BrowsingServiceImpl implements BrowsingService {
     public BrowsingServiceImpl(
             ContentService contentService,
             LessonService lessonService,
-            SupabaseRestClient supabaseRestClient
+            SupabaseRestClient supabaseRestClient,
+            @Qualifier("searchTaskExecutor") Executor searchExecutor
     ) {
         this.contentService = contentService;
         this.lessonService = lessonService;
         this.supabaseRestClient = supabaseRestClient;
+        this.searchExecutor = searchExecutor;
     }
 
-    /** Performs a search across content and lessons based on query and optional filter */
+    /** Performs a search across content and lessons based on query and optional filter, best match first */
     @Override
     public List<ContentSearchDTO> search(String query, String filter, String accessToken) {
-        List<ContentSearchDTO> results = new ArrayList<>();
-        String normalizedFilter = filter == null ? "" : filter.trim().toLowerCase();
+        return rankedSearch(query, filter, accessToken).stream()
+                .map(ranked -> toSearchResult(ranked.candidate()))
+                .toList();
+    }
+
+    /** Returns one page of ranked search results, continuing after the given cursor */
+    @Override
+    public SearchPageResponse searchPage(String query, String filter, String cursor, Integer limit, String accessToken) {
+        SearchCursor after = decodeCursor(cursor);
+        int pageSize = normalizePageLimit(limit);
+        List<Ranked> ranked = rankedSearch(query, filter, accessToken);
 
-        switch (normalizedFilter) {
-        case "" -> {
-            results.addAll(contentService.getFilteredContent(query, null, accessToken));
-            results.addAll(mapLessonsToSearchResults(lessonService.searchLessons(query, accessToken)));
+        int start = 0;
+        if (after != null) {
+            Ranked anchor = new Ranked(new Candidate(after.type(), after.id(), null, null, List.of(), 0), after.score());
+            while (start < ranked.size() && SearchRanking.BEST_FIRST.compare(ranked.get(start), anchor) <= 0) {
+                start++;
+            }
         }
-        case TYPE_VIDEO -> results.addAll(contentService.getFilteredContent(query, TYPE_VIDEO, accessToken));
-        case TYPE_LESSON -> results.addAll(mapLessonsToSearchResults(lessonService.searchLessons(query, accessToken)));
-        default -> {
+        int end = Math.min(ranked.size(), start + pageSize);
+        List<ContentSearchDTO> items = ranked.subList(start, end).stream()
+                .map(item -> toSearchResult(item.candidate()))
+                .toList();
+        boolean hasMore = end < ranked.size();
+        String nextCursor = hasMore ? encodeCursor(ranked.get(end - 1)) : null;
+        return new SearchPageResponse(items, hasMore, nextCursor);
+    }
+
+    /**
+     * Fetches matches from every source the filter allows and merges them into one ranked list. The
+     * video lookups run on the search executor while the lesson lookup runs on the calling thread, so
+     * a search takes as long as its slowest source rather than the sum of all of them.
+     */
+    private List<Ranked> rankedSearch(String query, String filter, String accessToken) {
+        String normalizedFilter = filter == null ? "" : filter.trim().toLowerCase();
+        boolean includeVideos = normalizedFilter.isEmpty() || TYPE_VIDEO.equals(normalizedFilter);
+        boolean includeLessons = normalizedFilter.isEmpty() || TYPE_LESSON.equals(normalizedFilter);
+        if (!includeVideos && !includeLessons) {
             // Unknown filter: return empty results
+            return List.of();
         }
+
+        boolean searchVideos = includeVideos && query != null && !query.isBlank();
+        CompletableFuture<List<ContentSearchHit>> byText = searchVideos
+                ? CompletableFuture.supplyAsync(() -> contentService.searchVideosByText(query, accessToken), searchExecutor)
+                : CompletableFuture.completedFuture(List.of());
+        CompletableFuture<List<ContentSearchHit>> byTag = searchVideos
+                ? CompletableFuture.supplyAsync(() -> contentService.searchVideosByTag(query, accessToken), searchExecutor)
+                : CompletableFuture.completedFuture(List.of());
+
+        List<Candidate> candidates = new ArrayList<>();
+        try {
+            if (includeLessons) {
+                boolean indexMatched = query != null && !query.isBlank();
+                for (LessonCardResponse lesson : lessonService.searchLessons(query, accessToken)) {
+                    candidates.add(toCandidate(lesson, indexMatched));
+                }
+            }
+            candidates.addAll(mergeVideoHits(await(byText), await(byTag)));
+        } finally {
+            byText.cancel(false);
+            byTag.cancel(false);
+        }
+        return new SearchRanking(query).rank(candidates);
     }
 
-        return results;
+    /** Dedupes video hits by id, keeping every tag either source matched */
+    private List<Candidate> mergeVideoHits(List<ContentSearchHit> textHits, List<ContentSearchHit> tagHits) {
+        Map<String, ContentSearchHit> hitsById = new LinkedHashMap<>();
+        Map<String, Set<String>> tagsById = new LinkedHashMap<>();
+        for (List<ContentSearchHit> hits : List.of(textHits, tagHits)) {
+            for (ContentSearchHit hit : hits) {
+                if (hit.id() == null) continue;
+                hitsById.putIfAbsent(hit.id(), hit);
+                tagsById.computeIfAbsent(hit.id(), ignored -> new LinkedHashSet<>()).addAll(hit.tags());
+            }
+        }
+        List<Candidate> candidates = new ArrayList<>();
+        hitsById.forEach((id, hit) -> candidates.add(new Candidate(
+                TYPE_VIDEO,
+                id,
+                hit.title(),
+                hit.description(),
+                List.copyOf(tagsById.get(id)),
+                hit.viewCount() + VIDEO_LIKE_WEIGHT * hit.likesCount()
+        )));
+        return candidates;
     }
 
     /** Upsert a user's search history entry */
@@ -127,23 +221,73 @@ public class BrowsingServiceImpl implements BrowsingService {
 
     // ================= INTERNAL HELPERS =================
 
-    /** Maps lesson objects to search result DTOs */
-    private List<ContentSearchDTO> mapLessonsToSearchResults(List<Map<String, Object>> lessons) {
-        List<ContentSearchDTO> results = new ArrayList<>();
-        for (Map<String, Object> lesson : lessons) {
-            String id = toStringValue(lesson.get("id"));
-            String title = toStringValue(lesson.get("title"));
-            String description = toStringValue(lesson.get("description"));
-
-            results.add(new ContentSearchDTO(
-                    id,
-                    "lesson",
-                    title,
-                    description,
-                    buildSnippet(description)
-            ));
+    /** Maps a lesson card to a ranking candidate, flagged when the lesson index matched it to the query */
+    private Candidate toCandidate(LessonCardResponse lesson, boolean indexMatched) {
+        int completions = lesson.completionCount() == null ? 0 : lesson.completionCount();
+        return new Candidate(
+                TYPE_LESSON,
+                toStringValue(lesson.id()),
+                lesson.title(),
+                lesson.description(),
+                lesson.summary(),
+                List.of(),
+                LESSON_COMPLETION_WEIGHT * completions,
+                indexMatched
+        );
+    }
+
+    /** Maps a ranking candidate to a search result DTO */
+    private ContentSearchDTO toSearchResult(Candidate candidate) {
+        return new ContentSearchDTO(
+                candidate.id(),
+                candidate.type(),
+                candidate.title(),
+                candidate.body(),
+                buildSnippet(candidate.body())
+        );
+    }
+
+    /** Waits for a source lookup, rethrowing its failure unwrapped */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /** Clamps the requested page size */
+    private int normalizePageLimit(Integer limit) {
+        if (limit == null || limit < 1) {
+            return DEFAULT_PAGE_LIMIT;
+        }
+        return Math.min(MAX_PAGE_LIMIT, limit);
+    }
+
+    /** Encodes the position of the last result on a page */
+    private String encodeCursor(Ranked last) {
+        String payload = last.score() + "|" + last.candidate().type() + "|" + last.candidate().id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Decodes a page cursor, rejecting anything malformed */
+    private SearchCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\|", 3);
+            if (parts.length != 3 || parts[1].isBlank() || parts[2].isBlank()) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new SearchCursor(Double.parseDouble(parts[0]), parts[1], parts[2]);
+        } catch (RuntimeException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
         }
-        return results;
     }
 
     /** Builds a short snippet from the description */
@@ -158,4 +302,6 @@ public class BrowsingServiceImpl implements BrowsingService {
     private String toStringValue(Object value) {
         return value == null ? null : value.toString();
     }
+
+    private record SearchCursor(double score, String type, String id) {}
 }
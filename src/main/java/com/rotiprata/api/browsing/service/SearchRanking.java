@@ -0,0 +1,128 @@
+package com.rotiprata.api.browsing.service;
+
+import com.rotiprata.api.generalutils.SearchText;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Scores videos and lessons on one scale so results from different sources can be merged.
+ *
+ * <p>Each query term earns the weight of the best field it matches (title, then tags, then body),
+ * whole words beating prefixes, averaged over the query. A title containing the whole query earns a
+ * phrase bonus, and a damped popularity boost breaks ties between equally relevant results. Candidates
+ * a source index already matched against the query (typo or stemmed matches the exact-term scoring
+ * here cannot see) never score below a body match.
+ */
+final class SearchRanking {
+    private static final double TITLE_EXACT_WEIGHT = 3.0;
+    private static final double TITLE_PREFIX_WEIGHT = 2.0;
+    private static final double TAG_WEIGHT = 2.0;
+    private static final double BODY_WEIGHT = 1.0;
+    private static final double PHRASE_BONUS = 2.0;
+    private static final double POPULARITY_WEIGHT = 0.3;
+
+    static final Comparator<Ranked> BEST_FIRST = Comparator.comparingDouble(Ranked::score).reversed()
+        .thenComparing(ranked -> ranked.candidate().key());
+
+    private final List<String> terms;
+    private final String phrase;
+
+    SearchRanking(String query) {
+        this.terms = SearchText.analyze(query).stream().distinct().toList();
+        this.phrase = String.join(" ", terms);
+    }
+
+    /**
+     * Returns the candidates with their scores, best first.
+     */
+    List<Ranked> rank(Collection<Candidate> candidates) {
+        return candidates.stream()
+            .map(candidate -> new Ranked(candidate, score(candidate)))
+            .sorted(BEST_FIRST)
+            .toList();
+    }
+
+    /**
+     * Returns the relevance score of a single candidate.
+     */
+    double score(Candidate candidate) {
+        double relevance = 0;
+        if (!terms.isEmpty()) {
+            List<String> titleTerms = SearchText.analyze(candidate.title());
+            Set<String> tagTerms = new HashSet<>();
+            candidate.tags().forEach(tag -> tagTerms.addAll(SearchText.analyze(tag)));
+            List<String> bodyTerms = new ArrayList<>(SearchText.analyze(candidate.body()));
+            bodyTerms.addAll(SearchText.analyze(candidate.summary()));
+
+            double total = 0;
+            for (String term : terms) {
+                if (titleTerms.contains(term)) {
+                    total += TITLE_EXACT_WEIGHT;
+                } else if (matchesPrefix(titleTerms, term)) {
+                    total += TITLE_PREFIX_WEIGHT;
+                } else if (matchesPrefix(tagTerms, term)) {
+                    total += TAG_WEIGHT;
+                } else if (matchesPrefix(bodyTerms, term)) {
+                    total += BODY_WEIGHT;
+                }
+            }
+            relevance = total / terms.size();
+            if (candidate.indexMatched()) {
+                relevance = Math.max(relevance, BODY_WEIGHT);
+            }
+            if (terms.size() > 1 && String.join(" ", titleTerms).contains(phrase)) {
+                relevance += PHRASE_BONUS;
+            }
+        }
+        return relevance + POPULARITY_WEIGHT * Math.log1p(Math.max(0, candidate.popularity()));
+    }
+
+    private static boolean matchesPrefix(Collection<String> fieldTerms, String term) {
+        for (String fieldTerm : fieldTerms) {
+            if (fieldTerm.startsWith(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A search result from any source, reduced to the fields used for ranking. The summary is scored
+     * like the body but kept apart so the body can still be shown as the description.
+     */
+    record Candidate(
+        String type,
+        String id,
+        String title,
+        String body,
+        String summary,
+        List<String> tags,
+        long popularity,
+        boolean indexMatched
+    ) {
+
+        Candidate {
+            tags = tags == null ? List.of() : List.copyOf(tags);
+        }
+
+        Candidate(String type, String id, String title, String body, List<String> tags, long popularity) {
+            this(type, id, title, body, null, tags, popularity, false);
+        }
+
+        /**
+         * Returns a key that is unique across sources and orders ties deterministically.
+         */
+        String key() {
+            return type + ":" + id;
+        }
+    }
+
+    /**
+     * A candidate paired with its score.
+     */
+    record Ranked(Candidate candidate, double score) {}
+}
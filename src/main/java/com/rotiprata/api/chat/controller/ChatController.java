@@ -11,6 +11,8 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.rotiprata.api.chat.service.ChatService;
 import com.rotiprata.security.ChatRateLimiter;
@@ -41,10 +43,18 @@ public class ChatController {
         String userId = jwt.getSubject();
         chatRateLimiter.consumeOrThrow(userId);
         String accessToken = jwt.getTokenValue();
-        String answer = chatService.ask(accessToken, normalizedQuestion);
+        String answer = chatService.ask(accessToken, userId, normalizedQuestion);
         return Map.of("reply", answer);
     }
 
+    // Handles POST /chat/stream requests: same checks as /chat, but streams the reply as server-sent events
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter chatStream(@AuthenticationPrincipal Jwt jwt, @RequestBody String question) {
+        String normalizedQuestion = normalizeQuestion(question);
+        chatRateLimiter.consumeOrThrow(jwt.getSubject());
+        return chatService.streamAnswer(jwt.getTokenValue(), jwt.getSubject(), normalizedQuestion);
+    }
+
     // Normalizes and validates question length; throws 400 if invalid
     private String normalizeQuestion(String question) {
         String normalized = question.trim();
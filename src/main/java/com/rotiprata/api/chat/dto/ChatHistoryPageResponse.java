@@ -0,0 +1,9 @@
+package com.rotiprata.api.chat.dto;
+
+import java.util.List;
+
+public record ChatHistoryPageResponse(
+    List<ChatbotMessageDTO> items,
+    boolean hasMore,
+    String nextCursor
+) {}
@@ -1,5 +1,6 @@
 package com.rotiprata.api.chat.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -17,4 +18,11 @@ public class ChatbotMessageDTO {
     private String role;
     private String message;
     private Instant timestamp;
+    // Assigned by the database; left out of inserts and used as the history cursor tiebreak.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String id;
+
+    public ChatbotMessageDTO(String role, String message, Instant timestamp) {
+        this(role, message, timestamp, null);
+    }
 }
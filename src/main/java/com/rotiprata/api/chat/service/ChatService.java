@@ -1,9 +1,11 @@
 package com.rotiprata.api.chat.service;
 
+import com.rotiprata.api.chat.dto.ChatHistoryPageResponse;
 import com.rotiprata.api.chat.dto.ChatbotMessageDTO;
 import com.rotiprata.api.exception.ChatServiceException;
 
 import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Service interface for chat-related operations.
@@ -18,11 +20,25 @@ public interface ChatService {
      * Processes a user's question and returns the assistant's response.
      *
      * @param accessToken user's access token for authorization
+     * @param userId      the user ID, used to replay the conversation in progress
      * @param question    the question string
      * @return assistant's answer
      * @throws ChatServiceException if the request cannot be processed or an internal error occurs
      */
-    String ask(String accessToken, String question);
+    String ask(String accessToken, String userId, String question);
+
+    /**
+     * Processes a user's question and streams the assistant's response as server-sent events.
+     * Emits a {@code token} event per chunk of generated text, then a {@code done} event with the
+     * saved reply; {@code done.retracted} is true when output moderation rejected text already sent.
+     * Failures end the stream with an {@code error} event.
+     *
+     * @param accessToken user's access token for authorization
+     * @param userId      the user ID, used to replay the conversation in progress
+     * @param question    the question string
+     * @return the open event stream
+     */
+    SseEmitter streamAnswer(String accessToken, String userId, String question);
 
     /**
      * Handles message.
@@ -41,15 +57,28 @@ public interface ChatService {
      * Returns the message history.
      */
     /**
-     * Fetches the complete chat history for a given user.
+     * Fetches the most recent chat history for a given user; older messages are reached through
+     * {@link #getMessageHistoryPage}.
      *
      * @param accessToken user's access token for authorization
      * @param userId      the user ID
-     * @return list of messages in chronological order
+     * @return up to the 100 newest messages in chronological order
      * @throws ChatServiceException if fetching chat history fails
      */
     List<ChatbotMessageDTO> getMessageHistory(String accessToken, String userId);
 
+    /**
+     * Fetches one page of chat history, newest first.
+     *
+     * @param accessToken user's access token for authorization
+     * @param userId      the user ID
+     * @param cursor      the {@code nextCursor} of the previous page, or null for the newest page
+     * @param limit       the page size, 20 by default and at most 50
+     * @return the page and the cursor of the next, older page
+     * @throws ChatServiceException if fetching chat history fails
+     */
+    ChatHistoryPageResponse getMessageHistoryPage(String accessToken, String userId, String cursor, Integer limit);
+
     /**
      * Deletes the message history.
      */
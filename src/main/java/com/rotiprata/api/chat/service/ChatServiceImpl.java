@@ -1,17 +1,43 @@
 package com.rotiprata.api.chat.service;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.rotiprata.api.chat.dto.ChatHistoryPageResponse;
 import com.rotiprata.api.chat.dto.ChatbotMessageDTO;
+import com.rotiprata.api.generalutils.EmbeddingService;
+import com.rotiprata.api.lesson.dto.RelevantLessonContext;
 import com.rotiprata.api.lesson.service.LessonService;
 import com.rotiprata.api.exception.ChatServiceException;
+import com.rotiprata.config.ChatAnswerCacheProperties;
+import com.rotiprata.infrastructure.supabase.PostgrestQuery;
 import com.rotiprata.infrastructure.supabase.SupabaseRestClient;
 
 import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.openai.OpenAiChatModel;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -23,10 +49,16 @@ import com.fasterxml.jackson.core.type.TypeReference;
 @Service
 public class ChatServiceImpl implements ChatService {
 
+    private static final Logger log = LoggerFactory.getLogger(ChatServiceImpl.class);
+
     private final OpenAiChatModel openAiChatModel;
     private final LessonService lessonService;
     private final SupabaseRestClient supabaseRestClient;
     private final ModerationService moderationService;
+    private final EmbeddingService embeddingService;
+    private final SemanticAnswerCache answerCache;
+    private final Executor chatExecutor;
+    private final Executor chatStreamExecutor;
 
     // Constant
     private static final String USER_ROLE = "user";
@@ -34,6 +66,36 @@ public class ChatServiceImpl implements ChatService {
     private static final String CHAT_HISTORY_TABLE = "user_chatbot_history";
     private static final String FLAGGED_USER_MESSAGE = "Your question contains inappropriate content and cannot be processed.";
     private static final String FLAGGED_ASSISTANT_MESSAGE = "The assistant's response was flagged for inappropriate content.";
+    private static final String FAILED_MESSAGE = "Failed to process chat request";
+    private static final String BUSY_MESSAGE = "The assistant is busy right now. Please try again shortly.";
+    private static final long STREAM_TIMEOUT_MILLIS = 2 * 60 * 1000L;
+    // Sentence chunks shorter than this are merged before moderation to bound moderation calls.
+    private static final int MODERATION_CHUNK_CHARS = 200;
+    private static final int ANSWER_CACHE_LOG_INTERVAL = 100;
+    // Messages of the ongoing conversation replayed into the prompt: the last three question/answer turns.
+    private static final int CONVERSATION_WINDOW_MESSAGES = 6;
+    private static final Duration CONVERSATION_IDLE_TIMEOUT = Duration.ofMinutes(30);
+    private static final int DEFAULT_HISTORY_PAGE_SIZE = 20;
+    private static final int MAX_HISTORY_PAGE_SIZE = 50;
+    private static final int RECENT_HISTORY_LIMIT = 100;
+    private static final String PROMPT_TEMPLATE = """
+        You are a helpful learning assistant.
+
+        Answer the question using the provided context.
+        Explain in your own words in a simple and friendly way, suitable for a learner.
+        If the answer is not explicitly in the context, you may infer the most likely answer based on clues in the context.
+        If there is truly no way to answer, politely say: 
+        'I'm only able to help with lesson-related questions.'
+
+        Context:
+        %s
+
+        Conversation so far:
+        %s
+
+        Question:
+        %s
+        """;
 
 
     /**
@@ -43,64 +105,319 @@ public class ChatServiceImpl implements ChatService {
             OpenAiChatModel openAiChatModel,
             LessonService lessonService,
             SupabaseRestClient supabaseRestClient,
-            ModerationService moderationService
+            ModerationService moderationService,
+            EmbeddingService embeddingService,
+            ChatAnswerCacheProperties answerCacheProperties,
+            @Qualifier("chatTaskExecutor") Executor chatExecutor,
+            @Qualifier("chatStreamExecutor") Executor chatStreamExecutor
     ) {
         this.openAiChatModel = openAiChatModel;
         this.lessonService = lessonService;
         this.supabaseRestClient = supabaseRestClient;
         this.moderationService = moderationService;
+        this.embeddingService = embeddingService;
+        this.answerCache = new SemanticAnswerCache(
+            answerCacheProperties.getMaxEntries(),
+            answerCacheProperties.getTtl(),
+            answerCacheProperties.getSimilarityThreshold()
+        );
+        this.chatExecutor = chatExecutor;
+        this.chatStreamExecutor = chatStreamExecutor;
     }
 
     /**
      * Handles ask.
      */
-    // Sends a user question to OpenAI, applies moderation, saves messages, and returns the assistant's reply
+    // Sends a user question to OpenAI, applies moderation, saves messages, and returns the assistant's reply;
+    // a near-identical question about the same lessons is answered from the answer cache instead
     @Override
-    public String ask(String accessToken, String question) {
+    public String ask(String accessToken, String userId, String question) {
         try {
-            // Check user input
-            if (moderationService.isFlagged(question)) {
+            PreparedQuestion prepared = prepare(accessToken, userId, question);
+            if (prepared.flagged()) {
                 return FLAGGED_USER_MESSAGE;
             }
 
-            // Save user message
-            saveMessages(accessToken, question, USER_ROLE);
+            String result = prepared.cachedAnswer();
+            if (result == null) {
+                result = openAiChatModel.call(buildPrompt(prepared, question))
+                                        .getResult()
+                                        .getOutput()
+                                        .getText();
 
-            // Get relevant lesson context
-            String context = lessonService.findRelevantLesson(accessToken, question);
+                if (moderationService.isFlagged(result)) {
+                    result = FLAGGED_ASSISTANT_MESSAGE;
+                } else {
+                    cacheAnswer(prepared, result);
+                }
+            }
 
-            // Build prompt
-            String prompt = """
-                You are a helpful learning assistant.
+            saveTurn(accessToken, question, prepared.askedAt(), result);
 
-                Answer the question using the provided context.
-                Explain in your own words in a simple and friendly way, suitable for a learner.
-                If the answer is not explicitly in the context, you may infer the most likely answer based on clues in the context.
-                If there is truly no way to answer, politely say: 
-                'I'm only able to help with lesson-related questions.'
+            return result;
 
-                Context:
-                %s
+        } catch (Exception e) {
+            throw new ChatServiceException(FAILED_MESSAGE, e);
+        }
+    }
 
-                Question:
-                %s
-                """.formatted(context, question);
+    /**
+     * Streams the answer to a user question as server-sent events.
+     */
+    // Emits "token" events carrying sentence chunks of the answer once each has passed moderation, and a
+    // final "done" event with the saved reply; "done" carries retracted=true when a chunk was flagged
+    @Override
+    public SseEmitter streamAnswer(String accessToken, String userId, String question) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
+        AtomicBoolean closed = new AtomicBoolean();
+        emitter.onCompletion(() -> closed.set(true));
+        emitter.onTimeout(() -> {
+            closed.set(true);
+            emitter.complete();
+        });
+        emitter.onError(error -> closed.set(true));
 
-            String result = openAiChatModel.call(new Prompt(new UserMessage(prompt)))
-                                           .getResult()
-                                           .getOutput()
-                                           .getText();
+        // Streams run on their own pool: they wait on steps submitted to chatExecutor, and sharing a
+        // bounded pool with those steps could starve them.
+        try {
+            chatStreamExecutor.execute(() -> {
+                try {
+                    StreamOutcome outcome = streamReply(
+                        accessToken,
+                        userId,
+                        question,
+                        (event, data) -> send(emitter, closed, event, data)
+                    );
+                    if (outcome != null) {
+                        send(emitter, closed, "done", Map.of("reply", outcome.reply(), "retracted", outcome.retracted()));
+                        emitter.complete();
+                    }
+                } catch (Exception e) {
+                    log.warn("Chat stream failed", e);
+                    send(emitter, closed, "error", Map.of("message", FAILED_MESSAGE));
+                    emitter.complete();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Chat stream rejected: {}", e.getMessage());
+            send(emitter, closed, "error", Map.of("message", BUSY_MESSAGE));
+            emitter.complete();
+        }
+        return emitter;
+    }
 
-            if (moderationService.isFlagged(result)) {
-                result = FLAGGED_ASSISTANT_MESSAGE;
+    /**
+     * Streams one answer in sentence chunks, sending each chunk only after moderation clears it and
+     * stopping at the first flagged chunk. Returns the reply to finish with, or null if the client
+     * went away.
+     */
+    StreamOutcome streamReply(String accessToken, String userId, String question, EventSink sink) {
+        PreparedQuestion prepared = prepare(accessToken, userId, question);
+        if (prepared.flagged()) {
+            return new StreamOutcome(FLAGGED_USER_MESSAGE, false);
+        }
+        if (prepared.cachedAnswer() != null) {
+            if (!sink.send("token", Map.of("text", prepared.cachedAnswer()))) {
+                return null;
             }
+            saveTurn(accessToken, question, prepared.askedAt(), prepared.cachedAnswer());
+            return new StreamOutcome(prepared.cachedAnswer(), false);
+        }
 
-            saveMessages(accessToken, result, ASSISTANT_ROLE);
+        StringBuilder answer = new StringBuilder();
+        SentenceChunker chunker = new SentenceChunker(MODERATION_CHUNK_CHARS);
+        ChunkModerator moderator = new ChunkModerator(moderationService, chatExecutor);
+        // Chunks in answer order, each waiting for its verdict before it may be sent.
+        Deque<ModeratedChunk> unsent = new ArrayDeque<>();
 
-            return result;
+        try (Stream<ChatResponse> responses = openAiChatModel.stream(buildPrompt(prepared, question)).toStream()) {
+            var iterator = responses.iterator();
+            while (iterator.hasNext() && !moderator.flagged()) {
+                String token = tokenText(iterator.next());
+                if (token.isEmpty()) {
+                    continue;
+                }
+                answer.append(token);
+                for (String chunk : chunker.append(token)) {
+                    unsent.add(new ModeratedChunk(chunk, moderator.submit(chunk)));
+                }
+                if (!sendCleared(unsent, sink)) {
+                    return null;
+                }
+            }
+        }
+        String rest = chunker.flush();
+        if (!rest.isBlank() && !moderator.flagged()) {
+            unsent.add(new ModeratedChunk(rest, moderator.submit(rest)));
+        }
+        boolean retracted = moderator.await();
+        if (!sendCleared(unsent, sink)) {
+            return null;
+        }
 
-        } catch (Exception e) {
-            throw new ChatServiceException("Failed to process chat request", e);
+        String reply = retracted ? FLAGGED_ASSISTANT_MESSAGE : answer.toString();
+        if (!retracted) {
+            cacheAnswer(prepared, reply);
+        }
+        saveTurn(accessToken, question, prepared.askedAt(), reply);
+        return new StreamOutcome(reply, retracted);
+    }
+
+    /**
+     * Sends the leading chunks whose moderation has already cleared them, stopping at the first chunk
+     * still being checked, flagged or failed. Returns false once the client is gone.
+     */
+    private static boolean sendCleared(Deque<ModeratedChunk> unsent, EventSink sink) {
+        while (!unsent.isEmpty()) {
+            CompletableFuture<Boolean> verdict = unsent.peekFirst().verdict();
+            if (!verdict.isDone() || verdict.isCompletedExceptionally() || verdict.join()) {
+                return true;
+            }
+            if (!sink.send("token", Map.of("text", unsent.pollFirst().text()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Moderates the question while lesson context and the recent conversation are fetched in parallel.
+     * The question embedding computed for retrieval is cached, so looking it up again for the answer
+     * cache is free. Cached answers are only used for questions that open a conversation, since a
+     * follow-up may depend on what came before.
+     */
+    private PreparedQuestion prepare(String accessToken, String userId, String question) {
+        Instant askedAt = Instant.now();
+        CompletableFuture<Boolean> flagged =
+            CompletableFuture.supplyAsync(() -> moderationService.isFlagged(question), chatExecutor);
+        CompletableFuture<Retrieval> retrieval = CompletableFuture.supplyAsync(() -> {
+            RelevantLessonContext lessons = lessonService.findRelevantLesson(accessToken, question);
+            float[] questionVector = embeddingService.generateEmbedding(question);
+            return new Retrieval(
+                lessons.context(),
+                SemanticAnswerCache.contextKey(lessons.lessonVersions()),
+                questionVector
+            );
+        }, chatExecutor);
+        CompletableFuture<List<ChatbotMessageDTO>> recentTurns =
+            CompletableFuture.supplyAsync(() -> recentTurns(accessToken, userId, askedAt), chatExecutor);
+
+        if (await(flagged)) {
+            retrieval.cancel(false);
+            recentTurns.cancel(false);
+            return new PreparedQuestion(true, null, List.of(), null, askedAt);
+        }
+        Retrieval retrieved = await(retrieval);
+        List<ChatbotMessageDTO> turns = await(recentTurns);
+        String cachedAnswer = null;
+        if (turns.isEmpty()) {
+            cachedAnswer = answerCache.find(retrieved.contextKey(), retrieved.questionVector());
+            logAnswerCacheStats();
+        }
+        return new PreparedQuestion(false, retrieved, turns, cachedAnswer, askedAt);
+    }
+
+    /**
+     * Returns the last few messages of the conversation in progress, oldest first, or none once the
+     * learner has been idle for a while. A failed lookup answers without history rather than failing.
+     */
+    private List<ChatbotMessageDTO> recentTurns(String accessToken, String userId, Instant askedAt) {
+        try {
+            String query = "user_id=eq." + userId
+                + "&timestamp=gte." + askedAt.minus(CONVERSATION_IDLE_TIMEOUT)
+                + "&order=timestamp.desc&limit=" + CONVERSATION_WINDOW_MESSAGES;
+            List<ChatbotMessageDTO> newestFirst = supabaseRestClient.getList(
+                CHAT_HISTORY_TABLE,
+                query,
+                accessToken,
+                new TypeReference<List<ChatbotMessageDTO>>() {}
+            );
+            if (newestFirst == null || newestFirst.isEmpty()) {
+                return List.of();
+            }
+            List<ChatbotMessageDTO> turns = new ArrayList<>(newestFirst);
+            Collections.reverse(turns);
+            return turns;
+        } catch (RuntimeException e) {
+            log.warn("Answering without conversation history: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    private void cacheAnswer(PreparedQuestion prepared, String answer) {
+        if (prepared.recentTurns().isEmpty()) {
+            answerCache.put(prepared.retrieval().contextKey(), prepared.retrieval().questionVector(), answer);
+        }
+    }
+
+    /**
+     * Saves a question and its reply to the history in one insert.
+     */
+    private void saveTurn(String accessToken, String question, Instant askedAt, String reply) {
+        Instant answeredAt = Instant.now();
+        saveMessageList(accessToken, List.of(
+            new ChatbotMessageDTO(USER_ROLE, question, askedAt),
+            new ChatbotMessageDTO(ASSISTANT_ROLE, reply, answeredAt.isAfter(askedAt) ? answeredAt : askedAt.plusMillis(1))
+        ));
+    }
+
+    private void logAnswerCacheStats() {
+        SemanticAnswerCache.Stats stats = answerCache.stats();
+        long lookups = stats.hits() + stats.misses();
+        if (lookups > 0 && lookups % ANSWER_CACHE_LOG_INTERVAL == 0) {
+            log.info(
+                "Chat answer cache: {} hits, {} misses, hit rate {}, {} answers cached",
+                stats.hits(),
+                stats.misses(),
+                String.format("%.2f", stats.hitRate()),
+                stats.size()
+            );
+        }
+    }
+
+    private Prompt buildPrompt(PreparedQuestion prepared, String question) {
+        StringBuilder conversation = new StringBuilder();
+        for (ChatbotMessageDTO turn : prepared.recentTurns()) {
+            conversation.append(ASSISTANT_ROLE.equals(turn.getRole()) ? "Assistant: " : "Learner: ")
+                .append(turn.getMessage())
+                .append('\n');
+        }
+        String history = conversation.isEmpty() ? "(none)" : conversation.toString().strip();
+        return new Prompt(new UserMessage(PROMPT_TEMPLATE.formatted(prepared.retrieval().context(), history, question)));
+    }
+
+    private static String tokenText(ChatResponse response) {
+        if (response == null || response.getResult() == null || response.getResult().getOutput() == null) {
+            return "";
+        }
+        String text = response.getResult().getOutput().getText();
+        return text == null ? "" : text;
+    }
+
+    private static boolean send(SseEmitter emitter, AtomicBoolean closed, String event, Object data) {
+        if (closed.get()) {
+            return false;
+        }
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data));
+            return true;
+        } catch (IOException | IllegalStateException ex) {
+            closed.set(true);
+            return false;
+        }
+    }
+
+    /**
+     * Waits for a parallel step, rethrowing its failure unwrapped.
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
         }
     }
 
@@ -110,10 +427,11 @@ public class ChatServiceImpl implements ChatService {
     // Saves a chat message (user or assistant) to the database
     @Override
     public void saveMessages(String accessToken, String message, String role) {
-        try {
-            ChatbotMessageDTO dto = new ChatbotMessageDTO(role, message, Instant.now());
-            List<ChatbotMessageDTO> messages = List.of(dto);
+        saveMessageList(accessToken, List.of(new ChatbotMessageDTO(role, message, Instant.now())));
+    }
 
+    private void saveMessageList(String accessToken, List<ChatbotMessageDTO> messages) {
+        try {
             supabaseRestClient.postList(
                 CHAT_HISTORY_TABLE,
                 messages,
@@ -128,23 +446,77 @@ public class ChatServiceImpl implements ChatService {
     /**
      * Returns the message history.
      */
-    // Retrieves the chat history for a given user in chronological order
+    // Retrieves the most recent chat history for a given user in chronological order
     @Override
     public List<ChatbotMessageDTO> getMessageHistory(String accessToken, String userId) {
+        List<ChatbotMessageDTO> messages = new ArrayList<>(fetchHistory(accessToken, userId, null, RECENT_HISTORY_LIMIT));
+        Collections.reverse(messages);
+        return messages;
+    }
+
+    /**
+     * Returns one page of chat history, newest first, continuing after the given cursor.
+     */
+    @Override
+    public ChatHistoryPageResponse getMessageHistoryPage(String accessToken, String userId, String cursor, Integer limit) {
+        HistoryCursor before = decodeCursor(cursor);
+        int pageSize = limit == null ? DEFAULT_HISTORY_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+        List<ChatbotMessageDTO> rows = fetchHistory(accessToken, userId, before, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<ChatbotMessageDTO> items = hasMore ? List.copyOf(rows.subList(0, pageSize)) : rows;
+        String nextCursor = hasMore ? encodeCursor(items.get(items.size() - 1)) : null;
+        return new ChatHistoryPageResponse(items, hasMore, nextCursor);
+    }
+
+    /**
+     * Fetches up to {@code limit} messages older than {@code before}, newest first. Messages saved in
+     * the same instant are ordered by id, so a page boundary between them neither skips nor repeats.
+     */
+    private List<ChatbotMessageDTO> fetchHistory(String accessToken, String userId, HistoryCursor before, int limit) {
         try {
-            String query = "user_id=eq." + userId + "&order=timestamp.asc";
+            PostgrestQuery query = PostgrestQuery.create().eq("user_id", userId);
+            if (before != null) {
+                String timestamp = "\"" + before.timestamp() + "\"";
+                query.param("or", "(timestamp.lt." + timestamp
+                    + ",and(timestamp.eq." + timestamp + ",id.lt." + before.id() + "))");
+            }
+            query.order("timestamp.desc,id.desc").limit(limit);
 
-            return supabaseRestClient.getList(
+            List<ChatbotMessageDTO> rows = supabaseRestClient.getList(
                 CHAT_HISTORY_TABLE,
-                query,
+                query.build(),
                 accessToken,
                 new TypeReference<List<ChatbotMessageDTO>>() {}
             );
+            return rows == null ? List.of() : rows;
         } catch (Exception e) {
             throw new ChatServiceException("Failed to fetch chat history", e);
         }
     }
 
+    /** Encodes the position of the last message on a page */
+    private static String encodeCursor(ChatbotMessageDTO last) {
+        String payload = last.getTimestamp() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Decodes a page cursor, rejecting anything malformed */
+    private static HistoryCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\|", 2);
+            if (parts.length != 2 || !parts[1].matches("[0-9A-Za-z-]+")) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new HistoryCursor(Instant.parse(parts[0]), parts[1]);
+        } catch (RuntimeException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
     /**
      * Deletes the message history.
      */
@@ -164,4 +536,36 @@ public class ChatServiceImpl implements ChatService {
             throw new ChatServiceException("Failed to delete chat history", e);
         }
     }
+
+    private record PreparedQuestion(
+        boolean flagged,
+        Retrieval retrieval,
+        List<ChatbotMessageDTO> recentTurns,
+        String cachedAnswer,
+        Instant askedAt
+    ) {}
+
+    /** Position of the last message on a history page: its timestamp, then its id for ties */
+    private record HistoryCursor(Instant timestamp, String id) {}
+
+    /**
+     * Lesson context for a question, the answer cache key of the lessons it came from, and the
+     * question embedding.
+     */
+    private record Retrieval(String context, String contextKey, float[] questionVector) {}
+
+    /**
+     * Receives stream events; returns false once the client is gone.
+     */
+    @FunctionalInterface
+    interface EventSink {
+        boolean send(String event, Object data);
+    }
+
+    record StreamOutcome(String reply, boolean retracted) {}
+
+    /**
+     * A sentence chunk of a streamed answer and its pending moderation verdict.
+     */
+    private record ModeratedChunk(String text, CompletableFuture<Boolean> verdict) {}
 }
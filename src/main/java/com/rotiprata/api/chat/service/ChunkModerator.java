@@ -0,0 +1,118 @@
+package com.rotiprata.api.chat.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Moderates a streamed answer chunk by chunk without a request per chunk.
+ *
+ * <p>A chunk submitted while no check is running is moderated straight away; chunks that arrive while
+ * one is in flight wait and go out together in the next batched request. Each chunk gets its own
+ * verdict, so the caller can release it as soon as it is cleared. Once any chunk is flagged the
+ * remaining chunks are dropped and reported as flagged. Chunks are submitted and awaited from the
+ * streaming thread only.
+ */
+final class ChunkModerator {
+    private final ModerationService moderationService;
+    private final Executor executor;
+    private final List<Pending> pending = new ArrayList<>();
+    private CompletableFuture<Void> running = CompletableFuture.completedFuture(null);
+    private volatile boolean flagged;
+    private boolean draining;
+
+    ChunkModerator(ModerationService moderationService, Executor executor) {
+        this.moderationService = moderationService;
+        this.executor = executor;
+    }
+
+    /**
+     * Queues a chunk for moderation, starting a check if none is running, and returns its verdict:
+     * true when the chunk was flagged or dropped after an earlier flag.
+     */
+    CompletableFuture<Boolean> submit(String chunk) {
+        CompletableFuture<Boolean> verdict = new CompletableFuture<>();
+        synchronized (this) {
+            if (flagged) {
+                verdict.complete(true);
+                return verdict;
+            }
+            pending.add(new Pending(chunk, verdict));
+            if (draining) {
+                return verdict;
+            }
+            draining = true;
+        }
+        CompletableFuture<Void> started = CompletableFuture.runAsync(this::drain, executor);
+        synchronized (this) {
+            running = running.thenCombine(started, (previous, current) -> null);
+        }
+        return verdict;
+    }
+
+    /**
+     * Returns whether any chunk checked so far was flagged.
+     */
+    boolean flagged() {
+        return flagged;
+    }
+
+    /**
+     * Waits for every submitted chunk to be checked and returns whether any was flagged, rethrowing a
+     * failed check unwrapped.
+     */
+    boolean await() {
+        CompletableFuture<Void> current;
+        synchronized (this) {
+            current = running;
+        }
+        try {
+            current.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+        return flagged;
+    }
+
+    private void drain() {
+        List<Pending> batch = List.of();
+        try {
+            while (true) {
+                synchronized (this) {
+                    if (pending.isEmpty() || flagged) {
+                        pending.forEach(dropped -> dropped.verdict().complete(true));
+                        pending.clear();
+                        draining = false;
+                        return;
+                    }
+                    batch = List.copyOf(pending);
+                    pending.clear();
+                }
+                List<Boolean> verdicts = moderationService.areFlagged(batch.stream().map(Pending::chunk).toList());
+                for (int i = 0; i < batch.size(); i++) {
+                    // A missing verdict is treated as flagged so unchecked text is never released.
+                    boolean chunkFlagged = i >= verdicts.size() || Boolean.TRUE.equals(verdicts.get(i));
+                    if (chunkFlagged) {
+                        flagged = true;
+                    }
+                    batch.get(i).verdict().complete(chunkFlagged);
+                }
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                batch.forEach(failed -> failed.verdict().completeExceptionally(e));
+                pending.forEach(failed -> failed.verdict().completeExceptionally(e));
+                pending.clear();
+                draining = false;
+            }
+            throw e;
+        }
+    }
+
+    private record Pending(String chunk, CompletableFuture<Boolean> verdict) {}
+}
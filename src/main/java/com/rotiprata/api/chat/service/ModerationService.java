@@ -1,6 +1,7 @@
 package com.rotiprata.api.chat.service;
 
 import com.rotiprata.api.exception.ModerationServiceException;
+import java.util.List;
 
 /**
  * Service interface for content moderation.
@@ -19,4 +20,13 @@ public interface ModerationService {
      * @throws ModerationServiceException if the moderation check fails due to an internal or external error
      */
     boolean isFlagged(String text);
+
+    /**
+     * Checks several texts at once, sending uncached texts to the moderation API in batched requests.
+     *
+     * @param texts the texts to evaluate
+     * @return one verdict per input text, in input order
+     * @throws ModerationServiceException if the moderation check fails due to an internal or external error
+     */
+    List<Boolean> areFlagged(List<String> texts);
 }
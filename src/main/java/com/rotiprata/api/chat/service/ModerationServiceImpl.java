@@ -1,39 +1,73 @@
 package com.rotiprata.api.chat.service;
 
 import com.rotiprata.infrastructure.openai.OpenAiRestClient;
+import com.rotiprata.config.ModerationProperties;
 import com.fasterxml.jackson.core.type.TypeReference;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import com.rotiprata.api.exception.ModerationServiceException;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Implementation of ModerationService.
  * Uses OpenAI's moderation API to determine if text contains inappropriate content.
+ *
+ * <p>Verdicts are cached by a hash of the text for a TTL, concurrent checks of the same text share
+ * one in-flight request, and texts that still need checking are sent together as one batched input.
  */
 @Service
 public class ModerationServiceImpl implements ModerationService {
 
     private final OpenAiRestClient openAiRestClient;
     private final String moderationPath;
+    private final ModerationVerdictCache cache;
+    private final int batchSize;
+    private final Map<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
 
     // Constant
     private static final String MODEL_NAME = "omni-moderation-latest";
+    private static final String FAILED_MESSAGE = "Failed to check moderation";
 
     /**
      * Creates a moderation service impl instance with its collaborators.
      */
+    @Autowired
+    public ModerationServiceImpl(
+            OpenAiRestClient openAiRestClient,
+            @Value("${spring.ai.openai.moderation.path}") String moderationPath,
+            ModerationProperties properties
+    ) {
+        this(openAiRestClient, moderationPath, properties, new ModerationVerdictCache(
+            properties.getCache().getMaxEntries(),
+            properties.getCache().getTtl()
+        ));
+    }
+
     /**
-     * Constructor for dependency injection.
+     * Creates a moderation service impl instance with default cache and batch settings.
      */
-    public ModerationServiceImpl(
+    public ModerationServiceImpl(OpenAiRestClient openAiRestClient, String moderationPath) {
+        this(openAiRestClient, moderationPath, new ModerationProperties());
+    }
+
+    ModerationServiceImpl(
             OpenAiRestClient openAiRestClient,
-            @Value("${spring.ai.openai.moderation.path}") String moderationPath
+            String moderationPath,
+            ModerationProperties properties,
+            ModerationVerdictCache cache
     ) {
         this.openAiRestClient = openAiRestClient;
         this.moderationPath = moderationPath;
+        this.cache = cache;
+        this.batchSize = Math.max(1, properties.getBatchSize());
     }
 
     /**
@@ -42,29 +76,116 @@ public class ModerationServiceImpl implements ModerationService {
     // Checks if the given text is flagged as inappropriate using the moderation API
     @Override
     public boolean isFlagged(String text) {
-        try {
-            Map<String, Object> body = Map.of(
-                "model", MODEL_NAME,
-                "input", text
-            );
+        return areFlagged(List.of(text == null ? "" : text)).get(0);
+    }
+
+    /**
+     * Checks several texts, moderating only those with no cached or in-flight verdict.
+     */
+    @Override
+    public List<Boolean> areFlagged(List<String> texts) {
+        if (texts == null || texts.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> keys = new ArrayList<>(texts.size());
+        Map<String, CompletableFuture<Boolean>> verdicts = new LinkedHashMap<>();
+        Map<String, String> owned = new LinkedHashMap<>();
+        for (String text : texts) {
+            if (text == null || text.isBlank()) {
+                keys.add(null);
+                continue;
+            }
+            String key = ModerationVerdictCache.key(text);
+            keys.add(key);
+            if (verdicts.containsKey(key)) {
+                continue;
+            }
+            Boolean cached = cache.get(key);
+            if (cached != null) {
+                verdicts.put(key, CompletableFuture.completedFuture(cached));
+                continue;
+            }
+            CompletableFuture<Boolean> pending = new CompletableFuture<>();
+            CompletableFuture<Boolean> existing = inFlight.putIfAbsent(key, pending);
+            if (existing != null) {
+                verdicts.put(key, existing);
+            } else {
+                verdicts.put(key, pending);
+                owned.put(key, text);
+            }
+        }
+
+        List<String> ownedKeys = new ArrayList<>(owned.keySet());
+        for (int start = 0; start < ownedKeys.size(); start += batchSize) {
+            List<String> batchKeys = ownedKeys.subList(start, Math.min(ownedKeys.size(), start + batchSize));
+            try {
+                List<Boolean> batch = moderate(batchKeys.stream().map(owned::get).toList());
+                for (int i = 0; i < batchKeys.size(); i++) {
+                    Boolean flagged = batch.get(i);
+                    if (flagged != null) {
+                        cache.put(batchKeys.get(i), flagged);
+                    }
+                    complete(batchKeys.get(i), verdicts.get(batchKeys.get(i)), flagged != null && flagged);
+                }
+            } catch (RuntimeException e) {
+                // Release every remaining owned key so waiting callers fail now and later calls retry.
+                ModerationServiceException failure = new ModerationServiceException(FAILED_MESSAGE, e);
+                for (String key : ownedKeys.subList(start, ownedKeys.size())) {
+                    inFlight.remove(key, verdicts.get(key));
+                    verdicts.get(key).completeExceptionally(failure);
+                }
+                throw failure;
+            }
+        }
+
+        List<Boolean> results = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            results.add(key != null && join(verdicts.get(key)));
+        }
+        return results;
+    }
 
-            Map<String, Object> response = openAiRestClient.post(
-                moderationPath,
-                body,
-                new TypeReference<Map<String, Object>>() {}
-            );
+    /**
+     * Sends one moderation request and returns a verdict per text; null marks a result the response
+     * did not describe, which counts as not flagged but is not cached.
+     */
+    private List<Boolean> moderate(List<String> texts) {
+        Map<String, Object> body = Map.of(
+            "model", MODEL_NAME,
+            "input", texts.size() == 1 ? texts.get(0) : texts
+        );
 
-            Object resultsObj = response.get("results");
-            if (!(resultsObj instanceof List<?> resultsList) || resultsList.isEmpty()) return false;
+        Map<String, Object> response = openAiRestClient.post(
+            moderationPath,
+            body,
+            new TypeReference<Map<String, Object>>() {}
+        );
 
-            Object firstResultObj = resultsList.get(0);
-            if (!(firstResultObj instanceof Map<?, ?> firstResult)) return false;
+        List<Boolean> verdicts = new ArrayList<>(texts.size());
+        Object resultsObj = response == null ? null : response.get("results");
+        List<?> resultsList = resultsObj instanceof List<?> list ? list : List.of();
+        for (int i = 0; i < texts.size(); i++) {
+            Object resultObj = i < resultsList.size() ? resultsList.get(i) : null;
+            Object flagged = resultObj instanceof Map<?, ?> result ? result.get("flagged") : null;
+            verdicts.add(resultObj instanceof Map<?, ?> ? flagged instanceof Boolean b && b : null);
+        }
+        return verdicts;
+    }
 
-            Object flagged = firstResult.get("flagged");
-            return flagged instanceof Boolean b && b;
+    private void complete(String key, CompletableFuture<Boolean> pending, boolean flagged) {
+        pending.complete(flagged);
+        inFlight.remove(key, pending);
+    }
 
-        } catch (Exception e) {
-            throw new ModerationServiceException("Failed to check moderation", e);
+    private static boolean join(CompletableFuture<Boolean> verdict) {
+        try {
+            return verdict.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ModerationServiceException moderationFailure) {
+                throw moderationFailure;
+            }
+            throw new ModerationServiceException(FAILED_MESSAGE, e.getCause());
         }
     }
 }
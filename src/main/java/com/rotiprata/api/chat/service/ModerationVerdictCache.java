@@ -0,0 +1,84 @@
+package com.rotiprata.api.chat.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded least-recently-used cache of moderation verdicts keyed by a hash of the moderated text.
+ *
+ * <p>Verdicts expire after a TTL so a change in the moderation model's policy reaches repeated texts
+ * within a bounded time.
+ */
+final class ModerationVerdictCache {
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Verdict> entries;
+
+    ModerationVerdictCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, System::currentTimeMillis);
+    }
+
+    ModerationVerdictCache(int maxEntries, Duration ttl, LongSupplier clock) {
+        this.maxEntries = Math.max(0, maxEntries);
+        this.ttlMillis = ttl == null ? 0 : ttl.toMillis();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Verdict> eldest) {
+                return size() > ModerationVerdictCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cache key for a text.
+     */
+    static String key(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.strip().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is unavailable", ex);
+        }
+    }
+
+    /**
+     * Returns the cached verdict for the key, or null on a miss or an expired entry.
+     */
+    synchronized Boolean get(String key) {
+        Verdict verdict = entries.get(key);
+        if (verdict == null) {
+            return null;
+        }
+        if (clock.getAsLong() - verdict.storedAtMillis() >= ttlMillis) {
+            entries.remove(key);
+            return null;
+        }
+        return verdict.flagged();
+    }
+
+    /**
+     * Stores the verdict under the key, evicting the least recently used entry when full.
+     */
+    synchronized void put(String key, boolean flagged) {
+        if (maxEntries > 0 && ttlMillis > 0) {
+            entries.put(key, new Verdict(flagged, clock.getAsLong()));
+        }
+    }
+
+    /**
+     * Returns the number of cached verdicts, including any that have expired but not been read since.
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private record Verdict(boolean flagged, long storedAtMillis) {}
+}
@@ -0,0 +1,169 @@
+package com.rotiprata.api.chat.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of moderated chatbot answers, looked up by question similarity.
+ *
+ * <p>Answers are grouped by the lessons retrieved for the question and their content versions, not by
+ * the passages packed into the prompt, so a paraphrase that retrieves the same lessons shares the
+ * group even when it selects different passages. Editing a lesson changes its version and strands
+ * the old answers, which then age out. Within a group, a question whose embedding has at
+ * least the configured cosine similarity to a cached question gets that question's answer. Groups are
+ * evicted least recently used first once the cache holds {@code maxEntries} answers.
+ */
+final class SemanticAnswerCache {
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final double similarityThreshold;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Deque<Entry>> groups = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private int size;
+
+    SemanticAnswerCache(int maxEntries, Duration ttl, double similarityThreshold) {
+        this(maxEntries, ttl, similarityThreshold, System::currentTimeMillis);
+    }
+
+    SemanticAnswerCache(int maxEntries, Duration ttl, double similarityThreshold, LongSupplier clock) {
+        this.maxEntries = Math.max(0, maxEntries);
+        this.ttlMillis = ttl == null ? 0 : ttl.toMillis();
+        this.similarityThreshold = similarityThreshold;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the key grouping answers generated from the same lessons, given their
+     * {@code id:version} strings in any order.
+     */
+    static String contextKey(Collection<String> lessonVersions) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String text = lessonVersions == null ? "" : String.join("\n", new TreeSet<>(lessonVersions));
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is unavailable", ex);
+        }
+    }
+
+    /**
+     * Returns the answer to the most similar cached question for the same context, or null when none is
+     * similar enough.
+     */
+    String find(String contextKey, float[] questionVector) {
+        if (questionVector == null || questionVector.length == 0) {
+            misses.incrementAndGet();
+            return null;
+        }
+        float[] query = normalize(questionVector);
+        long now = clock.getAsLong();
+        String best = null;
+        double bestSimilarity = similarityThreshold;
+        synchronized (this) {
+            Deque<Entry> group = groups.get(contextKey);
+            if (group != null) {
+                for (Iterator<Entry> it = group.iterator(); it.hasNext(); ) {
+                    Entry entry = it.next();
+                    if (now - entry.storedAtMillis() >= ttlMillis) {
+                        it.remove();
+                        size--;
+                        continue;
+                    }
+                    double similarity = dot(query, entry.vector());
+                    if (similarity >= bestSimilarity) {
+                        bestSimilarity = similarity;
+                        best = entry.answer();
+                    }
+                }
+                if (group.isEmpty()) {
+                    groups.remove(contextKey);
+                }
+            }
+        }
+        (best == null ? misses : hits).incrementAndGet();
+        return best;
+    }
+
+    /**
+     * Caches an answer for the question, evicting the least recently used context's oldest answer when
+     * full.
+     */
+    synchronized void put(String contextKey, float[] questionVector, String answer) {
+        if (maxEntries == 0 || ttlMillis <= 0 || questionVector == null || questionVector.length == 0) {
+            return;
+        }
+        if (answer == null || answer.isBlank()) {
+            return;
+        }
+        groups.computeIfAbsent(contextKey, ignored -> new ArrayDeque<>())
+            .addLast(new Entry(normalize(questionVector), answer, clock.getAsLong()));
+        size++;
+        while (size > maxEntries) {
+            var eldest = groups.entrySet().iterator().next();
+            eldest.getValue().pollFirst();
+            size--;
+            if (eldest.getValue().isEmpty()) {
+                groups.remove(eldest.getKey());
+            }
+        }
+    }
+
+    /**
+     * Returns a point-in-time copy of the cache counters.
+     */
+    synchronized Stats stats() {
+        return new Stats(hits.get(), misses.get(), size);
+    }
+
+    private static double dot(float[] a, float[] b) {
+        if (a.length != b.length) {
+            return -1;
+        }
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        float[] normalized = vector.clone();
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < normalized.length; i++) {
+                normalized[i] *= scale;
+            }
+        }
+        return normalized;
+    }
+
+    /**
+     * Lookup counters and the number of cached answers.
+     */
+    record Stats(long hits, long misses, int size) {
+
+        double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    private record Entry(float[] vector, String answer, long storedAtMillis) {}
+}
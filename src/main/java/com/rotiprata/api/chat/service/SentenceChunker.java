@@ -0,0 +1,59 @@
+package com.rotiprata.api.chat.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Groups streamed tokens into sentence-aligned chunks for moderation.
+ *
+ * <p>A chunk is released once it holds at least {@code minChars} characters and ends at a sentence
+ * boundary, so moderation sees whole sentences without being called once per short sentence.
+ */
+final class SentenceChunker {
+    private final int minChars;
+    private final StringBuilder pending = new StringBuilder();
+
+    SentenceChunker(int minChars) {
+        this.minChars = minChars;
+    }
+
+    /**
+     * Appends a token and returns any chunks it completed.
+     */
+    List<String> append(String token) {
+        if (token == null || token.isEmpty()) {
+            return List.of();
+        }
+        pending.append(token);
+        List<String> chunks = new ArrayList<>(1);
+        int boundary;
+        while ((boundary = lastBoundary()) >= minChars) {
+            chunks.add(pending.substring(0, boundary));
+            pending.delete(0, boundary);
+        }
+        return chunks;
+    }
+
+    /**
+     * Returns whatever text is left once the stream ends, or an empty string.
+     */
+    String flush() {
+        String rest = pending.toString();
+        pending.setLength(0);
+        return rest;
+    }
+
+    /**
+     * Returns the end index of the last complete sentence in the buffer, or -1.
+     */
+    private int lastBoundary() {
+        for (int i = pending.length() - 1; i > 0; i--) {
+            char c = pending.charAt(i);
+            char previous = pending.charAt(i - 1);
+            if (c == '\n' || (Character.isWhitespace(c) && (previous == '.' || previous == '!' || previous == '?'))) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+}
@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -39,6 +40,7 @@ import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Exposes REST endpoints for the content controller flows.
@@ -176,6 +178,18 @@ public class ContentController {
         return contentDraftService.getMediaStatus(userId, contentId);
     }
 
+    /**
+     * Streams media status updates as server-sent events.
+     */
+    @GetMapping(value = "/{contentId}/media/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter mediaStatusEvents(
+        @AuthenticationPrincipal Jwt jwt,
+        @PathVariable UUID contentId
+    ) {
+        UUID userId = SecurityUtils.getUserId(jwt);
+        return contentDraftService.streamMediaStatus(userId, contentId);
+    }
+
     /**
      * Returns the content.
      */
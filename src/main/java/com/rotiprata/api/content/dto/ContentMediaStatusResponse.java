@@ -1,8 +1,11 @@
 package com.rotiprata.api.content.dto;
 
+import com.rotiprata.media.progress.MediaJobProgress;
+
 public record ContentMediaStatusResponse(
     String status,
     String hlsUrl,
     String thumbnailUrl,
-    String errorMessage
+    String errorMessage,
+    MediaJobProgress progress
 ) {}
@@ -0,0 +1,19 @@
+package com.rotiprata.api.content.dto;
+
+import java.util.List;
+
+/**
+ * An approved video returned by a search retrieval, with the signals the search ranker scores on.
+ */
+public record ContentSearchHit(
+    String id,
+    String title,
+    String description,
+    List<String> tags,
+    long viewCount,
+    long likesCount
+) {
+    public ContentSearchHit {
+        tags = tags == null ? List.of() : List.copyOf(tags);
+    }
+}
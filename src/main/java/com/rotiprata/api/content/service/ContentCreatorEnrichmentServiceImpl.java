@@ -1,9 +1,12 @@
 package com.rotiprata.api.content.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.rotiprata.infrastructure.supabase.PostgrestQuery;
+import com.rotiprata.infrastructure.supabase.PostgrestSelect;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminRestClient;
+import com.rotiprata.media.image.ImageFormat;
+import com.rotiprata.media.image.ImageVariantUrls;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -15,6 +18,8 @@ import java.util.stream.Collectors;
 public class ContentCreatorEnrichmentServiceImpl implements ContentCreatorEnrichmentService {
 
     private static final TypeReference<List<Map<String, Object>>> MAP_LIST = new TypeReference<>() {};
+    private static final PostgrestSelect PROFILE_COLUMNS = PostgrestSelect.of("user_id,display_name,avatar_url");
+    private static final int AVATAR_VARIANT_WIDTH = 160;
 
     private final SupabaseAdminRestClient supabaseAdminRestClient;
 
@@ -58,13 +63,9 @@ public class ContentCreatorEnrichmentServiceImpl implements ContentCreatorEnrich
     private Map<UUID, Map<String, Object>> fetchProfilesByUserId(Set<UUID> userIds) {
         if (userIds.isEmpty()) return Map.of();
 
-        String inClause = userIds.stream().map(UUID::toString).collect(Collectors.joining(","));
         List<Map<String, Object>> rows = supabaseAdminRestClient.getList(
                 "profiles",
-                buildQuery(Map.of(
-                        "select", "user_id,display_name,avatar_url",
-                        "user_id", "in.(" + inClause + ")"
-                )),
+                PostgrestQuery.select(PROFILE_COLUMNS).in("user_id", userIds).build(),
                 MAP_LIST
         );
 
@@ -100,7 +101,8 @@ public class ContentCreatorEnrichmentServiceImpl implements ContentCreatorEnrich
         Map<String, Object> profile = new LinkedHashMap<>();
         profile.put("user_id", userId);
         profile.put("display_name", normalizeNullableText(toStringOrNull(row.get("display_name"))));
-        profile.put("avatar_url", normalizeNullableText(toStringOrNull(row.get("avatar_url"))));
+        String avatarUrl = normalizeNullableText(toStringOrNull(row.get("avatar_url")));
+        profile.put("avatar_url", ImageVariantUrls.resolve(avatarUrl, AVATAR_VARIANT_WIDTH, ImageFormat.WEBP));
         return profile;
     }
 
@@ -114,17 +116,6 @@ public class ContentCreatorEnrichmentServiceImpl implements ContentCreatorEnrich
         catch (RuntimeException ex) { return null; }
     }
 
-    /**
-     * Builds the query.
-     */
-    /** Builds a query string from parameters for Supabase GET requests. */
-    private String buildQuery(Map<String, String> params) {
-        UriComponentsBuilder builder = UriComponentsBuilder.newInstance();
-        params.forEach(builder::queryParam);
-        String uri = builder.build().encode().toUriString();
-        return uri.startsWith("?") ? uri.substring(1) : uri;
-    }
-
     /**
      * Converts the value into string or null.
      */
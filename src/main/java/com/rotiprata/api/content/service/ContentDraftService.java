@@ -8,6 +8,7 @@ import com.rotiprata.api.content.dto.ContentSubmitRequest;
 import com.rotiprata.api.content.dto.ContentUpdateRequest;
 import java.util.UUID;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Defines the content draft service operations exposed to the API layer.
@@ -38,4 +39,9 @@ public interface ContentDraftService {
      * Returns the current media processing status.
      */
     ContentMediaStatusResponse getMediaStatus(UUID userId, UUID contentId);
+
+    /**
+     * Streams media processing status updates until processing finishes.
+     */
+    SseEmitter streamMediaStatus(UUID userId, UUID contentId);
 }
@@ -10,6 +10,8 @@ import com.rotiprata.api.content.dto.ContentMediaStartResponse;
 import com.rotiprata.api.content.dto.ContentMediaStatusResponse;
 import com.rotiprata.api.content.dto.ContentSubmitRequest;
 import com.rotiprata.api.content.dto.ContentUpdateRequest;
+import com.rotiprata.infrastructure.supabase.PostgrestQuery;
+import com.rotiprata.media.progress.MediaStatusEmitters;
 import com.rotiprata.media.service.MediaProcessingService;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminRestClient;
 import java.time.OffsetDateTime;
@@ -22,8 +24,8 @@ import java.util.UUID;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.server.ResponseStatusException;
-import org.springframework.web.util.UriComponentsBuilder;
 
 /**
  * Implements the content draft service workflows and persistence coordination used by the API layer.
@@ -182,12 +184,36 @@ public class ContentDraftServiceImpl implements ContentDraftService {
 
     public ContentMediaStatusResponse getMediaStatus(UUID userId, UUID contentId) {
         requireContent(userId, contentId);
+        return loadMediaStatus(contentId);
+    }
+
+    public SseEmitter streamMediaStatus(UUID userId, UUID contentId) {
+        requireContent(userId, contentId);
+        return MediaStatusEmitters.open(
+            mediaProcessingService,
+            contentId,
+            () -> loadMediaStatus(contentId),
+            status -> "processing".equalsIgnoreCase(status.status()),
+            (status, progress) -> new ContentMediaStatusResponse(
+                status.status(),
+                status.hlsUrl(),
+                status.thumbnailUrl(),
+                status.errorMessage(),
+                progress
+            )
+        );
+    }
+
+    private ContentMediaStatusResponse loadMediaStatus(UUID contentId) {
         ContentMedia media = requireMedia(contentId);
         return new ContentMediaStatusResponse(
             media.getStatus(),
             media.getHlsUrl(),
             media.getThumbnailUrl(),
-            media.getErrorMessage()
+            media.getErrorMessage(),
+            "processing".equalsIgnoreCase(media.getStatus())
+                ? mediaProcessingService.getProgress(contentId).orElse(null)
+                : null
         );
     }
 
@@ -370,9 +396,6 @@ public class ContentDraftServiceImpl implements ContentDraftService {
     }
 
     private String buildQuery(Map<String, String> params) {
-        UriComponentsBuilder builder = UriComponentsBuilder.newInstance();
-        params.forEach(builder::queryParam);
-        String uri = builder.build().encode().toUriString();
-        return uri.startsWith("?") ? uri.substring(1) : uri;
+        return PostgrestQuery.of(params);
     }
 }
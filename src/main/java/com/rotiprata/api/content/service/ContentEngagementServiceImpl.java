@@ -1,6 +1,7 @@
 package com.rotiprata.api.content.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.rotiprata.infrastructure.supabase.PostgrestQuery;
 import com.rotiprata.infrastructure.supabase.SupabaseRestClient;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
@@ -9,7 +10,6 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.UriComponentsBuilder;
 
 /**
  * Implements the content engagement decoration workflows used by the API layer.
@@ -81,14 +81,12 @@ public class ContentEngagementServiceImpl implements ContentEngagementService {
         if (contentIds == null || contentIds.isEmpty()) {
             return Set.of();
         }
-        String idList = String.join(",", new LinkedHashSet<>(contentIds));
         List<Map<String, Object>> rows = supabaseRestClient.getList(
             table,
-            buildQuery(Map.of(
-                "select", "content_id",
-                "user_id", "eq." + userId,
-                "content_id", "in.(" + idList + ")"
-            )),
+            PostgrestQuery.select("content_id")
+                .eq("user_id", userId)
+                .in("content_id", new LinkedHashSet<>(contentIds))
+                .build(),
             accessToken,
             MAP_LIST
         );
@@ -102,13 +100,6 @@ public class ContentEngagementServiceImpl implements ContentEngagementService {
         return ids;
     }
 
-    private String buildQuery(Map<String, String> params) {
-        UriComponentsBuilder builder = UriComponentsBuilder.newInstance();
-        params.forEach(builder::queryParam);
-        String uri = builder.build().encode().toUriString();
-        return uri.startsWith("?") ? uri.substring(1) : uri;
-    }
-
     private String stringValue(Object value) {
         return value == null ? null : value.toString();
     }
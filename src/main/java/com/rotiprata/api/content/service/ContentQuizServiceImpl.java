@@ -11,6 +11,7 @@ import com.rotiprata.api.content.dto.ContentQuizResponse;
 import com.rotiprata.api.content.dto.ContentQuizSubmitRequest;
 import com.rotiprata.api.content.dto.ContentQuizSubmitResponse;
 import com.rotiprata.api.user.service.UserService;
+import com.rotiprata.infrastructure.supabase.PostgrestQuery;
 import com.rotiprata.security.authorization.AppRole;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminRestClient;
 import com.rotiprata.infrastructure.supabase.SupabaseRestClient;
@@ -23,7 +24,6 @@ import java.util.UUID;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
-import org.springframework.web.util.UriComponentsBuilder;
 
 /**
  * Implements the content quiz service workflows and persistence coordination used by the API layer.
@@ -550,10 +550,7 @@ public class ContentQuizServiceImpl implements ContentQuizService {
      * Builds the query.
      */
     private String buildQuery(Map<String, String> params) {
-        UriComponentsBuilder builder = UriComponentsBuilder.newInstance();
-        params.forEach(builder::queryParam);
-        String uri = builder.build().encode().toUriString();
-        return uri.startsWith("?") ? uri.substring(1) : uri;
+        return PostgrestQuery.of(params);
     }
 
     /**
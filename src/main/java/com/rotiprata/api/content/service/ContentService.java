@@ -1,10 +1,10 @@
 package com.rotiprata.api.content.service;
 
-import com.rotiprata.api.browsing.dto.ContentSearchDTO;
 import com.rotiprata.api.content.dto.ContentCommentCreateRequest;
 import com.rotiprata.api.content.dto.ContentCommentResponse;
 import com.rotiprata.api.content.dto.ContentFlagRequest;
 import com.rotiprata.api.content.dto.ContentPlaybackEventRequest;
+import com.rotiprata.api.content.dto.ContentSearchHit;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -30,9 +30,14 @@ public interface ContentService {
     List<Map<String, Object>> getProfileContentCollection(UUID userId, String accessToken, String collection);
 
     /**
-     * Returns the filtered content.
+     * Returns approved videos whose title or description contains the query.
      */
-    List<ContentSearchDTO> getFilteredContent(String query, String filter, String accessToken);
+    List<ContentSearchHit> searchVideosByText(String query, String accessToken);
+
+    /**
+     * Returns approved videos with a tag containing the query.
+     */
+    List<ContentSearchHit> searchVideosByTag(String query, String accessToken);
 
     /**
      * Tracks the view.
@@ -18,19 +18,22 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.server.ResponseStatusException;
-import org.springframework.web.util.UriComponentsBuilder;
 
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.rotiprata.api.browsing.dto.ContentSearchDTO;
 import com.rotiprata.api.content.dto.ContentCommentCreateRequest;
 import com.rotiprata.api.content.dto.ContentCommentResponse;
 import com.rotiprata.api.content.dto.ContentFlagRequest;
 import com.rotiprata.api.content.dto.ContentPlaybackEventRequest;
+import com.rotiprata.api.content.dto.ContentSearchHit;
 import com.rotiprata.api.generalutils.DateUtils;
 import com.rotiprata.api.user.service.UserService;
+import com.rotiprata.infrastructure.supabase.PostgrestQuery;
 import com.rotiprata.security.authorization.AppRole;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminRestClient;
+import com.rotiprata.infrastructure.supabase.SupabaseBatchFetcher;
 import com.rotiprata.infrastructure.supabase.SupabaseRestClient;
+import com.rotiprata.media.image.ImageFormat;
+import com.rotiprata.media.image.ImageVariantUrls;
 
 /**
  * Implements the content service workflows and persistence coordination used by the API layer.
@@ -73,10 +76,12 @@ public class ContentServiceImpl implements ContentService {
     private static final int MAX_SIMILAR_LIMIT = 6;
     private static final int TAG_MATCH_SCAN_LIMIT = 250;
 
-    private static final String ID = "id";
-    private static final String TITLE = "title";
-    private static final String DESCRIPTION = "description";
-    private static final String CONTENT_TYPE = "content_type";
+    private static final int SEARCH_CANDIDATE_LIMIT = 50;
+    private static final String VIDEO_SEARCH_COLUMNS = "id,title,description,view_count,likes_count,content_tags(tag)";
+    private static final String VIDEO_TAG_SEARCH_COLUMNS = "id,title,description,view_count,likes_count,content_tags!inner(tag)";
+    // Search queries are sent unencoded: SupabaseRestClient encodes the query string itself, so
+    // pre-encoding the user's text with PostgrestQuery would double-encode spaces and non-ASCII.
+    private static final String VIDEO_FILTERS = "status=eq.approved&is_submitted=eq.true&content_type=eq.video";
     private static final TypeReference<List<Map<String, Object>>> MAP_LIST = new TypeReference<>() {};
 
     private final SupabaseRestClient supabaseRestClient;
@@ -84,6 +89,7 @@ public class ContentServiceImpl implements ContentService {
     private final ContentEngagementService contentEngagementService;
     private final ContentCreatorEnrichmentService contentCreatorEnrichmentService;
     private final UserService userService;
+    private final SupabaseBatchFetcher supabaseBatchFetcher;
 
     /**
      * Creates a content service impl instance with its collaborators.
@@ -93,13 +99,15 @@ public class ContentServiceImpl implements ContentService {
         SupabaseAdminRestClient supabaseAdminRestClient,
         ContentEngagementService contentEngagementService,
         ContentCreatorEnrichmentService contentCreatorEnrichmentService,
-        UserService userService
+        UserService userService,
+        SupabaseBatchFetcher supabaseBatchFetcher
     ) {
         this.supabaseRestClient = supabaseRestClient;
         this.supabaseAdminRestClient = supabaseAdminRestClient;
         this.contentEngagementService = contentEngagementService;
         this.contentCreatorEnrichmentService = contentCreatorEnrichmentService;
         this.userService = userService;
+        this.supabaseBatchFetcher = supabaseBatchFetcher;
     }
 
     /**
@@ -286,16 +294,17 @@ public class ContentServiceImpl implements ContentService {
             return List.of();
         }
 
-        Map<String, String> params = new LinkedHashMap<>();
-        params.put("select", CONTENT_SELECT);
-        params.put("id", "in.(" + String.join(",", ids) + ")");
-        params.put("status", "eq.approved");
-        params.put("is_submitted", "eq.true");
-        params.put("content_type", "eq.video");
-        params.put("media_url", "not.is.null");
-        params.put("limit", String.valueOf(ids.size()));
-
-        return fetchPlayableVideoRowsWithFallback(params, accessToken);
+        return supabaseBatchFetcher.fetchChunks(ids, chunk -> {
+            Map<String, String> params = new LinkedHashMap<>();
+            params.put("select", CONTENT_SELECT);
+            params.put("id", "in.(" + String.join(",", chunk) + ")");
+            params.put("status", "eq.approved");
+            params.put("is_submitted", "eq.true");
+            params.put("content_type", "eq.video");
+            params.put("media_url", "not.is.null");
+            params.put("limit", String.valueOf(chunk.size()));
+            return fetchPlayableVideoRowsWithFallback(params, accessToken);
+        });
     }
 
     /**
@@ -417,13 +426,11 @@ public class ContentServiceImpl implements ContentService {
             return;
         }
 
-        List<Map<String, Object>> tagRows = supabaseAdminRestClient.getList(
-            "content_tags",
-            buildQuery(Map.of(
-                "select", "content_id,tag",
-                "content_id", "in.(" + String.join(",", contentIds) + ")"
-            )),
-            MAP_LIST
+        List<Map<String, Object>> tagRows = supabaseBatchFetcher.fetchIn(
+            PostgrestQuery.select("content_id,tag"),
+            "content_id",
+            contentIds,
+            query -> supabaseAdminRestClient.getList("content_tags", query, MAP_LIST)
         );
 
         Map<String, List<String>> tagsByContentId = new LinkedHashMap<>();
@@ -487,50 +494,70 @@ public class ContentServiceImpl implements ContentService {
     }
 
     /**
-     * Returns the filtered content.
+     * Returns approved videos whose title or description contains the query.
      */
     @Override
-    public List<ContentSearchDTO> getFilteredContent(String query, String filter, String accessToken) {
+    public List<ContentSearchHit> searchVideosByText(String query, String accessToken) {
         if (query == null || query.isBlank()) {
             return List.of();
         }
-
-        String path = "/content";
-        String trimmedQuery = query.trim();
-        String safeQuery = escapeQuery(trimmedQuery);
-        String selectColumns = String.join(",", ID, TITLE, DESCRIPTION, CONTENT_TYPE);
+        String safeQuery = escapeQuery(query.trim());
         String filterQuery = String.format(
-            "select=%s&status=eq.approved&is_submitted=eq.true&content_type=eq.video&or=(title.ilike.*%s*,description.ilike.*%s*)&limit=10",
-            selectColumns,
+            "select=%s&%s&or=(title.ilike.*%s*,description.ilike.*%s*)&limit=%d",
+            VIDEO_SEARCH_COLUMNS,
+            VIDEO_FILTERS,
+            safeQuery,
             safeQuery,
-            safeQuery
+            SEARCH_CANDIDATE_LIMIT
         );
+        List<Map<String, Object>> rows = supabaseRestClient.getList("content", filterQuery, accessToken, MAP_LIST);
+        return rows.stream().map(this::toSearchHit).toList();
+    }
 
-        if (filter != null && !filter.isBlank() && "video".equalsIgnoreCase(filter)) {
-            // already enforced as video
+    /**
+     * Returns approved videos with a tag containing the query, in one request via an inner-joined tag
+     * embed; each hit carries only its matching tags.
+     */
+    @Override
+    public List<ContentSearchHit> searchVideosByTag(String query, String accessToken) {
+        if (query == null || query.isBlank()) {
+            return List.of();
         }
-
-        List<ContentSearchDTO> titleResults = supabaseRestClient.getList(
-            path,
-            filterQuery,
-            accessToken,
-            new TypeReference<List<ContentSearchDTO>>() {}
+        String safeQuery = escapeQuery(query.trim());
+        String filterQuery = String.format(
+            "select=%s&%s&content_tags.tag=ilike.*%s*&limit=%d",
+            VIDEO_TAG_SEARCH_COLUMNS,
+            VIDEO_FILTERS,
+            safeQuery,
+            SEARCH_CANDIDATE_LIMIT
         );
+        List<Map<String, Object>> rows = supabaseRestClient.getList("content", filterQuery, accessToken, MAP_LIST);
+        return rows.stream().map(this::toSearchHit).toList();
+    }
 
-        Map<String, ContentSearchDTO> deduped = new LinkedHashMap<>();
-        for (ContentSearchDTO dto : titleResults) {
-            deduped.put(dto.id(), withSnippet(dto));
-        }
-
-        List<String> tagIds = fetchContentIdsByTag(safeQuery, accessToken);
-        if (!tagIds.isEmpty()) {
-            List<ContentSearchDTO> tagResults = fetchContentByIds(tagIds, accessToken);
-            for (ContentSearchDTO dto : tagResults) {
-                deduped.putIfAbsent(dto.id(), withSnippet(dto));
+    /**
+     * Maps a content row with embedded {@code content_tags} to a search hit.
+     */
+    private ContentSearchHit toSearchHit(Map<String, Object> row) {
+        List<String> tags = new ArrayList<>();
+        if (row.get("content_tags") instanceof List<?> tagRows) {
+            for (Object tagRow : tagRows) {
+                if (tagRow instanceof Map<?, ?> tagMap) {
+                    String tag = normalizeNullableText(toStringOrNull(tagMap.get("tag")));
+                    if (tag != null) {
+                        tags.add(tag);
+                    }
+                }
             }
         }
-
-        return new ArrayList<>(deduped.values());
+        return new ContentSearchHit(
+            toStringOrNull(row.get("id")),
+            toStringOrNull(row.get("title")),
+            toStringOrNull(row.get("description")),
+            tags,
+            toInt(row.get("view_count")),
+            toInt(row.get("likes_count"))
+        );
     }
 
     /**
@@ -961,14 +988,11 @@ public class ContentServiceImpl implements ContentService {
             return Map.of();
         }
 
-        String inClause = userIds.stream().map(UUID::toString).collect(Collectors.joining(","));
-        List<Map<String, Object>> profileRows = supabaseAdminRestClient.getList(
-            "profiles",
-            buildQuery(Map.of(
-                "select", "user_id,display_name",
-                "user_id", "in.(" + inClause + ")"
-            )),
-            MAP_LIST
+        List<Map<String, Object>> profileRows = supabaseBatchFetcher.fetchIn(
+            PostgrestQuery.select("user_id,display_name"),
+            "user_id",
+            userIds,
+            query -> supabaseAdminRestClient.getList("profiles", query, MAP_LIST)
         );
 
         Map<UUID, String> authors = new HashMap<>();
@@ -1057,68 +1081,6 @@ public class ContentServiceImpl implements ContentService {
         }
     }
 
-    /**
-     * Fetches the content ids by tag.
-     */
-    private List<String> fetchContentIdsByTag(String query, String accessToken) {
-        String path = "/content_tags";
-        String filterQuery = String.format("select=content_id&tag=ilike.*%s*&limit=20", query);
-        List<Map<String, Object>> rows = supabaseRestClient.getList(
-            path,
-            filterQuery,
-            accessToken,
-            new TypeReference<List<Map<String, Object>>>() {}
-        );
-        Set<String> ids = new LinkedHashSet<>();
-        for (Map<String, Object> row : rows) {
-            Object value = row.get("content_id");
-            if (value != null) {
-                ids.add(value.toString());
-            }
-        }
-        return new ArrayList<>(ids);
-    }
-
-    /**
-     * Fetches the content by ids.
-     */
-    private List<ContentSearchDTO> fetchContentByIds(List<String> ids, String accessToken) {
-        if (ids.isEmpty()) {
-            return List.of();
-        }
-        String path = "/content";
-        String selectColumns = String.join(",", ID, TITLE, DESCRIPTION, CONTENT_TYPE);
-        String idList = String.join(",", ids);
-        String filterQuery = String.format(
-            "select=%s&status=eq.approved&is_submitted=eq.true&content_type=eq.video&id=in.(%s)&limit=10",
-            selectColumns,
-            idList
-        );
-        return supabaseRestClient.getList(
-            path,
-            filterQuery,
-            accessToken,
-            new TypeReference<List<ContentSearchDTO>>() {}
-        );
-    }
-
-    /**
-     * Returns the snippet.
-     */
-    private ContentSearchDTO withSnippet(ContentSearchDTO c) {
-        String desc = c.description();
-        String snippet = (desc != null && desc.length() > 100)
-            ? desc.substring(0, 100) + "..."
-            : desc;
-        return new ContentSearchDTO(
-            c.id(),
-            c.content_type(),
-            c.title(),
-            c.description(),
-            snippet
-        );
-    }
-
     /**
      * Checks whether unique violation.
      */
@@ -1185,6 +1147,8 @@ public class ContentServiceImpl implements ContentService {
         if (item == null) {
             return;
         }
+        attachImageSrcset(item, "thumbnail_url", "thumbnail_srcset");
+        attachImageSrcset(item, "media_url", "media_srcset");
         String mediaUrl = toStringOrNull(item.get("media_url"));
         if (mediaUrl == null || mediaUrl.isBlank()) {
             return;
@@ -1198,6 +1162,16 @@ public class ContentServiceImpl implements ContentService {
         item.put("stream_type", "file");
     }
 
+    /**
+     * Adds a WebP srcset for image URLs that carry a variant manifest.
+     */
+    private void attachImageSrcset(Map<String, Object> item, String urlKey, String srcsetKey) {
+        String srcset = ImageVariantUrls.srcset(toStringOrNull(item.get(urlKey)), ImageFormat.WEBP);
+        if (srcset != null) {
+            item.put(srcsetKey, srcset);
+        }
+    }
+
     /**
      * Normalizes the nullable text.
      */
@@ -1230,7 +1204,8 @@ public class ContentServiceImpl implements ContentService {
      * Escapes the query.
      */
     private String escapeQuery(String query) {
-        return query.replace(",", " ").replace("(", " ").replace(")", " ");
+        // Besides PostgREST's own delimiters, drop characters that would split or template the raw query.
+        return query.replaceAll("[,()&#{}+]", " ");
     }
 
     /**
@@ -1256,10 +1231,7 @@ public class ContentServiceImpl implements ContentService {
      * Builds the query.
      */
     private String buildQuery(Map<String, String> params) {
-        UriComponentsBuilder builder = UriComponentsBuilder.newInstance();
-        params.forEach(builder::queryParam);
-        String uri = builder.build().encode().toUriString();
-        return uri.startsWith("?") ? uri.substring(1) : uri;
+        return PostgrestQuery.of(params);
     }
 
     /**
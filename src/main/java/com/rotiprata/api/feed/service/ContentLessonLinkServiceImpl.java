@@ -1,7 +1,10 @@
 package com.rotiprata.api.feed.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.rotiprata.infrastructure.supabase.PostgrestQuery;
+import com.rotiprata.infrastructure.supabase.PostgrestSelect;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminRestClient;
+import com.rotiprata.infrastructure.supabase.SupabaseBatchFetcher;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -13,7 +16,6 @@ import java.util.stream.Collectors;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
-import org.springframework.web.util.UriComponentsBuilder;
 
 /**
  * Implements the content lesson link workflows and persistence coordination used by the API layer.
@@ -21,11 +23,20 @@ import org.springframework.web.util.UriComponentsBuilder;
 @Service
 public class ContentLessonLinkServiceImpl implements ContentLessonLinkService {
     private static final TypeReference<List<Map<String, Object>>> MAP_LIST = new TypeReference<>() {};
+    private static final PostgrestSelect LESSON_CONCEPT_COLUMNS = PostgrestSelect.of("content_id,lesson_id,order_index");
+    private static final PostgrestSelect QUIZ_FALLBACK_COLUMNS = PostgrestSelect.of("content_id,lesson_id,created_at");
+    private static final PostgrestSelect LINKED_LESSON_COLUMNS =
+        PostgrestSelect.of("id,title,category_id,is_published,is_active");
 
     private final SupabaseAdminRestClient supabaseAdminRestClient;
+    private final SupabaseBatchFetcher supabaseBatchFetcher;
 
-    public ContentLessonLinkServiceImpl(SupabaseAdminRestClient supabaseAdminRestClient) {
+    public ContentLessonLinkServiceImpl(
+        SupabaseAdminRestClient supabaseAdminRestClient,
+        SupabaseBatchFetcher supabaseBatchFetcher
+    ) {
         this.supabaseAdminRestClient = supabaseAdminRestClient;
+        this.supabaseBatchFetcher = supabaseBatchFetcher;
     }
 
     public Map<UUID, List<LinkedLesson>> resolveLinkedLessons(Set<UUID> contentIds) {
@@ -88,28 +99,25 @@ public class ContentLessonLinkServiceImpl implements ContentLessonLinkService {
     }
 
     private Map<UUID, List<LessonLinkRow>> fetchLessonConceptLinks(Set<UUID> contentIds) {
-        List<Map<String, Object>> rows = supabaseAdminRestClient.getList(
-            "lesson_concepts",
-            buildQuery(Map.of(
-                "select", "content_id,lesson_id,order_index",
-                "content_id", "in.(" + joinUuids(contentIds) + ")"
-            )),
-            MAP_LIST
+        List<Map<String, Object>> rows = supabaseBatchFetcher.fetchIn(
+            PostgrestQuery.select(LESSON_CONCEPT_COLUMNS),
+            "content_id",
+            contentIds,
+            query -> supabaseAdminRestClient.getList("lesson_concepts", query, MAP_LIST)
         );
         return groupRows(rows, LinkSource.LESSON_CONCEPT);
     }
 
     private Map<UUID, List<LessonLinkRow>> fetchQuizFallbackLinks(Set<UUID> contentIds) {
-        List<Map<String, Object>> rows = supabaseAdminRestClient.getList(
-            "quizzes",
-            buildQuery(Map.of(
-                "select", "content_id,lesson_id,created_at",
-                "content_id", "in.(" + joinUuids(contentIds) + ")",
-                "lesson_id", "not.is.null",
-                "is_active", "eq.true",
-                "order", "created_at.desc"
-            )),
-            MAP_LIST
+        // Each content id lands in exactly one chunk, so per-content created_at order survives the merge.
+        List<Map<String, Object>> rows = supabaseBatchFetcher.fetchIn(
+            PostgrestQuery.select(QUIZ_FALLBACK_COLUMNS)
+                .param("lesson_id", "not.is.null")
+                .eq("is_active", true)
+                .order("created_at.desc"),
+            "content_id",
+            contentIds,
+            query -> supabaseAdminRestClient.getList("quizzes", query, MAP_LIST)
         );
         return groupRows(rows, LinkSource.QUIZ_FALLBACK);
     }
@@ -139,13 +147,11 @@ public class ContentLessonLinkServiceImpl implements ContentLessonLinkService {
             .map(LessonLinkRow::lessonId)
             .collect(Collectors.toCollection(LinkedHashSet::new));
 
-        List<Map<String, Object>> lessons = supabaseAdminRestClient.getList(
-            "lessons",
-            buildQuery(Map.of(
-                "select", "id,title,category_id,is_published,is_active",
-                "id", "in.(" + joinUuids(lessonIds) + ")"
-            )),
-            MAP_LIST
+        List<Map<String, Object>> lessons = supabaseBatchFetcher.fetchIn(
+            PostgrestQuery.select(LINKED_LESSON_COLUMNS),
+            "id",
+            lessonIds,
+            query -> supabaseAdminRestClient.getList("lessons", query, MAP_LIST)
         );
 
         Map<UUID, Map<String, Object>> lessonById = new LinkedHashMap<>();
@@ -193,13 +199,11 @@ public class ContentLessonLinkServiceImpl implements ContentLessonLinkService {
             return;
         }
 
-        List<Map<String, Object>> rows = supabaseAdminRestClient.getList(
-            "lessons",
-            buildQuery(Map.of(
-                "select", "id",
-                "id", "in.(" + joinUuids(new LinkedHashSet<>(lessonIds)) + ")"
-            )),
-            MAP_LIST
+        List<Map<String, Object>> rows = supabaseBatchFetcher.fetchIn(
+            PostgrestQuery.select("id"),
+            "id",
+            new LinkedHashSet<>(lessonIds),
+            query -> supabaseAdminRestClient.getList("lessons", query, MAP_LIST)
         );
         Set<UUID> existingIds = rows.stream()
             .map(row -> parseUuid(row.get("id")))
@@ -215,14 +219,7 @@ public class ContentLessonLinkServiceImpl implements ContentLessonLinkService {
     }
 
     private String buildQuery(Map<String, String> params) {
-        UriComponentsBuilder builder = UriComponentsBuilder.newInstance();
-        params.forEach(builder::queryParam);
-        String uri = builder.build().encode().toUriString();
-        return uri.startsWith("?") ? uri.substring(1) : uri;
-    }
-
-    private String joinUuids(Set<UUID> ids) {
-        return ids.stream().map(UUID::toString).collect(Collectors.joining(","));
+        return PostgrestQuery.of(params);
     }
 
     private UUID parseUuid(Object value) {
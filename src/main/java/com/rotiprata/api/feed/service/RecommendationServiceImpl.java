@@ -7,7 +7,12 @@ import com.rotiprata.api.feed.service.ContentLessonLinkService.LinkedLesson;
 import com.rotiprata.api.feed.service.RecommendationScorer.ScoredRecommendation;
 import com.rotiprata.api.feed.response.FeedResponse;
 import com.rotiprata.api.feed.response.RecommendationResponse;
+import com.rotiprata.infrastructure.supabase.PostgrestQuery;
+import com.rotiprata.infrastructure.supabase.PostgrestSelect;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminRestClient;
+import com.rotiprata.infrastructure.supabase.SupabaseBatchFetcher;
+import com.rotiprata.media.image.ImageFormat;
+import com.rotiprata.media.image.ImageVariantUrls;
 import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
@@ -25,7 +30,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
-import org.springframework.web.util.UriComponentsBuilder;
 
 /**
  * Implements the recommendation service workflows and persistence coordination used by the API layer.
@@ -71,6 +75,19 @@ public class RecommendationServiceImpl implements RecommendationService {
         "saves_count",
         "shares_count"
     );
+    private static final PostgrestSelect CONTENT_COLUMNS = PostgrestSelect.of(CONTENT_SELECT);
+    private static final PostgrestSelect CONTENT_TAG_COLUMNS = PostgrestSelect.of("content_id,tag");
+    private static final String RECENT_CANDIDATE_ORDER = "created_at.desc,id.desc";
+    private static final String POPULAR_CANDIDATE_ORDER =
+        "likes_count.desc,saves_count.desc,shares_count.desc,view_count.desc,created_at.desc,id.desc";
+    private static final String RECENT_CANDIDATE_QUERY =
+        candidateQuery(RECENT_CANDIDATE_ORDER, RECENT_CANDIDATE_LIMIT, true);
+    private static final String RECENT_CANDIDATE_FALLBACK_QUERY =
+        candidateQuery(RECENT_CANDIDATE_ORDER, RECENT_CANDIDATE_LIMIT, false);
+    private static final String POPULAR_CANDIDATE_QUERY =
+        candidateQuery(POPULAR_CANDIDATE_ORDER, POPULAR_CANDIDATE_LIMIT, true);
+    private static final String POPULAR_CANDIDATE_FALLBACK_QUERY =
+        candidateQuery(POPULAR_CANDIDATE_ORDER, POPULAR_CANDIDATE_LIMIT, false);
 
     private final SupabaseAdminRestClient supabaseAdminRestClient;
     private final ContentEngagementService contentEngagementService;
@@ -78,6 +95,7 @@ public class RecommendationServiceImpl implements RecommendationService {
     private final RecommendationSignalService recommendationSignalService;
     private final ContentLessonLinkService contentLessonLinkService;
     private final RecommendationScorer recommendationScorer;
+    private final SupabaseBatchFetcher supabaseBatchFetcher;
 
     /**
      * Creates a recommendation service instance with its collaborators.
@@ -88,7 +106,8 @@ public class RecommendationServiceImpl implements RecommendationService {
         ContentCreatorEnrichmentService contentCreatorEnrichmentService,
         RecommendationSignalService recommendationSignalService,
         ContentLessonLinkService contentLessonLinkService,
-        RecommendationScorer recommendationScorer
+        RecommendationScorer recommendationScorer,
+        SupabaseBatchFetcher supabaseBatchFetcher
     ) {
         this.supabaseAdminRestClient = supabaseAdminRestClient;
         this.contentEngagementService = contentEngagementService;
@@ -96,6 +115,7 @@ public class RecommendationServiceImpl implements RecommendationService {
         this.recommendationSignalService = recommendationSignalService;
         this.contentLessonLinkService = contentLessonLinkService;
         this.recommendationScorer = recommendationScorer;
+        this.supabaseBatchFetcher = supabaseBatchFetcher;
     }
 
     /**
@@ -230,17 +250,9 @@ public class RecommendationServiceImpl implements RecommendationService {
      * Fetches the candidate pool.
      */
     private List<Map<String, Object>> fetchCandidatePool() {
-        Map<String, String> recentParams = baseCandidateParams();
-        recentParams.put("order", "created_at.desc,id.desc");
-        recentParams.put("limit", String.valueOf(RECENT_CANDIDATE_LIMIT));
-
-        Map<String, String> popularParams = baseCandidateParams();
-        popularParams.put("order", "likes_count.desc,saves_count.desc,shares_count.desc,view_count.desc,created_at.desc,id.desc");
-        popularParams.put("limit", String.valueOf(POPULAR_CANDIDATE_LIMIT));
-
         List<Map<String, Object>> merged = new ArrayList<>();
-        merged.addAll(fetchContentRowsWithMediaFallback(recentParams));
-        merged.addAll(fetchContentRowsWithMediaFallback(popularParams));
+        merged.addAll(fetchContentRowsWithMediaFallback(RECENT_CANDIDATE_QUERY, RECENT_CANDIDATE_FALLBACK_QUERY));
+        merged.addAll(fetchContentRowsWithMediaFallback(POPULAR_CANDIDATE_QUERY, POPULAR_CANDIDATE_FALLBACK_QUERY));
 
         Map<String, Map<String, Object>> deduped = new LinkedHashMap<>();
         for (Map<String, Object> row : merged) {
@@ -253,32 +265,34 @@ public class RecommendationServiceImpl implements RecommendationService {
     }
 
     /**
-     * Handles base candidate params.
+     * Builds a candidate query; the fallback variant omits the media_status filter.
      */
-    private Map<String, String> baseCandidateParams() {
-        Map<String, String> params = new LinkedHashMap<>();
-        params.put("select", CONTENT_SELECT);
-        params.put("status", "eq.approved");
-        params.put("is_submitted", "eq.true");
-        params.put("content_type", "eq.video");
-        params.put("media_status", "eq.ready");
-        params.put("media_url", "not.is.null");
-        return params;
+    private static String candidateQuery(String order, int limit, boolean filterMediaStatus) {
+        PostgrestQuery query = PostgrestQuery.select(CONTENT_COLUMNS)
+            .eq("status", "approved")
+            .eq("is_submitted", true)
+            .eq("content_type", "video");
+        if (filterMediaStatus) {
+            query.eq("media_status", "ready");
+        }
+        return query
+            .param("media_url", "not.is.null")
+            .order(order)
+            .limit(limit)
+            .build();
     }
 
     /**
      * Fetches the content rows with media fallback.
      */
-    private List<Map<String, Object>> fetchContentRowsWithMediaFallback(Map<String, String> params) {
+    private List<Map<String, Object>> fetchContentRowsWithMediaFallback(String query, String fallbackQuery) {
         try {
-            return supabaseAdminRestClient.getList("content", buildQuery(params), MAP_LIST);
+            return supabaseAdminRestClient.getList("content", query, MAP_LIST);
         } catch (ResponseStatusException ex) {
             if (!shouldRetryWithoutMediaStatus(ex)) {
                 throw ex;
             }
-            Map<String, String> fallback = new LinkedHashMap<>(params);
-            fallback.remove("media_status");
-            return supabaseAdminRestClient.getList("content", buildQuery(fallback), MAP_LIST);
+            return supabaseAdminRestClient.getList("content", fallbackQuery, MAP_LIST);
         }
     }
 
@@ -294,13 +308,11 @@ public class RecommendationServiceImpl implements RecommendationService {
             return;
         }
 
-        List<Map<String, Object>> tagRows = supabaseAdminRestClient.getList(
-            "content_tags",
-            buildQuery(Map.of(
-                "select", "content_id,tag",
-                "content_id", "in.(" + contentIds.stream().map(UUID::toString).collect(Collectors.joining(",")) + ")"
-            )),
-            MAP_LIST
+        List<Map<String, Object>> tagRows = supabaseBatchFetcher.fetchIn(
+            PostgrestQuery.select(CONTENT_TAG_COLUMNS),
+            "content_id",
+            contentIds,
+            query -> supabaseAdminRestClient.getList("content_tags", query, MAP_LIST)
         );
 
         Map<String, List<String>> tagsByContentId = new LinkedHashMap<>();
@@ -369,6 +381,8 @@ public class RecommendationServiceImpl implements RecommendationService {
         if (item == null) {
             return;
         }
+        attachImageSrcset(item, "thumbnail_url", "thumbnail_srcset");
+        attachImageSrcset(item, "media_url", "media_srcset");
         String mediaUrl = stringValue(item.get("media_url"));
         if (mediaUrl == null || mediaUrl.isBlank()) {
             return;
@@ -378,6 +392,16 @@ public class RecommendationServiceImpl implements RecommendationService {
         item.put("stream_type", lower.contains(".m3u8") ? "hls" : "file");
     }
 
+    /**
+     * Adds a WebP srcset for image URLs that carry a variant manifest.
+     */
+    private void attachImageSrcset(Map<String, Object> item, String urlKey, String srcsetKey) {
+        String srcset = ImageVariantUrls.srcset(stringValue(item.get(urlKey)), ImageFormat.WEBP);
+        if (srcset != null) {
+            item.put(srcsetKey, srcset);
+        }
+    }
+
     /**
      * Requires the access token.
      */
@@ -465,16 +489,6 @@ public class RecommendationServiceImpl implements RecommendationService {
             || normalized.contains("does not exist");
     }
 
-    /**
-     * Builds the query.
-     */
-    private String buildQuery(Map<String, String> params) {
-        UriComponentsBuilder builder = UriComponentsBuilder.newInstance();
-        params.forEach(builder::queryParam);
-        String uri = builder.build().encode().toUriString();
-        return uri.startsWith("?") ? uri.substring(1) : uri;
-    }
-
     /**
      * Parses the uuid.
      */
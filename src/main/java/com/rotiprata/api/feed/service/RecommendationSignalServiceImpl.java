@@ -1,7 +1,10 @@
 package com.rotiprata.api.feed.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.rotiprata.infrastructure.supabase.PostgrestQuery;
+import com.rotiprata.infrastructure.supabase.PostgrestSelect;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminRestClient;
+import com.rotiprata.infrastructure.supabase.SupabaseBatchFetcher;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -16,7 +19,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
-import org.springframework.web.util.UriComponentsBuilder;
 
 /**
  * Implements the recommendation signal loading workflows and persistence coordination used by the API layer.
@@ -25,13 +27,20 @@ import org.springframework.web.util.UriComponentsBuilder;
 public class RecommendationSignalServiceImpl implements RecommendationSignalService {
     private static final Logger log = LoggerFactory.getLogger(RecommendationSignalServiceImpl.class);
     private static final TypeReference<List<Map<String, Object>>> MAP_LIST = new TypeReference<>() {};
+    private static final PostgrestSelect AFFINITY_CONTENT_COLUMNS = PostgrestSelect.of("id,category_id,creator_id");
+    private static final PostgrestSelect AFFINITY_TAG_COLUMNS = PostgrestSelect.of("content_id,tag");
     private static final int INTERACTION_SCAN_LIMIT = 40;
     private static final int SEARCH_TERM_LIMIT = 12;
 
     private final SupabaseAdminRestClient supabaseAdminRestClient;
+    private final SupabaseBatchFetcher supabaseBatchFetcher;
 
-    public RecommendationSignalServiceImpl(SupabaseAdminRestClient supabaseAdminRestClient) {
+    public RecommendationSignalServiceImpl(
+        SupabaseAdminRestClient supabaseAdminRestClient,
+        SupabaseBatchFetcher supabaseBatchFetcher
+    ) {
         this.supabaseAdminRestClient = supabaseAdminRestClient;
+        this.supabaseBatchFetcher = supabaseBatchFetcher;
     }
 
     public RecommendationSignals loadSignals(UUID userId) {
@@ -221,13 +230,11 @@ public class RecommendationSignalServiceImpl implements RecommendationSignalServ
         Map<UUID, Integer> categoryAffinity,
         Map<UUID, Integer> creatorAffinity
     ) {
-        List<Map<String, Object>> contents = supabaseAdminRestClient.getList(
-            "content",
-            buildQuery(Map.of(
-                "select", "id,category_id,creator_id",
-                "id", "in.(" + joinUuids(interactionIds) + ")"
-            )),
-            MAP_LIST
+        List<Map<String, Object>> contents = supabaseBatchFetcher.fetchIn(
+            PostgrestQuery.select(AFFINITY_CONTENT_COLUMNS),
+            "id",
+            interactionIds,
+            query -> supabaseAdminRestClient.getList("content", query, MAP_LIST)
         );
 
         Map<UUID, Integer> weightByContentId = new LinkedHashMap<>();
@@ -255,13 +262,11 @@ public class RecommendationSignalServiceImpl implements RecommendationSignalServ
             }
         }
 
-        List<Map<String, Object>> tags = supabaseAdminRestClient.getList(
-            "content_tags",
-            buildQuery(Map.of(
-                "select", "content_id,tag",
-                "content_id", "in.(" + joinUuids(interactionIds) + ")"
-            )),
-            MAP_LIST
+        List<Map<String, Object>> tags = supabaseBatchFetcher.fetchIn(
+            PostgrestQuery.select(AFFINITY_TAG_COLUMNS),
+            "content_id",
+            interactionIds,
+            query -> supabaseAdminRestClient.getList("content_tags", query, MAP_LIST)
         );
 
         for (Map<String, Object> tagRow : tags) {
@@ -321,14 +326,7 @@ public class RecommendationSignalServiceImpl implements RecommendationSignalServ
     }
 
     private String buildQuery(Map<String, String> params) {
-        UriComponentsBuilder builder = UriComponentsBuilder.newInstance();
-        params.forEach(builder::queryParam);
-        String uri = builder.build().encode().toUriString();
-        return uri.startsWith("?") ? uri.substring(1) : uri;
-    }
-
-    private String joinUuids(Set<UUID> ids) {
-        return ids.stream().map(UUID::toString).collect(Collectors.joining(","));
+        return PostgrestQuery.of(params);
     }
 
     private UUID parseUuid(Object value) {
@@ -0,0 +1,142 @@
+package com.rotiprata.api.generalutils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded least-recently-used cache of embeddings keyed by a hash of the embedded text.
+ *
+ * <p>Texts are trimmed and whitespace-collapsed before hashing, so questions that differ only in
+ * spacing share an entry. Vectors are copied on the way in and out so callers cannot corrupt cached
+ * values. The persisted file records the embedding model and dimensions it was written with, and a
+ * file written for a different model is ignored rather than mixing incompatible vectors.
+ */
+final class EmbeddingCache {
+    private static final int FILE_FORMAT_VERSION = 2;
+
+    private final int maxEntries;
+    private final String model;
+    private final int dimensions;
+    private final LinkedHashMap<String, float[]> entries;
+
+    EmbeddingCache(int maxEntries, String model, int dimensions) {
+        this.maxEntries = Math.max(0, maxEntries);
+        this.model = model == null ? "" : model;
+        this.dimensions = dimensions;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, float[]> eldest) {
+                return size() > EmbeddingCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cache key for a text.
+     */
+    static String key(String text) {
+        String normalized = text.strip().replaceAll("\\s+", " ");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is unavailable", ex);
+        }
+    }
+
+    /**
+     * Returns a copy of the cached vector for the key, or null on a miss.
+     */
+    synchronized float[] get(String key) {
+        float[] vector = entries.get(key);
+        return vector == null ? null : vector.clone();
+    }
+
+    /**
+     * Stores a copy of the vector under the key, evicting the least recently used entry when full.
+     */
+    synchronized void put(String key, float[] vector) {
+        if (maxEntries > 0 && vector != null) {
+            entries.put(key, vector.clone());
+        }
+    }
+
+    /**
+     * Returns the number of cached embeddings.
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Loads entries saved by {@link #save}. A missing file, an older format, or a file written for
+     * another model or dimension count leaves the cache empty and returns false.
+     */
+    boolean load(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_FORMAT_VERSION
+                || !model.equals(in.readUTF())
+                || in.readInt() != dimensions) {
+                return false;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                float[] vector = new float[in.readInt()];
+                for (int j = 0; j < vector.length; j++) {
+                    vector[j] = in.readFloat();
+                }
+                if (vector.length == dimensions) {
+                    put(key, vector);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes every entry, least recently used first, replacing the file atomically.
+     */
+    void save(Path file) throws IOException {
+        List<Map.Entry<String, float[]>> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(entries.entrySet());
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = Files.createTempFile(parent, "embedding-cache", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(FILE_FORMAT_VERSION);
+            out.writeUTF(model);
+            out.writeInt(dimensions);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<String, float[]> entry : snapshot) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().length);
+                for (float value : entry.getValue()) {
+                    out.writeFloat(value);
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -1,5 +1,7 @@
 package com.rotiprata.api.generalutils;
 
+import java.util.List;
+
 /**
  * Service interface for generating and formatting embeddings.
  * Provides methods to generate embeddings for text and convert them into Postgres vector format.
@@ -19,6 +21,28 @@ public interface EmbeddingService {
      */
     float[] generateEmbedding(String text);
 
+    /**
+     * Generates embedding vectors for several texts in as few model calls as possible.
+     * Repeated and previously embedded texts are served from the cache.
+     *
+     * @param texts the input texts
+     * @return one vector per input text, in input order
+     * @throws org.springframework.web.server.ResponseStatusException if any text is null or blank
+     * @throws RuntimeException if the embedding generation fails
+     */
+    List<float[]> generateEmbeddings(List<String> texts);
+
+    /**
+     * Generates embedding vectors for several texts without reading the cache, so vectors embedded
+     * under an earlier model are replaced. The fresh vectors are written back to the cache.
+     *
+     * @param texts the input texts
+     * @return one vector per input text, in input order
+     * @throws org.springframework.web.server.ResponseStatusException if any text is null or blank
+     * @throws RuntimeException if the embedding generation fails
+     */
+    List<float[]> refreshEmbeddings(List<String> texts);
+
     /**
      * Converts the value into pg vector.
      */
@@ -1,7 +1,19 @@
 package com.rotiprata.api.generalutils;
 
+import com.rotiprata.config.EmbeddingProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.ai.openai.OpenAiEmbeddingModel;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
 
@@ -11,29 +23,154 @@ import org.springframework.http.HttpStatus;
 @Service
 public class EmbeddingServiceImpl implements EmbeddingService {
 
-    private final OpenAiEmbeddingModel embeddingModel;
+    private static final Logger log = LoggerFactory.getLogger(EmbeddingServiceImpl.class);
+
+    private final EmbeddingModel embeddingModel;
+    private final EmbeddingCache cache;
+    private final int batchSize;
+    private final Path persistPath;
 
     /**
      * Creates a embedding service impl instance with its collaborators.
      */
-    public EmbeddingServiceImpl(OpenAiEmbeddingModel embeddingModel) {
+    @Autowired
+    public EmbeddingServiceImpl(EmbeddingModel embeddingModel, EmbeddingProperties properties) {
         this.embeddingModel = embeddingModel;
+        this.cache = new EmbeddingCache(
+            properties.getCache().getMaxEntries(),
+            properties.getModel(),
+            properties.getDimensions()
+        );
+        this.batchSize = Math.max(1, properties.getBatchSize());
+        String path = properties.getCache().getPersistPath();
+        this.persistPath = path == null || path.isBlank() ? null : Path.of(path);
+    }
+
+    /**
+     * Creates a embedding service impl instance with default cache and batch settings.
+     */
+    public EmbeddingServiceImpl(EmbeddingModel embeddingModel) {
+        this(embeddingModel, new EmbeddingProperties());
+    }
+
+    /**
+     * Restores the persisted cache, if one is configured.
+     */
+    @PostConstruct
+    void loadCache() {
+        if (persistPath == null) {
+            return;
+        }
+        try {
+            if (cache.load(persistPath)) {
+                log.info("Loaded {} cached embeddings from {}", cache.size(), persistPath);
+            } else {
+                log.info("Starting with an empty embedding cache; nothing usable for this model at {}", persistPath);
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Ignoring unreadable embedding cache at {}: {}", persistPath, ex.getMessage());
+        }
+    }
+
+    /**
+     * Persists the cache, if configured, so a restart does not re-embed recent questions.
+     */
+    @PreDestroy
+    void saveCache() {
+        if (persistPath == null) {
+            return;
+        }
+        try {
+            cache.save(persistPath);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Failed to persist embedding cache to {}: {}", persistPath, ex.getMessage());
+        }
     }
 
     /**
      * Handles generate embedding.
      */
-    // Generates an embedding vector for the given text
+    // Generates an embedding vector for the given text, reusing a cached vector for repeated text
     @Override
     public float[] generateEmbedding(String text) {
-        if (text == null || text.isBlank()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Text for embedding is required");
+        requireText(text);
+        String key = EmbeddingCache.key(text);
+        float[] cached = cache.get(key);
+        if (cached != null) {
+            return cached;
         }
+        float[] vector;
         try {
-            return embeddingModel.embed(text);
+            vector = embeddingModel.embed(text);
         } catch (Exception e) {
             throw new RuntimeException("Failed to generate embedding", e);
         }
+        cache.put(key, vector);
+        return vector;
+    }
+
+    /**
+     * Generates embeddings for several texts, embedding only uncached distinct texts in batched calls.
+     */
+    @Override
+    public List<float[]> generateEmbeddings(List<String> texts) {
+        return embedAll(texts, true);
+    }
+
+    /**
+     * Embeds every distinct text with the model, ignoring cached vectors but caching the fresh ones.
+     */
+    @Override
+    public List<float[]> refreshEmbeddings(List<String> texts) {
+        return embedAll(texts, false);
+    }
+
+    private List<float[]> embedAll(List<String> texts, boolean useCache) {
+        if (texts == null || texts.isEmpty()) {
+            return List.of();
+        }
+        texts.forEach(EmbeddingServiceImpl::requireText);
+
+        List<String> keys = new ArrayList<>(texts.size());
+        Map<String, float[]> vectorsByKey = new LinkedHashMap<>();
+        Map<String, String> missesByKey = new LinkedHashMap<>();
+        for (String text : texts) {
+            String key = EmbeddingCache.key(text);
+            keys.add(key);
+            if (vectorsByKey.containsKey(key) || missesByKey.containsKey(key)) {
+                continue;
+            }
+            float[] cached = useCache ? cache.get(key) : null;
+            if (cached != null) {
+                vectorsByKey.put(key, cached);
+            } else {
+                missesByKey.put(key, text);
+            }
+        }
+
+        List<String> missKeys = new ArrayList<>(missesByKey.keySet());
+        for (int start = 0; start < missKeys.size(); start += batchSize) {
+            List<String> batchKeys = missKeys.subList(start, Math.min(missKeys.size(), start + batchSize));
+            List<float[]> batch;
+            try {
+                batch = embeddingModel.embed(batchKeys.stream().map(missesByKey::get).toList());
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to generate embedding", e);
+            }
+            if (batch == null || batch.size() != batchKeys.size()) {
+                throw new RuntimeException("Failed to generate embedding: expected " + batchKeys.size() + " vectors");
+            }
+            for (int i = 0; i < batchKeys.size(); i++) {
+                cache.put(batchKeys.get(i), batch.get(i));
+                vectorsByKey.put(batchKeys.get(i), batch.get(i));
+            }
+        }
+
+        List<float[]> results = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            results.add(vectorsByKey.get(key).clone());
+        }
+        return results;
     }
 
     /**
@@ -56,4 +193,10 @@ public class EmbeddingServiceImpl implements EmbeddingService {
         sb.append("]");
         return sb.toString();
     }
+
+    private static void requireText(String text) {
+        if (text == null || text.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Text for embedding is required");
+        }
+    }
 }
@@ -0,0 +1,67 @@
+package com.rotiprata.api.generalutils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Text analysis shared by the in-memory search paths, so lessons and videos are tokenized the same way.
+ */
+public final class SearchText {
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private SearchText() {
+    }
+
+    /**
+     * Splits text into lower-case, accent-free, stemmed terms.
+     */
+    public static List<String> analyze(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+            .replaceAll("")
+            .toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.add(stem(folded.substring(start, i)));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Strips common English inflections so "slays", "slayed" and "slaying" share a term.
+     */
+    public static String stem(String term) {
+        int length = term.length();
+        if (length <= 3 || !Character.isLetter(term.charAt(length - 1))) {
+            return term;
+        }
+        if (term.endsWith("ies") && length > 4) {
+            return term.substring(0, length - 3) + "y";
+        }
+        if (term.endsWith("sses")) {
+            return term.substring(0, length - 2);
+        }
+        if (term.endsWith("ing") && length > 5) {
+            return term.substring(0, length - 3);
+        }
+        if ((term.endsWith("ed") || term.endsWith("ly")) && length > 4) {
+            return term.substring(0, length - 2);
+        }
+        if (term.endsWith("s") && !term.endsWith("ss") && !term.endsWith("us") && !term.endsWith("is")) {
+            return term.substring(0, length - 1);
+        }
+        return term;
+    }
+}
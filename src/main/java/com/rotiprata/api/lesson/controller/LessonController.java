@@ -6,6 +6,7 @@ import com.rotiprata.api.admin.dto.AdminLessonDraftResponse;
 import com.rotiprata.api.admin.dto.AdminPublishLessonResponse;
 import com.rotiprata.api.admin.dto.AdminStepSaveRequest;
 import com.rotiprata.api.admin.dto.AdminStepSaveResponse;
+import com.rotiprata.api.lesson.dto.LessonCardResponse;
 import com.rotiprata.api.lesson.dto.LessonFeedRequest;
 import com.rotiprata.api.lesson.dto.LessonFeedResponse;
 import com.rotiprata.api.lesson.dto.LessonHubResponse;
@@ -26,6 +27,7 @@ import jakarta.validation.Valid;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -39,6 +41,7 @@ import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Exposes REST endpoints for the lesson controller flows.
@@ -61,7 +64,7 @@ public class LessonController {
      * Handles lessons.
      */
     @GetMapping("/lessons")
-    public List<Map<String, Object>> lessons() {
+    public List<LessonCardResponse> lessons() {
         return lessonService.getLessons(SecurityUtils.getAccessToken());
     }
 
@@ -94,7 +97,7 @@ public class LessonController {
      * Searches the lesson results.
      */
     @GetMapping("/lessons/search-results")
-    public List<Map<String, Object>> searchLessonResults(@RequestParam("q") String q) {
+    public List<LessonCardResponse> searchLessonResults(@RequestParam("q") String q) {
         return lessonService.searchLessons(q, SecurityUtils.getAccessToken());
     }
 
@@ -104,7 +107,7 @@ public class LessonController {
     @Hidden
     @Deprecated
     @GetMapping("/lessons/search")
-    public List<Map<String, Object>> searchLessons(@RequestParam("q") String q) {
+    public List<LessonCardResponse> searchLessons(@RequestParam("q") String q) {
         return searchLessonResults(q);
     }
 
@@ -404,6 +407,15 @@ public class LessonController {
         return lessonService.createLesson(userId, payload, SecurityUtils.getAccessToken());
     }
 
+    /**
+     * Re-embeds every published lesson.
+     */
+    @PostMapping("/admin/lessons/embeddings/refresh")
+    public Map<String, Object> reembedLessons(@AuthenticationPrincipal Jwt jwt) {
+        UUID userId = SecurityUtils.getUserId(jwt);
+        return lessonService.reembedLessons(userId, SecurityUtils.getAccessToken());
+    }
+
     /**
      * Updates the lesson.
      */
@@ -566,4 +578,17 @@ public class LessonController {
         UUID userId = SecurityUtils.getUserId(jwt);
         return lessonService.getLessonMediaStatus(userId, lessonId, assetId, SecurityUtils.getAccessToken());
     }
+
+    /**
+     * Streams lesson media status updates as server-sent events.
+     */
+    @GetMapping(value = "/admin/lessons/{lessonId}/media/{assetId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter lessonMediaStatusEvents(
+        @AuthenticationPrincipal Jwt jwt,
+        @PathVariable UUID lessonId,
+        @PathVariable UUID assetId
+    ) {
+        UUID userId = SecurityUtils.getUserId(jwt);
+        return lessonService.streamLessonMediaStatus(userId, lessonId, assetId, SecurityUtils.getAccessToken());
+    }
 }
@@ -0,0 +1,28 @@
+package com.rotiprata.api.lesson.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Card projection of a lesson row for list, search and feed endpoints; keeps the snake_case keys of
+ * the full row so list clients read the same fields.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record LessonCardResponse(
+    UUID id,
+    String title,
+    String description,
+    String summary,
+    Integer difficultyLevel,
+    Integer estimatedMinutes,
+    Integer xpReward,
+    Integer completionCount,
+    String badgeName,
+    String badgeIconUrl,
+    UUID categoryId,
+    Boolean isPublished,
+    OffsetDateTime createdAt,
+    OffsetDateTime updatedAt
+) {}
@@ -1,10 +1,9 @@
 package com.rotiprata.api.lesson.dto;
 
 import java.util.List;
-import java.util.Map;
 
 public record LessonFeedResponse(
-    List<Map<String, Object>> items,
+    List<LessonCardResponse> items,
     boolean hasMore,
     int page,
     int pageSize
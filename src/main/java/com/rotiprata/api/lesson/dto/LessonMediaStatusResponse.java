@@ -1,5 +1,6 @@
 package com.rotiprata.api.lesson.dto;
 
+import com.rotiprata.media.progress.MediaJobProgress;
 import java.util.UUID;
 
 public record LessonMediaStatusResponse(
@@ -8,5 +9,6 @@ public record LessonMediaStatusResponse(
     String mediaKind,
     String playbackUrl,
     String thumbnailUrl,
-    String errorMessage
+    String errorMessage,
+    MediaJobProgress progress
 ) {}
@@ -0,0 +1,8 @@
+package com.rotiprata.api.lesson.dto;
+
+import java.util.List;
+
+public record RelevantLessonContext(
+    String context,
+    List<String> lessonVersions
+) {}
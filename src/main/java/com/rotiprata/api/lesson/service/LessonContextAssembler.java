@@ -0,0 +1,235 @@
+package com.rotiprata.api.lesson.service;
+
+import com.rotiprata.api.generalutils.SearchText;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Packs the most relevant lesson passages for a chatbot question into a fixed token budget.
+ *
+ * <p>Lessons are split into section chunks of at most {@code chunkTokens} estimated tokens when the
+ * vector index is loaded. For a question, every chunk of the retrieved lessons is scored by how many
+ * question terms it contains, plus a boost that decays with its lesson's vector rank and a small one
+ * for the lesson overview, so a lesson is still introduced when no passage shares a word with the
+ * question. Chunks are taken best first while they fit the budget, then printed grouped by lesson in
+ * their original order so the prompt reads like the lesson.
+ */
+final class LessonContextAssembler {
+    private static final Pattern SENTENCE_END = Pattern.compile("(?<=[.!?])\\s+|\\n+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final double TERM_WEIGHT = 1.0;
+    private static final double PREFIX_WEIGHT = 0.5;
+    private static final double LESSON_RANK_WEIGHT = 0.6;
+    private static final double OVERVIEW_BONUS = 0.4;
+    static final String OVERVIEW = "Overview";
+
+    private final int tokenBudget;
+    private final int chunkTokens;
+
+    LessonContextAssembler(int tokenBudget, int chunkTokens) {
+        this.tokenBudget = Math.max(1, tokenBudget);
+        this.chunkTokens = Math.max(1, chunkTokens);
+    }
+
+    /**
+     * Estimates the model token count of a text without a tokenizer: each run of letters or digits
+     * costs one token per four characters, rounded up, and every other visible character one token.
+     * This tracks byte-pair encoders closely enough for English lesson text.
+     */
+    static int estimateTokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int tokens = 0;
+        int run = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                run++;
+                continue;
+            }
+            tokens += (run + 3) / 4;
+            run = 0;
+            if (!Character.isWhitespace(c)) {
+                tokens++;
+            }
+        }
+        return tokens + (run + 3) / 4;
+    }
+
+    /**
+     * Splits a lesson into chunks, one or more per non-blank section in the given order. Sections are
+     * split at sentence boundaries, and a sentence longer than a chunk is split between words.
+     */
+    List<Chunk> chunk(Map<String, String> sections) {
+        List<Chunk> chunks = new ArrayList<>();
+        for (Map.Entry<String, String> section : sections.entrySet()) {
+            String text = section.getValue() == null ? "" : section.getValue().strip();
+            if (text.isEmpty()) {
+                continue;
+            }
+            StringBuilder current = new StringBuilder();
+            int currentTokens = 0;
+            for (String piece : pieces(text)) {
+                int pieceTokens = estimateTokens(piece);
+                if (currentTokens > 0 && currentTokens + pieceTokens > chunkTokens) {
+                    chunks.add(Chunk.of(section.getKey(), current.toString()));
+                    current.setLength(0);
+                    currentTokens = 0;
+                }
+                if (current.length() > 0) {
+                    current.append(' ');
+                }
+                current.append(piece);
+                currentTokens += pieceTokens;
+            }
+            if (currentTokens > 0) {
+                chunks.add(Chunk.of(section.getKey(), current.toString()));
+            }
+        }
+        return List.copyOf(chunks);
+    }
+
+    /**
+     * Returns the context for a question from the given lessons, most similar lesson first, keeping the
+     * total estimated tokens within the budget.
+     */
+    String assemble(String question, List<Lesson> lessons) {
+        List<String> terms = SearchText.analyze(question).stream().distinct().toList();
+        List<Scored> scored = new ArrayList<>();
+        for (int rank = 0; rank < lessons.size(); rank++) {
+            Lesson lesson = lessons.get(rank);
+            double lessonBoost = LESSON_RANK_WEIGHT / (rank + 1);
+            for (int position = 0; position < lesson.chunks().size(); position++) {
+                Chunk chunk = lesson.chunks().get(position);
+                double score = relevance(terms, chunk.terms()) + lessonBoost;
+                if (OVERVIEW.equals(chunk.section())) {
+                    score += OVERVIEW_BONUS;
+                }
+                scored.add(new Scored(rank, position, chunk, score));
+            }
+        }
+        scored.sort(Comparator.comparingDouble(Scored::score).reversed()
+            .thenComparingInt(Scored::rank)
+            .thenComparingInt(Scored::position));
+
+        int remaining = tokenBudget;
+        List<Scored> picked = new ArrayList<>();
+        for (Scored candidate : scored) {
+            int cost = candidate.chunk().tokens() + (picked.stream().anyMatch(p -> p.rank() == candidate.rank())
+                ? 0
+                : estimateTokens(lessons.get(candidate.rank()).title()) + 1);
+            if (cost <= remaining) {
+                picked.add(candidate);
+                remaining -= cost;
+            }
+        }
+        picked.sort(Comparator.comparingInt(Scored::rank).thenComparingInt(Scored::position));
+
+        Map<Integer, StringBuilder> byLesson = new LinkedHashMap<>();
+        for (Scored chunk : picked) {
+            byLesson.computeIfAbsent(chunk.rank(), rank -> new StringBuilder(lessons.get(rank).title()))
+                .append('\n').append(chunk.chunk().section()).append(": ").append(chunk.chunk().text());
+        }
+        return String.join("\n\n", byLesson.values());
+    }
+
+    private static double relevance(List<String> terms, Set<String> chunkTerms) {
+        if (terms.isEmpty()) {
+            return 0;
+        }
+        double total = 0;
+        for (String term : terms) {
+            if (chunkTerms.contains(term)) {
+                total += TERM_WEIGHT;
+            } else if (chunkTerms.stream().anyMatch(chunkTerm -> chunkTerm.startsWith(term))) {
+                total += PREFIX_WEIGHT;
+            }
+        }
+        return total / terms.size();
+    }
+
+    private List<String> pieces(String text) {
+        List<String> pieces = new ArrayList<>();
+        for (String sentence : SENTENCE_END.split(text)) {
+            String trimmed = WHITESPACE.matcher(sentence.strip()).replaceAll(" ");
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (estimateTokens(trimmed) <= chunkTokens) {
+                pieces.add(trimmed);
+                continue;
+            }
+            StringBuilder part = new StringBuilder();
+            int partTokens = 0;
+            for (String word : trimmed.split(" ")) {
+                int wordTokens = estimateTokens(word);
+                if (partTokens > 0 && partTokens + wordTokens > chunkTokens) {
+                    pieces.add(part.toString());
+                    part.setLength(0);
+                    partTokens = 0;
+                }
+                if (part.length() > 0) {
+                    part.append(' ');
+                }
+                part.append(word);
+                partTokens += wordTokens;
+            }
+            if (part.length() > 0) {
+                pieces.add(part.toString());
+            }
+        }
+        return pieces;
+    }
+
+    /**
+     * A passage of one lesson section with its estimated token cost and analyzed terms.
+     */
+    record Chunk(String section, String text, int tokens, Set<String> terms) {
+
+        static Chunk of(String section, String text) {
+            return new Chunk(section, text, estimateTokens(section + ": " + text), Set.copyOf(SearchText.analyze(text)));
+        }
+    }
+
+    /**
+     * A retrieved lesson: its title and chunks.
+     */
+    record Lesson(String title, List<Chunk> chunks) {
+
+        Lesson {
+            title = title == null ? "" : title;
+            chunks = chunks == null ? List.of() : List.copyOf(chunks);
+        }
+
+        /**
+         * Returns a hash of the title and every chunk, identifying this version of the lesson text.
+         */
+        String fingerprint() {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                digest.update(title.getBytes(StandardCharsets.UTF_8));
+                for (Chunk chunk : chunks) {
+                    digest.update((byte) 0);
+                    digest.update(chunk.section().getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) 0);
+                    digest.update(chunk.text().getBytes(StandardCharsets.UTF_8));
+                }
+                return HexFormat.of().formatHex(digest.digest());
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException("SHA-256 is unavailable", ex);
+            }
+        }
+    }
+
+    private record Scored(int rank, int position, Chunk chunk, double score) {}
+}
@@ -0,0 +1,62 @@
+package com.rotiprata.api.lesson.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived per-user cache of stored hearts rows so hearts polling does not hit the database on
+ * every request. Writes on this instance refresh the entry; the TTL bounds staleness from others,
+ * and deductions are conditional, so a stale entry can only cause a retryable conflict.
+ */
+final class LessonHeartsCache {
+    private static final int CLEANUP_INTERVAL = 256;
+
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger operationCounter = new AtomicInteger();
+
+    LessonHeartsCache(Duration ttl) {
+        this(ttl, System::currentTimeMillis);
+    }
+
+    LessonHeartsCache(Duration ttl, LongSupplier clock) {
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached snapshot, or {@code null} when absent or expired.
+     */
+    LessonHeartsSnapshot get(UUID userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null || clock.getAsLong() - entry.storedAtMillis() >= ttlMillis) {
+            return null;
+        }
+        return entry.snapshot();
+    }
+
+    /**
+     * Stores the snapshot last read or written for a user.
+     */
+    void put(UUID userId, LessonHeartsSnapshot snapshot) {
+        long now = clock.getAsLong();
+        if (operationCounter.incrementAndGet() % CLEANUP_INTERVAL == 0) {
+            entries.values().removeIf(entry -> now - entry.storedAtMillis() >= ttlMillis);
+        }
+        entries.put(userId, new Entry(snapshot, now));
+    }
+
+    /**
+     * Drops the cached snapshot for a user.
+     */
+    void evict(UUID userId) {
+        entries.remove(userId);
+    }
+
+    private record Entry(LessonHeartsSnapshot snapshot, long storedAtMillis) {}
+}
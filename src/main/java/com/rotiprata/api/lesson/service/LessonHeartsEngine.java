@@ -0,0 +1,64 @@
+package com.rotiprata.api.lesson.service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+/**
+ * Computes learner hearts from the stored row without writing it back. Hearts refill to the maximum
+ * once {@code refill_at} passes; while full, the schedule simply rolls forward by whole intervals, so
+ * reads are stable and only deductions need to persist anything.
+ */
+final class LessonHeartsEngine {
+    private final int maxHearts;
+    private final Duration refillInterval;
+
+    LessonHeartsEngine(int maxHearts, Duration refillInterval) {
+        this.maxHearts = maxHearts;
+        this.refillInterval = refillInterval;
+    }
+
+    /**
+     * Returns the hearts a learner has at {@code now} for the stored row values.
+     */
+    LessonHeartsSnapshot read(Integer storedHearts, OffsetDateTime storedRefillAt, OffsetDateTime now) {
+        int stored = storedHearts == null ? maxHearts : Math.max(0, Math.min(storedHearts, maxHearts));
+        if (storedRefillAt == null) {
+            return new LessonHeartsSnapshot(maxHearts, nextRefillAt(now), stored, null);
+        }
+        if (now.isBefore(storedRefillAt)) {
+            return new LessonHeartsSnapshot(stored, storedRefillAt, stored, storedRefillAt);
+        }
+        return new LessonHeartsSnapshot(maxHearts, rollForward(storedRefillAt, now), stored, storedRefillAt);
+    }
+
+    /**
+     * Returns the state after a wrong answer; its stored values are the row to write.
+     */
+    LessonHeartsSnapshot deduct(LessonHeartsSnapshot current, OffsetDateTime now) {
+        int nextHearts = Math.max(0, current.heartsRemaining() - 1);
+        OffsetDateTime refillAt = current.heartsRemaining() >= maxHearts ? nextRefillAt(now) : current.refillAt();
+        return new LessonHeartsSnapshot(nextHearts, refillAt, nextHearts, refillAt);
+    }
+
+    /**
+     * Returns the row values for a learner without a hearts row yet.
+     */
+    LessonHeartsSnapshot initial(OffsetDateTime now) {
+        OffsetDateTime refillAt = nextRefillAt(now);
+        return new LessonHeartsSnapshot(maxHearts, refillAt, maxHearts, refillAt);
+    }
+
+    /**
+     * Returns when a refill started at {@code now} completes.
+     */
+    OffsetDateTime nextRefillAt(OffsetDateTime now) {
+        return now.plus(refillInterval);
+    }
+
+    private OffsetDateTime rollForward(OffsetDateTime refillAt, OffsetDateTime now) {
+        long intervalMillis = refillInterval.toMillis();
+        long elapsedMillis = Duration.between(refillAt, now).toMillis();
+        long intervals = elapsedMillis / intervalMillis + 1;
+        return refillAt.plus(refillInterval.multipliedBy(intervals));
+    }
+}
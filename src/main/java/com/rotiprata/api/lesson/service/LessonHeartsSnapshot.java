@@ -0,0 +1,14 @@
+package com.rotiprata.api.lesson.service;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Learner hearts as shown to the client, together with the {@code user_quiz_hearts} values they were
+ * computed from. The stored values are the guard for the next conditional write.
+ */
+record LessonHeartsSnapshot(
+    int heartsRemaining,
+    OffsetDateTime refillAt,
+    int storedHearts,
+    OffsetDateTime storedRefillAt
+) {}
@@ -0,0 +1,100 @@
+package com.rotiprata.api.lesson.service;
+
+import com.rotiprata.api.lesson.dto.LessonHubCategoryResponse;
+import com.rotiprata.api.lesson.dto.LessonHubLessonResponse;
+import com.rotiprata.api.lesson.dto.LessonHubResponse;
+import com.rotiprata.api.lesson.dto.LessonHubSummaryResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * User-independent part of the lesson hub: published lessons as hub cards, already grouped by
+ * category and sorted. Shared by every learner and overlaid with one user's progress per request.
+ */
+record LessonHubCatalog(List<Category> categories, int totalLessons) {
+
+    LessonHubCatalog {
+        categories = List.copyOf(categories);
+    }
+
+    /**
+     * Builds the hub response for one learner from their progress by lesson id and current streak.
+     */
+    LessonHubResponse overlay(Map<String, Integer> progressByLesson, int currentStreak) {
+        List<LessonHubCategoryResponse> hubCategories = new ArrayList<>(categories.size());
+        int completedLessons = 0;
+        for (Category category : categories) {
+            List<LessonHubLessonResponse> hubLessons = new ArrayList<>(category.lessons().size());
+            for (Card card : category.lessons()) {
+                int progress = card.lessonKey() == null ? 0 : progressByLesson.getOrDefault(card.lessonKey(), 0);
+                boolean completed = progress >= 100;
+                if (completed) {
+                    completedLessons += 1;
+                }
+                hubLessons.add(card.toResponse(progress, completed));
+            }
+            hubCategories.add(
+                new LessonHubCategoryResponse(
+                    category.categoryId(),
+                    category.name(),
+                    category.type(),
+                    category.color(),
+                    category.isVirtual(),
+                    hubLessons
+                )
+            );
+        }
+        return new LessonHubResponse(
+            hubCategories,
+            new LessonHubSummaryResponse(totalLessons, completedLessons, currentStreak)
+        );
+    }
+
+    /**
+     * A hub category with its lesson cards in display order.
+     */
+    record Category(
+        UUID categoryId,
+        String name,
+        String type,
+        String color,
+        boolean isVirtual,
+        List<Card> lessons
+    ) {
+        Category {
+            lessons = List.copyOf(lessons);
+        }
+    }
+
+    /**
+     * The hub-card columns of a published lesson; {@code lessonKey} is the id as progress rows key it.
+     */
+    record Card(
+        UUID lessonId,
+        String lessonKey,
+        String title,
+        String summary,
+        Integer difficultyLevel,
+        Integer estimatedMinutes,
+        Integer xpReward,
+        Integer completionCount
+    ) {
+        LessonHubLessonResponse toResponse(int progress, boolean completed) {
+            return new LessonHubLessonResponse(
+                lessonId,
+                title,
+                summary,
+                difficultyLevel,
+                estimatedMinutes,
+                xpReward,
+                completionCount,
+                progress,
+                completed,
+                progress > 0 && !completed,
+                false
+            );
+        }
+    }
+}
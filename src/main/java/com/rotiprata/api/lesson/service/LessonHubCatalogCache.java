@@ -0,0 +1,60 @@
+package com.rotiprata.api.lesson.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Single-entry cache of the shared {@link LessonHubCatalog}.
+ *
+ * <p>Invalidated whenever an admin creates, edits, publishes, moves or archives a lesson, and
+ * expires after a TTL so other instances and counters such as completion counts converge. A load
+ * that races with an invalidation is returned to its caller but not stored.
+ */
+final class LessonHubCatalogCache {
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Entry entry;
+
+    LessonHubCatalogCache(Duration ttl) {
+        this(ttl, System::currentTimeMillis);
+    }
+
+    LessonHubCatalogCache(Duration ttl, LongSupplier clock) {
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached catalogue or loads it; loader failures propagate and are not cached.
+     */
+    LessonHubCatalog get(Supplier<LessonHubCatalog> loader) {
+        long now = clock.getAsLong();
+        Entry current = entry;
+        if (current != null && now - current.loadedAtMillis() < ttlMillis) {
+            return current.catalog();
+        }
+        long loadGeneration = generation.get();
+        LessonHubCatalog catalog = loader.get();
+        synchronized (this) {
+            if (generation.get() == loadGeneration) {
+                entry = new Entry(catalog, now);
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * Drops the cached catalogue.
+     */
+    void invalidate() {
+        synchronized (this) {
+            generation.incrementAndGet();
+            entry = null;
+        }
+    }
+
+    private record Entry(LessonHubCatalog catalog, long loadedAtMillis) {}
+}
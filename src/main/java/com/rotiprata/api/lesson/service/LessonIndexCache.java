@@ -0,0 +1,166 @@
+package com.rotiprata.api.lesson.service;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Holds an immutable in-memory lesson index and keeps it in step with lesson writes.
+ *
+ * <p>Admin writes mark the lesson as changed; the next lookup reloads just those lessons and patches
+ * them into the index. The whole index is rebuilt after a TTL so writes made on other instances
+ * converge. Ids are drained before a reload starts, so a write that lands mid-load is applied on the
+ * following lookup instead of being lost. Only one thread rebuilds at a time: while it does, other
+ * lookups keep serving the stale index, and lookups with no index yet wait for the rebuild.
+ *
+ * @param <T> the lesson row the index is built from
+ * @param <I> the index type
+ */
+final class LessonIndexCache<T, I> {
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final Function<List<T>, I> build;
+    private final Updater<T, I> update;
+    private final Set<UUID> changedIds = new LinkedHashSet<>();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Entry<I> entry;
+
+    LessonIndexCache(Duration ttl, Function<List<T>, I> build, Updater<T, I> update) {
+        this(ttl, System::currentTimeMillis, build, update);
+    }
+
+    LessonIndexCache(Duration ttl, LongSupplier clock, Function<List<T>, I> build, Updater<T, I> update) {
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.build = build;
+        this.update = update;
+    }
+
+    /**
+     * Returns an index reflecting every change marked so far; {@code loadAll} returns every indexable
+     * row and {@code loadChanged} the still-indexable rows among the given ids. Loader failures
+     * propagate and leave the pending changes queued.
+     */
+    I get(Supplier<List<T>> loadAll, Function<Set<UUID>, List<T>> loadChanged) {
+        Entry<I> current = entry;
+        while (isStale(current)) {
+            I rebuilt = rebuild(loadAll, current);
+            if (rebuilt != null) {
+                return rebuilt;
+            }
+            current = entry;
+            if (current != null) {
+                // Fresh from another thread, or stale while another thread rebuilds it.
+                break;
+            }
+        }
+
+        Set<UUID> drained = drainChanged();
+        if (drained.isEmpty()) {
+            return current.index();
+        }
+        List<T> refreshed;
+        try {
+            refreshed = loadChanged.apply(drained);
+        } catch (RuntimeException ex) {
+            requeue(drained);
+            throw ex;
+        }
+        I index = update.apply(current.index(), refreshed, drained);
+        synchronized (this) {
+            if (entry == current) {
+                entry = new Entry<>(index, current.loadedAtMillis());
+            } else {
+                // Another thread replaced the index meanwhile; let the next search re-apply these ids.
+                changedIds.addAll(drained);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Queues a lesson to be reloaded into the index on the next lookup.
+     */
+    void markChanged(UUID lessonId) {
+        if (lessonId == null) {
+            return;
+        }
+        synchronized (this) {
+            changedIds.add(lessonId);
+        }
+    }
+
+    /**
+     * Drops the current index so the next lookup rebuilds it from scratch.
+     */
+    synchronized void invalidate() {
+        entry = null;
+    }
+
+    /**
+     * Rebuilds the whole index unless another thread is already doing so or has just done so, in
+     * which case it returns null and the caller uses the current entry.
+     */
+    private I rebuild(Supplier<List<T>> loadAll, Entry<I> seen) {
+        if (seen != null) {
+            if (!rebuildLock.tryLock()) {
+                return null;
+            }
+        } else {
+            rebuildLock.lock();
+        }
+        try {
+            Entry<I> latest = entry;
+            if (latest != seen && !isStale(latest)) {
+                return null;
+            }
+            long now = clock.getAsLong();
+            Set<UUID> drained = drainChanged();
+            try {
+                I index = build.apply(loadAll.get());
+                synchronized (this) {
+                    entry = new Entry<>(index, now);
+                }
+                return index;
+            } catch (RuntimeException ex) {
+                requeue(drained);
+                throw ex;
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private boolean isStale(Entry<I> current) {
+        return current == null || clock.getAsLong() - current.loadedAtMillis() >= ttlMillis;
+    }
+
+    private synchronized Set<UUID> drainChanged() {
+        if (changedIds.isEmpty()) {
+            return Set.of();
+        }
+        Set<UUID> drained = new LinkedHashSet<>(changedIds);
+        changedIds.clear();
+        return drained;
+    }
+
+    private synchronized void requeue(Set<UUID> ids) {
+        changedIds.addAll(ids);
+    }
+
+    /**
+     * Produces a new index with the changed ids removed and the reloaded rows added.
+     */
+    @FunctionalInterface
+    interface Updater<T, I> {
+        I apply(I index, List<T> upserts, Set<UUID> changedIds);
+    }
+
+    private record Entry<I>(I index, long loadedAtMillis) {}
+}
@@ -0,0 +1,56 @@
+package com.rotiprata.api.lesson.service;
+
+import com.rotiprata.infrastructure.supabase.PostgrestSelect;
+
+/**
+ * Named {@code select} column sets for reads of the {@code lessons} table, one per use case, so
+ * list endpoints stop pulling long-form content and embeddings they never render.
+ */
+enum LessonProjection {
+    /**
+     * Learner list, search and feed cards; decoded into {@code LessonCardResponse}.
+     */
+    CARD(
+        "id,title,description,summary,difficulty_level,estimated_minutes,xp_reward,completion_count,"
+            + "badge_name,badge_icon_url,category_id,is_published,created_at,updated_at"
+    ),
+    /**
+     * Lesson hub cards plus the columns the hub groups and sorts by.
+     */
+    HUB_CARD(
+        "id,title,summary,difficulty_level,estimated_minutes,xp_reward,completion_count,category_id,created_at"
+    ),
+    /**
+     * Learner lesson page: everything the lesson flow renders, without the embedding vector.
+     */
+    DETAIL(
+        "id,created_by,title,description,summary,learning_objectives,estimated_minutes,xp_reward,"
+            + "badge_name,badge_icon_url,difficulty_level,category_id,is_published,is_active,archived_at,"
+            + "completion_count,origin_content,definition_content,usage_examples,lore_content,"
+            + "evolution_content,comparison_content,created_at,updated_at"
+    ),
+    /**
+     * Admin authoring reads, which echo the full row back to the editor.
+     */
+    ADMIN("*");
+
+    private final PostgrestSelect select;
+
+    LessonProjection(String columns) {
+        this.select = PostgrestSelect.of(columns);
+    }
+
+    /**
+     * Returns the PostgREST {@code select} value for this projection.
+     */
+    String columns() {
+        return select.columns();
+    }
+
+    /**
+     * Returns the precomputed select clause for {@code PostgrestQuery}.
+     */
+    PostgrestSelect select() {
+        return select;
+    }
+}
@@ -0,0 +1,100 @@
+package com.rotiprata.api.lesson.service;
+
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Everything a graded quiz answer needs to persist: the guarded attempt transition, the optional
+ * heart deduction, the final result row and the lesson rewards. Sent as a single
+ * {@code submit_lesson_quiz_answer} RPC or applied call by call when that function is unavailable.
+ */
+record LessonQuizAnswerCommand(
+    UUID userId,
+    UUID lessonId,
+    String attemptId,
+    String quizId,
+    int expectedQuestionIndex,
+    String expectedStatus,
+    Map<String, Object> answers,
+    int nextQuestionIndex,
+    int correctCount,
+    int earnedScore,
+    int maxScore,
+    String status,
+    OffsetDateTime answeredAt,
+    boolean completed,
+    boolean passed,
+    Map<String, Object> resultAnswers,
+    int expectedHearts,
+    OffsetDateTime expectedRefillAt,
+    Integer heartsRemaining,
+    OffsetDateTime heartsRefillAt,
+    String lastSectionId,
+    int xpReward,
+    String badgeName
+) {
+
+    /**
+     * Returns whether the answer deducts a heart.
+     */
+    boolean deductsHeart() {
+        return heartsRemaining != null;
+    }
+
+    /**
+     * Returns the score percentage recorded on the quiz result.
+     */
+    double percentage() {
+        return maxScore <= 0 ? 0 : (earnedScore * 100.0 / maxScore);
+    }
+
+    /**
+     * Builds the attempt patch applied when the attempt is still at the expected question.
+     */
+    Map<String, Object> attemptPatch() {
+        Map<String, Object> patch = new LinkedHashMap<>();
+        patch.put("answers", answers);
+        patch.put("current_question_index", nextQuestionIndex);
+        patch.put("correct_count", correctCount);
+        patch.put("earned_score", earnedScore);
+        patch.put("max_score", maxScore);
+        patch.put("status", status);
+        patch.put("updated_at", answeredAt);
+        patch.put("completed_at", completed ? answeredAt : null);
+        return patch;
+    }
+
+    /**
+     * Builds the named arguments of the {@code submit_lesson_quiz_answer} RPC.
+     */
+    Map<String, Object> toRpcParams() {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("p_user_id", userId);
+        params.put("p_lesson_id", lessonId);
+        params.put("p_attempt_id", attemptId);
+        params.put("p_quiz_id", quizId);
+        params.put("p_expected_question_index", expectedQuestionIndex);
+        params.put("p_expected_status", expectedStatus);
+        params.put("p_answers", answers);
+        params.put("p_next_question_index", nextQuestionIndex);
+        params.put("p_correct_count", correctCount);
+        params.put("p_earned_score", earnedScore);
+        params.put("p_max_score", maxScore);
+        params.put("p_status", status);
+        params.put("p_answered_at", answeredAt);
+        params.put("p_completed", completed);
+        params.put("p_passed", passed);
+        params.put("p_result_answers", completed ? resultAnswers : null);
+        params.put("p_percentage", percentage());
+        params.put("p_expected_hearts", expectedHearts);
+        params.put("p_expected_refill_at", expectedRefillAt);
+        params.put("p_hearts_remaining", heartsRemaining);
+        params.put("p_hearts_refill_at", heartsRefillAt);
+        params.put("p_last_section_id", lastSectionId);
+        params.put("p_xp_reward", xpReward);
+        params.put("p_badge_name", badgeName);
+        return params;
+    }
+}
@@ -0,0 +1,34 @@
+package com.rotiprata.api.lesson.service;
+
+import com.rotiprata.api.lesson.utils.quiz.LessonQuizAnswerKey;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of a published lesson quiz: the lesson row, its learner sections, the active
+ * quiz, its ordered questions and the answer key compiled for each question.
+ */
+record LessonQuizDefinition(
+    Map<String, Object> lesson,
+    List<Map<String, Object>> sections,
+    Map<String, Object> quiz,
+    List<Map<String, Object>> questions,
+    Map<String, LessonQuizAnswerKey> answerKeysByQuestionId,
+    int maxScore
+) {
+
+    /**
+     * Returns the id of the quiz this snapshot was built from.
+     */
+    String quizId() {
+        Object id = quiz.get("id");
+        return id == null ? null : id.toString();
+    }
+
+    /**
+     * Returns the answer key compiled for a question, or {@code null} when it could not be compiled.
+     */
+    LessonQuizAnswerKey answerKeyFor(String questionId) {
+        return questionId == null ? null : answerKeysByQuestionId.get(questionId);
+    }
+}
@@ -0,0 +1,59 @@
+package com.rotiprata.api.lesson.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Per-lesson cache of {@link LessonQuizDefinition} snapshots.
+ *
+ * <p>Entries are dropped explicitly when an admin replaces or archives a quiz or edits the lesson,
+ * and expire after a TTL so other instances converge. A load that races with an eviction is
+ * returned to its caller but not stored, so an eviction is never undone by an in-flight read.
+ */
+final class LessonQuizDefinitionCache {
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    LessonQuizDefinitionCache(Duration ttl) {
+        this(ttl, System::currentTimeMillis);
+    }
+
+    LessonQuizDefinitionCache(Duration ttl, LongSupplier clock) {
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached definition or loads it; loader failures propagate and are not cached.
+     */
+    LessonQuizDefinition get(UUID lessonId, Supplier<LessonQuizDefinition> loader) {
+        long now = clock.getAsLong();
+        Entry entry = entries.get(lessonId);
+        if (entry != null && now - entry.loadedAtMillis() < ttlMillis) {
+            return entry.definition();
+        }
+        long loadGeneration = generation.get();
+        LessonQuizDefinition definition = loader.get();
+        if (generation.get() == loadGeneration) {
+            entries.put(lessonId, new Entry(definition, now));
+        }
+        return definition;
+    }
+
+    /**
+     * Drops the cached definition for a lesson.
+     */
+    void evict(UUID lessonId) {
+        generation.incrementAndGet();
+        entries.remove(lessonId);
+    }
+
+    private record Entry(LessonQuizDefinition definition, long loadedAtMillis) {}
+}
@@ -41,6 +41,11 @@ public interface LessonQuizService {
      */
     LessonHeartsStatusResponse getHeartsStatus(UUID userId, String accessToken);
 
+    /**
+     * Drops any cached quiz definition for the lesson after its quiz or content changes.
+     */
+    void evictQuizDefinition(UUID lessonId);
+
     /**
      * Handles answer question.
      */
@@ -8,36 +8,56 @@ import com.rotiprata.api.lesson.dto.LessonQuizQuestionResponse;
 import com.rotiprata.api.lesson.dto.LessonQuizStateResponse;
 import com.rotiprata.api.lesson.service.LessonQuizService.ProgressMetadata;
 import com.rotiprata.api.lesson.utils.LessonFlowConstants;
+import com.rotiprata.api.lesson.utils.quiz.LessonQuizAnswerKey;
 import com.rotiprata.api.lesson.utils.quiz.LessonQuizGradeResult;
 import com.rotiprata.api.lesson.utils.quiz.LessonQuizGraderRegistry;
 import com.rotiprata.api.lesson.utils.quiz.LessonQuizQuestionGrader;
+import com.rotiprata.api.user.service.LeaderboardEngine;
+import com.rotiprata.infrastructure.supabase.PostgrestQuery;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminRestClient;
 import com.rotiprata.infrastructure.supabase.SupabaseRestClient;
+import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.server.ResponseStatusException;
-import org.springframework.web.util.UriComponentsBuilder;
 
 /**
  * Implements the lesson quiz service workflows and persistence coordination used by the API layer.
  */
 @Service
 public class LessonQuizServiceImpl implements LessonQuizService {
+    private static final Logger log = LoggerFactory.getLogger(LessonQuizServiceImpl.class);
     private static final TypeReference<List<Map<String, Object>>> MAP_LIST = new TypeReference<>() {};
     private static final String ATTEMPT_META_WRONG_QUESTION_IDS = "__wrong_question_ids";
     private static final String ATTEMPT_META_QUESTION_IDS = "__question_ids";
+    private static final Duration QUIZ_DEFINITION_TTL = Duration.ofMinutes(5);
+    private static final String ANSWER_RPC = "submit_lesson_quiz_answer";
+    private static final Duration HEARTS_REFILL_INTERVAL = Duration.ofHours(24);
+    private static final Duration HEARTS_CACHE_TTL = Duration.ofSeconds(15);
 
     private final SupabaseRestClient supabaseRestClient;
     private final SupabaseAdminRestClient supabaseAdminRestClient;
     private final LessonQuizGraderRegistry graderRegistry;
+    private final LeaderboardEngine leaderboardEngine;
+    private final LessonQuizDefinitionCache definitionCache = new LessonQuizDefinitionCache(QUIZ_DEFINITION_TTL);
+    private final LessonHeartsEngine heartsEngine = new LessonHeartsEngine(LessonFlowConstants.MAX_HEARTS, HEARTS_REFILL_INTERVAL);
+    private final LessonHeartsCache heartsCache = new LessonHeartsCache(HEARTS_CACHE_TTL);
+    private final boolean answerRpcEnabled;
+    private volatile boolean answerRpcAvailable = true;
 
     /**
      * Creates a lesson quiz service impl instance with its collaborators.
@@ -45,11 +65,15 @@ public class LessonQuizServiceImpl implements LessonQuizService {
     public LessonQuizServiceImpl(
         SupabaseRestClient supabaseRestClient,
         SupabaseAdminRestClient supabaseAdminRestClient,
-        LessonQuizGraderRegistry graderRegistry
+        LessonQuizGraderRegistry graderRegistry,
+        LeaderboardEngine leaderboardEngine,
+        @Value("${lesson.quiz.answer-rpc-enabled:true}") boolean answerRpcEnabled
     ) {
         this.supabaseRestClient = supabaseRestClient;
         this.supabaseAdminRestClient = supabaseAdminRestClient;
         this.graderRegistry = graderRegistry;
+        this.leaderboardEngine = leaderboardEngine;
+        this.answerRpcEnabled = answerRpcEnabled;
     }
 
     /**
@@ -65,7 +89,7 @@ public class LessonQuizServiceImpl implements LessonQuizService {
         String accessToken
     ) {
         String token = requireAccessToken(accessToken);
-        HeartsState hearts = ensureHeartsState(userId, token);
+        LessonHeartsSnapshot hearts = ensureHeartsState(userId, token);
         Map<String, Object> quiz = findActiveLessonQuiz(lessonId);
         boolean hasQuiz = quiz != null;
         int boundedCompletedSections = Math.max(0, Math.min(completedSections, sections.size()));
@@ -170,8 +194,8 @@ public class LessonQuizServiceImpl implements LessonQuizService {
     @Override
     public LessonQuizStateResponse getQuizState(UUID userId, UUID lessonId, String accessToken) {
         String token = requireAccessToken(accessToken);
-        QuizContext context = loadQuizContext(userId, lessonId, token);
-        HeartsState hearts = ensureHeartsState(userId, token);
+        LessonQuizDefinition context = loadQuizContext(userId, lessonId, token);
+        LessonHeartsSnapshot hearts = ensureHeartsState(userId, token);
         Map<String, Object> activeAttempt = findActiveAttempt(userId, lessonId, token);
         Map<String, Object> latestAttempt = activeAttempt != null ? activeAttempt : findLatestAttempt(userId, lessonId, token);
         List<Map<String, Object>> orderedQuestions = latestAttempt == null
@@ -297,10 +321,20 @@ public class LessonQuizServiceImpl implements LessonQuizService {
     @Override
     public LessonHeartsStatusResponse getHeartsStatus(UUID userId, String accessToken) {
         String token = requireAccessToken(accessToken);
-        HeartsState hearts = ensureHeartsState(userId, token);
+        LessonHeartsSnapshot hearts = ensureHeartsState(userId, token);
         return new LessonHeartsStatusResponse(hearts.heartsRemaining(), hearts.refillAt());
     }
 
+    /**
+     * Drops the cached quiz definition for a lesson.
+     */
+    @Override
+    public void evictQuizDefinition(UUID lessonId) {
+        if (lessonId != null) {
+            definitionCache.evict(lessonId);
+        }
+    }
+
     /**
      * Handles answer question.
      */
@@ -312,12 +346,18 @@ public class LessonQuizServiceImpl implements LessonQuizService {
         String accessToken
     ) {
         String token = requireAccessToken(accessToken);
-        QuizContext context = loadQuizContext(userId, lessonId, token);
-        HeartsState hearts = ensureHeartsState(userId, token);
+        // The attempt row proves the enrollment and section gates passed when it was created.
+        LessonQuizDefinition context = loadQuizDefinition(lessonId, token);
+        LessonHeartsSnapshot hearts = ensureHeartsState(userId, token);
         Map<String, Object> attempt = findAttemptById(userId, lessonId, request.attemptId(), token);
         if (attempt == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Quiz attempt not found");
         }
+        String attemptQuizId = stringValue(attempt.get("quiz_id"));
+        if (attemptQuizId != null && !Objects.equals(attemptQuizId, context.quizId())) {
+            definitionCache.evict(lessonId);
+            context = loadQuizDefinition(lessonId, token);
+        }
         List<Map<String, Object>> orderedQuestions = resolveQuestionsForAttempt(context.questions(), attempt);
         String currentStatus = stringValue(attempt.get("status"));
         if ("passed".equals(currentStatus) || "failed".equals(currentStatus)) {
@@ -362,8 +402,10 @@ public class LessonQuizServiceImpl implements LessonQuizService {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Answer must be submitted for the current question");
         }
 
-        LessonQuizQuestionGrader grader = graderRegistry.require(questionTypeOf(question));
-        LessonQuizGradeResult gradeResult = grader.grade(question, request.response());
+        LessonQuizAnswerKey answerKey = context.answerKeyFor(expectedQuestionId);
+        LessonQuizGradeResult gradeResult = answerKey != null
+            ? answerKey.grade(request.response())
+            : graderRegistry.require(questionTypeOf(question)).grade(question, request.response());
         Map<String, Object> answers = normalizeAnswers(attempt.get("answers"));
         if (answers.containsKey(expectedQuestionId)) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Question already answered");
@@ -400,30 +442,33 @@ public class LessonQuizServiceImpl implements LessonQuizService {
         }
 
         OffsetDateTime now = OffsetDateTime.now();
-        Map<String, Object> patch = new LinkedHashMap<>();
-        patch.put("answers", answers);
-        patch.put("current_question_index", nextIndex);
-        patch.put("correct_count", correctCount);
-        patch.put("earned_score", earnedScore);
-        patch.put("max_score", maxScore);
-        patch.put("status", attemptStatus);
-        patch.put("updated_at", now);
-        patch.put("completed_at", quizCompleted ? now : null);
-        Map<String, Object> patched = patchAttemptForAnswer(attempt, index, currentStatus, patch, token);
-        if (patched == null) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Quiz answer is stale. Refresh and try again.");
-        }
-
-        if (!correct) {
-            hearts = consumeHeart(userId, hearts, token);
-        }
-
-        if (quizCompleted) {
-            saveQuizResult(userId, context, earnedScore, maxScore, passed, stripAttemptMetadata(answers), token);
-            if (passed) {
-                completeLessonAndGrantRewards(userId, lessonId, context, token);
-            }
-        }
+        LessonHeartsSnapshot deductedHearts = correct ? null : heartsEngine.deduct(hearts, now);
+        LessonQuizAnswerCommand command = new LessonQuizAnswerCommand(
+            userId,
+            lessonId,
+            request.attemptId(),
+            context.quizId(),
+            index,
+            currentStatus,
+            answers,
+            nextIndex,
+            correctCount,
+            earnedScore,
+            maxScore,
+            attemptStatus,
+            now,
+            quizCompleted,
+            passed,
+            stripAttemptMetadata(answers),
+            hearts.storedHearts(),
+            hearts.storedRefillAt(),
+            deductedHearts == null ? null : deductedHearts.heartsRemaining(),
+            deductedHearts == null ? null : deductedHearts.refillAt(),
+            context.sections().isEmpty() ? null : sectionIdAt(context.sections(), context.sections().size() - 1),
+            parseInteger(context.lesson().get("xp_reward")) == null ? 0 : parseInteger(context.lesson().get("xp_reward")),
+            stringValue(context.lesson().get("badge_name"))
+        );
+        hearts = persistAnswer(command, hearts, token);
 
         LessonQuizQuestionResponse nextQuestion = null;
         if (!quizCompleted && !blockedByHearts) {
@@ -466,8 +511,8 @@ public class LessonQuizServiceImpl implements LessonQuizService {
     @Override
     public LessonQuizStateResponse restartQuiz(UUID userId, UUID lessonId, String mode, String accessToken) {
         String token = requireAccessToken(accessToken);
-        QuizContext context = loadQuizContext(userId, lessonId, token);
-        HeartsState hearts = ensureHeartsState(userId, token);
+        LessonQuizDefinition context = loadQuizContext(userId, lessonId, token);
+        LessonHeartsSnapshot hearts = ensureHeartsState(userId, token);
         if (hearts.heartsRemaining() <= 0) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "You are out of hearts");
         }
@@ -526,9 +571,9 @@ public class LessonQuizServiceImpl implements LessonQuizService {
     /**
      * Loads the quiz context.
      */
-    private QuizContext loadQuizContext(UUID userId, UUID lessonId, String token) {
-        Map<String, Object> lesson = getLearnerLesson(lessonId, token);
-        List<Map<String, Object>> sections = buildLessonSections(lesson);
+    private LessonQuizDefinition loadQuizContext(UUID userId, UUID lessonId, String token) {
+        LessonQuizDefinition definition = loadQuizDefinition(lessonId, token);
+        List<Map<String, Object>> sections = definition.sections();
         LessonProgressState progress = loadProgressState(userId, lessonId, sections, token);
         if (!progress.isEnrolled()) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Enroll before starting the quiz");
@@ -536,6 +581,22 @@ public class LessonQuizServiceImpl implements LessonQuizService {
         if (progress.completedSections() < sections.size()) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Complete all lesson sections before the quiz");
         }
+        return definition;
+    }
+
+    /**
+     * Returns the cached quiz definition for a lesson, loading it on a miss.
+     */
+    private LessonQuizDefinition loadQuizDefinition(UUID lessonId, String token) {
+        return definitionCache.get(lessonId, () -> fetchQuizDefinition(lessonId, token));
+    }
+
+    /**
+     * Fetches the lesson, active quiz and questions and resolves a grader per question.
+     */
+    private LessonQuizDefinition fetchQuizDefinition(UUID lessonId, String token) {
+        Map<String, Object> lesson = getLearnerLesson(lessonId, token);
+        List<Map<String, Object>> sections = buildLessonSections(lesson);
         Map<String, Object> quiz = findActiveLessonQuiz(lessonId);
         if (quiz == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Quiz not available for this lesson");
@@ -544,14 +605,28 @@ public class LessonQuizServiceImpl implements LessonQuizService {
         if (questions.isEmpty()) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Quiz questions not available");
         }
+        Map<String, LessonQuizAnswerKey> answerKeys = new LinkedHashMap<>();
+        List<Map<String, Object>> frozenQuestions = new ArrayList<>();
         for (Map<String, Object> question : questions) {
-            graderRegistry.require(questionTypeOf(question));
-        }
-        int maxScore = questions.stream()
-            .map(q -> parseInteger(q.get("points")))
-            .mapToInt(points -> points == null ? 10 : points)
-            .sum();
-        return new QuizContext(lesson, sections, quiz, questions, maxScore);
+            LessonQuizQuestionGrader grader = graderRegistry.require(questionTypeOf(question));
+            String questionId = stringValue(question.get("id"));
+            if (questionId != null) {
+                try {
+                    answerKeys.put(questionId, grader.compile(question));
+                } catch (ResponseStatusException ex) {
+                    // Malformed questions stay uncompiled and report their error when answered.
+                }
+            }
+            frozenQuestions.add(Collections.unmodifiableMap(new LinkedHashMap<>(question)));
+        }
+        return new LessonQuizDefinition(
+            Collections.unmodifiableMap(new LinkedHashMap<>(lesson)),
+            sections.stream().map(section -> Collections.unmodifiableMap(section)).toList(),
+            Collections.unmodifiableMap(new LinkedHashMap<>(quiz)),
+            List.copyOf(frozenQuestions),
+            Collections.unmodifiableMap(answerKeys),
+            computeMaxScore(questions)
+        );
     }
 
     /**
@@ -613,96 +688,148 @@ public class LessonQuizServiceImpl implements LessonQuizService {
     /**
      * Ensures the hearts state.
      */
-    private HeartsState ensureHeartsState(UUID userId, String token) {
-        List<Map<String, Object>> rows = fetchHeartsRows(userId, token);
+    private LessonHeartsSnapshot ensureHeartsState(UUID userId, String token) {
         OffsetDateTime now = OffsetDateTime.now();
-        if (rows.isEmpty()) {
-            Map<String, Object> insert = new LinkedHashMap<>();
-            insert.put("user_id", userId);
-            insert.put("hearts_remaining", LessonFlowConstants.MAX_HEARTS);
-            insert.put("refill_at", nextScheduledRefillAt(now));
-            insert.put("updated_at", now);
-            List<Map<String, Object>> created = supabaseRestClient.postList("user_quiz_hearts", insert, token, MAP_LIST);
-            if (created.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unable to initialize hearts");
+        LessonHeartsSnapshot cached = heartsCache.get(userId);
+        if (cached != null) {
+            return heartsEngine.read(cached.storedHearts(), cached.storedRefillAt(), now);
+        }
+        List<Map<String, Object>> rows = fetchHeartsRows(userId, token);
+        LessonHeartsSnapshot hearts = rows.isEmpty()
+            ? createHeartsRow(userId, now, token)
+            : heartsStateFromRow(rows.get(0), now);
+        heartsCache.put(userId, hearts);
+        return hearts;
+    }
+
+    /**
+     * Creates the hearts row for a learner who has none yet.
+     */
+    private LessonHeartsSnapshot createHeartsRow(UUID userId, OffsetDateTime now, String token) {
+        LessonHeartsSnapshot initial = heartsEngine.initial(now);
+        Map<String, Object> insert = new LinkedHashMap<>();
+        insert.put("user_id", userId);
+        insert.put("hearts_remaining", initial.storedHearts());
+        insert.put("refill_at", initial.storedRefillAt());
+        insert.put("updated_at", now);
+        List<Map<String, Object>> created;
+        try {
+            created = supabaseRestClient.postList("user_quiz_hearts", insert, token, MAP_LIST);
+        } catch (ResponseStatusException ex) {
+            if (!isUniqueViolation(ex)) {
+                throw ex;
             }
-            return heartsStateFromRow(created.get(0));
+            created = fetchHeartsRows(userId, token);
+        }
+        if (created.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unable to initialize hearts");
         }
+        return heartsStateFromRow(created.get(0), now);
+    }
 
-        Map<String, Object> row = rows.get(0);
-        HeartsState current = heartsStateFromRow(row);
-        int hearts = current.heartsRemaining();
-        OffsetDateTime refillAt = current.refillAt();
-        OffsetDateTime nextRefillAt = nextScheduledRefillAt(now);
-        if (hearts >= LessonFlowConstants.MAX_HEARTS && (refillAt == null || !now.isBefore(refillAt))) {
-            Map<String, Object> normalizePatch = new LinkedHashMap<>();
-            normalizePatch.put("hearts_remaining", LessonFlowConstants.MAX_HEARTS);
-            normalizePatch.put("refill_at", nextRefillAt);
-            normalizePatch.put("updated_at", now);
-            List<Map<String, Object>> updated = supabaseRestClient.patchList(
-                "user_quiz_hearts",
-                buildQuery(Map.of("user_id", "eq." + userId)),
-                normalizePatch,
-                token,
-                MAP_LIST
-            );
-            if (updated.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.CONFLICT, "Unable to normalize hearts state");
+    /**
+     * Persists a graded answer through the atomic RPC, falling back to sequential writes when the
+     * database does not expose it yet.
+     */
+    private LessonHeartsSnapshot persistAnswer(LessonQuizAnswerCommand command, LessonHeartsSnapshot hearts, String token) {
+        if (answerRpcEnabled && answerRpcAvailable) {
+            try {
+                return submitAnswerRpc(command);
+            } catch (ResponseStatusException ex) {
+                if (!isMissingAnswerRpc(ex)) {
+                    throw ex;
+                }
+                answerRpcAvailable = false;
+                log.warn("Quiz answer RPC {} is unavailable; using sequential writes", ANSWER_RPC);
             }
-            return fetchPersistedHeartsState(userId, token);
-        }
-        if (hearts < LessonFlowConstants.MAX_HEARTS && (refillAt == null || !now.isBefore(refillAt))) {
-            hearts = LessonFlowConstants.MAX_HEARTS;
-            refillAt = nextRefillAt;
-            List<Map<String, Object>> updated = supabaseRestClient.patchList(
-                "user_quiz_hearts",
-                buildQuery(Map.of("user_id", "eq." + userId)),
-                Map.of(
-                    "hearts_remaining", hearts,
-                    "refill_at", refillAt,
-                    "updated_at", now
-                ),
-                token,
-                MAP_LIST
-            );
-            if (updated.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.CONFLICT, "Unable to refresh hearts state");
+        }
+        return persistAnswerSequentially(command, hearts, token);
+    }
+
+    /**
+     * Applies the attempt transition, heart deduction, result and rewards in one database transaction.
+     * The function trusts its score and reward parameters, so it is only executable by the service role.
+     */
+    private LessonHeartsSnapshot submitAnswerRpc(LessonQuizAnswerCommand command) {
+        List<Map<String, Object>> rows;
+        try {
+            rows = supabaseAdminRestClient.rpcList(ANSWER_RPC, command.toRpcParams(), MAP_LIST);
+        } catch (ResponseStatusException ex) {
+            if (ex.getStatusCode().value() == HttpStatus.CONFLICT.value()) {
+                heartsCache.evict(command.userId());
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Quiz answer is stale. Refresh and try again.", ex);
             }
-            return fetchPersistedHeartsState(userId, token);
+            throw ex;
         }
-        return new HeartsState(hearts, refillAt);
+        if (rows.isEmpty()) {
+            heartsCache.evict(command.userId());
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Quiz answer is stale. Refresh and try again.");
+        }
+        LessonHeartsSnapshot hearts = heartsStateFromRow(rows.get(0), command.answeredAt());
+        heartsCache.put(command.userId(), hearts);
+        if (command.completed() && command.passed()) {
+            // The RPC may have awarded XP; reload the learner's leaderboard row on the next lookup.
+            leaderboardEngine.markChanged(command.userId());
+        }
+        return hearts;
     }
 
     /**
-     * Handles consume heart.
+     * Applies a graded answer call by call for databases without the answer RPC.
      */
-    private HeartsState consumeHeart(UUID userId, HeartsState hearts, String token) {
-        OffsetDateTime now = OffsetDateTime.now();
-        int nextHearts = Math.max(0, hearts.heartsRemaining() - 1);
-        OffsetDateTime refillAt = hearts.refillAt();
-        if (hearts.heartsRemaining() >= LessonFlowConstants.MAX_HEARTS) {
-            refillAt = nextScheduledRefillAt(now);
-        } else if (refillAt == null || !now.isBefore(refillAt)) {
-            refillAt = nextScheduledRefillAt(now);
+    private LessonHeartsSnapshot persistAnswerSequentially(LessonQuizAnswerCommand command, LessonHeartsSnapshot hearts, String token) {
+        Map<String, Object> patched = patchAttemptForAnswer(
+            command.attemptId(),
+            command.expectedQuestionIndex(),
+            command.expectedStatus(),
+            command.attemptPatch(),
+            token
+        );
+        if (patched == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Quiz answer is stale. Refresh and try again.");
+        }
+
+        LessonHeartsSnapshot persistedHearts = hearts;
+        if (command.deductsHeart()) {
+            persistedHearts = consumeHeart(command, token);
+        }
+
+        if (command.completed()) {
+            saveQuizResult(command, token);
+            if (command.passed()) {
+                completeLessonAndGrantRewards(command, token);
+            }
         }
+        return persistedHearts;
+    }
+
+    /**
+     * Handles consume heart.
+     */
+    private LessonHeartsSnapshot consumeHeart(LessonQuizAnswerCommand command, String token) {
+        Map<String, String> filters = new LinkedHashMap<>();
+        filters.put("user_id", "eq." + command.userId());
+        filters.put("hearts_remaining", "eq." + command.expectedHearts());
+        filters.put("refill_at", command.expectedRefillAt() == null
+            ? "is.null"
+            : "eq." + command.expectedRefillAt().withOffsetSameInstant(ZoneOffset.UTC));
         Map<String, Object> heartsPatch = new LinkedHashMap<>();
-        heartsPatch.put("hearts_remaining", nextHearts);
-        heartsPatch.put("refill_at", refillAt);
-        heartsPatch.put("updated_at", now);
+        heartsPatch.put("hearts_remaining", command.heartsRemaining());
+        heartsPatch.put("refill_at", command.heartsRefillAt());
+        heartsPatch.put("updated_at", command.answeredAt());
         List<Map<String, Object>> updated = supabaseRestClient.patchList(
             "user_quiz_hearts",
-            buildQuery(Map.of("user_id", "eq." + userId)),
+            buildQuery(filters),
             heartsPatch,
             token,
             MAP_LIST
         );
         if (updated.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Unable to persist hearts deduction");
-        }
-        HeartsState persisted = fetchPersistedHeartsState(userId, token);
-        if (persisted.heartsRemaining() != nextHearts) {
+            heartsCache.evict(command.userId());
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Hearts state is out of sync. Refresh and try again.");
         }
+        LessonHeartsSnapshot persisted = heartsStateFromRow(updated.get(0), command.answeredAt());
+        heartsCache.put(command.userId(), persisted);
         return persisted;
     }
 
@@ -721,35 +848,14 @@ public class LessonQuizServiceImpl implements LessonQuizService {
     /**
      * Handles hearts state from row.
      */
-    private HeartsState heartsStateFromRow(Map<String, Object> row) {
-        Integer parsedHearts = parseInteger(row.get("hearts_remaining"));
-        int heartsRemaining = parsedHearts == null
-            ? LessonFlowConstants.MAX_HEARTS
-            : Math.max(0, Math.min(parsedHearts, LessonFlowConstants.MAX_HEARTS));
-        return new HeartsState(
-            heartsRemaining,
-            parseOffsetDateTime(row.get("refill_at"))
+    private LessonHeartsSnapshot heartsStateFromRow(Map<String, Object> row, OffsetDateTime now) {
+        return heartsEngine.read(
+            parseInteger(row.get("hearts_remaining")),
+            parseOffsetDateTime(row.get("refill_at")),
+            now
         );
     }
 
-    /**
-     * Handles next scheduled refill at.
-     */
-    private OffsetDateTime nextScheduledRefillAt(OffsetDateTime now) {
-        return now.plusHours(24);
-    }
-
-    /**
-     * Fetches the persisted hearts state.
-     */
-    private HeartsState fetchPersistedHeartsState(UUID userId, String token) {
-        List<Map<String, Object>> rows = fetchHeartsRows(userId, token);
-        if (rows.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Hearts state is missing. Refresh and try again.");
-        }
-        return heartsStateFromRow(rows.get(0));
-    }
-
     /**
      * Creates the attempt.
      */
@@ -868,13 +974,12 @@ public class LessonQuizServiceImpl implements LessonQuizService {
      * Patches the attempt for answer.
      */
     private Map<String, Object> patchAttemptForAnswer(
-        Map<String, Object> attempt,
+        String attemptId,
         int expectedQuestionIndex,
         String expectedStatus,
         Map<String, Object> patch,
         String token
     ) {
-        String attemptId = stringValue(attempt.get("id"));
         if (attemptId == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Quiz attempt is invalid");
         }
@@ -897,33 +1002,27 @@ public class LessonQuizServiceImpl implements LessonQuizService {
     /**
      * Saves the quiz result.
      */
-    private void saveQuizResult(
-        UUID userId,
-        QuizContext context,
-        int earnedScore,
-        int maxScore,
-        boolean passed,
-        Map<String, Object> answers,
-        String token
-    ) {
+    private void saveQuizResult(LessonQuizAnswerCommand command, String token) {
         Map<String, Object> insert = new LinkedHashMap<>();
-        insert.put("user_id", userId);
-        insert.put("quiz_id", context.quiz().get("id"));
-        insert.put("score", earnedScore);
-        insert.put("max_score", maxScore);
-        insert.put("percentage", maxScore <= 0 ? 0 : (earnedScore * 100.0 / maxScore));
-        insert.put("passed", passed);
-        insert.put("answers", answers);
-        insert.put("attempted_at", OffsetDateTime.now());
+        insert.put("user_id", command.userId());
+        insert.put("quiz_id", command.quizId());
+        insert.put("score", command.earnedScore());
+        insert.put("max_score", command.maxScore());
+        insert.put("percentage", command.percentage());
+        insert.put("passed", command.passed());
+        insert.put("answers", command.resultAnswers());
+        insert.put("attempted_at", command.answeredAt());
         supabaseRestClient.postList("user_quiz_results", insert, token, MAP_LIST);
     }
 
     /**
      * Completes the lesson and grant rewards.
      */
-    private void completeLessonAndGrantRewards(UUID userId, UUID lessonId, QuizContext context, String token) {
-        OffsetDateTime now = OffsetDateTime.now();
-        String lastSection = context.sections().isEmpty() ? null : sectionIdAt(context.sections(), context.sections().size() - 1);
+    private void completeLessonAndGrantRewards(LessonQuizAnswerCommand command, String token) {
+        UUID userId = command.userId();
+        UUID lessonId = command.lessonId();
+        OffsetDateTime now = command.answeredAt();
+        String lastSection = command.lastSectionId();
         List<Map<String, Object>> rows = supabaseRestClient.getList(
             "user_lesson_progress",
             buildQuery(Map.of(
@@ -966,13 +1065,14 @@ public class LessonQuizServiceImpl implements LessonQuizService {
             );
         }
 
-        int xpReward = parseInteger(context.lesson().get("xp_reward")) == null ? 0 : parseInteger(context.lesson().get("xp_reward"));
-        String badgeName = stringValue(context.lesson().get("badge_name"));
+        int xpReward = command.xpReward();
+        String badgeName = command.badgeName();
         boolean newlyAwarded = awardLessonReward(userId, lessonId, xpReward, badgeName, token);
         if (!newlyAwarded) {
             return;
         }
         incrementProfileXp(userId, xpReward, token);
+        leaderboardEngine.recordReward(userId, xpReward, now.toInstant());
         if (badgeName != null) {
             insertBadgeAchievement(userId, badgeName, token);
         }
@@ -1052,6 +1152,7 @@ public class LessonQuizServiceImpl implements LessonQuizService {
             token,
             MAP_LIST
         );
+        leaderboardEngine.recordXp(userId, nextXp);
     }
 
     /**
@@ -1117,7 +1218,7 @@ public class LessonQuizServiceImpl implements LessonQuizService {
     private LessonQuizStateResponse buildStateResponse(
         Map<String, Object> attempt,
         List<Map<String, Object>> questions,
-        HeartsState hearts,
+        LessonHeartsSnapshot hearts,
         String status,
         boolean canAnswer,
         boolean canRestart
@@ -1536,6 +1637,16 @@ public class LessonQuizServiceImpl implements LessonQuizService {
             || normalized.contains("\"code\":\"42501\"");
     }
 
+    /**
+     * Checks whether the answer RPC is not exposed by the database.
+     */
+    private boolean isMissingAnswerRpc(ResponseStatusException ex) {
+        String normalized = normalizeSupabaseError(ex);
+        return normalized.contains("pgrst202")
+            || normalized.contains("could not find the function")
+            || (normalized.contains(ANSWER_RPC) && normalized.contains("does not exist"));
+    }
+
     /**
      * Normalizes the supabase error.
      */
@@ -1557,10 +1668,7 @@ public class LessonQuizServiceImpl implements LessonQuizService {
      * Builds the query.
      */
     private String buildQuery(Map<String, String> params) {
-        UriComponentsBuilder builder = UriComponentsBuilder.newInstance();
-        params.forEach(builder::queryParam);
-        String uri = builder.build().encode().toUriString();
-        return uri.startsWith("?") ? uri.substring(1) : uri;
+        return PostgrestQuery.of(params);
     }
 
     /**
@@ -1573,13 +1681,5 @@ public class LessonQuizServiceImpl implements LessonQuizService {
         return accessToken;
     }
 
-    private record HeartsState(int heartsRemaining, OffsetDateTime refillAt) {}
     private record LessonProgressState(boolean isEnrolled, int completedSections) {}
-    private record QuizContext(
-        Map<String, Object> lesson,
-        List<Map<String, Object>> sections,
-        Map<String, Object> quiz,
-        List<Map<String, Object>> questions,
-        int maxScore
-    ) {}
 }
@@ -0,0 +1,236 @@
+package com.rotiprata.api.lesson.service;
+
+import com.rotiprata.api.generalutils.SearchText;
+import com.rotiprata.api.lesson.dto.LessonCardResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable in-memory full-text index over published lesson cards.
+ *
+ * <p>Title, summary and description are tokenized, folded to lower-case ASCII and lightly stemmed,
+ * then scored with BM25 using per-field weights. A query term also matches longer terms it prefixes
+ * and, when it matches nothing exactly, terms that share enough trigrams with it, so partial words
+ * and small typos still find lessons. Updates return a new index that re-analyzes only the changed
+ * lessons.
+ */
+final class LessonSearchIndex {
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float SUMMARY_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float PREFIX_MATCH_WEIGHT = 0.7f;
+    private static final float FUZZY_MATCH_WEIGHT = 0.6f;
+    // Same default as pg_trgm's similarity threshold.
+    private static final double MIN_TRIGRAM_SIMILARITY = 0.3;
+    private static final int MIN_EXPANSION_LENGTH = 3;
+    private static final int MAX_EXPANSIONS = 8;
+    private static final Comparator<LessonCardResponse> NEWEST_FIRST = Comparator.comparing(
+        LessonCardResponse::createdAt,
+        Comparator.nullsLast(Comparator.reverseOrder())
+    );
+
+    static final LessonSearchIndex EMPTY = new LessonSearchIndex(Map.of());
+
+    private final Map<UUID, Document> documents;
+    private final Document[] docs;
+    private final Map<String, Posting[]> postings;
+    private final String[] sortedTerms;
+    private final Map<String, List<String>> termsByTrigram;
+    private final Map<String, Integer> trigramCounts;
+    private final float averageLength;
+
+    private LessonSearchIndex(Map<UUID, Document> documents) {
+        this.documents = documents;
+        this.docs = documents.values().toArray(Document[]::new);
+
+        Map<String, List<Posting>> byTerm = new HashMap<>();
+        double totalLength = 0;
+        for (int i = 0; i < docs.length; i++) {
+            totalLength += docs[i].length();
+            for (Map.Entry<String, Float> entry : docs[i].termFrequencies().entrySet()) {
+                byTerm.computeIfAbsent(entry.getKey(), ignored -> new ArrayList<>()).add(new Posting(i, entry.getValue()));
+            }
+        }
+        this.postings = new HashMap<>(byTerm.size() * 2);
+        byTerm.forEach((term, list) -> postings.put(term, list.toArray(Posting[]::new)));
+        this.sortedTerms = postings.keySet().toArray(String[]::new);
+        Arrays.sort(sortedTerms);
+
+        this.termsByTrigram = new HashMap<>();
+        this.trigramCounts = new HashMap<>();
+        for (String term : sortedTerms) {
+            if (term.length() < MIN_EXPANSION_LENGTH) {
+                continue;
+            }
+            Set<String> trigrams = trigrams(term);
+            trigramCounts.put(term, trigrams.size());
+            for (String trigram : trigrams) {
+                termsByTrigram.computeIfAbsent(trigram, ignored -> new ArrayList<>()).add(term);
+            }
+        }
+        this.averageLength = docs.length == 0 ? 0f : (float) (totalLength / docs.length);
+    }
+
+    /**
+     * Builds an index over the given cards; cards without an id are skipped.
+     */
+    static LessonSearchIndex build(Collection<LessonCardResponse> cards) {
+        return EMPTY.apply(cards, List.of());
+    }
+
+    /**
+     * Returns a new index with {@code removedIds} dropped and {@code upserts} added or replaced.
+     */
+    LessonSearchIndex apply(Collection<LessonCardResponse> upserts, Collection<UUID> removedIds) {
+        Map<UUID, Document> next = new LinkedHashMap<>(documents);
+        removedIds.forEach(next::remove);
+        for (LessonCardResponse card : upserts) {
+            if (card != null && card.id() != null) {
+                next.put(card.id(), Document.of(card));
+            }
+        }
+        return new LessonSearchIndex(next);
+    }
+
+    /**
+     * Returns the number of indexed lessons.
+     */
+    int size() {
+        return docs.length;
+    }
+
+    /**
+     * Returns up to {@code limit} lessons matching any query term, best match first and newest first on
+     * ties.
+     */
+    List<LessonCardResponse> search(String query, int limit) {
+        List<String> terms = SearchText.analyze(query).stream().distinct().toList();
+        if (terms.isEmpty() || docs.length == 0 || limit <= 0) {
+            return List.of();
+        }
+
+        float[] scores = new float[docs.length];
+        float[] best = new float[docs.length];
+        for (String term : terms) {
+            Arrays.fill(best, 0f);
+            for (Map.Entry<String, Float> expansion : expand(term).entrySet()) {
+                Posting[] list = postings.get(expansion.getKey());
+                float idf = idf(list.length);
+                for (Posting posting : list) {
+                    float length = docs[posting.doc()].length();
+                    float norm = K1 * (1 - B + B * length / averageLength);
+                    float score = expansion.getValue() * idf * posting.frequency() * (K1 + 1) / (posting.frequency() + norm);
+                    if (score > best[posting.doc()]) {
+                        best[posting.doc()] = score;
+                    }
+                }
+            }
+            // A document scores each query term once, by its best-matching variant.
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] += best[i];
+            }
+        }
+
+        List<Integer> hits = new ArrayList<>();
+        for (int i = 0; i < scores.length; i++) {
+            if (scores[i] > 0f) {
+                hits.add(i);
+            }
+        }
+        hits.sort(
+            Comparator.<Integer>comparingDouble(i -> scores[i]).reversed()
+                .thenComparing(i -> docs[i].card(), NEWEST_FIRST)
+        );
+        return hits.stream().limit(limit).map(i -> docs[i].card()).toList();
+    }
+
+    /**
+     * Maps a query term to the indexed terms it should match and the weight of each match.
+     */
+    private Map<String, Float> expand(String term) {
+        Map<String, Float> expansions = new LinkedHashMap<>();
+        if (postings.containsKey(term)) {
+            expansions.put(term, 1f);
+        }
+        if (term.length() < MIN_EXPANSION_LENGTH) {
+            return expansions;
+        }
+
+        int start = Arrays.binarySearch(sortedTerms, term);
+        for (int i = start >= 0 ? start + 1 : -start - 1; i < sortedTerms.length && expansions.size() < MAX_EXPANSIONS; i++) {
+            if (!sortedTerms[i].startsWith(term)) {
+                break;
+            }
+            expansions.put(sortedTerms[i], PREFIX_MATCH_WEIGHT);
+        }
+        if (!expansions.isEmpty()) {
+            return expansions;
+        }
+
+        Set<String> queryTrigrams = trigrams(term);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String trigram : queryTrigrams) {
+            for (String candidate : termsByTrigram.getOrDefault(trigram, List.of())) {
+                shared.merge(candidate, 1, Integer::sum);
+            }
+        }
+        shared.entrySet().stream()
+            .map(entry -> Map.entry(
+                entry.getKey(),
+                entry.getValue() / (double) (queryTrigrams.size() + trigramCounts.get(entry.getKey()) - entry.getValue())
+            ))
+            .filter(entry -> entry.getValue() >= MIN_TRIGRAM_SIMILARITY)
+            .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+            .limit(MAX_EXPANSIONS)
+            .forEach(entry -> expansions.put(entry.getKey(), (float) (FUZZY_MATCH_WEIGHT * entry.getValue())));
+        return expansions;
+    }
+
+    private float idf(int documentFrequency) {
+        return (float) Math.log(1 + (docs.length - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static Set<String> trigrams(String term) {
+        String padded = " " + term + " ";
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private record Posting(int doc, float frequency) {}
+
+    /**
+     * An indexed lesson with its field-weighted term frequencies and weighted length.
+     */
+    private record Document(LessonCardResponse card, Map<String, Float> termFrequencies, float length) {
+
+        static Document of(LessonCardResponse card) {
+            Map<String, Float> frequencies = new HashMap<>();
+            float length = addField(frequencies, card.title(), TITLE_WEIGHT)
+                + addField(frequencies, card.summary(), SUMMARY_WEIGHT)
+                + addField(frequencies, card.description(), DESCRIPTION_WEIGHT);
+            return new Document(card, Map.copyOf(frequencies), Math.max(length, 1f));
+        }
+
+        private static float addField(Map<String, Float> frequencies, String text, float weight) {
+            List<String> terms = SearchText.analyze(text);
+            for (String term : terms) {
+                frequencies.merge(term, weight, Float::sum);
+            }
+            return terms.size() * weight;
+        }
+    }
+}
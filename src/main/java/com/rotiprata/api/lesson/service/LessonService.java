@@ -6,6 +6,7 @@ import com.rotiprata.api.admin.dto.AdminLessonDraftResponse;
 import com.rotiprata.api.admin.dto.AdminPublishLessonResponse;
 import com.rotiprata.api.admin.dto.AdminStepSaveRequest;
 import com.rotiprata.api.admin.dto.AdminStepSaveResponse;
+import com.rotiprata.api.lesson.dto.LessonCardResponse;
 import com.rotiprata.api.lesson.dto.LessonFeedRequest;
 import com.rotiprata.api.lesson.dto.LessonFeedResponse;
 import com.rotiprata.api.lesson.dto.LessonHubResponse;
@@ -13,10 +14,12 @@ import com.rotiprata.api.lesson.dto.LessonMediaStartLinkRequest;
 import com.rotiprata.api.lesson.dto.LessonMediaStartResponse;
 import com.rotiprata.api.lesson.dto.LessonMediaStatusResponse;
 import com.rotiprata.api.lesson.dto.LessonProgressResponse;
+import com.rotiprata.api.lesson.dto.RelevantLessonContext;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Defines the lesson service operations exposed to the API layer.
@@ -24,14 +27,15 @@ import org.springframework.web.multipart.MultipartFile;
 public interface LessonService {
 
     /**
-     * Finds the lesson content that best matches the learner question embedding.
+     * Finds the lesson content that best matches the learner question embedding, along with the ids
+     * and content versions of the lessons it was drawn from.
      */
-    String findRelevantLesson(String accessToken, String question);
+    RelevantLessonContext findRelevantLesson(String accessToken, String question);
 
     /**
      * Returns the lessons.
      */
-    List<Map<String, Object>> getLessons(String accessToken);
+    List<LessonCardResponse> getLessons(String accessToken);
 
     /**
      * Returns the lesson feed.
@@ -82,7 +86,7 @@ public interface LessonService {
     /**
      * Searches lessons that match the supplied query filters.
      */
-    List<Map<String, Object>> searchLessons(String query, String accessToken);
+    List<LessonCardResponse> searchLessons(String query, String accessToken);
 
     /**
      * Returns the lesson by id.
@@ -124,11 +128,26 @@ public interface LessonService {
         String accessToken
     );
 
+    /**
+     * Streams lesson media status updates until processing finishes.
+     */
+    SseEmitter streamLessonMediaStatus(
+        UUID userId,
+        UUID lessonId,
+        UUID assetId,
+        String accessToken
+    );
+
     /**
      * Creates the lesson.
      */
     Map<String, Object> createLesson(UUID userId, Map<String, Object> payload, String accessToken);
 
+    /**
+     * Re-embeds every published lesson in batched model calls.
+     */
+    Map<String, Object> reembedLessons(UUID userId, String accessToken);
+
     /**
      * Updates the lesson.
      */
@@ -11,25 +11,30 @@ import com.rotiprata.api.admin.dto.AdminStepSaveRequest;
 import com.rotiprata.api.admin.dto.AdminStepSaveResponse;
 import com.rotiprata.api.admin.dto.AdminValidationError;
 import com.rotiprata.api.generalutils.EmbeddingService;
+import com.rotiprata.api.lesson.dto.LessonCardResponse;
 import com.rotiprata.api.lesson.dto.LessonFeedRequest;
 import com.rotiprata.api.lesson.dto.LessonFeedResponse;
-import com.rotiprata.api.lesson.dto.LessonHubCategoryResponse;
-import com.rotiprata.api.lesson.dto.LessonHubLessonResponse;
 import com.rotiprata.api.lesson.dto.LessonHubResponse;
-import com.rotiprata.api.lesson.dto.LessonHubSummaryResponse;
 import com.rotiprata.api.lesson.dto.LessonMediaStartLinkRequest;
 import com.rotiprata.api.lesson.dto.LessonMediaStartResponse;
 import com.rotiprata.api.lesson.dto.LessonMediaStatusResponse;
 import com.rotiprata.api.lesson.dto.LessonProgressResponse;
+import com.rotiprata.api.lesson.dto.RelevantLessonContext;
 import com.rotiprata.api.lesson.utils.LessonFlowConstants;
+import com.rotiprata.config.ChatContextProperties;
+import com.rotiprata.infrastructure.supabase.PostgrestQuery;
+import com.rotiprata.media.progress.MediaStatusEmitters;
 import com.rotiprata.media.service.MediaProcessingService;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminRestClient;
+import com.rotiprata.infrastructure.supabase.SupabaseBatchFetcher;
 import com.rotiprata.infrastructure.supabase.SupabaseRestClient;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -41,8 +46,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.server.ResponseStatusException;
-import org.springframework.web.util.UriComponentsBuilder;
 
 /**
  * Implements the lesson service workflows and persistence coordination used by the API layer.
@@ -55,7 +60,20 @@ public class LessonServiceImpl implements LessonService {
     private static final String UNCATEGORIZED_COLOR = "#6b7280";
     private static final String UNCATEGORIZED_NAME = "Uncategorized";
     private static final String UNCATEGORIZED_TYPE = "other";
+    private static final Duration HUB_CATALOG_TTL = Duration.ofSeconds(60);
+    private static final Duration SEARCH_INDEX_TTL = Duration.ofMinutes(5);
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final Duration VECTOR_INDEX_TTL = Duration.ofMinutes(10);
+    private static final int SECTION_BLOCK_PAGE_SIZE = 1000;
+    private static final int RELEVANT_LESSON_LIMIT = 3;
+    private static final String PUBLISHED_LESSON_CARDS_QUERY = PostgrestQuery.select(LessonProjection.CARD.select())
+        .eq("is_active", true)
+        .is("archived_at", "null")
+        .eq("is_published", true)
+        .order("created_at.desc")
+        .build();
     private static final TypeReference<List<Map<String, Object>>> MAP_LIST = new TypeReference<>() {};
+    private static final TypeReference<List<LessonCardResponse>> LESSON_CARD_LIST = new TypeReference<>() {};
     private static final Map<String, String> SECTION_TITLES = Map.of(
         LessonFlowConstants.SECTION_INTRO, "Origin",
         LessonFlowConstants.SECTION_DEFINITION, "Definition",
@@ -70,7 +88,7 @@ public class LessonServiceImpl implements LessonService {
         "match_pairs",
         "short_text"
     );
-    private static final Set<String> LESSON_EMBEDDING_FIELDS = Set.of(
+    private static final List<String> LESSON_EMBEDDING_TEXT_FIELDS = List.of(
         "title",
         "description",
         "summary",
@@ -81,13 +99,29 @@ public class LessonServiceImpl implements LessonService {
         "evolution_content",
         "comparison_content"
     );
+    private static final Set<String> LESSON_EMBEDDING_FIELDS = Set.copyOf(LESSON_EMBEDDING_TEXT_FIELDS);
+    private static final Map<String, String> SECTION_CONTENT_FIELDS = Map.of(
+        LessonFlowConstants.SECTION_INTRO, "origin_content",
+        LessonFlowConstants.SECTION_DEFINITION, "definition_content",
+        LessonFlowConstants.SECTION_USAGE, "usage_examples",
+        LessonFlowConstants.SECTION_LORE, "lore_content",
+        LessonFlowConstants.SECTION_EVOLUTION, "evolution_content",
+        LessonFlowConstants.SECTION_COMPARISON, "comparison_content"
+    );
 
     private final SupabaseRestClient supabaseRestClient;
     private final SupabaseAdminRestClient supabaseAdminRestClient;
+    private final SupabaseBatchFetcher supabaseBatchFetcher;
     private final LessonQuizService lessonQuizService;
     private final EmbeddingService embeddingService;
     private final MediaProcessingService mediaProcessingService;
+    private final LessonContextAssembler contextAssembler;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LessonHubCatalogCache hubCatalogCache = new LessonHubCatalogCache(HUB_CATALOG_TTL);
+    private final LessonIndexCache<LessonCardResponse, LessonSearchIndex> searchIndexCache =
+        new LessonIndexCache<>(SEARCH_INDEX_TTL, LessonSearchIndex::build, LessonSearchIndex::apply);
+    private final LessonIndexCache<LessonVectorIndex.Entry, LessonVectorIndex> vectorIndexCache =
+        new LessonIndexCache<>(VECTOR_INDEX_TTL, LessonVectorIndex::build, LessonVectorIndex::apply);
 
     /**
      * Creates a lesson service impl instance with its collaborators.
@@ -97,72 +131,173 @@ public class LessonServiceImpl implements LessonService {
         SupabaseAdminRestClient supabaseAdminRestClient,
         LessonQuizService lessonQuizService,
         EmbeddingService embeddingService,
-        MediaProcessingService mediaProcessingService
+        MediaProcessingService mediaProcessingService,
+        ChatContextProperties contextProperties,
+        SupabaseBatchFetcher supabaseBatchFetcher
     ) {
         this.supabaseRestClient = supabaseRestClient;
         this.supabaseAdminRestClient = supabaseAdminRestClient;
+        this.supabaseBatchFetcher = supabaseBatchFetcher;
         this.lessonQuizService = lessonQuizService;
         this.embeddingService = embeddingService;
         this.mediaProcessingService = mediaProcessingService;
+        this.contextAssembler = new LessonContextAssembler(
+            contextProperties.getTokenBudget(),
+            contextProperties.getChunkTokens()
+        );
     }
 
     /**
-     * Finds the lesson content that best matches the learner question embedding.
+     * Finds the lesson content that best matches the learner question embedding, using the in-memory
+     * lesson vector index instead of a database round trip, and packs the passages most relevant to
+     * the question into the chatbot context budget.
      */
     @Override
-    public String findRelevantLesson(String accessToken, String question) {
+    public RelevantLessonContext findRelevantLesson(String accessToken, String question) {
         float[] qVector = embeddingService.generateEmbedding(question);
 
-        String vectorString = embeddingService.toPgVector(qVector);
+        List<LessonVectorIndex.Entry> matches = vectorIndex().topK(qVector, RELEVANT_LESSON_LIMIT);
+        List<LessonContextAssembler.Lesson> lessons = matches.stream()
+                .map(LessonVectorIndex.Entry::context)
+                .toList();
+        List<String> lessonVersions = matches.stream()
+                .map(entry -> entry.id() + ":" + entry.version())
+                .toList();
+        return new RelevantLessonContext(contextAssembler.assemble(question, lessons), lessonVersions);
+    }
 
-        // pgvector query: order by similarity, top 3 lessons
-        Map<String, Object> body = Map.of(
-            "vec", vectorString,
-            "k", 3
+    /**
+     * Returns the lesson vector index, loading it or applying pending lesson changes first.
+     */
+    private LessonVectorIndex vectorIndex() {
+        return vectorIndexCache.get(
+            () -> loadVectorEntries(null),
+            this::loadVectorEntries
+        );
+    }
+
+    /**
+     * Loads the embeddings and chatbot context of published lessons, limited to {@code lessonIds}
+     * when given.
+     */
+    private List<LessonVectorIndex.Entry> loadVectorEntries(Set<UUID> lessonIds) {
+        PostgrestQuery query = PostgrestQuery.select("id,embedding," + String.join(",", LESSON_EMBEDDING_TEXT_FIELDS));
+        if (lessonIds != null) {
+            query.in("id", lessonIds);
+        }
+        List<Map<String, Object>> rows = supabaseAdminRestClient.getList(
+            "lessons",
+            query
+                .eq("is_active", true)
+                .is("archived_at", "null")
+                .eq("is_published", true)
+                .param("embedding", "not.is.null")
+                .build(),
+            MAP_LIST
         );
+        Set<UUID> loadedIds = new LinkedHashSet<>();
+        for (Map<String, Object> row : rows) {
+            UUID id = parseUuid(row.get("id"));
+            if (id != null) {
+                loadedIds.add(id);
+            }
+        }
+        Map<UUID, Map<String, String>> blockTextByLesson = loadSectionBlockText(loadedIds);
+        List<LessonVectorIndex.Entry> entries = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            UUID id = parseUuid(row.get("id"));
+            float[] vector = parseVector(row.get("embedding"));
+            if (id != null && vector != null) {
+                entries.add(new LessonVectorIndex.Entry(
+                    id,
+                    vector,
+                    lessonContext(row, blockTextByLesson.getOrDefault(id, Map.of()))
+                ));
+            }
+        }
+        return entries;
+    }
 
-        List<Map<String, Object>> lessons =
-            supabaseRestClient.rpcList(
-                "top_k_lessons",
-                body,
-                accessToken,
+    /**
+     * Loads the text blocks of structured lesson sections for the given lessons, joined per lesson and
+     * section. Lesson ids are split into batch-sized {@code in.()} lists and each list is read in pages,
+     * so neither the URL nor a single response grows with the catalogue.
+     */
+    private Map<UUID, Map<String, String>> loadSectionBlockText(Set<UUID> lessonIds) {
+        List<Map<String, Object>> rows;
+        try {
+            rows = supabaseBatchFetcher.fetchChunks(lessonIds, this::loadSectionBlockPages);
+        } catch (ResponseStatusException ex) {
+            if (isMissingStructuredLessonTables(ex)) {
+                return Map.of();
+            }
+            throw ex;
+        }
+        Map<UUID, Map<String, String>> textByLesson = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            UUID lessonId = parseUuid(row.get("lesson_id"));
+            String sectionKey = stringValue(row.get("section_key"));
+            String text = stringValue(row.get("text_content"));
+            if (lessonId == null || sectionKey == null || text == null) {
+                continue;
+            }
+            textByLesson.computeIfAbsent(lessonId, ignored -> new HashMap<>())
+                .merge(sectionKey, text, (existing, next) -> existing + "\n" + next);
+        }
+        return textByLesson;
+    }
+
+    private List<Map<String, Object>> loadSectionBlockPages(List<UUID> lessonIds) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int offset = 0; ; offset += SECTION_BLOCK_PAGE_SIZE) {
+            List<Map<String, Object>> page = supabaseAdminRestClient.getList(
+                "lesson_section_blocks",
+                PostgrestQuery.select("lesson_id,section_key,text_content")
+                    .in("lesson_id", lessonIds)
+                    .eq("block_type", "text")
+                    .order("lesson_id.asc,section_key.asc,block_order.asc")
+                    .limit(SECTION_BLOCK_PAGE_SIZE)
+                    .offset(offset)
+                    .build(),
                 MAP_LIST
             );
+            rows.addAll(page);
+            if (page.size() < SECTION_BLOCK_PAGE_SIZE) {
+                return rows;
+            }
+        }
+    }
 
-        // return only text content to feed LLM
-        return lessons.stream()
-                .map(l -> String.join(" ",
-                    Objects.toString(l.get("title"), ""),
-                    Objects.toString(l.get("description"), ""),
-                    Objects.toString(l.get("summary"), ""),
-                    Objects.toString(l.get("definition_content"), ""),
-                    Objects.toString(l.get("usage_examples"), ""),
-                    Objects.toString(l.get("origin_content"), ""),
-                    Objects.toString(l.get("lore_content"), ""),
-                    Objects.toString(l.get("evolution_content"), ""),
-                    Objects.toString(l.get("comparison_content"), "")
-                ))
-                .collect(Collectors.joining("\n\n"));
+    /**
+     * Chunks a lesson for the chatbot: an overview from its description and summary, then each content
+     * section, taking structured section blocks over the legacy column when the section has any.
+     */
+    private LessonContextAssembler.Lesson lessonContext(Map<String, Object> lesson, Map<String, String> blockText) {
+        Map<String, String> sections = new LinkedHashMap<>();
+        sections.put(
+            LessonContextAssembler.OVERVIEW,
+            String.join("\n", Objects.toString(lesson.get("description"), ""), Objects.toString(lesson.get("summary"), ""))
+        );
+        for (String sectionKey : LessonFlowConstants.CONTENT_SECTION_IDS) {
+            String text = blockText.get(sectionKey);
+            if (text == null) {
+                text = Objects.toString(lesson.get(SECTION_CONTENT_FIELDS.get(sectionKey)), "");
+            }
+            sections.put(SECTION_TITLES.getOrDefault(sectionKey, sectionKey), text);
+        }
+        return new LessonContextAssembler.Lesson(
+            Objects.toString(lesson.get("title"), ""),
+            contextAssembler.chunk(sections)
+        );
     }
 
     /**
      * Returns the lessons.
      */
     @Override
-    public List<Map<String, Object>> getLessons(String accessToken) {
+    public List<LessonCardResponse> getLessons(String accessToken) {
         String token = requireAccessToken(accessToken);
-        return supabaseRestClient.getList(
-            "lessons",
-            buildQuery(Map.of(
-                "select", "*",
-                "is_active", "eq.true",
-                "archived_at", "is.null",
-                "is_published", "eq.true",
-                "order", "created_at.desc"
-            )),
-            token,
-            MAP_LIST
-        );
+        return supabaseRestClient.getList("lessons", PUBLISHED_LESSON_CARDS_QUERY, token, LESSON_CARD_LIST);
     }
 
     /**
@@ -177,109 +312,49 @@ public class LessonServiceImpl implements LessonService {
         int limit = pageSize + 1;
 
         LinkedHashMap<String, String> params = new LinkedHashMap<>();
-        params.put("select", "*");
+        params.put("select", LessonProjection.CARD.columns());
         params.put("is_published", "eq.true");
         params.put("is_active", "eq.true");
         params.put("archived_at", "is.null");
-        applyQueryFilter(request == null ? null : request.query(), params);
+        boolean hasQueryMatches = applyQueryFilter(request == null ? null : request.query(), params);
         applyDifficultyFilter(request == null ? null : request.difficulty(), params);
         applyDurationFilter(request == null ? null : request.duration(), params);
         params.put("order", resolveSort(request == null ? null : request.sort()));
+        if (!hasQueryMatches) {
+            return new LessonFeedResponse(List.of(), false, page, pageSize);
+        }
         params.put("limit", String.valueOf(limit));
         params.put("offset", String.valueOf(offset));
 
-        List<Map<String, Object>> rows = supabaseRestClient.getList(
+        List<LessonCardResponse> rows = supabaseRestClient.getList(
             "lessons",
             buildQuery(params),
             token,
-            MAP_LIST
+            LESSON_CARD_LIST
         );
         boolean hasMore = rows.size() > pageSize;
-        List<Map<String, Object>> items = hasMore ? rows.subList(0, pageSize) : rows;
+        List<LessonCardResponse> items = hasMore ? rows.subList(0, pageSize) : rows;
         return new LessonFeedResponse(items, hasMore, page, pageSize);
     }
 
     /**
-     * Returns the lesson hub.
+     * Returns the lesson hub: the shared catalogue snapshot overlaid with the caller's progress and streak.
      */
     @Override
     public LessonHubResponse getLessonHub(UUID userId, String accessToken) {
         String token = requireAccessToken(accessToken);
-        List<Map<String, Object>> lessons = supabaseRestClient.getList(
-            "lessons",
-            buildQuery(Map.of(
-                "select", "*",
-                "is_active", "eq.true",
-                "archived_at", "is.null",
-                "is_published", "eq.true"
-            )),
-            token,
-            MAP_LIST
-        );
-        List<Map<String, Object>> sortedLessons = sortLessonsForList(lessons);
-        List<Map<String, Object>> categories = fetchOrderedCategories();
-
+        LessonHubCatalog catalog = hubCatalogCache.get(this::loadLessonHubCatalog);
         Map<String, Integer> progressByLesson = getUserLessonProgress(userId, token);
-        int completedLessons = 0;
-        for (Map<String, Object> lesson : sortedLessons) {
-            String lessonId = stringValue(lesson.get("id"));
-            int progress = lessonId == null ? 0 : progressByLesson.getOrDefault(lessonId, 0);
-            if (progress >= 100) {
-                completedLessons += 1;
-            }
-        }
-
-        Map<String, List<Map<String, Object>>> lessonsByCategory = new HashMap<>();
-        List<Map<String, Object>> uncategorizedLessons = new ArrayList<>();
-        for (Map<String, Object> lesson : sortedLessons) {
-            String categoryId = stringValue(lesson.get("category_id"));
-            if (categoryId == null) {
-                uncategorizedLessons.add(lesson);
-                continue;
-            }
-            lessonsByCategory.computeIfAbsent(categoryId, ignored -> new ArrayList<>()).add(lesson);
-        }
-
-        List<LessonHubCategoryResponse> hubCategories = new ArrayList<>();
-        for (Map<String, Object> category : categories) {
-            String categoryId = stringValue(category.get("id"));
-            hubCategories.add(
-                new LessonHubCategoryResponse(
-                    categoryId == null ? null : UUID.fromString(categoryId),
-                    stringValue(category.get("name")),
-                    stringValue(category.get("type")),
-                    stringValue(category.get("color")),
-                    false,
-                    buildHubLessons(lessonsByCategory.getOrDefault(categoryId, List.of()), progressByLesson)
-                )
-            );
-        }
-        if (!uncategorizedLessons.isEmpty()) {
-            hubCategories.add(
-                new LessonHubCategoryResponse(
-                    null,
-                    UNCATEGORIZED_NAME,
-                    UNCATEGORIZED_TYPE,
-                    UNCATEGORIZED_COLOR,
-                    true,
-                    buildHubLessons(uncategorizedLessons, progressByLesson)
-                )
-            );
-        }
 
         int streak = 0;
         try {
-            streak = getUserStats(userId, token).getOrDefault("currentStreak", 0);
+            streak = getCurrentStreak(userId, token);
         } catch (Exception ignored) {
             // Best-effort summary stat.
         }
-        return new LessonHubResponse(
-            hubCategories,
-            new LessonHubSummaryResponse(sortedLessons.size(), completedLessons, streak)
-        );
+        return catalog.overlay(progressByLesson, streak);
     }
 
-
     /**
      * Returns the admin lessons.
      */
@@ -290,7 +365,7 @@ public class LessonServiceImpl implements LessonService {
         return sortLessonsForList(supabaseAdminRestClient.getList(
             "lessons",
             buildQuery(Map.of(
-                "select", "*",
+                "select", LessonProjection.ADMIN.columns(),
                 "is_active", "eq.true",
                 "archived_at", "is.null"
             )),
@@ -450,6 +525,9 @@ public class LessonServiceImpl implements LessonService {
             MAP_LIST
         );
         persistContentSectionsIfProvided(lessonId, lessonPatch.get("content_sections"));
+        // Evict only after every write, so a quiz load in between cannot re-cache the old sections.
+        lessonQuizService.evictQuizDefinition(lessonId);
+        onLessonChanged(lessonId);
 
         Map<String, Object> refreshedLesson = getAdminLessonById(lessonId);
         Boolean skipEmbedding = parseBoolean(lessonPatch.get("skip_embedding"));
@@ -465,31 +543,46 @@ public class LessonServiceImpl implements LessonService {
     }
 
     /**
-     * Searches lessons that match the supplied query filters.
+     * Searches published lessons through the in-memory index, best match first.
      */
     @Override
-    public List<Map<String, Object>> searchLessons(String query, String accessToken) {
+    public List<LessonCardResponse> searchLessons(String query, String accessToken) {
         String token = requireAccessToken(accessToken);
         String trimmedQuery = query == null ? "" : query.trim();
         if (trimmedQuery.isBlank()) {
             return getLessons(token);
         }
-        String safeQuery = escapeQuery(trimmedQuery);
-        return supabaseRestClient.getList(
-            "lessons",
-            buildQuery(Map.of(
-                "select", "*",
-                "is_active", "eq.true",
-                "archived_at", "is.null",
-                "is_published", "eq.true",
-                "or", "(title.ilike.*" + safeQuery + "*,description.ilike.*" + safeQuery + "*)",
-                "order", "created_at.desc"
-            )),
-            token,
-            MAP_LIST
+        return searchIndex().search(trimmedQuery, MAX_SEARCH_RESULTS);
+    }
+
+    /**
+     * Returns the lesson search index, loading it or applying pending lesson changes first.
+     */
+    private LessonSearchIndex searchIndex() {
+        return searchIndexCache.get(
+            () -> supabaseAdminRestClient.getList("lessons", PUBLISHED_LESSON_CARDS_QUERY, LESSON_CARD_LIST),
+            lessonIds -> supabaseAdminRestClient.getList(
+                "lessons",
+                PostgrestQuery.select(LessonProjection.CARD.select())
+                    .in("id", lessonIds)
+                    .eq("is_active", true)
+                    .is("archived_at", "null")
+                    .eq("is_published", true)
+                    .build(),
+                LESSON_CARD_LIST
+            )
         );
     }
 
+    /**
+     * Drops the cached hub catalogue and queues the lesson for re-indexing after an admin write.
+     */
+    private void onLessonChanged(UUID lessonId) {
+        hubCatalogCache.invalidate();
+        searchIndexCache.markChanged(lessonId);
+        vectorIndexCache.markChanged(lessonId);
+    }
+
     /**
      * Returns the lesson by id.
      */
@@ -500,7 +593,7 @@ public class LessonServiceImpl implements LessonService {
             "lessons",
             buildQuery(Map.of(
                 "id", "eq." + lessonId,
-                "select", "*",
+                "select", LessonProjection.DETAIL.columns(),
                 "is_active", "eq.true",
                 "archived_at", "is.null",
                 "is_published", "eq.true"
@@ -520,7 +613,7 @@ public class LessonServiceImpl implements LessonService {
     private Map<String, Object> getAdminLessonById(UUID lessonId) {
         List<Map<String, Object>> lessons = supabaseAdminRestClient.getList(
             "lessons",
-            buildQuery(Map.of("id", "eq." + lessonId, "select", "*")),
+            buildQuery(Map.of("id", "eq." + lessonId, "select", LessonProjection.ADMIN.columns())),
             MAP_LIST
         );
         if (lessons.isEmpty()) {
@@ -622,14 +715,54 @@ public class LessonServiceImpl implements LessonService {
     ) {
         String token = requireAccessToken(accessToken);
         ensureAdmin(userId, token);
+        return loadLessonMediaStatus(lessonId, assetId);
+    }
+
+    /**
+     * Streams the lesson media status.
+     */
+    @Override
+    public SseEmitter streamLessonMediaStatus(
+        UUID userId,
+        UUID lessonId,
+        UUID assetId,
+        String accessToken
+    ) {
+        String token = requireAccessToken(accessToken);
+        ensureAdmin(userId, token);
+        return MediaStatusEmitters.open(
+            mediaProcessingService,
+            assetId,
+            () -> loadLessonMediaStatus(lessonId, assetId),
+            status -> "processing".equalsIgnoreCase(status.status()),
+            (status, progress) -> new LessonMediaStatusResponse(
+                status.assetId(),
+                status.status(),
+                status.mediaKind(),
+                status.playbackUrl(),
+                status.thumbnailUrl(),
+                status.errorMessage(),
+                progress
+            )
+        );
+    }
+
+    /**
+     * Loads the lesson media status with any live progress.
+     */
+    private LessonMediaStatusResponse loadLessonMediaStatus(UUID lessonId, UUID assetId) {
         Map<String, Object> asset = requireLessonMediaAsset(lessonId, assetId);
+        String status = stringValue(asset.get("status"));
         return new LessonMediaStatusResponse(
             assetId,
-            stringValue(asset.get("status")),
+            status,
             stringValue(asset.get("media_kind")),
             stringValue(asset.get("playback_url")),
             stringValue(asset.get("thumbnail_url")),
-            stringValue(asset.get("error_message"))
+            stringValue(asset.get("error_message")),
+            "processing".equalsIgnoreCase(status)
+                ? mediaProcessingService.getProgress(assetId).orElse(null)
+                : null
         );
     }
 
@@ -700,6 +833,7 @@ public class LessonServiceImpl implements LessonService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unable to create lesson");
         }
         Map<String, Object> lesson = created.get(0);
+        onLessonChanged(parseUuid(lesson.get("id")));
         persistContentSectionsIfProvided(parseUuid(lesson.get("id")), normalizedPayload.get("content_sections"));
 
         if (!questions.isEmpty()) {
@@ -779,6 +913,8 @@ public class LessonServiceImpl implements LessonService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unable to update lesson");
         }
         persistContentSectionsIfProvided(lessonId, normalizedPayload.get("content_sections"));
+        lessonQuizService.evictQuizDefinition(lessonId);
+        onLessonChanged(lessonId);
 
         Map<String, Object> updatedLesson = updated.get(0);
         Boolean skipEmbedding = parseBoolean(normalizedPayload.get("skip_embedding"));
@@ -829,6 +965,7 @@ public class LessonServiceImpl implements LessonService {
             movePatch,
             MAP_LIST
         );
+        onLessonChanged(lessonId);
 
         List<Map<String, Object>> updatedSourceLessons = getAdminLessonsByCategoryBucket(sourceCategoryId);
         List<Map<String, Object>> updatedTargetLessons = getAdminLessonsByCategoryBucket(targetCategoryId);
@@ -863,6 +1000,7 @@ public class LessonServiceImpl implements LessonService {
             patch,
             MAP_LIST
         );
+        onLessonChanged(lessonId);
 
         archiveActiveQuiz(lessonId);
     }
@@ -905,7 +1043,7 @@ public class LessonServiceImpl implements LessonService {
         types.add(questionTypeMeta("multiple_choice", "Single-select choices (A/B/C/D)", "{ \"choices\": { \"A\": \"\", \"B\": \"\" } }", "A"));
         types.add(questionTypeMeta("true_false", "Boolean true/false question", "{}", "true"));
         types.add(questionTypeMeta("match_pairs", "Match left and right items", "{ \"left\": [ { \"id\": \"l1\", \"text\": \"\" } ], \"right\": [ { \"id\": \"r1\", \"text\": \"\" } ] }", "{ \"l1\": \"r1\" }"));
-        types.add(questionTypeMeta("short_text", "Free text answer compared server-side", "{ \"placeholder\": \"Type answer\", \"minLength\": 1, \"maxLength\": 120 }", "{\"accepted\":[\"example answer\"]}"));
+        types.add(questionTypeMeta("short_text", "Free text answer matched server-side with typo tolerance and synonyms", "{ \"placeholder\": \"Type answer\", \"minLength\": 1, \"maxLength\": 120 }", "{\"accepted\":[\"example answer\"],\"synonyms\":[],\"maxTypos\":1}"));
         return types;
     }
 
@@ -949,12 +1087,15 @@ public class LessonServiceImpl implements LessonService {
         if (activeQuiz != null) {
             archiveQuizById(activeQuiz.get("id"));
         }
+        lessonQuizService.evictQuizDefinition(lessonId);
 
         if (!shouldCreate) {
             return null;
         }
 
-        return createQuizWithQuestions(userId, lesson, questions);
+        Map<String, Object> created = createQuizWithQuestions(userId, lesson, questions);
+        lessonQuizService.evictQuizDefinition(lessonId);
+        return created;
     }
 
     /**
@@ -1003,6 +1144,7 @@ public class LessonServiceImpl implements LessonService {
      * Archives the active quiz.
      */
     private void archiveActiveQuiz(UUID lessonId) {
+        lessonQuizService.evictQuizDefinition(lessonId);
         Map<String, Object> activeQuiz = findActiveLessonQuiz(lessonId);
         if (activeQuiz == null || activeQuiz.get("id") == null) {
             return;
@@ -1241,22 +1383,24 @@ public class LessonServiceImpl implements LessonService {
         Map<String, Integer> stats = new HashMap<>();
         stats.put("lessonsEnrolled", lessonsEnrolled);
         stats.put("lessonsCompleted", lessonsCompleted);
-        int currentStreak = 0;
+        stats.put("currentStreak", getCurrentStreak(userId, token));
+        stats.put("conceptsMastered", masteredRows.size());
+        stats.put("hoursLearned", 0);
+        return stats;
+    }
+
+    private int getCurrentStreak(UUID userId, String token) {
         List<Map<String, Object>> profileRows = supabaseRestClient.getList(
             "profiles",
             buildQuery(Map.of("select", "current_streak", "user_id", "eq." + userId, "limit", "1")),
             token,
             MAP_LIST
         );
-        if (!profileRows.isEmpty()) {
-            currentStreak = parseInteger(profileRows.get(0).get("current_streak")) == null
-                ? 0
-                : parseInteger(profileRows.get(0).get("current_streak"));
+        if (profileRows.isEmpty()) {
+            return 0;
         }
-        stats.put("currentStreak", currentStreak);
-        stats.put("conceptsMastered", masteredRows.size());
-        stats.put("hoursLearned", 0);
-        return stats;
+        Integer currentStreak = parseInteger(profileRows.get(0).get("current_streak"));
+        return currentStreak == null ? 0 : currentStreak;
     }
 
     /**
@@ -1839,6 +1983,40 @@ public class LessonServiceImpl implements LessonService {
         return normalized;
     }
 
+    /**
+     * Re-embeds every published lesson, embedding them in batches rather than one call per lesson.
+     * Cached vectors are bypassed so a refresh after a model change really recomputes every lesson.
+     */
+    @Override
+    public Map<String, Object> reembedLessons(UUID userId, String accessToken) {
+        String token = requireAccessToken(accessToken);
+        ensureAdmin(userId, token);
+
+        List<Map<String, Object>> lessons = supabaseAdminRestClient.getList(
+            "lessons",
+            PostgrestQuery.select("id," + String.join(",", LESSON_EMBEDDING_TEXT_FIELDS))
+                .eq("is_active", true)
+                .is("archived_at", "null")
+                .eq("is_published", true)
+                .order("created_at.asc")
+                .build(),
+            MAP_LIST
+        );
+        if (lessons.isEmpty()) {
+            return Map.of("reembedded", 0);
+        }
+
+        List<float[]> vectors = embeddingService.refreshEmbeddings(
+            lessons.stream().map(this::lessonEmbeddingText).toList()
+        );
+        for (int i = 0; i < lessons.size(); i++) {
+            Map<String, Object> lesson = lessons.get(i);
+            writeLessonEmbedding(parseUuid(lesson.get("id")), lesson, embeddingService.toPgVector(vectors.get(i)));
+        }
+        vectorIndexCache.invalidate();
+        return Map.of("reembedded", lessons.size());
+    }
+
     /**
      * Checks whether embedding relevant changes.
      */
@@ -1855,7 +2033,15 @@ public class LessonServiceImpl implements LessonService {
             return;
         }
 
-        String textToEmbed = String.join(
+        float[] vector = embeddingService.generateEmbedding(lessonEmbeddingText(lesson));
+        writeLessonEmbedding(lessonId, lesson, embeddingService.toPgVector(vector));
+    }
+
+    /**
+     * Builds the text a lesson is embedded from.
+     */
+    private String lessonEmbeddingText(Map<String, Object> lesson) {
+        return String.join(
             " ",
             Objects.toString(lesson.get("title"), ""),
             Objects.toString(lesson.get("description"), ""),
@@ -1867,10 +2053,12 @@ public class LessonServiceImpl implements LessonService {
             Objects.toString(lesson.get("evolution_content"), ""),
             Objects.toString(lesson.get("comparison_content"), "")
         );
+    }
 
-        float[] vector = embeddingService.generateEmbedding(textToEmbed);
-        String vectorString = embeddingService.toPgVector(vector);
-
+    /**
+     * Stores a lesson embedding and mirrors it onto the in-memory lesson row.
+     */
+    private void writeLessonEmbedding(UUID lessonId, Map<String, Object> lesson, String vectorString) {
         Map<String, Object> embeddingUpdate = new HashMap<>();
         embeddingUpdate.put("embedding", vectorString);
         supabaseAdminRestClient.patchList(
@@ -1880,6 +2068,7 @@ public class LessonServiceImpl implements LessonService {
             MAP_LIST
         );
         lesson.put("embedding", vectorString);
+        vectorIndexCache.markChanged(lessonId);
     }
 
     /**
@@ -1953,6 +2142,7 @@ public class LessonServiceImpl implements LessonService {
         if (!rows.isEmpty()) {
             supabaseAdminRestClient.postList("lesson_section_blocks", rows, MAP_LIST);
         }
+        vectorIndexCache.markChanged(lessonId);
     }
 
     /**
@@ -2225,29 +2415,23 @@ public class LessonServiceImpl implements LessonService {
     }
 
     /**
-     * Escapes the query.
-     */
-    private String escapeQuery(String query) {
-        return query.replace(",", " ").replace("(", " ").replace(")", " ");
-    }
-
-    /**
-     * Applies the query filter.
+     * Restricts the feed to lessons the search index matches; returns false when nothing matches. The
+     * best matches are capped at one batch chunk so the id list stays within the URL size the other
+     * in-list lookups use and the feed keeps its single paged request.
      */
-    private void applyQueryFilter(String query, LinkedHashMap<String, String> params) {
+    private boolean applyQueryFilter(String query, LinkedHashMap<String, String> params) {
         if (query == null || query.isBlank()) {
-            return;
+            return true;
+        }
+        List<LessonCardResponse> matches = searchIndex().search(query.trim(), supabaseBatchFetcher.chunkSize());
+        if (matches.isEmpty()) {
+            return false;
         }
-        String safeQuery = escapeQuery(query.trim());
         params.put(
-            "or",
-            String.format(
-                "(title.ilike.*%s*,description.ilike.*%s*,summary.ilike.*%s*)",
-                safeQuery,
-                safeQuery,
-                safeQuery
-            )
+            "id",
+            "in.(" + matches.stream().map(match -> match.id().toString()).collect(Collectors.joining(",")) + ")"
         );
+        return true;
     }
 
     /**
@@ -2722,6 +2906,8 @@ public class LessonServiceImpl implements LessonService {
         if (step == AdminLessonWizardStep.CONTENT || step == AdminLessonWizardStep.REVIEW_PUBLISH) {
             persistContentSectionsIfProvided(lessonId, lessonPatch.get("content_sections"));
         }
+        lessonQuizService.evictQuizDefinition(lessonId);
+        onLessonChanged(lessonId);
     }
 
     private void applyEditableLessonFields(Map<String, Object> source, Map<String, Object> patch) {
@@ -3015,14 +3201,14 @@ public class LessonServiceImpl implements LessonService {
     private List<Map<String, Object>> fetchOrderedCategories() {
         return supabaseAdminRestClient.getList(
             "categories",
-            buildQuery(Map.of("select", "*", "order", "name.asc")),
+            buildQuery(Map.of("select", "id,name,type,color", "order", "name.asc")),
             MAP_LIST
         );
     }
 
     private List<Map<String, Object>> getAdminLessonsByCategoryBucket(UUID categoryId) {
         LinkedHashMap<String, String> params = new LinkedHashMap<>();
-        params.put("select", "*");
+        params.put("select", LessonProjection.ADMIN.columns());
         params.put("is_active", "eq.true");
         params.put("archived_at", "is.null");
         if (categoryId == null) {
@@ -3033,6 +3219,33 @@ public class LessonServiceImpl implements LessonService {
         return sortLessonsForList(supabaseAdminRestClient.getList("lessons", buildQuery(params), MAP_LIST));
     }
 
+    /**
+     * Parses a pgvector column, returned by PostgREST as {@code "[v1,v2,...]"}, or null if malformed.
+     */
+    private float[] parseVector(Object value) {
+        if (value instanceof List<?> list) {
+            value = list.toString();
+        }
+        String raw = stringValue(value);
+        if (raw == null || raw.length() < 2 || raw.charAt(0) != '[' || raw.charAt(raw.length() - 1) != ']') {
+            return null;
+        }
+        String body = raw.substring(1, raw.length() - 1).trim();
+        if (body.isEmpty()) {
+            return null;
+        }
+        String[] parts = body.split(",");
+        float[] vector = new float[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                vector[i] = Float.parseFloat(parts[i].trim());
+            }
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+        return vector;
+    }
+
     private UUID parseUuid(Object value) {
         String raw = stringValue(value);
         if (raw == null) {
@@ -3045,36 +3258,71 @@ public class LessonServiceImpl implements LessonService {
         }
     }
 
-    private List<LessonHubLessonResponse> buildHubLessons(
-        List<Map<String, Object>> lessons,
-        Map<String, Integer> progressByLesson
-    ) {
-        List<Map<String, Object>> orderedLessons = sortLessonsForList(lessons);
-        List<LessonHubLessonResponse> hubLessons = new ArrayList<>();
-        for (Map<String, Object> lesson : orderedLessons) {
-            String lessonIdRaw = stringValue(lesson.get("id"));
-            UUID lessonId = lessonIdRaw == null ? null : UUID.fromString(lessonIdRaw);
-            int progress = lessonIdRaw == null ? 0 : progressByLesson.getOrDefault(lessonIdRaw, 0);
-            boolean completed = progress >= 100;
-            boolean current = progress > 0 && !completed;
-            boolean visuallyLocked = false;
-            hubLessons.add(
-                new LessonHubLessonResponse(
-                    lessonId,
-                    stringValue(lesson.get("title")),
-                    stringValue(lesson.get("summary")),
-                    parseInteger(lesson.get("difficulty_level")),
-                    parseInteger(lesson.get("estimated_minutes")),
-                    parseInteger(lesson.get("xp_reward")),
-                    parseInteger(lesson.get("completion_count")),
-                    progress,
-                    completed,
-                    current,
-                    visuallyLocked
+    private LessonHubCatalog loadLessonHubCatalog() {
+        List<Map<String, Object>> lessons = sortLessonsForList(supabaseAdminRestClient.getList(
+            "lessons",
+            buildQuery(Map.of(
+                "select", LessonProjection.HUB_CARD.columns(),
+                "is_active", "eq.true",
+                "archived_at", "is.null",
+                "is_published", "eq.true"
+            )),
+            MAP_LIST
+        ));
+
+        Map<String, List<LessonHubCatalog.Card>> cardsByCategory = new HashMap<>();
+        List<LessonHubCatalog.Card> uncategorizedCards = new ArrayList<>();
+        for (Map<String, Object> lesson : lessons) {
+            LessonHubCatalog.Card card = toHubCard(lesson);
+            String categoryId = stringValue(lesson.get("category_id"));
+            if (categoryId == null) {
+                uncategorizedCards.add(card);
+                continue;
+            }
+            cardsByCategory.computeIfAbsent(categoryId, ignored -> new ArrayList<>()).add(card);
+        }
+
+        List<LessonHubCatalog.Category> categories = new ArrayList<>();
+        for (Map<String, Object> category : fetchOrderedCategories()) {
+            String categoryId = stringValue(category.get("id"));
+            categories.add(
+                new LessonHubCatalog.Category(
+                    categoryId == null ? null : UUID.fromString(categoryId),
+                    stringValue(category.get("name")),
+                    stringValue(category.get("type")),
+                    stringValue(category.get("color")),
+                    false,
+                    cardsByCategory.getOrDefault(categoryId, List.of())
+                )
+            );
+        }
+        if (!uncategorizedCards.isEmpty()) {
+            categories.add(
+                new LessonHubCatalog.Category(
+                    null,
+                    UNCATEGORIZED_NAME,
+                    UNCATEGORIZED_TYPE,
+                    UNCATEGORIZED_COLOR,
+                    true,
+                    uncategorizedCards
                 )
             );
         }
-        return hubLessons;
+        return new LessonHubCatalog(categories, lessons.size());
+    }
+
+    private LessonHubCatalog.Card toHubCard(Map<String, Object> lesson) {
+        String lessonKey = stringValue(lesson.get("id"));
+        return new LessonHubCatalog.Card(
+            lessonKey == null ? null : UUID.fromString(lessonKey),
+            lessonKey,
+            stringValue(lesson.get("title")),
+            stringValue(lesson.get("summary")),
+            parseInteger(lesson.get("difficulty_level")),
+            parseInteger(lesson.get("estimated_minutes")),
+            parseInteger(lesson.get("xp_reward")),
+            parseInteger(lesson.get("completion_count"))
+        );
     }
 
     private List<Map<String, Object>> sortLessonsForList(List<Map<String, Object>> lessons) {
@@ -3113,10 +3361,7 @@ public class LessonServiceImpl implements LessonService {
     ) {}
 
     private String buildQuery(Map<String, String> params) {
-        UriComponentsBuilder builder = UriComponentsBuilder.newInstance();
-        params.forEach(builder::queryParam);
-        String uri = builder.build().encode().toUriString();
-        return uri.startsWith("?") ? uri.substring(1) : uri;
+        return PostgrestQuery.of(params);
     }
 
     private String requireAccessToken(String accessToken) {
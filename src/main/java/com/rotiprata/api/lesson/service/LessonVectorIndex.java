@@ -0,0 +1,160 @@
+package com.rotiprata.api.lesson.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable in-memory cosine-similarity index over lesson embeddings.
+ *
+ * <p>Vectors are normalized once at build time and packed row after row into a single float array, so
+ * a query is one normalization plus a dot-product scan over contiguous memory. The scan is exact and
+ * costs about a microsecond per 1536-dimension lesson, so a catalogue of a few hundred lessons is
+ * searched well under a millisecond; an approximate graph index only pays off at far larger sizes.
+ * Updates return a new index and leave readers of the old one untouched.
+ */
+final class LessonVectorIndex {
+    static final LessonVectorIndex EMPTY = new LessonVectorIndex(Map.of());
+
+    private final Map<UUID, Entry> entries;
+    private final Entry[] rows;
+    private final float[] matrix;
+    private final int dimensions;
+
+    private LessonVectorIndex(Map<UUID, Entry> entries) {
+        this.entries = entries;
+        this.rows = entries.values().toArray(Entry[]::new);
+        this.dimensions = rows.length == 0 ? 0 : rows[0].vector().length;
+        this.matrix = new float[rows.length * dimensions];
+        for (int i = 0; i < rows.length; i++) {
+            System.arraycopy(rows[i].vector(), 0, matrix, i * dimensions, dimensions);
+        }
+    }
+
+    /**
+     * Builds an index over the given entries.
+     */
+    static LessonVectorIndex build(Collection<Entry> entries) {
+        return EMPTY.apply(entries, List.of());
+    }
+
+    /**
+     * Returns a new index with {@code removedIds} dropped and {@code upserts} added or replaced.
+     * Entries whose dimension differs from the rest of the index are skipped.
+     */
+    LessonVectorIndex apply(Collection<Entry> upserts, Collection<UUID> removedIds) {
+        Map<UUID, Entry> next = new LinkedHashMap<>(entries);
+        removedIds.forEach(next::remove);
+        int expected = next.isEmpty() ? -1 : next.values().iterator().next().vector().length;
+        for (Entry entry : upserts) {
+            if (entry == null || entry.id() == null || entry.vector() == null || entry.vector().length == 0) {
+                continue;
+            }
+            if (expected < 0) {
+                expected = entry.vector().length;
+            }
+            if (entry.vector().length == expected) {
+                next.put(entry.id(), entry);
+            }
+        }
+        return new LessonVectorIndex(next);
+    }
+
+    /**
+     * Returns the number of indexed lessons.
+     */
+    int size() {
+        return rows.length;
+    }
+
+    /**
+     * Returns up to {@code k} lessons most similar to the query, most similar first.
+     */
+    List<Entry> topK(float[] query, int k) {
+        if (query == null || query.length != dimensions || rows.length == 0 || k <= 0) {
+            return List.of();
+        }
+        float[] q = normalize(query);
+        int limit = Math.min(k, rows.length);
+        int[] best = new int[limit];
+        float[] bestScores = new float[limit];
+        int found = 0;
+
+        for (int row = 0, offset = 0; row < rows.length; row++, offset += dimensions) {
+            float dot = dot(q, matrix, offset, dimensions);
+            if (found == limit && dot <= bestScores[limit - 1]) {
+                continue;
+            }
+            // Insertion into a small sorted buffer; k is a handful, so this beats a heap.
+            int position = found < limit ? found++ : limit - 1;
+            while (position > 0 && bestScores[position - 1] < dot) {
+                bestScores[position] = bestScores[position - 1];
+                best[position] = best[position - 1];
+                position--;
+            }
+            bestScores[position] = dot;
+            best[position] = row;
+        }
+
+        List<Entry> results = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            results.add(rows[best[i]]);
+        }
+        return results;
+    }
+
+    /**
+     * Dot product of {@code q} with the row starting at {@code offset}. Four independent accumulators
+     * break the add dependency chain so the CPU can overlap the multiplies.
+     */
+    private static float dot(float[] q, float[] matrix, int offset, int length) {
+        float s0 = 0f;
+        float s1 = 0f;
+        float s2 = 0f;
+        float s3 = 0f;
+        int d = 0;
+        for (int end = length - 3; d < end; d += 4) {
+            s0 += q[d] * matrix[offset + d];
+            s1 += q[d + 1] * matrix[offset + d + 1];
+            s2 += q[d + 2] * matrix[offset + d + 2];
+            s3 += q[d + 3] * matrix[offset + d + 3];
+        }
+        for (; d < length; d++) {
+            s0 += q[d] * matrix[offset + d];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        float[] normalized = vector.clone();
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < normalized.length; i++) {
+                normalized[i] *= scale;
+            }
+        }
+        return normalized;
+    }
+
+    /**
+     * An indexed lesson: its embedding, normalized on construction, the chunks handed to the chatbot,
+     * and a version that changes whenever those chunks do.
+     */
+    record Entry(UUID id, float[] vector, LessonContextAssembler.Lesson context, String version) {
+
+        Entry {
+            vector = vector == null ? null : normalize(vector);
+        }
+
+        Entry(UUID id, float[] vector, LessonContextAssembler.Lesson context) {
+            this(id, vector, context, context == null ? "" : context.fingerprint());
+        }
+    }
+}
@@ -12,7 +12,7 @@ abstract class AbstractLessonQuizQuestionGrader implements LessonQuizQuestionGra
     private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
     protected static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
-    protected Map<String, Object> asObject(Object value) {
+    protected static Map<String, Object> asObject(Object value) {
         if (!(value instanceof Map<?, ?> raw)) {
             return Map.of();
         }
@@ -26,14 +26,14 @@ abstract class AbstractLessonQuizQuestionGrader implements LessonQuizQuestionGra
         return map;
     }
 
-    protected List<?> asList(Object value) {
+    protected static List<?> asList(Object value) {
         if (value instanceof List<?> list) {
             return list;
         }
         return List.of();
     }
 
-    protected String asString(Object value) {
+    protected static String asString(Object value) {
         if (value == null) {
             return null;
         }
@@ -53,7 +53,7 @@ abstract class AbstractLessonQuizQuestionGrader implements LessonQuizQuestionGra
         }
     }
 
-    protected Map<String, Object> resolveResponseMap(Map<String, Object> response, String key) {
+    protected static Map<String, Object> resolveResponseMap(Map<String, Object> response, String key) {
         if (response == null) {
             return Map.of();
         }
@@ -64,7 +64,7 @@ abstract class AbstractLessonQuizQuestionGrader implements LessonQuizQuestionGra
         return asObject(nested);
     }
 
-    protected ResponseStatusException badRequest(String message) {
+    protected static ResponseStatusException badRequest(String message) {
         return new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
     }
 }
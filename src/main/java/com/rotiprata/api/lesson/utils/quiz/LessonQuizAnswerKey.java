@@ -0,0 +1,10 @@
+package com.rotiprata.api.lesson.utils.quiz;
+
+import java.util.Map;
+
+/**
+ * Immutable, pre-normalized answer key compiled from a question row so grading is a lookup.
+ */
+public interface LessonQuizAnswerKey {
+    LessonQuizGradeResult grade(Map<String, Object> response);
+}
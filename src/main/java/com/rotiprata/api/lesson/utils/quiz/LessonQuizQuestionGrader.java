@@ -7,5 +7,9 @@ public interface LessonQuizQuestionGrader {
 
     Map<String, Object> buildPayload(Map<String, Object> question);
 
-    LessonQuizGradeResult grade(Map<String, Object> question, Map<String, Object> response);
+    LessonQuizAnswerKey compile(Map<String, Object> question);
+
+    default LessonQuizGradeResult grade(Map<String, Object> question, Map<String, Object> response) {
+        return compile(question).grade(response);
+    }
 }
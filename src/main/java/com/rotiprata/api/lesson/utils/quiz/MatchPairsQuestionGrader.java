@@ -1,6 +1,7 @@
 package com.rotiprata.api.lesson.utils.quiz;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,37 +23,12 @@ public class MatchPairsQuestionGrader extends AbstractLessonQuizQuestionGrader {
     }
 
     @Override
-    public LessonQuizGradeResult grade(Map<String, Object> question, Map<String, Object> response) {
+    public LessonQuizAnswerKey compile(Map<String, Object> question) {
         Map<String, List<Map<String, String>>> pairs = resolvePairs(question);
-        Set<String> leftIds = pairs.get("left").stream().map(item -> item.get("id")).collect(Collectors.toSet());
-        Set<String> rightIds = pairs.get("right").stream().map(item -> item.get("id")).collect(Collectors.toSet());
+        List<String> leftIds = pairs.get("left").stream().map(item -> item.get("id")).distinct().toList();
+        Set<String> rightIds = pairs.get("right").stream().map(item -> item.get("id")).collect(Collectors.toUnmodifiableSet());
         Map<String, String> expected = resolveExpected(question, leftIds, rightIds);
-
-        Map<String, Object> rawPairs = resolveResponseMap(response, "pairs");
-        if (rawPairs == response) {
-            rawPairs = resolveResponseMap(response, "answers");
-        }
-        Map<String, String> selectedPairs = new LinkedHashMap<>();
-        for (String leftId : leftIds) {
-            String rightId = asString(rawPairs.get(leftId));
-            if (rightId == null) {
-                throw badRequest("Missing pair for left item " + leftId);
-            }
-            if (!rightIds.contains(rightId)) {
-                throw badRequest("Invalid right-side id for left item " + leftId);
-            }
-            selectedPairs.put(leftId, rightId);
-        }
-
-        boolean correct = true;
-        for (Map.Entry<String, String> expectedEntry : expected.entrySet()) {
-            if (!expectedEntry.getValue().equals(selectedPairs.get(expectedEntry.getKey()))) {
-                correct = false;
-                break;
-            }
-        }
-
-        return new LessonQuizGradeResult(correct, Map.of("pairs", selectedPairs));
+        return new PairKey(leftIds, rightIds, Collections.unmodifiableMap(expected));
     }
 
     private Map<String, List<Map<String, String>>> resolvePairs(Map<String, Object> question) {
@@ -83,7 +59,7 @@ public class MatchPairsQuestionGrader extends AbstractLessonQuizQuestionGrader {
 
     private Map<String, String> resolveExpected(
         Map<String, Object> question,
-        Set<String> leftIds,
+        List<String> leftIds,
         Set<String> rightIds
     ) {
         String correctRaw = asString(question.get("correct_answer"));
@@ -101,4 +77,32 @@ public class MatchPairsQuestionGrader extends AbstractLessonQuizQuestionGrader {
         }
         return expected;
     }
+
+    private record PairKey(
+        List<String> leftIds,
+        Set<String> rightIds,
+        Map<String, String> expected
+    ) implements LessonQuizAnswerKey {
+        @Override
+        public LessonQuizGradeResult grade(Map<String, Object> response) {
+            Map<String, Object> rawPairs = resolveResponseMap(response, "pairs");
+            if (rawPairs == response) {
+                rawPairs = resolveResponseMap(response, "answers");
+            }
+            Map<String, String> selectedPairs = new LinkedHashMap<>();
+            boolean correct = true;
+            for (String leftId : leftIds) {
+                String rightId = asString(rawPairs.get(leftId));
+                if (rightId == null) {
+                    throw badRequest("Missing pair for left item " + leftId);
+                }
+                if (!rightIds.contains(rightId)) {
+                    throw badRequest("Invalid right-side id for left item " + leftId);
+                }
+                selectedPairs.put(leftId, rightId);
+                correct &= rightId.equals(expected.get(leftId));
+            }
+            return new LessonQuizGradeResult(correct, Map.of("pairs", selectedPairs));
+        }
+    }
 }
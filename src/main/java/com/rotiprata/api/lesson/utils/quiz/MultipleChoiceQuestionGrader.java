@@ -3,6 +3,7 @@ package com.rotiprata.api.lesson.utils.quiz;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -22,19 +23,8 @@ public class MultipleChoiceQuestionGrader extends AbstractLessonQuizQuestionGrad
     }
 
     @Override
-    public LessonQuizGradeResult grade(Map<String, Object> question, Map<String, Object> response) {
+    public LessonQuizAnswerKey compile(Map<String, Object> question) {
         Map<String, String> choices = resolveChoices(question);
-        String selected = asString(response == null ? null : response.get("choiceId"));
-        if (selected == null) {
-            selected = asString(response == null ? null : response.get("selectedOption"));
-        }
-        if (selected == null) {
-            throw badRequest("Answer response is missing choiceId");
-        }
-        String normalizedSelected = selected.toUpperCase();
-        if (!choices.containsKey(normalizedSelected)) {
-            throw badRequest("Invalid answer option");
-        }
         String correct = asString(question.get("correct_answer"));
         if (correct == null) {
             throw badRequest("Question is missing correct_answer");
@@ -43,10 +33,7 @@ public class MultipleChoiceQuestionGrader extends AbstractLessonQuizQuestionGrad
         if (!choices.containsKey(normalizedCorrect)) {
             throw badRequest("Question has invalid correct_answer");
         }
-        return new LessonQuizGradeResult(
-            normalizedSelected.equals(normalizedCorrect),
-            Map.of("choiceId", normalizedSelected)
-        );
+        return new ChoiceKey(Set.copyOf(choices.keySet()), normalizedCorrect);
     }
 
     private Map<String, String> resolveChoices(Map<String, Object> question) {
@@ -69,4 +56,25 @@ public class MultipleChoiceQuestionGrader extends AbstractLessonQuizQuestionGrad
         }
         return choices;
     }
+
+    private record ChoiceKey(Set<String> choiceIds, String correctChoiceId) implements LessonQuizAnswerKey {
+        @Override
+        public LessonQuizGradeResult grade(Map<String, Object> response) {
+            String selected = asString(response == null ? null : response.get("choiceId"));
+            if (selected == null) {
+                selected = asString(response == null ? null : response.get("selectedOption"));
+            }
+            if (selected == null) {
+                throw badRequest("Answer response is missing choiceId");
+            }
+            String normalizedSelected = selected.toUpperCase();
+            if (!choiceIds.contains(normalizedSelected)) {
+                throw badRequest("Invalid answer option");
+            }
+            return new LessonQuizGradeResult(
+                normalizedSelected.equals(correctChoiceId),
+                Map.of("choiceId", normalizedSelected)
+            );
+        }
+    }
 }
@@ -0,0 +1,172 @@
+package com.rotiprata.api.lesson.utils.quiz;
+
+import java.text.Normalizer;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Matches short_text submissions against precompiled candidates: exact lookup on the normalized
+ * text first, then a bounded Damerau-Levenshtein (optimal string alignment) pass that gives up as
+ * soon as a row exceeds the typo budget.
+ */
+final class ShortTextAnswerMatcher {
+    private static final int MAX_TYPOS = 2;
+
+    private final Set<String> exact;
+    private final String[] candidates;
+    private final int[] budgets;
+
+    /**
+     * Creates a matcher for already-normalized candidates; {@code maxTypos} of {@code null} derives the
+     * budget from each candidate's length.
+     */
+    ShortTextAnswerMatcher(Collection<String> normalizedCandidates, Integer maxTypos) {
+        Set<String> unique = new LinkedHashSet<>(normalizedCandidates);
+        this.exact = Set.copyOf(unique);
+        this.candidates = unique.toArray(String[]::new);
+        this.budgets = new int[candidates.length];
+        for (int i = 0; i < candidates.length; i++) {
+            budgets[i] = maxTypos == null
+                ? typoBudget(candidates[i])
+                : Math.max(0, Math.min(maxTypos, MAX_TYPOS));
+        }
+    }
+
+    /**
+     * Returns whether a normalized submission matches any candidate within its typo budget.
+     */
+    boolean matches(String normalizedSubmission) {
+        if (normalizedSubmission == null) {
+            return false;
+        }
+        if (exact.contains(normalizedSubmission)) {
+            return true;
+        }
+        int[] previousPrevious = null;
+        int[] previous = null;
+        int[] current = null;
+        for (int i = 0; i < candidates.length; i++) {
+            int budget = budgets[i];
+            String candidate = candidates[i];
+            if (budget == 0 || Math.abs(candidate.length() - normalizedSubmission.length()) > budget) {
+                continue;
+            }
+            if (current == null) {
+                int width = normalizedSubmission.length() + 1;
+                previousPrevious = new int[width];
+                previous = new int[width];
+                current = new int[width];
+            }
+            if (withinDistance(candidate, normalizedSubmission, budget, previousPrevious, previous, current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Normalizes free text for matching: compatibility decomposition without accents, lower case,
+     * apostrophes dropped, other punctuation and whitespace collapsed to single spaces. Returns
+     * {@code null} when nothing matchable is left.
+     */
+    static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String decomposed = Normalizer.isNormalized(value, Normalizer.Form.NFKD)
+            ? value
+            : Normalizer.normalize(value, Normalizer.Form.NFKD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); ) {
+            int codePoint = decomposed.codePointAt(i);
+            i += Character.charCount(codePoint);
+            int type = Character.getType(codePoint);
+            if (type == Character.NON_SPACING_MARK
+                || type == Character.ENCLOSING_MARK
+                || type == Character.COMBINING_SPACING_MARK
+                || type == Character.FORMAT
+                || isApostrophe(codePoint)) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(codePoint) || isSymbol(type)) {
+                if (pendingSpace && out.length() > 0) {
+                    out.append(' ');
+                }
+                pendingSpace = false;
+                out.appendCodePoint(Character.toLowerCase(codePoint));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return out.length() == 0 ? null : out.toString();
+    }
+
+    /**
+     * Returns the default typo budget for a candidate: none for short or numeric answers.
+     */
+    static int typoBudget(String candidate) {
+        int length = candidate.length();
+        if (length <= 3) {
+            return 0;
+        }
+        for (int i = 0; i < length; i++) {
+            if (Character.isDigit(candidate.charAt(i))) {
+                return 0;
+            }
+        }
+        return length <= 7 ? 1 : MAX_TYPOS;
+    }
+
+    /**
+     * Returns whether the optimal string alignment distance between {@code a} and {@code b} is at most
+     * {@code max}, reusing the caller's row buffers (each at least {@code b.length() + 1} long).
+     */
+    static boolean withinDistance(String a, String b, int max, int[] previousPrevious, int[] previous, int[] current) {
+        int aLength = a.length();
+        int bLength = b.length();
+        if (Math.abs(aLength - bLength) > max) {
+            return false;
+        }
+        for (int j = 0; j <= bLength; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= aLength; i++) {
+            current[0] = i;
+            int rowMin = i;
+            char aChar = a.charAt(i - 1);
+            for (int j = 1; j <= bLength; j++) {
+                char bChar = b.charAt(j - 1);
+                int cost = aChar == bChar ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && aChar == b.charAt(j - 2) && a.charAt(i - 2) == bChar) {
+                    value = Math.min(value, previousPrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                if (value < rowMin) {
+                    rowMin = value;
+                }
+            }
+            if (rowMin > max) {
+                return false;
+            }
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[bLength] <= max;
+    }
+
+    private static boolean isApostrophe(int codePoint) {
+        return codePoint == '\'' || codePoint == '\u2019' || codePoint == '\u2018' || codePoint == '`';
+    }
+
+    private static boolean isSymbol(int type) {
+        return type == Character.OTHER_SYMBOL
+            || type == Character.MATH_SYMBOL
+            || type == Character.CURRENCY_SYMBOL
+            || type == Character.SURROGATE;
+    }
+}
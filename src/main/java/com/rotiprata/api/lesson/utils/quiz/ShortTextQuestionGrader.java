@@ -1,6 +1,5 @@
 package com.rotiprata.api.lesson.utils.quiz;
 
-import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -27,68 +26,39 @@ public class ShortTextQuestionGrader extends AbstractLessonQuizQuestionGrader {
     }
 
     @Override
-    public LessonQuizGradeResult grade(Map<String, Object> question, Map<String, Object> response) {
-        String submitted = asString(response == null ? null : response.get("text"));
-        if (submitted == null && response != null) {
-            submitted = asString(response.get("value"));
-        }
-        if (submitted == null) {
-            throw badRequest("Answer response is missing text");
-        }
-        String normalizedSubmitted = normalize(submitted);
-        if (normalizedSubmitted == null) {
-            throw badRequest("Answer response is empty");
-        }
-
-        Set<String> accepted = resolveAcceptedAnswers(question);
-        boolean correct = accepted.contains(normalizedSubmitted);
-        return new LessonQuizGradeResult(
-            correct,
-            Map.of("text", submitted)
-        );
-    }
-
-    private Set<String> resolveAcceptedAnswers(Map<String, Object> question) {
+    public LessonQuizAnswerKey compile(Map<String, Object> question) {
         String raw = asString(question.get("correct_answer"));
         if (raw == null) {
             throw badRequest("short_text questions require correct_answer");
         }
-        Set<String> accepted = new LinkedHashSet<>();
+        Set<String> candidates = new LinkedHashSet<>();
+        Integer maxTypos = null;
         if (raw.startsWith("{")) {
             Map<String, Object> parsed = parseJsonObject(raw, "correct_answer");
-            List<?> list = asList(parsed.get("accepted"));
-            for (Object item : list) {
-                String normalized = normalize(item == null ? null : item.toString());
-                if (normalized != null) {
-                    accepted.add(normalized);
-                }
+            addNormalized(candidates, asList(parsed.get("accepted")));
+            if (candidates.isEmpty()) {
+                throw badRequest("short_text questions require at least one accepted answer");
             }
+            addNormalized(candidates, asList(parsed.get("synonyms")));
+            maxTypos = parseInteger(parsed.get("maxTypos"));
         } else if (raw.startsWith("[")) {
-            Object parsed = readAnyJson(raw, "correct_answer");
-            for (Object item : asList(parsed)) {
-                String normalized = normalize(item == null ? null : item.toString());
-                if (normalized != null) {
-                    accepted.add(normalized);
-                }
-            }
+            addNormalized(candidates, asList(readAnyJson(raw, "correct_answer")));
         } else {
-            String normalized = normalize(raw);
-            if (normalized != null) {
-                accepted.add(normalized);
-            }
+            addNormalized(candidates, List.of(raw));
         }
-        if (accepted.isEmpty()) {
+        if (candidates.isEmpty()) {
             throw badRequest("short_text questions require at least one accepted answer");
         }
-        return accepted;
+        return new AcceptedAnswers(new ShortTextAnswerMatcher(candidates, maxTypos));
     }
 
-    private String normalize(String value) {
-        String str = asString(value);
-        if (str == null) {
-            return null;
+    private void addNormalized(Set<String> candidates, List<?> values) {
+        for (Object item : values) {
+            String normalized = ShortTextAnswerMatcher.normalize(item == null ? null : item.toString());
+            if (normalized != null) {
+                candidates.add(normalized);
+            }
         }
-        return str.toLowerCase().replaceAll("\\s+", " ").trim();
     }
 
     private Integer parseInteger(Object value) {
@@ -112,4 +82,36 @@ public class ShortTextQuestionGrader extends AbstractLessonQuizQuestionGrader {
             throw badRequest("Invalid JSON in " + fieldName);
         }
     }
+
+    /**
+     * Tells whether the text holds only whitespace, including non-breaking and zero-width spaces.
+     */
+    private static boolean isBlank(String text) {
+        return text.codePoints().allMatch(codePoint -> Character.isWhitespace(codePoint)
+            || Character.isSpaceChar(codePoint)
+            || Character.getType(codePoint) == Character.FORMAT);
+    }
+
+    private record AcceptedAnswers(ShortTextAnswerMatcher matcher) implements LessonQuizAnswerKey {
+        @Override
+        public LessonQuizGradeResult grade(Map<String, Object> response) {
+            Object rawText = response == null ? null : response.get("text");
+            Object rawValue = response == null ? null : response.get("value");
+            String submitted = asString(rawText);
+            if (submitted == null) {
+                submitted = asString(rawValue);
+            }
+            if (submitted == null && rawText == null && rawValue == null) {
+                throw badRequest("Answer response is missing text");
+            }
+            if (submitted == null || isBlank(submitted)) {
+                // Blank input is rejected before grading so it never costs a heart.
+                throw badRequest("Answer response is empty");
+            }
+            return new LessonQuizGradeResult(
+                matcher.matches(ShortTextAnswerMatcher.normalize(submitted)),
+                Map.of("text", submitted)
+            );
+        }
+    }
 }
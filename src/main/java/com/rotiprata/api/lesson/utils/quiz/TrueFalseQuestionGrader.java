@@ -23,26 +23,15 @@ public class TrueFalseQuestionGrader extends AbstractLessonQuizQuestionGrader {
     }
 
     @Override
-    public LessonQuizGradeResult grade(Map<String, Object> question, Map<String, Object> response) {
+    public LessonQuizAnswerKey compile(Map<String, Object> question) {
         Boolean correct = parseBooleanLike(question.get("correct_answer"));
         if (correct == null) {
             throw badRequest("true_false questions require correct_answer of true or false");
         }
-        Object value = response == null ? null : response.get("value");
-        if (value == null && response != null) {
-            value = response.get("choiceId");
-        }
-        Boolean selected = parseBooleanLike(value);
-        if (selected == null) {
-            throw badRequest("Answer response is missing boolean value");
-        }
-        return new LessonQuizGradeResult(
-            selected.equals(correct),
-            Map.of("value", selected)
-        );
+        return new BooleanKey(correct);
     }
 
-    private Boolean parseBooleanLike(Object value) {
+    private static Boolean parseBooleanLike(Object value) {
         if (value instanceof Boolean bool) {
             return bool;
         }
@@ -58,4 +47,22 @@ public class TrueFalseQuestionGrader extends AbstractLessonQuizQuestionGrader {
         }
         return null;
     }
+
+    private record BooleanKey(boolean correct) implements LessonQuizAnswerKey {
+        @Override
+        public LessonQuizGradeResult grade(Map<String, Object> response) {
+            Object value = response == null ? null : response.get("value");
+            if (value == null && response != null) {
+                value = response.get("choiceId");
+            }
+            Boolean selected = parseBooleanLike(value);
+            if (selected == null) {
+                throw badRequest("Answer response is missing boolean value");
+            }
+            return new LessonQuizGradeResult(
+                selected == correct,
+                Map.of("value", selected)
+            );
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package com.rotiprata.api.tag.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.rotiprata.infrastructure.supabase.PostgrestQuery;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminRestClient;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -8,7 +9,6 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.UriComponentsBuilder;
 
 /**
  * Implements the tag search workflows and persistence coordination used by the API layer.
@@ -59,9 +59,6 @@ public class TagServiceImpl implements TagService {
     }
 
     private String buildQuery(Map<String, String> params) {
-        UriComponentsBuilder builder = UriComponentsBuilder.newInstance();
-        params.forEach(builder::queryParam);
-        String uri = builder.build().encode().toUriString();
-        return uri.startsWith("?") ? uri.substring(1) : uri;
+        return PostgrestQuery.of(params);
     }
 }
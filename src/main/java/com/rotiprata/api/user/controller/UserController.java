@@ -18,11 +18,13 @@ import org.springframework.web.bind.annotation.*;
 import com.rotiprata.api.browsing.dto.GetHistoryDTO;
 import com.rotiprata.api.browsing.dto.SaveHistoryRequestDTO;
 import com.rotiprata.api.browsing.service.BrowsingService;
+import com.rotiprata.api.chat.dto.ChatHistoryPageResponse;
 import com.rotiprata.api.chat.dto.ChatbotMessageDTO;
 import com.rotiprata.api.chat.service.ChatService;
 import com.rotiprata.api.content.service.ContentService;
 import com.rotiprata.api.lesson.service.LessonQuizService;
 import com.rotiprata.api.lesson.service.LessonService;
+import com.rotiprata.api.user.domain.LeaderboardPeriod;
 import com.rotiprata.api.user.domain.Profile;
 import com.rotiprata.api.user.dto.UpdateProfileRequest;
 import com.rotiprata.api.user.dto.UserBadgeResponse;
@@ -216,6 +218,28 @@ public class UserController {
         return userService.getLeaderboard(userId, page, pageSize, query, SecurityUtils.getAccessToken());
     }
 
+    /**
+     * Handles the weekly and monthly leaderboards.
+     */
+    @GetMapping("/leaderboard/{period}")
+    public LeaderboardResponse periodLeaderboard(
+        @AuthenticationPrincipal Jwt jwt,
+        @PathVariable("period") String period,
+        @RequestParam(defaultValue = "1") int page,
+        @RequestParam(defaultValue = "20") int pageSize,
+        @RequestParam(required = false) String query
+    ) {
+        UUID userId = SecurityUtils.getUserId(jwt);
+        return userService.getLeaderboard(
+            userId,
+            LeaderboardPeriod.fromPath(period),
+            page,
+            pageSize,
+            query,
+            SecurityUtils.getAccessToken()
+        );
+    }
+
     /**
      * Handles profile content.
      */
@@ -275,6 +299,18 @@ public class UserController {
         return chatService.getMessageHistory(SecurityUtils.getAccessToken(), userId);
     }
 
+    /**
+     * Returns one page of the message history, newest first.
+     */
+    @GetMapping("/me/chat/page")
+    public ChatHistoryPageResponse getMessageHistoryPage(
+        @AuthenticationPrincipal Jwt jwt,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer limit
+    ) {
+        return chatService.getMessageHistoryPage(SecurityUtils.getAccessToken(), jwt.getSubject(), cursor, limit);
+    }
+
     /**
      * Deletes the message history.
      */
@@ -0,0 +1,47 @@
+package com.rotiprata.api.user.domain;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Defines the time windows a leaderboard can rank XP over.
+ */
+public enum LeaderboardPeriod {
+    ALL_TIME(0),
+    WEEKLY(7),
+    MONTHLY(30)
+
+    ;
+
+    private final int days;
+
+    LeaderboardPeriod(int days) {
+        this.days = days;
+    }
+
+    /**
+     * Returns the number of UTC days the window covers, today included, or 0 for all time.
+     */
+    public int days() {
+        return days;
+    }
+
+    /**
+     * Converts the value into its path segment.
+     */
+    public String toPath() {
+        return name().toLowerCase().replace('_', '-');
+    }
+
+    /**
+     * Parses a path segment such as {@code weekly}, rejecting unknown periods.
+     */
+    public static LeaderboardPeriod fromPath(String value) {
+        for (LeaderboardPeriod period : values()) {
+            if (period.toPath().equalsIgnoreCase(value == null ? "" : value.trim())) {
+                return period;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown leaderboard period");
+    }
+}
@@ -0,0 +1,464 @@
+package com.rotiprata.api.user.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.rotiprata.api.user.domain.LeaderboardPeriod;
+import com.rotiprata.api.user.domain.Profile;
+import com.rotiprata.api.user.domain.UserRole;
+import com.rotiprata.config.LeaderboardProperties;
+import com.rotiprata.infrastructure.supabase.PostgrestQuery;
+import com.rotiprata.infrastructure.supabase.SupabaseAdminRestClient;
+import com.rotiprata.security.authorization.AppRole;
+
+/**
+ * Keeps the learner leaderboards in memory so a page or rank lookup does not read every profile.
+ *
+ * <p>The boards are seeded from {@code profiles}, minus admins, and from the XP rewards in
+ * {@code user_lesson_rewards} earned within the longest window. XP awarded or removed by this
+ * instance is applied in place through {@link #recordXp} and {@link #recordReward}; other profile
+ * edits mark the learner as changed and only their rows are reloaded on the next lookup. Weekly and
+ * monthly boards rank the XP earned over the last 7 and 30 UTC days and roll forward a day at a time.
+ * Everything is reloaded after the refresh interval so changes made by other instances or directly
+ * in the database converge.
+ */
+@Component
+public class LeaderboardEngine {
+    private static final TypeReference<List<Profile>> PROFILE_LIST = new TypeReference<>() {};
+    private static final TypeReference<List<UserRole>> USER_ROLE_LIST = new TypeReference<>() {};
+    private static final TypeReference<List<Map<String, Object>>> MAP_LIST = new TypeReference<>() {};
+    private static final Logger log = LoggerFactory.getLogger(LeaderboardEngine.class);
+    private static final String PROFILE_COLUMNS = "user_id,display_name,avatar_url,reputation_points,current_streak";
+    private static final String REWARD_COLUMNS = "user_id,xp_awarded,awarded_at";
+    private static final int LOAD_PAGE_SIZE = 1000;
+    private static final int LONGEST_WINDOW_DAYS = Arrays.stream(LeaderboardPeriod.values())
+        .mapToInt(LeaderboardPeriod::days)
+        .max()
+        .orElse(0);
+
+    private final SupabaseAdminRestClient supabaseAdminRestClient;
+    private final long refreshIntervalMillis;
+    private final LongSupplier clock;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object refreshLock = new Object();
+    private final Set<UUID> changedIds = new LinkedHashSet<>();
+    private Board board;
+    private long loadedAtMillis;
+    private volatile boolean rebuilding;
+
+    /**
+     * Creates a leaderboard engine reading profiles with the service role.
+     */
+    @Autowired
+    public LeaderboardEngine(SupabaseAdminRestClient supabaseAdminRestClient, LeaderboardProperties properties) {
+        this(supabaseAdminRestClient, properties.getRefreshInterval(), System::currentTimeMillis);
+    }
+
+    LeaderboardEngine(SupabaseAdminRestClient supabaseAdminRestClient, Duration refreshInterval, LongSupplier clock) {
+        this.supabaseAdminRestClient = supabaseAdminRestClient;
+        this.refreshIntervalMillis = refreshInterval == null ? 0 : refreshInterval.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Moves a learner to their new lifetime XP total after this instance changed it.
+     */
+    public void recordXp(UUID userId, int xp) {
+        if (userId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            boolean known = board != null && board.recordXp(userId, Math.max(0, xp));
+            if (!known || rebuilding) {
+                // Unknown learners are loaded in full; a reload in flight may have read the old total.
+                markChanged(userId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds XP a learner was just awarded to the weekly and monthly boards.
+     */
+    public void recordReward(UUID userId, int xp, Instant awardedAt) {
+        if (userId == null || awardedAt == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            // Roll the windows onto today first, or a reward earned just after midnight is dated
+            // after the board's day and discarded.
+            advanceDayLocked();
+            if (board != null) {
+                board.recordReward(new Reward(userId, xp, utcDay(awardedAt.toEpochMilli())));
+            }
+            if (board == null || rebuilding) {
+                markChanged(userId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Queues a learner whose profile, role or rewards changed to be reloaded on the next lookup.
+     */
+    public void markChanged(UUID userId) {
+        if (userId == null) {
+            return;
+        }
+        synchronized (changedIds) {
+            changedIds.add(userId);
+        }
+    }
+
+    /**
+     * Returns one page of the all-time board, or of learners whose display name starts with
+     * {@code prefix}, and the current user's standing.
+     */
+    LeaderboardIndex.Slice slice(UUID currentUserId, String prefix, int page, int pageSize) {
+        return slice(LeaderboardPeriod.ALL_TIME, currentUserId, prefix, page, pageSize);
+    }
+
+    /**
+     * Returns one page of the given period's board, or of learners whose display name starts with
+     * {@code prefix}, and the current user's standing. Windowed boards list only learners who earned
+     * XP inside the window.
+     */
+    LeaderboardIndex.Slice slice(LeaderboardPeriod period, UUID currentUserId, String prefix, int page, int pageSize) {
+        refreshIfStale();
+        advanceDay();
+        applyChanged();
+        lock.readLock().lock();
+        try {
+            return board.index(period).slice(currentUserId, prefix, page, pageSize);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void refreshIfStale() {
+        if (isFresh()) {
+            return;
+        }
+        synchronized (refreshLock) {
+            if (isFresh()) {
+                return;
+            }
+            long now = clock.getAsLong();
+            rebuilding = true;
+            try {
+                LocalDate today = utcDay(now);
+                Board fresh = new Board(loadAll(), loadRewards(null, today), today);
+                lock.writeLock().lock();
+                try {
+                    board = fresh;
+                    loadedAtMillis = now;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } catch (RuntimeException ex) {
+                if (!hasBoard()) {
+                    throw ex;
+                }
+                log.warn("Serving the previous leaderboard; reload failed: {}", ex.getMessage());
+            } finally {
+                rebuilding = false;
+            }
+        }
+    }
+
+    private void applyChanged() {
+        Set<UUID> drained;
+        synchronized (changedIds) {
+            if (changedIds.isEmpty()) {
+                return;
+            }
+            drained = new LinkedHashSet<>(changedIds);
+            changedIds.clear();
+        }
+        List<LeaderboardIndex.Entry> reloaded;
+        List<Reward> rewards;
+        try {
+            reloaded = load(drained);
+            rewards = loadRewards(drained, utcDay(clock.getAsLong()));
+        } catch (RuntimeException ex) {
+            synchronized (changedIds) {
+                changedIds.addAll(drained);
+            }
+            throw ex;
+        }
+        lock.writeLock().lock();
+        try {
+            advanceDayLocked();
+            board.replace(drained, reloaded, rewards);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void advanceDay() {
+        LocalDate today = utcDay(clock.getAsLong());
+        lock.readLock().lock();
+        try {
+            if (!today.isAfter(board.day())) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            advanceDayLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rolls the board forward to the current UTC day; the caller holds the write lock.
+     */
+    private void advanceDayLocked() {
+        LocalDate today = utcDay(clock.getAsLong());
+        if (board != null && today.isAfter(board.day())) {
+            board.advanceTo(today);
+        }
+    }
+
+    private boolean isFresh() {
+        lock.readLock().lock();
+        try {
+            return board != null && clock.getAsLong() - loadedAtMillis < refreshIntervalMillis;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean hasBoard() {
+        lock.readLock().lock();
+        try {
+            return board != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Loads every non-admin profile, a page at a time so the PostgREST row cap cannot truncate the board.
+     */
+    private List<LeaderboardIndex.Entry> loadAll() {
+        Set<UUID> adminUserIds = fetchAdminUserIds(null);
+        List<LeaderboardIndex.Entry> entries = new ArrayList<>();
+        for (int offset = 0; ; offset += LOAD_PAGE_SIZE) {
+            List<Profile> profiles = supabaseAdminRestClient.getList(
+                "profiles",
+                PostgrestQuery.select(PROFILE_COLUMNS).order("user_id.asc").limit(LOAD_PAGE_SIZE).offset(offset).build(),
+                PROFILE_LIST
+            );
+            addEntries(entries, profiles, adminUserIds);
+            if (profiles.size() < LOAD_PAGE_SIZE) {
+                return entries;
+            }
+        }
+    }
+
+    private List<LeaderboardIndex.Entry> load(Set<UUID> userIds) {
+        Set<UUID> adminUserIds = fetchAdminUserIds(userIds);
+        List<Profile> profiles = supabaseAdminRestClient.getList(
+            "profiles",
+            PostgrestQuery.select(PROFILE_COLUMNS).in("user_id", userIds).build(),
+            PROFILE_LIST
+        );
+        List<LeaderboardIndex.Entry> entries = new ArrayList<>();
+        addEntries(entries, profiles, adminUserIds);
+        return entries;
+    }
+
+    /**
+     * Loads the rewards earned within the longest window, for {@code userIds} when given, paging
+     * through them like the profiles.
+     */
+    private List<Reward> loadRewards(Set<UUID> userIds, LocalDate today) {
+        Instant windowStart = today.minusDays(LONGEST_WINDOW_DAYS - 1L).atStartOfDay(ZoneOffset.UTC).toInstant();
+        List<Reward> rewards = new ArrayList<>();
+        for (int offset = 0; ; offset += LOAD_PAGE_SIZE) {
+            PostgrestQuery query = PostgrestQuery.select(REWARD_COLUMNS).gte("awarded_at", windowStart);
+            if (userIds != null) {
+                query.in("user_id", userIds);
+            }
+            List<Map<String, Object>> rows = supabaseAdminRestClient.getList(
+                "user_lesson_rewards",
+                query.order("id.asc").limit(LOAD_PAGE_SIZE).offset(offset).build(),
+                MAP_LIST
+            );
+            for (Map<String, Object> row : rows) {
+                Reward reward = reward(row);
+                if (reward != null) {
+                    rewards.add(reward);
+                }
+            }
+            if (rows.size() < LOAD_PAGE_SIZE) {
+                return rewards;
+            }
+        }
+    }
+
+    /**
+     * Fetches the admin user ids, among {@code userIds} when given.
+     */
+    private Set<UUID> fetchAdminUserIds(Set<UUID> userIds) {
+        PostgrestQuery query = PostgrestQuery.select("user_id,role").eq("role", AppRole.ADMIN.toJson());
+        if (userIds != null) {
+            query.in("user_id", userIds);
+        }
+        List<UserRole> roles = supabaseAdminRestClient.getList("user_roles", query.build(), USER_ROLE_LIST);
+        Set<UUID> adminUserIds = new LinkedHashSet<>();
+        for (UserRole role : roles) {
+            if (role != null && role.getUserId() != null) {
+                adminUserIds.add(role.getUserId());
+            }
+        }
+        return adminUserIds;
+    }
+
+    private static void addEntries(List<LeaderboardIndex.Entry> entries, List<Profile> profiles, Set<UUID> adminUserIds) {
+        for (Profile profile : profiles) {
+            if (profile != null && profile.getUserId() != null && !adminUserIds.contains(profile.getUserId())) {
+                entries.add(entry(profile));
+            }
+        }
+    }
+
+    private static LeaderboardIndex.Entry entry(Profile profile) {
+        return new LeaderboardIndex.Entry(
+            profile.getUserId(),
+            normalizeDisplayName(profile.getDisplayName()),
+            profile.getAvatarUrl(),
+            nonNegative(profile.getReputationPoints()),
+            nonNegative(profile.getCurrentStreak())
+        );
+    }
+
+    private static String normalizeDisplayName(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isBlank() ? null : trimmed;
+    }
+
+    private static int nonNegative(Integer value) {
+        return value == null ? 0 : Math.max(0, value);
+    }
+
+    private static Reward reward(Map<String, Object> row) {
+        try {
+            UUID userId = UUID.fromString(String.valueOf(row.get("user_id")));
+            int xp = row.get("xp_awarded") instanceof Number number ? number.intValue() : 0;
+            Instant awardedAt = OffsetDateTime.parse(String.valueOf(row.get("awarded_at"))).toInstant();
+            return new Reward(userId, xp, utcDay(awardedAt.toEpochMilli()));
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+
+    private static LocalDate utcDay(long epochMillis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+
+    /**
+     * XP awarded to a learner on a UTC day.
+     */
+    private record Reward(UUID userId, int xp, LocalDate day) {}
+
+    /**
+     * The all-time board, one board per time window, and the rolling sums the windowed boards rank.
+     * Windowed entries reuse the learner's all-time entry with the window's XP in place of the total.
+     */
+    private static final class Board {
+        private final LeaderboardIndex allTime;
+        private final Map<LeaderboardPeriod, LeaderboardIndex> windowed = new EnumMap<>(LeaderboardPeriod.class);
+        private final XpWindows windows;
+
+        private Board(List<LeaderboardIndex.Entry> entries, List<Reward> rewards, LocalDate today) {
+            this.allTime = LeaderboardIndex.of(entries);
+            this.windows = new XpWindows(today);
+            for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+                if (period.days() > 0) {
+                    windowed.put(period, new LeaderboardIndex());
+                }
+            }
+            rewards.forEach(this::recordReward);
+        }
+
+        private LeaderboardIndex index(LeaderboardPeriod period) {
+            return period == LeaderboardPeriod.ALL_TIME ? allTime : windowed.get(period);
+        }
+
+        private LocalDate day() {
+            return windows.today();
+        }
+
+        private boolean recordXp(UUID userId, int xp) {
+            LeaderboardIndex.Entry entry = allTime.get(userId);
+            if (entry == null) {
+                return false;
+            }
+            allTime.upsert(entry.withXp(xp));
+            return true;
+        }
+
+        private void recordReward(Reward reward) {
+            windows.add(reward.userId(), reward.xp(), reward.day(), this::refreshWindowEntry);
+        }
+
+        private void replace(Set<UUID> userIds, List<LeaderboardIndex.Entry> entries, List<Reward> rewards) {
+            for (UUID userId : userIds) {
+                allTime.remove(userId);
+                windows.removeUser(userId, this::refreshWindowEntry);
+            }
+            entries.forEach(allTime::upsert);
+            rewards.forEach(this::recordReward);
+            // Picks up profile edits for learners whose window sums did not change.
+            for (UUID userId : userIds) {
+                windowed.keySet().forEach(period -> refreshWindowEntry(period, userId));
+            }
+        }
+
+        private void advanceTo(LocalDate today) {
+            windows.advanceTo(today, this::refreshWindowEntry);
+        }
+
+        private void refreshWindowEntry(LeaderboardPeriod period, UUID userId) {
+            LeaderboardIndex.Entry entry = allTime.get(userId);
+            int xp = windows.sum(period, userId);
+            if (entry == null || xp <= 0) {
+                windowed.get(period).remove(userId);
+            } else {
+                windowed.get(period).upsert(entry.withXp(xp));
+            }
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.rotiprata.api.user.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Mutable in-memory leaderboard ordered by XP, then display name, then user id.
+ *
+ * <p>Entries live in an indexable skip list: every forward link records how many entries it skips, so
+ * the entry at a position, the position of an entry and the number of learners with more XP than a
+ * given value are all found in O(log n). Ranks are competition ranks (1, 2, 2, 4), i.e. one more than
+ * the number of learners with strictly more XP. A second map keyed by lower-cased display name answers
+ * prefix searches without scanning the board. Not thread-safe; callers guard it with a lock.
+ */
+final class LeaderboardIndex {
+    private static final int MAX_LEVEL = 16;
+    // One in four nodes is promoted per level, so 16 levels comfortably cover billions of entries.
+    private static final int PROMOTION_ODDS = 4;
+    static final Comparator<Entry> ORDER = Comparator.comparingInt(Entry::xp).reversed()
+        .thenComparing(Entry::displayName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+        .thenComparing(entry -> entry.userId().toString());
+
+    private final Node head = new Node(null, MAX_LEVEL);
+    private final Map<UUID, Entry> byUser = new HashMap<>();
+    private final NavigableMap<String, Entry> byName = new TreeMap<>();
+    private final SplittableRandom random;
+    private int level = 1;
+    private int size;
+
+    LeaderboardIndex() {
+        this(new SplittableRandom());
+    }
+
+    LeaderboardIndex(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Builds an index holding the given entries.
+     */
+    static LeaderboardIndex of(Collection<Entry> entries) {
+        LeaderboardIndex index = new LeaderboardIndex();
+        for (Entry entry : entries) {
+            index.upsert(entry);
+        }
+        return index;
+    }
+
+    int size() {
+        return size;
+    }
+
+    Entry get(UUID userId) {
+        return byUser.get(userId);
+    }
+
+    /**
+     * Adds the entry, replacing any entry for the same user.
+     */
+    void upsert(Entry entry) {
+        remove(entry.userId());
+        insert(entry);
+        byUser.put(entry.userId(), entry);
+        if (entry.displayName() != null) {
+            byName.put(nameKey(entry), entry);
+        }
+    }
+
+    /**
+     * Removes the user's entry, if any.
+     */
+    void remove(UUID userId) {
+        Entry existing = byUser.remove(userId);
+        if (existing == null) {
+            return;
+        }
+        delete(existing);
+        if (existing.displayName() != null) {
+            byName.remove(nameKey(existing));
+        }
+    }
+
+    /**
+     * Returns the competition rank of the user, or null when they are not on the board.
+     */
+    Ranked rankOf(UUID userId) {
+        Entry entry = userId == null ? null : byUser.get(userId);
+        return entry == null ? null : new Ranked(countAbove(entry.xp()) + 1, entry);
+    }
+
+    /**
+     * Returns one page of the board, or of the learners whose display name starts with {@code prefix}
+     * when one is given, with the page number clamped to the pages that exist.
+     */
+    Slice slice(UUID currentUserId, String prefix, int page, int pageSize) {
+        List<Entry> matches = prefix == null ? null : matching(prefix);
+        int totalCount = matches == null ? size : matches.size();
+        int maxPage = totalCount == 0 ? 1 : (int) Math.ceil(totalCount / (double) pageSize);
+        int normalizedPage = Math.max(1, Math.min(page, maxPage));
+        int fromIndex = Math.min((normalizedPage - 1) * pageSize, totalCount);
+        int toIndex = Math.min(fromIndex + pageSize, totalCount);
+
+        List<Ranked> items = new ArrayList<>(toIndex - fromIndex);
+        if (matches != null) {
+            for (Entry entry : matches.subList(fromIndex, toIndex)) {
+                items.add(new Ranked(countAbove(entry.xp()) + 1, entry));
+            }
+        } else if (fromIndex < toIndex) {
+            Node node = nodeAt(fromIndex + 1);
+            int rank = countAbove(node.entry.xp()) + 1;
+            for (int position = fromIndex + 1; position <= toIndex; position++, node = node.next[0]) {
+                if (position > fromIndex + 1 && node.entry.xp() != items.get(items.size() - 1).entry().xp()) {
+                    rank = position;
+                }
+                items.add(new Ranked(rank, node.entry));
+            }
+        }
+        return new Slice(items, normalizedPage, normalizedPage < maxPage, totalCount, rankOf(currentUserId));
+    }
+
+    /**
+     * Returns the number of entries with strictly more XP than {@code xp}.
+     */
+    int countAbove(int xp) {
+        Node node = head;
+        int traversed = 0;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && node.next[i].entry.xp() > xp) {
+                traversed += node.span[i];
+                node = node.next[i];
+            }
+        }
+        return traversed;
+    }
+
+    private List<Entry> matching(String prefix) {
+        String from = prefix.toLowerCase();
+        List<Entry> matches = new ArrayList<>(byName.subMap(from, true, from + Character.MAX_VALUE, false).values());
+        matches.sort(ORDER);
+        return matches;
+    }
+
+    private Node nodeAt(int position) {
+        Node node = head;
+        int traversed = 0;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && traversed + node.span[i] <= position) {
+                traversed += node.span[i];
+                node = node.next[i];
+            }
+            if (traversed == position) {
+                return node;
+            }
+        }
+        throw new IllegalStateException("No leaderboard entry at position " + position);
+    }
+
+    private void insert(Entry entry) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] positions = new int[MAX_LEVEL];
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            positions[i] = i == level - 1 ? 0 : positions[i + 1];
+            while (node.next[i] != null && ORDER.compare(node.next[i].entry, entry) < 0) {
+                positions[i] += node.span[i];
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                update[i] = head;
+                positions[i] = 0;
+                head.span[i] = size;
+            }
+            level = nodeLevel;
+        }
+
+        Node inserted = new Node(entry, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            inserted.next[i] = update[i].next[i];
+            update[i].next[i] = inserted;
+            inserted.span[i] = update[i].span[i] - (positions[0] - positions[i]);
+            update[i].span[i] = positions[0] - positions[i] + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+    }
+
+    private void delete(Entry entry) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && ORDER.compare(node.next[i].entry, entry) < 0) {
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+        Node target = node.next[0];
+        if (target == null || !target.entry.userId().equals(entry.userId())) {
+            return;
+        }
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == target) {
+                update[i].span[i] += target.span[i] - 1;
+                update[i].next[i] = target.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+    }
+
+    private int randomLevel() {
+        int nodeLevel = 1;
+        while (nodeLevel < MAX_LEVEL && random.nextInt(PROMOTION_ODDS) == 0) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+
+    private static String nameKey(Entry entry) {
+        return entry.displayName().toLowerCase() + '\u0000' + entry.userId();
+    }
+
+    /**
+     * A learner on the board with the fields the leaderboard shows.
+     */
+    record Entry(UUID userId, String displayName, String avatarUrl, int xp, int streak) {
+
+        Entry withXp(int newXp) {
+            return new Entry(userId, displayName, avatarUrl, newXp, streak);
+        }
+    }
+
+    /**
+     * An entry with its competition rank.
+     */
+    record Ranked(int rank, Entry entry) {}
+
+    /**
+     * One page of the board and the current user's own standing.
+     */
+    record Slice(List<Ranked> items, int page, boolean hasNext, int totalCount, Ranked currentUser) {}
+
+    private static final class Node {
+        private final Entry entry;
+        private final Node[] next;
+        private final int[] span;
+
+        private Node(Entry entry, int level) {
+            this.entry = entry;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+}
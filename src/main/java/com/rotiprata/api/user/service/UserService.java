@@ -1,5 +1,6 @@
 package com.rotiprata.api.user.service;
 
+import com.rotiprata.api.user.domain.LeaderboardPeriod;
 import com.rotiprata.api.user.domain.Profile;
 import com.rotiprata.api.user.dto.UserBadgeResponse;
 import com.rotiprata.api.user.preference.ThemePreference;
@@ -69,6 +70,18 @@ public interface UserService {
      */
     LeaderboardResponse getLeaderboard(UUID currentUserId, int page, int pageSize, String query, String accessToken);
 
+    /**
+     * Returns the leaderboard view for the user ranked by XP earned in the given period.
+     */
+    LeaderboardResponse getLeaderboard(
+        UUID currentUserId,
+        LeaderboardPeriod period,
+        int page,
+        int pageSize,
+        String query,
+        String accessToken
+    );
+
     /**
      * Validates the display name format.
      */
@@ -17,14 +17,15 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
-import org.springframework.web.util.UriComponentsBuilder;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.rotiprata.api.user.domain.LeaderboardPeriod;
 import com.rotiprata.api.user.domain.Profile;
 import com.rotiprata.api.user.domain.UserRole;
 import com.rotiprata.api.user.dto.UserBadgeResponse;
 import com.rotiprata.api.user.response.LeaderboardEntryResponse;
 import com.rotiprata.api.user.response.LeaderboardResponse;
+import com.rotiprata.infrastructure.supabase.PostgrestQuery;
 import com.rotiprata.security.authorization.AppRole;
 import com.rotiprata.api.user.preference.ThemePreference;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminRestClient;
@@ -45,13 +46,19 @@ public class UserServiceImpl implements UserService {
 
     private final SupabaseRestClient supabaseRestClient;
     private final SupabaseAdminRestClient supabaseAdminRestClient;
+    private final LeaderboardEngine leaderboardEngine;
 
     /**
      * Creates a user service instance with its collaborators.
      */
-    public UserServiceImpl(SupabaseRestClient supabaseRestClient, SupabaseAdminRestClient supabaseAdminRestClient) {
+    public UserServiceImpl(
+        SupabaseRestClient supabaseRestClient,
+        SupabaseAdminRestClient supabaseAdminRestClient,
+        LeaderboardEngine leaderboardEngine
+    ) {
         this.supabaseRestClient = supabaseRestClient;
         this.supabaseAdminRestClient = supabaseAdminRestClient;
+        this.leaderboardEngine = leaderboardEngine;
     }
 
     /**
@@ -315,6 +322,7 @@ public class UserServiceImpl implements UserService {
         if (updated.isEmpty()) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Profile not found");
         }
+        leaderboardEngine.markChanged(userId);
         return updated.get(0);
     }
 
@@ -419,69 +427,34 @@ public class UserServiceImpl implements UserService {
      * Returns the leaderboard.
      */
     public LeaderboardResponse getLeaderboard(UUID currentUserId, int page, int pageSize, String query, String accessToken) {
+        return getLeaderboard(currentUserId, LeaderboardPeriod.ALL_TIME, page, pageSize, query, accessToken);
+    }
+
+    /**
+     * Returns the leaderboard for a period.
+     */
+    public LeaderboardResponse getLeaderboard(
+        UUID currentUserId,
+        LeaderboardPeriod period,
+        int page,
+        int pageSize,
+        String query,
+        String accessToken
+    ) {
         requireAccessToken(accessToken);
 
         int normalizedPageSize = normalizeLeaderboardPageSize(pageSize);
         String normalizedQuery = normalizeLeaderboardQuery(query);
-        Set<UUID> adminUserIds = fetchAdminUserIds();
-
-        List<Profile> sortedProfiles = supabaseAdminRestClient.getList(
-            "profiles",
-            buildQuery(Map.of("select", "user_id,display_name,avatar_url,reputation_points,current_streak")),
-            PROFILE_LIST
-        ).stream()
-            .filter(profile -> profile.getUserId() != null)
-            .filter(profile -> !adminUserIds.contains(profile.getUserId()))
-            .sorted(leaderboardProfileComparator())
-            .toList();
-
-        List<LeaderboardEntryResponse> rankedEntries = new ArrayList<>(sortedProfiles.size());
-        Integer previousXp = null;
-        int currentRank = 0;
-        for (int index = 0; index < sortedProfiles.size(); index += 1) {
-            Profile profile = sortedProfiles.get(index);
-            int xp = normalizedXp(profile.getReputationPoints());
-            if (previousXp == null || previousXp != xp) {
-                currentRank = index + 1;
-                previousXp = xp;
-            }
-            rankedEntries.add(
-                new LeaderboardEntryResponse(
-                    currentRank,
-                    profile.getUserId(),
-                    normalizeLeaderboardDisplayName(profile.getDisplayName()),
-                    profile.getAvatarUrl(),
-                    xp,
-                    normalizedXp(profile.getCurrentStreak()),
-                    profile.getUserId().equals(currentUserId)
-                )
-            );
-        }
-
-        LeaderboardEntryResponse currentUser = rankedEntries.stream()
-            .filter(entry -> entry.userId().equals(currentUserId))
-            .findFirst()
-            .orElse(null);
-
-        List<LeaderboardEntryResponse> filteredEntries = rankedEntries.stream()
-            .filter(entry -> matchesLeaderboardQuery(entry, normalizedQuery))
-            .toList();
-
-        int totalCount = filteredEntries.size();
-        int maxPage = totalCount == 0 ? 1 : (int) Math.ceil(totalCount / (double) normalizedPageSize);
-        int normalizedPage = Math.max(1, Math.min(page, maxPage));
-        int fromIndex = Math.min((normalizedPage - 1) * normalizedPageSize, totalCount);
-        int toIndex = Math.min(fromIndex + normalizedPageSize, totalCount);
-        boolean hasNext = normalizedPage < maxPage;
+        LeaderboardIndex.Slice slice = leaderboardEngine.slice(period, currentUserId, normalizedQuery, page, normalizedPageSize);
 
         return new LeaderboardResponse(
-            filteredEntries.subList(fromIndex, toIndex),
-            normalizedPage,
+            slice.items().stream().map(ranked -> toLeaderboardEntry(ranked, currentUserId)).toList(),
+            slice.page(),
             normalizedPageSize,
-            hasNext,
-            totalCount,
+            slice.hasNext(),
+            slice.totalCount(),
             normalizedQuery == null ? "" : normalizedQuery,
-            currentUser
+            slice.currentUser() == null ? null : toLeaderboardEntry(slice.currentUser(), currentUserId)
         );
     }
 
@@ -551,6 +524,7 @@ public class UserServiceImpl implements UserService {
         if (created.isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unable to create profile");
         }
+        leaderboardEngine.markChanged(userId);
         return created.get(0);
     }
 
@@ -591,6 +565,7 @@ public class UserServiceImpl implements UserService {
         if (created.isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unable to create profile");
         }
+        leaderboardEngine.markChanged(userId);
         return created.get(0);
     }
 
@@ -667,10 +642,7 @@ public class UserServiceImpl implements UserService {
      * Builds the query.
      */
     private String buildQuery(Map<String, String> params) {
-        UriComponentsBuilder builder = UriComponentsBuilder.newInstance();
-        params.forEach(builder::queryParam);
-        String uri = builder.build().encode().toUriString();
-        return uri.startsWith("?") ? uri.substring(1) : uri;
+        return PostgrestQuery.of(params);
     }
 
     /**
@@ -684,60 +656,19 @@ public class UserServiceImpl implements UserService {
     }
 
     /**
-     * Fetches the admin user ids.
+     * Maps a ranked leaderboard entry to its response.
      */
-    private Set<UUID> fetchAdminUserIds() {
-        List<UserRole> roles = supabaseAdminRestClient.getList(
-            "user_roles",
-            buildQuery(Map.of(
-                "select", "user_id,role",
-                "role", "eq." + AppRole.ADMIN.toJson()
-            )),
-            USER_ROLE_LIST
+    private LeaderboardEntryResponse toLeaderboardEntry(LeaderboardIndex.Ranked ranked, UUID currentUserId) {
+        LeaderboardIndex.Entry entry = ranked.entry();
+        return new LeaderboardEntryResponse(
+            ranked.rank(),
+            entry.userId(),
+            entry.displayName(),
+            entry.avatarUrl(),
+            entry.xp(),
+            entry.streak(),
+            entry.userId().equals(currentUserId)
         );
-        Set<UUID> adminUserIds = new LinkedHashSet<>();
-        for (UserRole role : roles) {
-            if (role != null && role.getUserId() != null) {
-                adminUserIds.add(role.getUserId());
-            }
-        }
-        return adminUserIds;
-    }
-
-    /**
-     * Handles leaderboard profile comparator.
-     */
-    private Comparator<Profile> leaderboardProfileComparator() {
-        return Comparator
-            .comparingInt((Profile profile) -> normalizedXp(profile.getReputationPoints()))
-            .reversed()
-            .thenComparing(
-                profile -> normalizeLeaderboardDisplayName(profile.getDisplayName()),
-                Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)
-            )
-            .thenComparing(profile -> profile.getUserId().toString());
-    }
-
-    /**
-     * Handles matches leaderboard query.
-     */
-    private boolean matchesLeaderboardQuery(LeaderboardEntryResponse entry, String normalizedQuery) {
-        if (normalizedQuery == null || normalizedQuery.isBlank()) {
-            return true;
-        }
-        String displayName = entry.displayName();
-        return displayName != null && displayName.toLowerCase().contains(normalizedQuery);
-    }
-
-    /**
-     * Normalizes the leaderboard display name.
-     */
-    private String normalizeLeaderboardDisplayName(String value) {
-        if (value == null) {
-            return null;
-        }
-        String trimmed = value.trim();
-        return trimmed.isBlank() ? null : trimmed;
     }
 
     /**
@@ -764,13 +695,6 @@ public class UserServiceImpl implements UserService {
         return trimmed.isBlank() ? null : trimmed;
     }
 
-    /**
-     * Normalizes the d xp.
-     */
-    private int normalizedXp(Integer value) {
-        return value == null ? 0 : Math.max(0, value);
-    }
-
     /**
      * Fetches the lessons by ids.
      */
@@ -0,0 +1,114 @@
+package com.rotiprata.api.user.service;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import com.rotiprata.api.user.domain.LeaderboardPeriod;
+
+/**
+ * Rolling per-learner XP sums for the windowed leaderboards, kept in one bucket per UTC day.
+ *
+ * <p>Each window holds a running sum per learner. Adding XP touches one day bucket and every window
+ * covering that day; moving to a new day subtracts the buckets that just fell out of each window and
+ * drops buckets no window needs, so expiry costs one pass over the expired day's learners rather than
+ * a recount. Learners whose sum returns to zero are dropped. Callbacks report each (window, learner)
+ * whose sum changed. Not thread-safe; callers guard it with a lock.
+ */
+final class XpWindows {
+    private final NavigableMap<LocalDate, Map<UUID, Integer>> days = new TreeMap<>();
+    private final Map<LeaderboardPeriod, Map<UUID, Integer>> sums = new EnumMap<>(LeaderboardPeriod.class);
+    private final int retainedDays;
+    private LocalDate today;
+
+    XpWindows(LocalDate today) {
+        this.today = today;
+        int longest = 1;
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            if (period.days() > 0) {
+                sums.put(period, new HashMap<>());
+                longest = Math.max(longest, period.days());
+            }
+        }
+        this.retainedDays = longest;
+    }
+
+    /**
+     * Returns the learner's XP inside the window, 0 when none.
+     */
+    int sum(LeaderboardPeriod period, UUID userId) {
+        Map<UUID, Integer> window = sums.get(period);
+        return window == null ? 0 : window.getOrDefault(userId, 0);
+    }
+
+    /**
+     * Returns the last day inside every window.
+     */
+    LocalDate today() {
+        return today;
+    }
+
+    /**
+     * Records XP earned on a day; XP dated outside every window or in the future is ignored.
+     */
+    void add(UUID userId, int xp, LocalDate day, BiConsumer<LeaderboardPeriod, UUID> changed) {
+        if (xp <= 0 || day.isAfter(today) || !day.isAfter(today.minusDays(retainedDays))) {
+            return;
+        }
+        days.computeIfAbsent(day, ignored -> new HashMap<>()).merge(userId, xp, Integer::sum);
+        for (Map.Entry<LeaderboardPeriod, Map<UUID, Integer>> window : sums.entrySet()) {
+            if (day.isAfter(today.minusDays(window.getKey().days()))) {
+                window.getValue().merge(userId, xp, Integer::sum);
+                changed.accept(window.getKey(), userId);
+            }
+        }
+    }
+
+    /**
+     * Forgets all of a learner's XP, e.g. before reloading it.
+     */
+    void removeUser(UUID userId, BiConsumer<LeaderboardPeriod, UUID> changed) {
+        for (Iterator<Map<UUID, Integer>> it = days.values().iterator(); it.hasNext(); ) {
+            Map<UUID, Integer> bucket = it.next();
+            bucket.remove(userId);
+            if (bucket.isEmpty()) {
+                it.remove();
+            }
+        }
+        for (Map.Entry<LeaderboardPeriod, Map<UUID, Integer>> window : sums.entrySet()) {
+            if (window.getValue().remove(userId) != null) {
+                changed.accept(window.getKey(), userId);
+            }
+        }
+    }
+
+    /**
+     * Moves the windows forward to {@code day}, expiring the days that fall out of each one.
+     */
+    void advanceTo(LocalDate day, BiConsumer<LeaderboardPeriod, UUID> changed) {
+        if (!day.isAfter(today)) {
+            return;
+        }
+        LocalDate previous = today;
+        today = day;
+        for (Map.Entry<LeaderboardPeriod, Map<UUID, Integer>> window : sums.entrySet()) {
+            int length = window.getKey().days();
+            // Days (previous - length, day - length] were inside the window and no longer are.
+            NavigableMap<LocalDate, Map<UUID, Integer>> expired =
+                days.subMap(previous.minusDays(length), false, day.minusDays(length), true);
+            for (Map<UUID, Integer> bucket : expired.values()) {
+                for (Map.Entry<UUID, Integer> earned : bucket.entrySet()) {
+                    window.getValue().computeIfPresent(earned.getKey(), (userId, sum) -> sum - earned.getValue() > 0 ? sum - earned.getValue() : null);
+                    changed.accept(window.getKey(), earned.getKey());
+                }
+            }
+        }
+        days.headMap(day.minusDays(retainedDays), true).clear();
+    }
+}
@@ -2,6 +2,7 @@ package com.rotiprata.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import java.util.concurrent.ThreadPoolExecutor;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
@@ -20,4 +21,62 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    @Bean(name = "mediaProgressExecutor")
+    public TaskExecutor mediaProgressExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("media-progress-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "searchTaskExecutor")
+    public TaskExecutor searchTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("search-worker-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "chatTaskExecutor")
+    public TaskExecutor chatTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(32);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("chat-worker-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "chatStreamExecutor")
+    public TaskExecutor chatStreamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(32);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("chat-stream-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "supabaseBatchExecutor")
+    public TaskExecutor supabaseBatchExecutor(SupabaseProperties supabaseProperties) {
+        int concurrency = Math.max(1, supabaseProperties.getBatch().getConcurrency());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(100);
+        // A saturated pool fetches the chunk on the requesting thread instead of failing the lookup.
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("supabase-batch-");
+        executor.initialize();
+        return executor;
+    }
 }
@@ -0,0 +1,27 @@
+package com.rotiprata.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "chat.context")
+public class ChatContextProperties {
+    private int tokenBudget = 800;
+    private int chunkTokens = 120;
+
+    public int getTokenBudget() {
+        return tokenBudget;
+    }
+
+    public void setTokenBudget(int tokenBudget) {
+        this.tokenBudget = tokenBudget;
+    }
+
+    public int getChunkTokens() {
+        return chunkTokens;
+    }
+
+    public void setChunkTokens(int chunkTokens) {
+        this.chunkTokens = chunkTokens;
+    }
+}
@@ -0,0 +1,66 @@
+package com.rotiprata.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "embedding")
+public class EmbeddingProperties {
+    private int batchSize = 100;
+    private String model = "text-embedding-3-small";
+    private int dimensions = 1536;
+    private Cache cache = new Cache();
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(String model) {
+        this.model = model;
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    public void setDimensions(int dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public void setCache(Cache cache) {
+        this.cache = cache;
+    }
+
+    public static class Cache {
+        private int maxEntries = 2000;
+        private String persistPath;
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public String getPersistPath() {
+            return persistPath;
+        }
+
+        public void setPersistPath(String persistPath) {
+            this.persistPath = persistPath;
+        }
+    }
+}
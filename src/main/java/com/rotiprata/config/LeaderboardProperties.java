@@ -0,0 +1,19 @@
+package com.rotiprata.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "leaderboard")
+public class LeaderboardProperties {
+    private Duration refreshInterval = Duration.ofMinutes(10);
+
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public void setRefreshInterval(Duration refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+}
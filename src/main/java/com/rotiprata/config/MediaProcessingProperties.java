@@ -1,5 +1,9 @@
 package com.rotiprata.config;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
@@ -15,6 +19,9 @@ public class MediaProcessingProperties {
     private boolean autoUpdateYtdlp = true;
     private boolean checkToolingOnStartup = true;
     private boolean ytdlpVerbose = false;
+    private ProcessLimits process = new ProcessLimits();
+    private Encoding encoding = new Encoding();
+    private Images images = new Images();
 
     public int getMaxUploadMb() {
         return maxUploadMb;
@@ -87,4 +94,339 @@ public class MediaProcessingProperties {
     public void setYtdlpVerbose(boolean ytdlpVerbose) {
         this.ytdlpVerbose = ytdlpVerbose;
     }
+
+    public ProcessLimits getProcess() {
+        return process;
+    }
+
+    public void setProcess(ProcessLimits process) {
+        this.process = process;
+    }
+
+    public Encoding getEncoding() {
+        return encoding;
+    }
+
+    public void setEncoding(Encoding encoding) {
+        this.encoding = encoding;
+    }
+
+    public Images getImages() {
+        return images;
+    }
+
+    public void setImages(Images images) {
+        this.images = images;
+    }
+
+    public static class ProcessLimits {
+        private int timeoutSeconds = 900;
+        private int probeTimeoutSeconds = 60;
+        private int downloadTimeoutSeconds = 300;
+        private int cpuTimeoutSeconds = 0;
+        private int outputTailKb = 64;
+        private int jsonOutputKb = 8192;
+        private int niceness = 0;
+        private int ffmpegThreads = 0;
+
+        public int getTimeoutSeconds() {
+            return timeoutSeconds;
+        }
+
+        public void setTimeoutSeconds(int timeoutSeconds) {
+            this.timeoutSeconds = timeoutSeconds;
+        }
+
+        public int getProbeTimeoutSeconds() {
+            return probeTimeoutSeconds;
+        }
+
+        public void setProbeTimeoutSeconds(int probeTimeoutSeconds) {
+            this.probeTimeoutSeconds = probeTimeoutSeconds;
+        }
+
+        public int getDownloadTimeoutSeconds() {
+            return downloadTimeoutSeconds;
+        }
+
+        public void setDownloadTimeoutSeconds(int downloadTimeoutSeconds) {
+            this.downloadTimeoutSeconds = downloadTimeoutSeconds;
+        }
+
+        public int getCpuTimeoutSeconds() {
+            return cpuTimeoutSeconds;
+        }
+
+        public void setCpuTimeoutSeconds(int cpuTimeoutSeconds) {
+            this.cpuTimeoutSeconds = cpuTimeoutSeconds;
+        }
+
+        public int getOutputTailKb() {
+            return outputTailKb;
+        }
+
+        public void setOutputTailKb(int outputTailKb) {
+            this.outputTailKb = outputTailKb;
+        }
+
+        public int getJsonOutputKb() {
+            return jsonOutputKb;
+        }
+
+        public void setJsonOutputKb(int jsonOutputKb) {
+            this.jsonOutputKb = jsonOutputKb;
+        }
+
+        public int getNiceness() {
+            return niceness;
+        }
+
+        public void setNiceness(int niceness) {
+            this.niceness = niceness;
+        }
+
+        public int getFfmpegThreads() {
+            return ffmpegThreads;
+        }
+
+        public void setFfmpegThreads(int ffmpegThreads) {
+            this.ffmpegThreads = ffmpegThreads;
+        }
+    }
+
+    public static class Encoding {
+        private String profile = "abr";
+        private SegmentFormat segmentFormat = SegmentFormat.TS;
+        private Map<String, EncodingProfile> profiles = defaultProfiles();
+
+        public String getProfile() {
+            return profile;
+        }
+
+        public void setProfile(String profile) {
+            this.profile = profile;
+        }
+
+        public SegmentFormat getSegmentFormat() {
+            return segmentFormat;
+        }
+
+        public void setSegmentFormat(SegmentFormat segmentFormat) {
+            this.segmentFormat = segmentFormat;
+        }
+
+        public Map<String, EncodingProfile> getProfiles() {
+            return profiles;
+        }
+
+        public void setProfiles(Map<String, EncodingProfile> profiles) {
+            this.profiles = profiles;
+        }
+
+        /**
+         * Returns the selected profile, falling back to the built-in ABR ladder for unknown names.
+         */
+        public EncodingProfile activeProfile() {
+            EncodingProfile selected = profile == null ? null : profiles.get(profile);
+            return selected != null ? selected : new EncodingProfile();
+        }
+
+        private static Map<String, EncodingProfile> defaultProfiles() {
+            Map<String, EncodingProfile> defaults = new LinkedHashMap<>();
+            defaults.put("abr", new EncodingProfile());
+
+            EncodingProfile cappedCrf = new EncodingProfile();
+            cappedCrf.setRateControl(RateControl.CAPPED_CRF);
+            cappedCrf.setCrf(23);
+            defaults.put("capped-crf", cappedCrf);
+
+            EncodingProfile efficient = new EncodingProfile();
+            efficient.setRateControl(RateControl.CAPPED_CRF);
+            efficient.setPreset("medium");
+            efficient.setCrf(25);
+            efficient.setAudioBitrateKbps(96);
+            defaults.put("efficient", efficient);
+            return defaults;
+        }
+    }
+
+    public enum RateControl {
+        ABR,
+        CAPPED_CRF
+    }
+
+    public enum SegmentFormat {
+        TS,
+        FMP4
+    }
+
+    public static class EncodingProfile {
+        private RateControl rateControl = RateControl.ABR;
+        private String preset = "veryfast";
+        private int crf = 23;
+        private int threads = 0;
+        private int maxKeyframeSeconds = 2;
+        private int audioBitrateKbps = 128;
+        private boolean monoAudio = false;
+        private boolean audioOnlyRung = false;
+        private int audioOnlyBitrateKbps = 64;
+        private List<Rung> rungs = new ArrayList<>(List.of(new Rung(1080, 4500), new Rung(720, 2500)));
+
+        public RateControl getRateControl() {
+            return rateControl;
+        }
+
+        public void setRateControl(RateControl rateControl) {
+            this.rateControl = rateControl;
+        }
+
+        public String getPreset() {
+            return preset;
+        }
+
+        public void setPreset(String preset) {
+            this.preset = preset;
+        }
+
+        public int getCrf() {
+            return crf;
+        }
+
+        public void setCrf(int crf) {
+            this.crf = crf;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getMaxKeyframeSeconds() {
+            return maxKeyframeSeconds;
+        }
+
+        public void setMaxKeyframeSeconds(int maxKeyframeSeconds) {
+            this.maxKeyframeSeconds = maxKeyframeSeconds;
+        }
+
+        public int getAudioBitrateKbps() {
+            return audioBitrateKbps;
+        }
+
+        public void setAudioBitrateKbps(int audioBitrateKbps) {
+            this.audioBitrateKbps = audioBitrateKbps;
+        }
+
+        public boolean isMonoAudio() {
+            return monoAudio;
+        }
+
+        public void setMonoAudio(boolean monoAudio) {
+            this.monoAudio = monoAudio;
+        }
+
+        public boolean isAudioOnlyRung() {
+            return audioOnlyRung;
+        }
+
+        public void setAudioOnlyRung(boolean audioOnlyRung) {
+            this.audioOnlyRung = audioOnlyRung;
+        }
+
+        public int getAudioOnlyBitrateKbps() {
+            return audioOnlyBitrateKbps;
+        }
+
+        public void setAudioOnlyBitrateKbps(int audioOnlyBitrateKbps) {
+            this.audioOnlyBitrateKbps = audioOnlyBitrateKbps;
+        }
+
+        public List<Rung> getRungs() {
+            return rungs;
+        }
+
+        public void setRungs(List<Rung> rungs) {
+            this.rungs = rungs;
+        }
+    }
+
+    public static class Rung {
+        private int height;
+        private int bitrateKbps;
+
+        public Rung() {
+        }
+
+        public Rung(int height, int bitrateKbps) {
+            this.height = height;
+            this.bitrateKbps = bitrateKbps;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        public void setHeight(int height) {
+            this.height = height;
+        }
+
+        public int getBitrateKbps() {
+            return bitrateKbps;
+        }
+
+        public void setBitrateKbps(int bitrateKbps) {
+            this.bitrateKbps = bitrateKbps;
+        }
+    }
+
+    public static class Images {
+        private boolean derivativesEnabled = true;
+        private List<Integer> widths = new ArrayList<>(List.of(320, 640, 1080));
+        private int thumbnailWidth = 640;
+        private int webpQuality = 80;
+        private int jpegQuality = 3;
+
+        public boolean isDerivativesEnabled() {
+            return derivativesEnabled;
+        }
+
+        public void setDerivativesEnabled(boolean derivativesEnabled) {
+            this.derivativesEnabled = derivativesEnabled;
+        }
+
+        public List<Integer> getWidths() {
+            return widths;
+        }
+
+        public void setWidths(List<Integer> widths) {
+            this.widths = widths;
+        }
+
+        public int getThumbnailWidth() {
+            return thumbnailWidth;
+        }
+
+        public void setThumbnailWidth(int thumbnailWidth) {
+            this.thumbnailWidth = thumbnailWidth;
+        }
+
+        public int getWebpQuality() {
+            return webpQuality;
+        }
+
+        public void setWebpQuality(int webpQuality) {
+            this.webpQuality = webpQuality;
+        }
+
+        public int getJpegQuality() {
+            return jpegQuality;
+        }
+
+        public void setJpegQuality(int jpegQuality) {
+            this.jpegQuality = jpegQuality;
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package com.rotiprata.config;
 
 import com.rotiprata.security.AuthRateLimitFilter;
+import jakarta.servlet.DispatcherType;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -50,6 +51,8 @@ public class SecurityConfig {
             .addFilterBefore(authRateLimitFilter, UsernamePasswordAuthenticationFilter.class)
                 .authorizeHttpRequests(auth -> auth
                     .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                // Server-sent-event streams were authorized on the initial request.
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers(HttpMethod.GET,
                     "/api/auth/username-available",
                     "/api/auth/display-name-availability",
@@ -11,6 +11,7 @@ public class SupabaseProperties {
     private String restUrl;
     private String serviceRoleKey;
     private Storage storage = new Storage();
+    private Batch batch = new Batch();
 
     public String getUrl() {
         return url;
@@ -59,6 +60,38 @@ public class SupabaseProperties {
         this.storage = storage;
     }
 
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public void setBatch(Batch batch) {
+        this.batch = batch;
+    }
+
+    /**
+     * Limits for id lookups that are split into several {@code in.()} requests.
+     */
+    public static class Batch {
+        private int inChunkSize = 100;
+        private int concurrency = 4;
+
+        public int getInChunkSize() {
+            return inChunkSize;
+        }
+
+        public void setInChunkSize(int inChunkSize) {
+            this.inChunkSize = inChunkSize;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+    }
+
     public static class Storage {
         private String contentMedia;
         private String avatars;
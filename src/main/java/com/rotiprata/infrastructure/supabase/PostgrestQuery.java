@@ -0,0 +1,292 @@
+package com.rotiprata.infrastructure.supabase;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Builds encoded PostgREST query strings for {@link SupabaseRestClient} and
+ * {@link SupabaseAdminRestClient}.
+ *
+ * <p>Output is byte-for-byte what {@code UriComponentsBuilder.queryParam(...).build().encode()}
+ * produced for the same parameters, without the builder, template parsing and intermediate
+ * component objects. Values that need no escaping (ids, column lists, operators) are copied as-is.
+ */
+public final class PostgrestQuery {
+    /**
+     * Default number of values per {@code in.()} filter when a list is split across requests; keeps
+     * UUID lists around 4 KB of URL.
+     */
+    public static final int DEFAULT_IN_CHUNK_SIZE = 100;
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    private static final int UUID_LENGTH = 37;
+
+    private final StringBuilder query;
+
+    private PostgrestQuery(int capacity) {
+        this.query = new StringBuilder(capacity);
+    }
+
+    /**
+     * Starts a query with no parameters.
+     */
+    public static PostgrestQuery create() {
+        return new PostgrestQuery(128);
+    }
+
+    /**
+     * Starts a query with a select clause.
+     */
+    public static PostgrestQuery select(String columns) {
+        return create().param("select", columns);
+    }
+
+    /**
+     * Starts a query with a precomputed select clause.
+     */
+    public static PostgrestQuery select(PostgrestSelect select) {
+        PostgrestQuery query = new PostgrestQuery(select.fragment().length() + 128);
+        query.query.append(select.fragment());
+        return query;
+    }
+
+    /**
+     * Encodes a parameter map in iteration order; drop-in for the per-service {@code buildQuery}
+     * helpers.
+     */
+    public static String of(Map<String, String> params) {
+        PostgrestQuery query = create();
+        params.forEach(query::param);
+        return query.build();
+    }
+
+    /**
+     * Adds {@code column=eq.value}.
+     */
+    public PostgrestQuery eq(String column, Object value) {
+        return operator(column, "eq.", value);
+    }
+
+    /**
+     * Adds {@code column=neq.value}.
+     */
+    public PostgrestQuery neq(String column, Object value) {
+        return operator(column, "neq.", value);
+    }
+
+    /**
+     * Adds {@code column=is.value}, for {@code null}, {@code true} and {@code false}.
+     */
+    public PostgrestQuery is(String column, String value) {
+        return operator(column, "is.", value);
+    }
+
+    /**
+     * Adds {@code column=gte.value}.
+     */
+    public PostgrestQuery gte(String column, Object value) {
+        return operator(column, "gte.", value);
+    }
+
+    /**
+     * Adds {@code column=lte.value}.
+     */
+    public PostgrestQuery lte(String column, Object value) {
+        return operator(column, "lte.", value);
+    }
+
+    /**
+     * Adds {@code column=in.(v1,v2,...)}; values PostgREST would split on are double-quoted.
+     */
+    public PostgrestQuery in(String column, Collection<?> values) {
+        startParam(column);
+        appendInList(query, values.iterator(), values.size());
+        return this;
+    }
+
+    /**
+     * Adds {@code order=value}.
+     */
+    public PostgrestQuery order(String order) {
+        return param("order", order);
+    }
+
+    /**
+     * Adds {@code limit=value}.
+     */
+    public PostgrestQuery limit(int limit) {
+        startParam("limit");
+        query.append(limit);
+        return this;
+    }
+
+    /**
+     * Adds {@code offset=value}.
+     */
+    public PostgrestQuery offset(int offset) {
+        startParam("offset");
+        query.append(offset);
+        return this;
+    }
+
+    /**
+     * Adds a raw parameter such as {@code or=(...)} or {@code and=(...)}; a {@code null} value renders
+     * the name alone.
+     */
+    public PostgrestQuery param(String name, String value) {
+        if (value == null) {
+            separator();
+            encodeInto(query, name);
+            return this;
+        }
+        startParam(name);
+        encodeInto(query, value);
+        return this;
+    }
+
+    /**
+     * Returns the encoded query string without a leading {@code ?}.
+     */
+    public String build() {
+        return query.toString();
+    }
+
+    /**
+     * Returns one query per chunk of {@code values}, each this query plus {@code column=in.(chunk)}.
+     * An empty collection yields no queries.
+     */
+    public List<String> buildChunked(String column, Collection<?> values, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        if (values.isEmpty()) {
+            return List.of();
+        }
+        String base = query.toString();
+        int total = values.size();
+        List<String> queries = new ArrayList<>((total + chunkSize - 1) / chunkSize);
+        Iterator<?> iterator = values.iterator();
+        while (iterator.hasNext()) {
+            int size = Math.min(chunkSize, total - queries.size() * chunkSize);
+            StringBuilder chunk = new StringBuilder(base.length() + column.length() + size * 40 + 8);
+            chunk.append(base);
+            if (!base.isEmpty()) {
+                chunk.append('&');
+            }
+            encodeInto(chunk, column);
+            chunk.append('=');
+            appendInList(chunk, iterator, size);
+            queries.add(chunk.toString());
+        }
+        return queries;
+    }
+
+    @Override
+    public String toString() {
+        return build();
+    }
+
+    private PostgrestQuery operator(String column, String operator, Object value) {
+        startParam(column);
+        query.append(operator);
+        encodeInto(query, String.valueOf(value));
+        return this;
+    }
+
+    private void startParam(String name) {
+        separator();
+        encodeInto(query, name);
+        query.append('=');
+    }
+
+    private void separator() {
+        if (!query.isEmpty()) {
+            query.append('&');
+        }
+    }
+
+    private static void appendInList(StringBuilder target, Iterator<?> values, int count) {
+        target.ensureCapacity(target.length() + count * UUID_LENGTH + 8);
+        target.append("in.(");
+        for (int i = 0; i < count && values.hasNext(); i++) {
+            if (i > 0) {
+                target.append(',');
+            }
+            Object next = values.next();
+            if (next instanceof UUID || next instanceof Integer || next instanceof Long) {
+                // Hex digits, dashes and integers never need quoting or escaping.
+                target.append(next);
+                continue;
+            }
+            String value = String.valueOf(next);
+            encodeInto(target, needsQuoting(value) ? quote(value) : value);
+        }
+        target.append(')');
+    }
+
+    private static boolean needsQuoting(String value) {
+        if (value.isEmpty()) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '(' || c == ')' || c == '"' || c == '\\' || c == ':' || c == '.'
+                || Character.isWhitespace(c)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\');
+            }
+            quoted.append(c);
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * Percent-encodes a query parameter name or value with the same allowed set as Spring's
+     * {@code HierarchicalUriComponents.Type.QUERY_PARAM}.
+     */
+    static void encodeInto(StringBuilder target, String source) {
+        int length = source.length();
+        int i = 0;
+        while (i < length && isAllowed(source.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            target.append(source);
+            return;
+        }
+        target.append(source, 0, i);
+        byte[] bytes = source.substring(i).getBytes(StandardCharsets.UTF_8);
+        for (byte b : bytes) {
+            if (b >= 0 && isAllowed((char) b)) {
+                target.append((char) b);
+            } else {
+                target.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+            }
+        }
+    }
+
+    private static boolean isAllowed(char c) {
+        if (c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9') {
+            return true;
+        }
+        return switch (c) {
+            case '-', '.', '_', '~', '!', '$', '\'', '(', ')', '*', '+', ',', ';', ':', '@', '/', '?' -> true;
+            default -> false;
+        };
+    }
+}
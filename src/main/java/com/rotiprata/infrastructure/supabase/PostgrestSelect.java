@@ -0,0 +1,45 @@
+package com.rotiprata.infrastructure.supabase;
+
+/**
+ * A PostgREST {@code select} clause encoded once, for column sets that are reused on every request.
+ */
+public final class PostgrestSelect {
+    private final String columns;
+    private final String fragment;
+
+    private PostgrestSelect(String columns) {
+        this.columns = columns;
+        StringBuilder encoded = new StringBuilder(columns.length() + 7).append("select=");
+        PostgrestQuery.encodeInto(encoded, columns);
+        this.fragment = encoded.toString();
+    }
+
+    /**
+     * Creates a select clause from a comma-separated column list.
+     */
+    public static PostgrestSelect of(String columns) {
+        if (columns == null || columns.isBlank()) {
+            throw new IllegalArgumentException("columns are required");
+        }
+        return new PostgrestSelect(columns);
+    }
+
+    /**
+     * Returns the raw column list.
+     */
+    public String columns() {
+        return columns;
+    }
+
+    /**
+     * Returns the encoded {@code select=...} parameter.
+     */
+    String fragment() {
+        return fragment;
+    }
+
+    @Override
+    public String toString() {
+        return fragment;
+    }
+}
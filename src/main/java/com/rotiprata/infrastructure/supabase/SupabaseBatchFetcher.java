@@ -0,0 +1,125 @@
+package com.rotiprata.infrastructure.supabase;
+
+import com.rotiprata.config.SupabaseProperties;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs PostgREST id lookups whose {@code in.()} list is too long for one request.
+ *
+ * <p>Values are split into chunks of {@code supabase.batch.in-chunk-size}; the first chunk runs on
+ * the calling thread and the rest on the {@code supabaseBatchExecutor} pool, and the rows come back concatenated in
+ * chunk order. A single chunk is fetched inline with no thread hand-off. The first failing chunk's
+ * exception is rethrown as-is.
+ */
+@Component
+public class SupabaseBatchFetcher {
+    private final int chunkSize;
+    private final Executor executor;
+
+    /**
+     * Creates a batch fetcher with the configured chunk size on the shared batch pool.
+     */
+    @Autowired
+    public SupabaseBatchFetcher(
+        SupabaseProperties supabaseProperties,
+        @Qualifier("supabaseBatchExecutor") Executor executor
+    ) {
+        this(Math.max(1, supabaseProperties.getBatch().getInChunkSize()), executor);
+    }
+
+    /**
+     * Creates a batch fetcher on a caller-supplied executor, e.g. {@code Runnable::run} in tests.
+     */
+    public SupabaseBatchFetcher(int chunkSize, Executor executor) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.chunkSize = chunkSize;
+        this.executor = executor;
+    }
+
+    /**
+     * Fetches {@code base} plus {@code column=in.(chunk)} for every chunk of {@code values}, passing
+     * each encoded query to {@code fetch}. An empty collection returns an empty list without a request.
+     */
+    public <T> List<T> fetchIn(
+        PostgrestQuery base,
+        String column,
+        Collection<?> values,
+        Function<String, List<T>> fetch
+    ) {
+        if (values == null || values.isEmpty()) {
+            return List.of();
+        }
+        return fetchAll(base.buildChunked(column, values, chunkSize), fetch);
+    }
+
+    /**
+     * Splits {@code values} into chunks and passes each to {@code fetchChunk}, for lookups that build
+     * their own query per chunk (for example with a fallback retry).
+     */
+    public <V, T> List<T> fetchChunks(Collection<V> values, Function<List<V>, List<T>> fetchChunk) {
+        if (values == null || values.isEmpty()) {
+            return List.of();
+        }
+        List<V> ordered = List.copyOf(values);
+        List<List<V>> chunks = new ArrayList<>((ordered.size() + chunkSize - 1) / chunkSize);
+        for (int start = 0; start < ordered.size(); start += chunkSize) {
+            chunks.add(ordered.subList(start, Math.min(start + chunkSize, ordered.size())));
+        }
+        return fetchAll(chunks, fetchChunk);
+    }
+
+    /**
+     * Returns the number of values per chunk.
+     */
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Runs one fetch per input, the first inline, and concatenates the results in input order.
+     */
+    private <I, T> List<T> fetchAll(List<I> inputs, Function<I, List<T>> fetch) {
+        if (inputs.size() == 1) {
+            return nullToEmpty(fetch.apply(inputs.get(0)));
+        }
+        List<CompletableFuture<List<T>>> pending = new ArrayList<>(inputs.size() - 1);
+        for (int i = 1; i < inputs.size(); i++) {
+            I input = inputs.get(i);
+            pending.add(CompletableFuture.supplyAsync(() -> fetch.apply(input), executor));
+        }
+        List<T> rows;
+        try {
+            rows = new ArrayList<>(nullToEmpty(fetch.apply(inputs.get(0))));
+        } catch (RuntimeException ex) {
+            pending.forEach(future -> future.cancel(true));
+            throw ex;
+        }
+        try {
+            for (CompletableFuture<List<T>> future : pending) {
+                rows.addAll(nullToEmpty(future.join()));
+            }
+        } catch (CompletionException ex) {
+            pending.forEach(future -> future.cancel(true));
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+        return rows;
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> rows) {
+        return rows == null ? List.of() : rows;
+    }
+}
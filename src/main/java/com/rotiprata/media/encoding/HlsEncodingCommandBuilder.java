@@ -0,0 +1,288 @@
+package com.rotiprata.media.encoding;
+
+import com.rotiprata.config.MediaProcessingProperties;
+import com.rotiprata.config.MediaProcessingProperties.EncodingProfile;
+import com.rotiprata.config.MediaProcessingProperties.RateControl;
+import com.rotiprata.config.MediaProcessingProperties.Rung;
+import com.rotiprata.config.MediaProcessingProperties.SegmentFormat;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Turns an encoding profile and a probed source into ffmpeg HLS commands and a master playlist.
+ *
+ * <p>Keyframes are placed on a fixed time grid that divides the segment duration, so every segment
+ * starts on a keyframe regardless of the source frame rate.
+ *
+ * <p>Segments are MPEG-TS ({@code seg_000.ts}) or CMAF fragmented MP4 ({@code seg_000.m4s} with a
+ * shared {@code init.mp4} per rendition), selected by {@code media.encoding.segment-format}.
+ */
+public class HlsEncodingCommandBuilder {
+    public static final String FMP4_INIT_FILENAME = "init.mp4";
+    private static final double DEFAULT_FRAME_RATE = 30.0;
+    private static final double ABR_MAXRATE_FACTOR = 1.07;
+
+    private final MediaProcessingProperties properties;
+
+    public HlsEncodingCommandBuilder(MediaProcessingProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Returns the profile selected by {@code media.encoding.profile}.
+     */
+    public EncodingProfile activeProfile() {
+        return properties.getEncoding().activeProfile();
+    }
+
+    /**
+     * Builds the ladder for a source, skipping video rungs taller than the source since upscaling
+     * only adds bytes. The smallest rung is always kept.
+     */
+    public List<HlsRendition> renditions(EncodingProfile profile, MediaProbe probe) {
+        int audioKbps = probe.hasAudio() ? profile.getAudioBitrateKbps() : 0;
+        List<Rung> rungs = profile.getRungs().stream()
+            .filter(rung -> rung.getHeight() > 0 && rung.getBitrateKbps() > 0)
+            .sorted(Comparator.comparingInt(Rung::getHeight).reversed())
+            .toList();
+        List<HlsRendition> result = new ArrayList<>();
+        for (int i = 0; i < rungs.size(); i++) {
+            Rung rung = rungs.get(i);
+            boolean smallest = i == rungs.size() - 1;
+            boolean upscales = probe.height() > 0 && rung.getHeight() > probe.height();
+            if (upscales && !(smallest && result.isEmpty())) {
+                continue;
+            }
+            result.add(new HlsRendition(String.valueOf(rung.getHeight()), rung.getHeight(), rung.getBitrateKbps(), audioKbps, false));
+        }
+        if (profile.isAudioOnlyRung() && probe.hasAudio()) {
+            result.add(new HlsRendition("audio", 0, 0, profile.getAudioOnlyBitrateKbps(), true));
+        }
+        return result;
+    }
+
+    /**
+     * Chooses the HLS segment duration from the source duration; longer sources get longer
+     * segments to keep playlist and request counts down.
+     */
+    public int segmentDurationSeconds(int durationSeconds) {
+        if (durationSeconds <= 0) {
+            return 4;
+        }
+        if (durationSeconds < 60) {
+            return 4;
+        }
+        if (durationSeconds < 300) {
+            return 6;
+        }
+        if (durationSeconds < 900) {
+            return 10;
+        }
+        return 15;
+    }
+
+    /**
+     * Returns the keyframe spacing in seconds: the largest whole divisor of the segment duration
+     * that does not exceed the profile maximum.
+     */
+    public int keyframeIntervalSeconds(EncodingProfile profile, int hlsTimeSeconds) {
+        int segment = Math.max(1, hlsTimeSeconds);
+        int max = profile.getMaxKeyframeSeconds();
+        if (max <= 0 || max >= segment) {
+            return segment;
+        }
+        for (int candidate = max; candidate > 1; candidate--) {
+            if (segment % candidate == 0) {
+                return candidate;
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Returns the GOP length in frames for the probed frame rate.
+     */
+    public int keyframeIntervalFrames(double frameRate, int keyframeSeconds) {
+        double fps = frameRate > 0 ? frameRate : DEFAULT_FRAME_RATE;
+        return Math.max(1, (int) Math.round(fps * keyframeSeconds));
+    }
+
+    /**
+     * Returns the configured segment container, defaulting to MPEG-TS.
+     */
+    public SegmentFormat segmentFormat() {
+        SegmentFormat format = properties.getEncoding().getSegmentFormat();
+        return format != null ? format : SegmentFormat.TS;
+    }
+
+    /**
+     * Builds the ffmpeg command for one rendition using the configured segment format.
+     */
+    public List<String> buildCommand(
+        EncodingProfile profile,
+        MediaProbe probe,
+        HlsRendition rendition,
+        Path input,
+        Path renditionDir,
+        int hlsTimeSeconds
+    ) {
+        return buildCommand(profile, probe, rendition, input, renditionDir, hlsTimeSeconds, segmentFormat());
+    }
+
+    /**
+     * Builds the ffmpeg command for one rendition, writing {@code index.m3u8} into {@code renditionDir}.
+     */
+    public List<String> buildCommand(
+        EncodingProfile profile,
+        MediaProbe probe,
+        HlsRendition rendition,
+        Path input,
+        Path renditionDir,
+        int hlsTimeSeconds,
+        SegmentFormat segmentFormat
+    ) {
+        List<String> command = new ArrayList<>();
+        command.add(properties.getFfmpegPath());
+        command.add("-y");
+        command.add("-i");
+        command.add(input.toString());
+        if (rendition.audioOnly()) {
+            command.add("-vn");
+        } else {
+            addVideoOptions(command, profile, probe, rendition, hlsTimeSeconds);
+        }
+        addThreadLimit(command, profile);
+        if (probe.hasAudio()) {
+            command.add("-c:a");
+            command.add("aac");
+            command.add("-b:a");
+            command.add(rendition.audioBitrateKbps() + "k");
+            command.add("-ar");
+            command.add("48000");
+            if (profile.isMonoAudio()) {
+                command.add("-ac");
+                command.add("1");
+            }
+        } else {
+            command.add("-an");
+        }
+        command.add("-progress");
+        command.add("pipe:1");
+        command.add("-nostats");
+        command.add("-hls_time");
+        command.add(String.valueOf(hlsTimeSeconds));
+        command.add("-hls_playlist_type");
+        command.add("vod");
+        if (segmentFormat == SegmentFormat.FMP4) {
+            command.add("-hls_segment_type");
+            command.add("fmp4");
+            command.add("-hls_fmp4_init_filename");
+            command.add(FMP4_INIT_FILENAME);
+            command.add("-hls_segment_filename");
+            command.add(renditionDir.resolve("seg_%03d.m4s").toString());
+        } else {
+            command.add("-hls_segment_filename");
+            command.add(renditionDir.resolve("seg_%03d.ts").toString());
+        }
+        command.add(renditionDir.resolve("index.m3u8").toString());
+        return command;
+    }
+
+    /**
+     * Builds the master playlist lines referencing each rendition's {@code index.m3u8}.
+     */
+    public List<String> masterPlaylist(List<HlsRendition> renditions, MediaProbe probe) {
+        List<String> lines = new ArrayList<>();
+        lines.add("#EXTM3U");
+        lines.add(segmentFormat() == SegmentFormat.FMP4 ? "#EXT-X-VERSION:7" : "#EXT-X-VERSION:3");
+        for (HlsRendition rendition : renditions) {
+            if (rendition.audioOnly()) {
+                lines.add("#EXT-X-STREAM-INF:BANDWIDTH=" + rendition.bandwidthBitsPerSecond() + ",CODECS=\"mp4a.40.2\"");
+            } else {
+                lines.add(
+                    "#EXT-X-STREAM-INF:BANDWIDTH=" + rendition.bandwidthBitsPerSecond()
+                        + ",RESOLUTION=" + scaledWidth(probe, rendition.height()) + "x" + rendition.height()
+                );
+            }
+            lines.add(rendition.directoryName() + "/index.m3u8");
+        }
+        return lines;
+    }
+
+    private void addVideoOptions(
+        List<String> command,
+        EncodingProfile profile,
+        MediaProbe probe,
+        HlsRendition rendition,
+        int hlsTimeSeconds
+    ) {
+        int bitrate = rendition.videoBitrateKbps();
+        int keyframeSeconds = keyframeIntervalSeconds(profile, hlsTimeSeconds);
+        String gop = String.valueOf(keyframeIntervalFrames(probe.frameRate(), keyframeSeconds));
+        command.add("-vf");
+        command.add("scale=-2:" + rendition.height());
+        command.add("-c:v");
+        command.add("h264");
+        command.add("-preset");
+        command.add(profile.getPreset());
+        if (profile.getRateControl() == RateControl.CAPPED_CRF) {
+            command.add("-crf");
+            command.add(String.valueOf(profile.getCrf()));
+            command.add("-maxrate");
+            command.add(bitrate + "k");
+        } else {
+            command.add("-b:v");
+            command.add(bitrate + "k");
+            command.add("-maxrate");
+            command.add((int) (bitrate * ABR_MAXRATE_FACTOR) + "k");
+        }
+        command.add("-bufsize");
+        command.add((bitrate * 2) + "k");
+        command.add("-g");
+        command.add(gop);
+        command.add("-keyint_min");
+        command.add(gop);
+        command.add("-sc_threshold");
+        command.add("0");
+        command.add("-force_key_frames");
+        command.add("expr:gte(t,n_forced*" + keyframeSeconds + ")");
+    }
+
+    /**
+     * Adds the profile thread cap, falling back to {@code media.process.ffmpeg-threads}.
+     */
+    private void addThreadLimit(List<String> command, EncodingProfile profile) {
+        int threads = profile.getThreads() > 0 ? profile.getThreads() : properties.getProcess().getFfmpegThreads();
+        if (threads > 0) {
+            command.add("-threads");
+            command.add(String.valueOf(threads));
+        }
+    }
+
+    /**
+     * Returns the even output width ffmpeg produces for {@code scale=-2:height}.
+     */
+    private int scaledWidth(MediaProbe probe, int height) {
+        if (probe.width() <= 0 || probe.height() <= 0) {
+            return (int) Math.round(height * 16 / 9.0 / 2) * 2;
+        }
+        return (int) Math.round((double) probe.width() * height / probe.height() / 2) * 2;
+    }
+
+    /**
+     * Formats a profile summary for timing logs.
+     */
+    public static String describe(EncodingProfile profile) {
+        return String.format(
+            Locale.ROOT,
+            "%s preset=%s crf=%d threads=%d",
+            profile.getRateControl(),
+            profile.getPreset(),
+            profile.getCrf(),
+            profile.getThreads()
+        );
+    }
+}
@@ -0,0 +1,21 @@
+package com.rotiprata.media.encoding;
+
+/**
+ * One rung of the HLS ladder; audio-only rungs have a height of {@code 0}.
+ */
+public record HlsRendition(String label, int height, int videoBitrateKbps, int audioBitrateKbps, boolean audioOnly) {
+
+    /**
+     * Returns the directory name used for this rung's playlist and segments.
+     */
+    public String directoryName() {
+        return "v" + label;
+    }
+
+    /**
+     * Returns the peak bandwidth advertised in the master playlist.
+     */
+    public int bandwidthBitsPerSecond() {
+        return (videoBitrateKbps + audioBitrateKbps) * 1000;
+    }
+}
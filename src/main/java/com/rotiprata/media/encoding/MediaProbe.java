@@ -0,0 +1,76 @@
+package com.rotiprata.media.encoding;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Source properties read from ffprobe that drive the encoding ladder.
+ *
+ * <p>{@code frameRate} is {@code 0} when ffprobe does not report a usable rate.
+ */
+public record MediaProbe(int durationSeconds, int width, int height, boolean hasAudio, double frameRate) {
+
+    /**
+     * Builds the ffprobe command whose JSON output {@link #fromFfprobeJson(JsonNode)} understands.
+     */
+    public static List<String> ffprobeCommand(String ffprobePath, Path input) {
+        return List.of(
+            ffprobePath,
+            "-v",
+            "error",
+            "-print_format",
+            "json",
+            "-show_format",
+            "-show_streams",
+            input.toString()
+        );
+    }
+
+    /**
+     * Parses ffprobe {@code -show_format -show_streams} JSON output.
+     */
+    public static MediaProbe fromFfprobeJson(JsonNode root) {
+        JsonNode format = root.path("format");
+        int durationSeconds = (int) Math.round(format.path("duration").asDouble(0));
+        boolean hasAudio = false;
+        int width = 0;
+        int height = 0;
+        double frameRate = 0;
+        for (JsonNode stream : root.path("streams")) {
+            String codecType = stream.path("codec_type").asText();
+            if ("video".equals(codecType) && width == 0) {
+                width = stream.path("width").asInt(0);
+                height = stream.path("height").asInt(0);
+                frameRate = parseRate(stream.path("avg_frame_rate").asText(""));
+                if (frameRate <= 0) {
+                    frameRate = parseRate(stream.path("r_frame_rate").asText(""));
+                }
+            }
+            if ("audio".equals(codecType)) {
+                hasAudio = true;
+            }
+        }
+        return new MediaProbe(durationSeconds, width, height, hasAudio, frameRate);
+    }
+
+    /**
+     * Parses ffprobe rates such as {@code 30000/1001} or {@code 25}.
+     */
+    static double parseRate(String value) {
+        if (value == null || value.isBlank()) {
+            return 0;
+        }
+        try {
+            int slash = value.indexOf('/');
+            if (slash < 0) {
+                return Double.parseDouble(value);
+            }
+            double numerator = Double.parseDouble(value.substring(0, slash));
+            double denominator = Double.parseDouble(value.substring(slash + 1));
+            return denominator == 0 ? 0 : numerator / denominator;
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+}
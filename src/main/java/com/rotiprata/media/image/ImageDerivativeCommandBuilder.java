@@ -0,0 +1,114 @@
+package com.rotiprata.media.image;
+
+import com.rotiprata.config.MediaProcessingProperties;
+import com.rotiprata.config.MediaProcessingProperties.Images;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Builds a single ffmpeg invocation that decodes a source image once and writes every width in
+ * WebP plus a JPEG or PNG fallback, with container metadata (EXIF, XMP, GPS) stripped.
+ */
+public class ImageDerivativeCommandBuilder {
+    private final MediaProcessingProperties properties;
+
+    public ImageDerivativeCommandBuilder(MediaProcessingProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Returns whether derivatives should be produced at all.
+     */
+    public boolean isEnabled() {
+        Images images = properties.getImages();
+        return images.isDerivativesEnabled() && !configuredWidths().isEmpty();
+    }
+
+    /**
+     * Returns the widths to produce for a source, never upscaling. A source narrower than the
+     * largest configured width gets one extra variant at its own width so the set always has a
+     * full-quality top entry. An unknown source width keeps every configured width.
+     */
+    public List<Integer> targetWidths(int sourceWidth) {
+        TreeSet<Integer> configured = configuredWidths();
+        if (configured.isEmpty()) {
+            return List.of();
+        }
+        if (sourceWidth <= 0) {
+            return List.copyOf(configured);
+        }
+        TreeSet<Integer> result = new TreeSet<>(configured.headSet(sourceWidth, false));
+        result.add(Math.min(sourceWidth, configured.last()));
+        return List.copyOf(result);
+    }
+
+    /**
+     * Picks the width a thumbnail field should point at: the smallest target at or above the
+     * configured thumbnail width, or the largest available.
+     */
+    public int thumbnailWidth(List<Integer> widths) {
+        int preferred = properties.getImages().getThumbnailWidth();
+        return widths.stream()
+            .filter(width -> width >= preferred)
+            .findFirst()
+            .orElse(widths.get(widths.size() - 1));
+    }
+
+    /**
+     * Lists the files the command writes for the given widths.
+     */
+    public List<ImageVariant> variants(List<Integer> widths, ImageFormat fallback) {
+        List<ImageVariant> variants = new ArrayList<>();
+        for (int width : widths) {
+            variants.add(new ImageVariant(width, ImageFormat.WEBP));
+            variants.add(new ImageVariant(width, fallback));
+        }
+        return variants;
+    }
+
+    /**
+     * Builds the ffmpeg command writing {@link #variants} into {@code outputDir}.
+     */
+    public List<String> buildCommand(Path input, Path outputDir, List<Integer> widths, ImageFormat fallback) {
+        Images images = properties.getImages();
+        StringBuilder graph = new StringBuilder("[0:v]split=").append(widths.size());
+        for (int i = 0; i < widths.size(); i++) {
+            graph.append("[s").append(i).append(']');
+        }
+        for (int i = 0; i < widths.size(); i++) {
+            graph.append(";[s").append(i).append("]scale=w=").append(widths.get(i))
+                .append(":h=-2:flags=lanczos,split=2[w").append(i).append("][f").append(i).append(']');
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(properties.getFfmpegPath());
+        command.add("-y");
+        command.add("-i");
+        command.add(input.toString());
+        command.add("-filter_complex");
+        command.add(graph.toString());
+        for (int i = 0; i < widths.size(); i++) {
+            int width = widths.get(i);
+            command.addAll(List.of("-map", "[w" + i + "]", "-map_metadata", "-1", "-frames:v", "1"));
+            command.addAll(List.of("-c:v", "libwebp", "-quality", String.valueOf(images.getWebpQuality())));
+            command.add(outputDir.resolve(ImageVariant.filenameFor(width, ImageFormat.WEBP)).toString());
+            command.addAll(List.of("-map", "[f" + i + "]", "-map_metadata", "-1", "-frames:v", "1"));
+            if (fallback == ImageFormat.JPEG) {
+                command.addAll(List.of("-q:v", String.valueOf(images.getJpegQuality())));
+            }
+            command.add(outputDir.resolve(ImageVariant.filenameFor(width, fallback)).toString());
+        }
+        return command;
+    }
+
+    private TreeSet<Integer> configuredWidths() {
+        List<Integer> widths = properties.getImages().getWidths();
+        TreeSet<Integer> result = new TreeSet<>();
+        if (widths != null) {
+            widths.stream().filter(width -> width != null && width > 0).forEach(result::add);
+        }
+        return result;
+    }
+}
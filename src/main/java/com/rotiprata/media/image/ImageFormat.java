@@ -0,0 +1,33 @@
+package com.rotiprata.media.image;
+
+/**
+ * Output formats produced by the image derivative stage.
+ */
+public enum ImageFormat {
+    WEBP("webp", "image/webp"),
+    JPEG("jpg", "image/jpeg"),
+    PNG("png", "image/png");
+
+    private final String extension;
+    private final String contentType;
+
+    ImageFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    /**
+     * Picks the non-WebP fallback for a source: PNG keeps transparency, everything else becomes JPEG.
+     */
+    public static ImageFormat fallbackFor(String sourceExtension) {
+        return sourceExtension != null && sourceExtension.equalsIgnoreCase(".png") ? PNG : JPEG;
+    }
+}
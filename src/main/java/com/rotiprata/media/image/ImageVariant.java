@@ -0,0 +1,18 @@
+package com.rotiprata.media.image;
+
+/**
+ * One resized rendition of a source image.
+ */
+public record ImageVariant(int width, ImageFormat format) {
+
+    /**
+     * Returns the object name used for this variant, for example {@code w640.webp}.
+     */
+    public String filename() {
+        return filenameFor(width, format);
+    }
+
+    static String filenameFor(int width, ImageFormat format) {
+        return "w" + width + "." + format.extension();
+    }
+}
@@ -0,0 +1,86 @@
+package com.rotiprata.media.image;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Reads and writes image URLs that carry their own variant manifest.
+ *
+ * <p>Derivatives are stored side by side as {@code .../w{width}.{ext}}. The URL persisted in
+ * {@code media_url}/{@code thumbnail_url} points at one of them and lists every stored width in a
+ * {@code variants} query parameter (ignored by storage), so readers can build srcsets or pick a
+ * smaller file without another lookup or a schema change. URLs without a manifest pass through.
+ */
+public final class ImageVariantUrls {
+    public static final String MANIFEST_PARAM = "variants";
+
+    private static final Pattern VARIANT_URL = Pattern.compile(
+        "^(.*/)w(\\d+)\\.(webp|jpg|png)\\?(?:.*&)?" + MANIFEST_PARAM + "=([0-9,]+)(?:&.*)?$"
+    );
+
+    private ImageVariantUrls() {
+    }
+
+    /**
+     * Builds the persisted URL of one variant with the manifest attached.
+     */
+    public static String withManifest(String directoryUrl, int width, ImageFormat format, List<Integer> widths) {
+        String base = directoryUrl.endsWith("/") ? directoryUrl : directoryUrl + "/";
+        String manifest = widths.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return base + ImageVariant.filenameFor(width, format) + "?" + MANIFEST_PARAM + "=" + manifest;
+    }
+
+    /**
+     * Returns a {@code srcset} value for the given format, or {@code null} when the URL has no manifest.
+     */
+    public static String srcset(String url, ImageFormat format) {
+        return parse(url)
+            .map(parsed -> parsed.widths().stream()
+                .map(width -> parsed.directoryUrl() + ImageVariant.filenameFor(width, format) + " " + width + "w")
+                .collect(Collectors.joining(", ")))
+            .orElse(null);
+    }
+
+    /**
+     * Returns the smallest variant at least {@code targetWidth} wide (or the largest one), or the
+     * URL unchanged when it has no manifest.
+     */
+    public static String resolve(String url, int targetWidth, ImageFormat format) {
+        return parse(url)
+            .map(parsed -> {
+                int width = parsed.widths().stream()
+                    .filter(candidate -> candidate >= targetWidth)
+                    .findFirst()
+                    .orElse(parsed.widths().get(parsed.widths().size() - 1));
+                return parsed.directoryUrl() + ImageVariant.filenameFor(width, format);
+            })
+            .orElse(url);
+    }
+
+    static Optional<ParsedUrl> parse(String url) {
+        if (url == null || url.isBlank()) {
+            return Optional.empty();
+        }
+        Matcher matcher = VARIANT_URL.matcher(url);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        List<Integer> widths;
+        try {
+            widths = Arrays.stream(matcher.group(4).split(","))
+                .filter(part -> !part.isEmpty())
+                .map(Integer::parseInt)
+                .sorted()
+                .toList();
+        } catch (NumberFormatException ex) {
+            return Optional.empty();
+        }
+        return widths.isEmpty() ? Optional.empty() : Optional.of(new ParsedUrl(matcher.group(1), widths));
+    }
+
+    record ParsedUrl(String directoryUrl, List<Integer> widths) {}
+}
@@ -0,0 +1,67 @@
+package com.rotiprata.media.process;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps per-tool run counts and durations for ffmpeg, ffprobe and yt-dlp invocations.
+ */
+@Component
+public class MediaProcessMetrics {
+    private final Map<String, ToolCounters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Records a finished run for the given tool label.
+     */
+    public void record(String label, long durationMillis, Outcome outcome) {
+        ToolCounters tool = counters.computeIfAbsent(label == null ? "unknown" : label, key -> new ToolCounters());
+        tool.runs.incrementAndGet();
+        tool.totalMillis.addAndGet(durationMillis);
+        tool.maxMillis.accumulateAndGet(durationMillis, Math::max);
+        switch (outcome) {
+            case FAILED -> tool.failures.incrementAndGet();
+            case TIMED_OUT -> tool.timeouts.incrementAndGet();
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Returns a point-in-time copy of the counters, ordered by tool label.
+     */
+    public Map<String, ToolStats> snapshot() {
+        Map<String, ToolStats> result = new TreeMap<>();
+        counters.forEach((label, tool) -> {
+            long runs = tool.runs.get();
+            long total = tool.totalMillis.get();
+            result.put(label, new ToolStats(
+                runs,
+                tool.failures.get(),
+                tool.timeouts.get(),
+                total,
+                tool.maxMillis.get(),
+                runs == 0 ? 0 : total / runs
+            ));
+        });
+        return result;
+    }
+
+    public enum Outcome {
+        SUCCEEDED,
+        FAILED,
+        TIMED_OUT
+    }
+
+    public record ToolStats(long runs, long failures, long timeouts, long totalMillis, long maxMillis, long averageMillis) {}
+
+    private static final class ToolCounters {
+        private final AtomicLong runs = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+        private final AtomicLong totalMillis = new AtomicLong();
+        private final AtomicLong maxMillis = new AtomicLong();
+    }
+}
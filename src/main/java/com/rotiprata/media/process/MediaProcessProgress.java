@@ -0,0 +1,16 @@
+package com.rotiprata.media.process;
+
+/**
+ * Snapshot of one ffmpeg {@code -progress} block or one yt-dlp download progress line.
+ *
+ * <p>Values the tool did not report, or reported as {@code N/A}, are kept as {@code -1}.
+ */
+public record MediaProcessProgress(
+    long frame,
+    double fps,
+    long outTimeMs,
+    long totalSizeBytes,
+    double speed,
+    double downloadPercent,
+    boolean finished
+) {}
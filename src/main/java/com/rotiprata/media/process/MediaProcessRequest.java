@@ -0,0 +1,50 @@
+package com.rotiprata.media.process;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Describes one external tool invocation and the limits it runs under.
+ *
+ * <p>{@code label} doubles as the metrics key, so callers should reuse stable names such as
+ * {@code ffmpeg} or {@code yt-dlp-download}. A {@code null} timeout falls back to the configured
+ * default, {@link Duration#ZERO} disables that limit, and a non-positive output limit falls back to
+ * the configured tail size.
+ */
+public record MediaProcessRequest(
+    List<String> command,
+    String label,
+    Duration timeout,
+    Duration cpuTimeout,
+    int outputLimitBytes,
+    Consumer<MediaProcessProgress> progressListener
+) {
+
+    public MediaProcessRequest {
+        command = List.copyOf(command);
+    }
+
+    /**
+     * Creates a request that uses the runner defaults for every limit.
+     */
+    public static MediaProcessRequest of(List<String> command, String label) {
+        return new MediaProcessRequest(command, label, null, null, 0, null);
+    }
+
+    public MediaProcessRequest withTimeout(Duration value) {
+        return new MediaProcessRequest(command, label, value, cpuTimeout, outputLimitBytes, progressListener);
+    }
+
+    public MediaProcessRequest withCpuTimeout(Duration value) {
+        return new MediaProcessRequest(command, label, timeout, value, outputLimitBytes, progressListener);
+    }
+
+    public MediaProcessRequest withOutputLimitBytes(int value) {
+        return new MediaProcessRequest(command, label, timeout, cpuTimeout, value, progressListener);
+    }
+
+    public MediaProcessRequest withProgressListener(Consumer<MediaProcessProgress> value) {
+        return new MediaProcessRequest(command, label, timeout, cpuTimeout, outputLimitBytes, value);
+    }
+}
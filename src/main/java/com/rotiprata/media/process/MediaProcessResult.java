@@ -0,0 +1,15 @@
+package com.rotiprata.media.process;
+
+/**
+ * Captures the outcome of a finished tool invocation.
+ *
+ * <p>{@code output} only holds the retained tail of the merged stdout/stderr stream;
+ * {@code outputTruncated} tells callers whether earlier bytes were dropped.
+ */
+public record MediaProcessResult(
+    int exitCode,
+    String output,
+    boolean outputTruncated,
+    long durationMillis,
+    MediaProcessProgress lastProgress
+) {}
@@ -0,0 +1,266 @@
+package com.rotiprata.media.process;
+
+import com.rotiprata.config.MediaProcessingProperties;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs external media tools with bounded output capture, wall-clock/CPU limits and progress parsing.
+ *
+ * <p>Output is drained on a separate pump thread so the calling worker can enforce deadlines even
+ * when a tool stops writing. Only the last {@code media.process.output-tail-kb} of output is kept.
+ */
+@Component
+public class MediaProcessRunner {
+    private static final Logger log = LoggerFactory.getLogger(MediaProcessRunner.class);
+    private static final long POLL_INTERVAL_MILLIS = 250;
+    private static final long OUTPUT_DRAIN_TIMEOUT_MILLIS = 2_000;
+    private static final long KILL_WAIT_MILLIS = 5_000;
+    private static final int READ_CHUNK_BYTES = 8192;
+    private static final int MAX_PROGRESS_LINE_BYTES = 1024;
+
+    private final MediaProcessingProperties properties;
+    private final MediaProcessMetrics metrics;
+    private final ExecutorService outputPumps;
+
+    /**
+     * Creates a media process runner instance with its collaborators.
+     */
+    public MediaProcessRunner(MediaProcessingProperties properties, MediaProcessMetrics metrics) {
+        this.properties = properties;
+        this.metrics = metrics;
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.outputPumps = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "media-process-output-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs the command to completion and throws when it exits non-zero or exceeds a limit.
+     */
+    public MediaProcessResult run(MediaProcessRequest request) throws IOException, InterruptedException {
+        MediaProcessingProperties.ProcessLimits limits = properties.getProcess();
+        Duration timeout = request.timeout() != null ? request.timeout() : Duration.ofSeconds(limits.getTimeoutSeconds());
+        Duration cpuTimeout = request.cpuTimeout() != null ? request.cpuTimeout() : Duration.ofSeconds(limits.getCpuTimeoutSeconds());
+        int outputLimit = request.outputLimitBytes() > 0 ? request.outputLimitBytes() : Math.max(1, limits.getOutputTailKb()) * 1024;
+
+        long start = System.nanoTime();
+        MediaProcessMetrics.Outcome outcome = MediaProcessMetrics.Outcome.FAILED;
+        Process process = null;
+        try {
+            ProcessBuilder builder = new ProcessBuilder(applyNiceness(request.command(), limits.getNiceness()));
+            builder.redirectErrorStream(true);
+            process = builder.start();
+            OutputPump pump = new OutputPump(process.getInputStream(), outputLimit, request.progressListener());
+            Future<?> pumpFuture = outputPumps.submit(pump);
+
+            awaitExit(process, request.label(), timeout, cpuTimeout, pump);
+            drain(pumpFuture);
+
+            int exit = process.exitValue();
+            long durationMillis = elapsedMillis(start);
+            MediaProcessResult result = pump.toResult(exit, durationMillis);
+            if (exit != 0) {
+                throw new IOException(request.label() + " failed: " + result.output().trim());
+            }
+            outcome = MediaProcessMetrics.Outcome.SUCCEEDED;
+            return result;
+        } catch (MediaProcessTimeoutException ex) {
+            outcome = MediaProcessMetrics.Outcome.TIMED_OUT;
+            throw ex;
+        } finally {
+            if (process != null && process.isAlive()) {
+                kill(process);
+            }
+            long durationMillis = elapsedMillis(start);
+            metrics.record(request.label(), durationMillis, outcome);
+            log.debug("TIMING tool {} {}ms outcome {}", request.label(), durationMillis, outcome);
+        }
+    }
+
+    /**
+     * Stops the output pump threads on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        outputPumps.shutdownNow();
+    }
+
+    /**
+     * Waits for the process while enforcing the wall-clock and CPU budgets.
+     */
+    private void awaitExit(Process process, String label, Duration timeout, Duration cpuTimeout, OutputPump pump)
+        throws IOException, InterruptedException {
+        long deadline = timeout.isZero() || timeout.isNegative() ? Long.MAX_VALUE : System.nanoTime() + timeout.toNanos();
+        boolean checkCpu = !cpuTimeout.isZero() && !cpuTimeout.isNegative();
+        while (!process.waitFor(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (System.nanoTime() - deadline > 0) {
+                kill(process);
+                throw new MediaProcessTimeoutException(
+                    label + " timed out after " + timeout.toSeconds() + "s: " + pump.tail()
+                );
+            }
+            if (checkCpu && cpuTime(process).compareTo(cpuTimeout) > 0) {
+                kill(process);
+                throw new MediaProcessTimeoutException(
+                    label + " timed out after exceeding " + cpuTimeout.toSeconds() + "s of CPU time: " + pump.tail()
+                );
+            }
+        }
+    }
+
+    /**
+     * Sums CPU time for the process and its children, since yt-dlp hands merging off to ffmpeg.
+     */
+    private Duration cpuTime(Process process) {
+        Duration total = process.info().totalCpuDuration().orElse(Duration.ZERO);
+        for (ProcessHandle child : process.descendants().toList()) {
+            total = total.plus(child.info().totalCpuDuration().orElse(Duration.ZERO));
+        }
+        return total;
+    }
+
+    /**
+     * Kills the process tree and waits briefly for it to exit.
+     */
+    private void kill(Process process) throws InterruptedException {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+        process.waitFor(KILL_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Waits for the pump to hit end-of-stream after the process has exited.
+     */
+    private void drain(Future<?> pumpFuture) throws InterruptedException {
+        try {
+            pumpFuture.get(OUTPUT_DRAIN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            // A detached grandchild can keep the pipe open; the captured tail is still usable.
+            pumpFuture.cancel(true);
+        } catch (ExecutionException ex) {
+            log.debug("Process output pump failed", ex.getCause());
+        }
+    }
+
+    /**
+     * Prefixes the command with nice on platforms that support it.
+     */
+    List<String> applyNiceness(List<String> command, int niceness) {
+        if (niceness <= 0 || isWindows()) {
+            return command;
+        }
+        List<String> result = new ArrayList<>(command.size() + 3);
+        result.add("nice");
+        result.add("-n");
+        result.add(String.valueOf(Math.min(niceness, 19)));
+        result.addAll(command);
+        return result;
+    }
+
+    private boolean isWindows() {
+        return System.getProperty("os.name", "").toLowerCase().contains("win");
+    }
+
+    private long elapsedMillis(long startNanos) {
+        return Math.max(0L, (System.nanoTime() - startNanos) / 1_000_000L);
+    }
+
+    /**
+     * Drains merged stdout/stderr into the ring buffer and feeds complete lines to the progress parser.
+     */
+    private static final class OutputPump implements Runnable {
+        private final InputStream input;
+        private final ProcessOutputBuffer buffer;
+        private final ToolProgressParser progressParser = new ToolProgressParser();
+        private final Consumer<MediaProcessProgress> progressListener;
+        private final byte[] line = new byte[MAX_PROGRESS_LINE_BYTES];
+        private int lineLength;
+        private boolean lineOverflow;
+
+        private OutputPump(InputStream input, int outputLimit, Consumer<MediaProcessProgress> progressListener) {
+            this.input = input;
+            this.buffer = new ProcessOutputBuffer(outputLimit);
+            this.progressListener = progressListener;
+        }
+
+        @Override
+        public void run() {
+            byte[] chunk = new byte[READ_CHUNK_BYTES];
+            try (InputStream stream = input) {
+                int read;
+                while ((read = stream.read(chunk)) != -1) {
+                    synchronized (this) {
+                        buffer.write(chunk, 0, read);
+                    }
+                    scanLines(chunk, read);
+                }
+            } catch (IOException ex) {
+                log.debug("Process output stream closed: {}", ex.getMessage());
+            }
+        }
+
+        private void scanLines(byte[] chunk, int length) {
+            for (int i = 0; i < length; i++) {
+                byte value = chunk[i];
+                if (value == '\n' || value == '\r') {
+                    completeLine();
+                } else if (lineLength < line.length) {
+                    line[lineLength++] = value;
+                } else {
+                    lineOverflow = true;
+                }
+            }
+        }
+
+        private void completeLine() {
+            if (lineLength > 0 && !lineOverflow) {
+                MediaProcessProgress progress;
+                synchronized (this) {
+                    progress = progressParser.accept(new String(line, 0, lineLength, StandardCharsets.UTF_8));
+                }
+                if (progress != null && progressListener != null) {
+                    try {
+                        progressListener.accept(progress);
+                    } catch (RuntimeException ex) {
+                        log.debug("Progress listener failed", ex);
+                    }
+                }
+            }
+            lineLength = 0;
+            lineOverflow = false;
+        }
+
+        private synchronized String tail() {
+            return buffer.contentAsString().trim();
+        }
+
+        private synchronized MediaProcessResult toResult(int exitCode, long durationMillis) {
+            return new MediaProcessResult(
+                exitCode,
+                buffer.contentAsString(),
+                buffer.isTruncated(),
+                durationMillis,
+                progressParser.last()
+            );
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.rotiprata.media.process;
+
+import java.io.IOException;
+
+/**
+ * Raised when a tool exceeds its wall-clock or CPU budget and has been killed.
+ */
+public class MediaProcessTimeoutException extends IOException {
+
+    public MediaProcessTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,60 @@
+package com.rotiprata.media.process;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixed-size ring buffer that keeps only the most recent bytes of a tool's output.
+ *
+ * <p>Verbose ffmpeg or yt-dlp runs can print megabytes of logs; only the tail is useful for
+ * error messages, so memory stays bounded by the configured capacity regardless of run length.
+ */
+final class ProcessOutputBuffer {
+    private final byte[] buffer;
+    private int writeIndex;
+    private long totalBytes;
+
+    ProcessOutputBuffer(int capacity) {
+        this.buffer = new byte[Math.max(1, capacity)];
+    }
+
+    /**
+     * Appends bytes, overwriting the oldest content once the buffer is full.
+     */
+    void write(byte[] data, int offset, int length) {
+        totalBytes += length;
+        if (length >= buffer.length) {
+            System.arraycopy(data, offset + length - buffer.length, buffer, 0, buffer.length);
+            writeIndex = 0;
+            return;
+        }
+        int firstChunk = Math.min(length, buffer.length - writeIndex);
+        System.arraycopy(data, offset, buffer, writeIndex, firstChunk);
+        int remaining = length - firstChunk;
+        if (remaining > 0) {
+            System.arraycopy(data, offset + firstChunk, buffer, 0, remaining);
+        }
+        writeIndex = (writeIndex + length) % buffer.length;
+    }
+
+    boolean isTruncated() {
+        return totalBytes > buffer.length;
+    }
+
+    long totalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Decodes the retained tail as UTF-8.
+     */
+    String contentAsString() {
+        if (!isTruncated()) {
+            return new String(buffer, 0, (int) totalBytes, StandardCharsets.UTF_8);
+        }
+        byte[] ordered = new byte[buffer.length];
+        int tail = buffer.length - writeIndex;
+        System.arraycopy(buffer, writeIndex, ordered, 0, tail);
+        System.arraycopy(buffer, 0, ordered, tail, writeIndex);
+        return new String(ordered, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,91 @@
+package com.rotiprata.media.process;
+
+/**
+ * Incrementally parses progress lines from ffmpeg and yt-dlp output.
+ *
+ * <p>ffmpeg writes key=value blocks with {@code -progress pipe:1}; each block ends with a
+ * {@code progress=continue} or {@code progress=end} line, at which point a {@link MediaProcessProgress}
+ * snapshot is emitted. yt-dlp writes {@code [download]  42.0% of ...} lines, each of which emits a
+ * snapshot with only the download percentage set. Other log lines on the merged stream are ignored.
+ */
+final class ToolProgressParser {
+    private static final String DOWNLOAD_PREFIX = "[download]";
+
+    private long frame = -1;
+    private double fps = -1;
+    private long outTimeMs = -1;
+    private long totalSizeBytes = -1;
+    private double speed = -1;
+    private MediaProcessProgress last;
+
+    /**
+     * Consumes one output line and returns a snapshot when the line closes a progress block.
+     */
+    MediaProcessProgress accept(String line) {
+        if (line.startsWith(DOWNLOAD_PREFIX)) {
+            return acceptDownloadLine(line);
+        }
+        int separator = line.indexOf('=');
+        if (separator <= 0) {
+            return null;
+        }
+        String key = line.substring(0, separator).trim();
+        String value = line.substring(separator + 1).trim();
+        switch (key) {
+            case "frame" -> frame = parseLong(value);
+            case "fps" -> fps = parseDouble(value);
+            // Both keys are reported in microseconds despite the historical "_ms" name.
+            case "out_time_us", "out_time_ms" -> {
+                long micros = parseLong(value);
+                outTimeMs = micros < 0 ? -1 : micros / 1000;
+            }
+            case "total_size" -> totalSizeBytes = parseLong(value);
+            case "speed" -> speed = parseDouble(value.endsWith("x") ? value.substring(0, value.length() - 1) : value);
+            case "progress" -> {
+                last = new MediaProcessProgress(frame, fps, outTimeMs, totalSizeBytes, speed, -1, "end".equals(value));
+                return last;
+            }
+            default -> {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private MediaProcessProgress acceptDownloadLine(String line) {
+        int percentIndex = line.indexOf('%');
+        if (percentIndex < 0) {
+            return null;
+        }
+        int start = percentIndex;
+        while (start > DOWNLOAD_PREFIX.length() && line.charAt(start - 1) != ' ') {
+            start--;
+        }
+        double percent = parseDouble(line.substring(start, percentIndex));
+        if (percent < 0) {
+            return null;
+        }
+        last = new MediaProcessProgress(-1, -1, -1, -1, -1, percent, percent >= 100);
+        return last;
+    }
+
+    MediaProcessProgress last() {
+        return last;
+    }
+
+    private long parseLong(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private double parseDouble(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+}
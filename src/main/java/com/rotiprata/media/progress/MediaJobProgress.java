@@ -0,0 +1,21 @@
+package com.rotiprata.media.progress;
+
+import java.time.Instant;
+
+/**
+ * Immutable snapshot of an in-flight media job.
+ *
+ * <p>{@code percent} is the weighted overall progress across stages; the stage-specific fields
+ * hold raw values and are {@code -1} until the stage reports them.
+ */
+public record MediaJobProgress(
+    MediaJobStage stage,
+    int percent,
+    double downloadPercent,
+    long encodedMs,
+    long durationMs,
+    double encodeSpeed,
+    int segmentsUploaded,
+    int segmentsTotal,
+    Instant updatedAt
+) {}
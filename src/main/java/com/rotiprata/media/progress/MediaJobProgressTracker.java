@@ -0,0 +1,292 @@
+package com.rotiprata.media.progress;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tracks download, encode and upload progress for running media jobs in memory.
+ *
+ * <p>Jobs are keyed by content id or lesson media asset id. State only lives while a worker is
+ * processing the job; terminal status is still read from the database. Subscribers are notified
+ * at most every {@link #NOTIFY_INTERVAL_MILLIS} per job, plus on every stage change. Notifications
+ * are delivered on a separate executor, never on the worker thread that reports progress, so a slow
+ * subscriber cannot stall the process whose output is being parsed; while a subscriber is still busy,
+ * newer snapshots replace the one waiting for it.
+ */
+@Component
+public class MediaJobProgressTracker {
+    private static final Logger log = LoggerFactory.getLogger(MediaJobProgressTracker.class);
+    static final long NOTIFY_INTERVAL_MILLIS = 500;
+    private static final int DOWNLOAD_WEIGHT = 20;
+    private static final int UPLOAD_WEIGHT = 15;
+
+    private final Map<UUID, JobState> jobs = new ConcurrentHashMap<>();
+    private final Map<UUID, List<Delivery>> subscribers = new ConcurrentHashMap<>();
+    private final Executor notifyExecutor;
+
+    /**
+     * Creates a tracker that notifies subscribers on the given executor.
+     */
+    public MediaJobProgressTracker(@Qualifier("mediaProgressExecutor") Executor notifyExecutor) {
+        this.notifyExecutor = notifyExecutor;
+    }
+
+    /**
+     * Registers a job; link imports include a download stage in the overall percentage.
+     */
+    public void start(UUID jobId, boolean includesDownload) {
+        JobState state = new JobState(includesDownload);
+        jobs.put(jobId, state);
+        publish(jobId, state, true);
+    }
+
+    /**
+     * Records yt-dlp download progress in percent.
+     */
+    public void downloading(UUID jobId, double percent) {
+        update(jobId, state -> {
+            boolean stageChanged = state.stage != MediaJobStage.DOWNLOADING;
+            state.stage = MediaJobStage.DOWNLOADING;
+            state.downloadPercent = clamp(percent, 0, 100);
+            return stageChanged;
+        });
+    }
+
+    /**
+     * Records ffmpeg progress for one rendition out of {@code variantCount} encoded sequentially.
+     */
+    public void encoding(UUID jobId, int variantIndex, int variantCount, long encodedMs, long durationMs, double speed) {
+        update(jobId, state -> {
+            boolean stageChanged = state.stage != MediaJobStage.ENCODING;
+            state.stage = MediaJobStage.ENCODING;
+            state.variantIndex = variantIndex;
+            state.variantCount = Math.max(1, variantCount);
+            state.encodedMs = encodedMs;
+            state.durationMs = durationMs;
+            state.encodeSpeed = speed;
+            return stageChanged;
+        });
+    }
+
+    /**
+     * Records how many output files have been uploaded to storage.
+     */
+    public void uploading(UUID jobId, int uploaded, int total) {
+        update(jobId, state -> {
+            boolean stageChanged = state.stage != MediaJobStage.UPLOADING;
+            state.stage = MediaJobStage.UPLOADING;
+            state.segmentsUploaded = uploaded;
+            state.segmentsTotal = total;
+            return stageChanged;
+        });
+    }
+
+    /**
+     * Marks the job as writing its final status.
+     */
+    public void finalizing(UUID jobId) {
+        update(jobId, state -> {
+            state.stage = MediaJobStage.FINALIZING;
+            return true;
+        });
+    }
+
+    /**
+     * Drops the job state and notifies subscribers that they should reload the persisted status.
+     */
+    public void finish(UUID jobId) {
+        JobState state = jobs.remove(jobId);
+        MediaJobProgress terminal = state == null
+            ? new MediaJobProgress(MediaJobStage.FINISHED, 100, -1, -1, -1, -1, -1, -1, Instant.now())
+            : state.snapshot(MediaJobStage.FINISHED);
+        List<Delivery> listeners = subscribers.remove(jobId);
+        if (listeners != null) {
+            listeners.forEach(delivery -> delivery.offer(terminal));
+        }
+    }
+
+    /**
+     * Returns the latest snapshot when the job is still running on this instance.
+     */
+    public Optional<MediaJobProgress> get(UUID jobId) {
+        JobState state = jobs.get(jobId);
+        if (state == null) {
+            return Optional.empty();
+        }
+        synchronized (state) {
+            return Optional.of(state.snapshot(state.stage));
+        }
+    }
+
+    /**
+     * Subscribes to progress updates for a job and returns a handle that removes the subscription.
+     */
+    public Runnable subscribe(UUID jobId, Consumer<MediaJobProgress> listener) {
+        Delivery delivery = new Delivery(listener);
+        subscribers.computeIfAbsent(jobId, key -> new CopyOnWriteArrayList<>()).add(delivery);
+        return () -> subscribers.computeIfPresent(jobId, (key, listeners) -> {
+            listeners.remove(delivery);
+            return listeners.isEmpty() ? null : listeners;
+        });
+    }
+
+    private void update(UUID jobId, Function<JobState, Boolean> mutation) {
+        JobState state = jobs.get(jobId);
+        if (state == null) {
+            return;
+        }
+        boolean force;
+        synchronized (state) {
+            force = mutation.apply(state);
+            state.updatedAt = Instant.now();
+        }
+        publish(jobId, state, force);
+    }
+
+    private void publish(UUID jobId, JobState state, boolean force) {
+        List<Delivery> listeners = subscribers.get(jobId);
+        if (listeners == null || listeners.isEmpty()) {
+            return;
+        }
+        MediaJobProgress snapshot;
+        synchronized (state) {
+            long now = System.nanoTime();
+            if (!force && now - state.lastNotifiedNanos < NOTIFY_INTERVAL_MILLIS * 1_000_000L) {
+                return;
+            }
+            state.lastNotifiedNanos = now;
+            snapshot = state.snapshot(state.stage);
+        }
+        listeners.forEach(delivery -> delivery.offer(snapshot));
+    }
+
+    private void notifySafely(Consumer<MediaJobProgress> listener, MediaJobProgress progress) {
+        try {
+            listener.accept(progress);
+        } catch (RuntimeException ex) {
+            log.debug("Media progress subscriber failed", ex);
+        }
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * Hands snapshots to one subscriber on the notify executor, keeping only the newest undelivered one.
+     */
+    private final class Delivery {
+        private final Consumer<MediaJobProgress> listener;
+        private final AtomicReference<MediaJobProgress> pending = new AtomicReference<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Delivery(Consumer<MediaJobProgress> listener) {
+            this.listener = listener;
+        }
+
+        private void offer(MediaJobProgress progress) {
+            pending.set(progress);
+            schedule();
+        }
+
+        private void schedule() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                notifyExecutor.execute(this::drain);
+            } catch (RejectedExecutionException ex) {
+                // The snapshot stays pending and goes out with the next update.
+                scheduled.set(false);
+                log.debug("Media progress notification rejected", ex);
+            }
+        }
+
+        private void drain() {
+            try {
+                MediaJobProgress next;
+                while ((next = pending.getAndSet(null)) != null) {
+                    notifySafely(listener, next);
+                }
+            } finally {
+                scheduled.set(false);
+            }
+            if (pending.get() != null) {
+                schedule();
+            }
+        }
+    }
+
+    private static final class JobState {
+        private final boolean includesDownload;
+        private MediaJobStage stage = MediaJobStage.QUEUED;
+        private double downloadPercent = -1;
+        private int variantIndex;
+        private int variantCount = 1;
+        private long encodedMs = -1;
+        private long durationMs = -1;
+        private double encodeSpeed = -1;
+        private int segmentsUploaded = -1;
+        private int segmentsTotal = -1;
+        private Instant updatedAt = Instant.now();
+        private long lastNotifiedNanos;
+
+        private JobState(boolean includesDownload) {
+            this.includesDownload = includesDownload;
+        }
+
+        private MediaJobProgress snapshot(MediaJobStage reportedStage) {
+            return new MediaJobProgress(
+                reportedStage,
+                overallPercent(reportedStage),
+                downloadPercent,
+                encodedMs,
+                durationMs,
+                encodeSpeed,
+                segmentsUploaded,
+                segmentsTotal,
+                updatedAt
+            );
+        }
+
+        /**
+         * Weights the stages so the bar moves monotonically: download, encode, then upload.
+         */
+        private int overallPercent(MediaJobStage reportedStage) {
+            int downloadWeight = includesDownload ? DOWNLOAD_WEIGHT : 0;
+            int encodeWeight = 100 - downloadWeight - UPLOAD_WEIGHT;
+            return switch (reportedStage) {
+                case QUEUED -> 0;
+                case DOWNLOADING -> (int) (downloadWeight * Math.max(0, downloadPercent) / 100.0);
+                case ENCODING -> {
+                    double variantFraction = durationMs > 0 && encodedMs >= 0
+                        ? clamp((double) encodedMs / durationMs, 0, 1)
+                        : 0;
+                    double encodeFraction = (variantIndex + variantFraction) / variantCount;
+                    yield downloadWeight + (int) (encodeWeight * clamp(encodeFraction, 0, 1));
+                }
+                case UPLOADING -> {
+                    double uploadFraction = segmentsTotal > 0 ? clamp((double) segmentsUploaded / segmentsTotal, 0, 1) : 0;
+                    yield downloadWeight + encodeWeight + (int) (UPLOAD_WEIGHT * uploadFraction);
+                }
+                case FINALIZING -> 99;
+                case FINISHED -> 100;
+            };
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.rotiprata.media.progress;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Processing stages reported to clients while a media job is running.
+ */
+public enum MediaJobStage {
+    QUEUED,
+    DOWNLOADING,
+    ENCODING,
+    UPLOADING,
+    FINALIZING,
+    FINISHED;
+
+    @JsonValue
+    public String toJson() {
+        return name().toLowerCase();
+    }
+}
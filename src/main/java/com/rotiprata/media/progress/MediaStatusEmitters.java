@@ -0,0 +1,96 @@
+package com.rotiprata.media.progress;
+
+import com.rotiprata.media.service.MediaProcessingService;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Builds server-sent-event streams that push media status updates instead of making clients poll.
+ *
+ * <p>The stream emits a {@code status} event with the persisted status, then one {@code status}
+ * event per progress update while the job runs on this instance, and a final {@code status}
+ * event re-read from the database once the job finishes. Jobs processed by another instance keep
+ * the stream open until it times out, after which clients fall back to polling.
+ */
+public final class MediaStatusEmitters {
+    static final long STREAM_TIMEOUT_MILLIS = 5 * 60 * 1000L;
+    private static final String EVENT_NAME = "status";
+
+    private MediaStatusEmitters() {
+    }
+
+    /**
+     * Opens a status stream for a media job.
+     *
+     * @param statusLoader reads the persisted status, including any live progress
+     * @param isProcessing tells whether a status is still non-terminal
+     * @param withProgress overlays a live progress snapshot on the last persisted status
+     */
+    public static <T> SseEmitter open(
+        MediaProcessingService mediaProcessingService,
+        UUID jobId,
+        Supplier<T> statusLoader,
+        Predicate<T> isProcessing,
+        BiFunction<T, MediaJobProgress, T> withProgress
+    ) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
+        T current = statusLoader.get();
+        if (!isProcessing.test(current)) {
+            sendFinal(emitter, current);
+            return emitter;
+        }
+
+        AtomicBoolean closed = new AtomicBoolean();
+        Runnable unsubscribe = mediaProcessingService.subscribeProgress(jobId, progress -> {
+            if (closed.get()) {
+                return;
+            }
+            if (progress.stage() == MediaJobStage.FINISHED) {
+                closed.set(true);
+                sendFinal(emitter, statusLoader.get());
+            } else if (!send(emitter, withProgress.apply(current, progress))) {
+                closed.set(true);
+            }
+        });
+        emitter.onCompletion(() -> {
+            closed.set(true);
+            unsubscribe.run();
+        });
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> {
+            closed.set(true);
+            unsubscribe.run();
+        });
+
+        send(emitter, current);
+        if (mediaProcessingService.getProgress(jobId).isEmpty()) {
+            // The job may have finished between the first read and subscribing.
+            T latest = statusLoader.get();
+            if (!isProcessing.test(latest) && closed.compareAndSet(false, true)) {
+                sendFinal(emitter, latest);
+            }
+        }
+        return emitter;
+    }
+
+    private static boolean send(SseEmitter emitter, Object status) {
+        try {
+            emitter.send(SseEmitter.event().name(EVENT_NAME).data(status));
+            return true;
+        } catch (IOException | IllegalStateException ex) {
+            emitter.completeWithError(ex);
+            return false;
+        }
+    }
+
+    private static void sendFinal(SseEmitter emitter, Object status) {
+        if (send(emitter, status)) {
+            emitter.complete();
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.rotiprata.media.service;
 
 import com.rotiprata.api.content.domain.ContentType;
+import com.rotiprata.media.progress.MediaJobProgress;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 import org.springframework.web.multipart.MultipartFile;
 
 /**
@@ -28,4 +31,15 @@ public interface MediaProcessingService {
      * Handles process lesson link.
      */
     void processLessonLink(UUID assetId, String mediaKind, String sourceUrl);
+
+    /**
+     * Returns the live progress of a job running on this instance, if any.
+     */
+    Optional<MediaJobProgress> getProgress(UUID jobId);
+
+    /**
+     * Subscribes to live progress of a job and returns a handle that cancels the subscription.
+     * Listeners receive a {@code finished} snapshot once the job has written its final status.
+     */
+    Runnable subscribeProgress(UUID jobId, Consumer<MediaJobProgress> listener);
 }
@@ -4,21 +4,36 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rotiprata.api.content.domain.ContentType;
 import com.rotiprata.config.MediaProcessingProperties;
+import com.rotiprata.config.MediaProcessingProperties.EncodingProfile;
 import com.rotiprata.config.SupabaseProperties;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminRestClient;
 import com.rotiprata.infrastructure.supabase.SupabaseStorageClient;
-import java.io.BufferedReader;
+import com.rotiprata.media.encoding.HlsEncodingCommandBuilder;
+import com.rotiprata.media.encoding.HlsRendition;
+import com.rotiprata.media.encoding.MediaProbe;
+import com.rotiprata.media.image.ImageDerivativeCommandBuilder;
+import com.rotiprata.media.image.ImageFormat;
+import com.rotiprata.media.image.ImageVariant;
+import com.rotiprata.media.image.ImageVariantUrls;
+import com.rotiprata.media.process.MediaProcessRequest;
+import com.rotiprata.media.process.MediaProcessResult;
+import com.rotiprata.media.process.MediaProcessRunner;
+import com.rotiprata.media.progress.MediaJobProgress;
+import com.rotiprata.media.progress.MediaJobProgressTracker;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.task.TaskExecutor;
@@ -36,12 +51,17 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
     private static final String CACHE_CONTROL_PLAYLIST = "public,max-age=30";
     private static final String CACHE_CONTROL_SEGMENT = "public,max-age=31536000,immutable";
     private static final String CACHE_CONTROL_IMAGE = "public,max-age=604800";
+    private static final String POSTER_VARIANTS_DIR = "poster-variants";
 
     private final MediaProcessingProperties properties;
     private final SupabaseProperties supabaseProperties;
     private final SupabaseAdminRestClient adminRestClient;
     private final SupabaseStorageClient storageClient;
     private final TaskExecutor mediaTaskExecutor;
+    private final MediaProcessRunner processRunner;
+    private final MediaJobProgressTracker progressTracker;
+    private final HlsEncodingCommandBuilder encodingCommandBuilder;
+    private final ImageDerivativeCommandBuilder imageDerivatives;
 
     /**
      * Creates a media processing service impl instance with its collaborators.
@@ -51,13 +71,19 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
         SupabaseProperties supabaseProperties,
         SupabaseAdminRestClient adminRestClient,
         SupabaseStorageClient storageClient,
-        @Qualifier("mediaTaskExecutor") TaskExecutor mediaTaskExecutor
+        @Qualifier("mediaTaskExecutor") TaskExecutor mediaTaskExecutor,
+        MediaProcessRunner processRunner,
+        MediaJobProgressTracker progressTracker
     ) {
         this.properties = properties;
         this.supabaseProperties = supabaseProperties;
         this.adminRestClient = adminRestClient;
         this.storageClient = storageClient;
         this.mediaTaskExecutor = mediaTaskExecutor;
+        this.processRunner = processRunner;
+        this.progressTracker = progressTracker;
+        this.encodingCommandBuilder = new HlsEncodingCommandBuilder(properties);
+        this.imageDerivatives = new ImageDerivativeCommandBuilder(properties);
         maybeUpdateYtDlp();
     }
 
@@ -76,6 +102,7 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
             return;
         }
 
+        progressTracker.start(contentId, false);
         mediaTaskExecutor.execute(() -> {
             try {
                 if (contentType == ContentType.IMAGE) {
@@ -87,6 +114,7 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
                 log.warn("Media processing failed for content {}: {}", contentId, ex.getMessage(), ex);
                 markFailed(contentId, classifyError(ex.getMessage()));
             } finally {
+                progressTracker.finish(contentId);
                 try {
                     Files.deleteIfExists(tempFile);
                 } catch (IOException ex) {
@@ -101,6 +129,7 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
      */
     @Override
     public void processLink(UUID contentId, String sourceUrl) {
+    progressTracker.start(contentId, true);
     mediaTaskExecutor.execute(() -> {
         try {
             long start = System.nanoTime();
@@ -118,7 +147,7 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
                 Files.deleteIfExists(tempFile);
 
                 stepStart = System.nanoTime();
-                downloadWithYtDlp(sourceUrl, tempFile);
+                downloadWithYtDlp(contentId, sourceUrl, tempFile);
                 log.info("TIMING content {} yt-dlp download {}s", contentId, elapsedSeconds(stepStart));
 
            
@@ -137,6 +166,8 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
         } catch (Exception ex) {
             log.warn("Link processing failed for content {}: {}", contentId, ex.getMessage(), ex);
             markFailed(contentId, classifyError(ex.getMessage()));
+        } finally {
+            progressTracker.finish(contentId);
         }
     });
 }
@@ -158,6 +189,7 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
 
         String normalizedKind = normalizeLessonMediaKind(mediaKind, file.getContentType());
         String sourceMimeType = file.getContentType();
+        progressTracker.start(assetId, false);
         mediaTaskExecutor.execute(() -> {
             try {
                 if ("video".equals(normalizedKind)) {
@@ -169,6 +201,7 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
                 log.warn("Lesson media processing failed for asset {}: {}", assetId, ex.getMessage(), ex);
                 markLessonFailed(assetId, classifyError(ex.getMessage()));
             } finally {
+                progressTracker.finish(assetId);
                 try {
                     Files.deleteIfExists(tempFile);
                 } catch (IOException ex) {
@@ -184,6 +217,7 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
     @Override
     public void processLessonLink(UUID assetId, String mediaKind, String sourceUrl) {
         String normalizedKind = normalizeLessonMediaKind(mediaKind, null);
+        progressTracker.start(assetId, "video".equals(normalizedKind));
         mediaTaskExecutor.execute(() -> {
             try {
                 if ("video".equals(normalizedKind)) {
@@ -199,7 +233,7 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
                     try {
                         Files.deleteIfExists(tempFile);
                         stepStart = System.nanoTime();
-                        downloadWithYtDlp(sourceUrl, tempFile);
+                        downloadWithYtDlp(assetId, sourceUrl, tempFile);
                         log.info("TIMING lesson-asset {} yt-dlp download {}s", assetId, elapsedSeconds(stepStart));
                         processLessonVideoToHls(assetId, tempFile);
                     } finally {
@@ -211,10 +245,28 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
             } catch (Exception ex) {
                 log.warn("Lesson link processing failed for asset {}: {}", assetId, ex.getMessage(), ex);
                 markLessonFailed(assetId, classifyError(ex.getMessage()));
+            } finally {
+                progressTracker.finish(assetId);
             }
         });
     }
 
+    /**
+     * Returns the in-memory progress of a running job.
+     */
+    @Override
+    public Optional<MediaJobProgress> getProgress(UUID jobId) {
+        return progressTracker.get(jobId);
+    }
+
+    /**
+     * Subscribes to progress updates of a running job.
+     */
+    @Override
+    public Runnable subscribeProgress(UUID jobId, Consumer<MediaJobProgress> listener) {
+        return progressTracker.subscribe(jobId, listener);
+    }
+
     /**
      * Handles process video to hls.
      */
@@ -225,22 +277,26 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
         log.info("TIMING content {} ffprobe {}s", contentId, elapsedSeconds(stepStart));
         validateDurationSeconds(probe.durationSeconds());
 
-        int hlsTimeSeconds = chooseSegmentDuration(probe.durationSeconds());
+        int hlsTimeSeconds = encodingCommandBuilder.segmentDurationSeconds(probe.durationSeconds());
         log.info("TIMING content {} hls_time {}s", contentId, hlsTimeSeconds);
 
         Path outputDir = Files.createTempDirectory(resolveTempDir(), "hls-" + contentId + "-");
         try {
             stepStart = System.nanoTime();
-            generateHlsVariants(input, outputDir, probe.hasAudio(), hlsTimeSeconds);
+            generateHlsVariants(contentId, input, outputDir, probe, hlsTimeSeconds);
             log.info("TIMING content {} ffmpeg variants {}s", contentId, elapsedSeconds(stepStart));
             stepStart = System.nanoTime();
             Path posterPath = generatePoster(input, outputDir);
+            List<Integer> posterWidths = deriveImageVariants(posterPath, outputDir.resolve(POSTER_VARIANTS_DIR), ImageFormat.JPEG);
             log.info("TIMING content {} poster {}s", contentId, elapsedSeconds(stepStart));
             stepStart = System.nanoTime();
             uploadHlsOutputs(contentId, outputDir, posterPath);
+            String bucket = supabaseProperties.getStorage().getContentMedia();
+            uploadImageVariants(bucket, "thumbs/" + contentId, outputDir.resolve(POSTER_VARIANTS_DIR), posterWidths, ImageFormat.JPEG);
             log.info("TIMING content {} upload {}s", contentId, elapsedSeconds(stepStart));
             stepStart = System.nanoTime();
-            markReady(contentId, probe);
+            progressTracker.finalizing(contentId);
+            markReady(contentId, probe, posterThumbnailUrl(bucket, contentId, posterWidths));
             log.info("TIMING content {} mark-ready {}s", contentId, elapsedSeconds(stepStart));
         } finally {
             deleteDirectory(outputDir);
@@ -255,13 +311,17 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
         MediaProbe probe = probeMedia(input);
         validateDurationSeconds(probe.durationSeconds());
 
-        int hlsTimeSeconds = chooseSegmentDuration(probe.durationSeconds());
+        int hlsTimeSeconds = encodingCommandBuilder.segmentDurationSeconds(probe.durationSeconds());
         Path outputDir = Files.createTempDirectory(resolveTempDir(), "lesson-hls-" + assetId + "-");
         try {
-            generateHlsVariants(input, outputDir, probe.hasAudio(), hlsTimeSeconds);
+            generateHlsVariants(assetId, input, outputDir, probe, hlsTimeSeconds);
             Path posterPath = generatePoster(input, outputDir);
+            List<Integer> posterWidths = deriveImageVariants(posterPath, outputDir.resolve(POSTER_VARIANTS_DIR), ImageFormat.JPEG);
             uploadLessonHlsOutputs(assetId, outputDir, posterPath);
-            markLessonVideoReady(assetId, probe);
+            String bucket = lessonMediaBucket();
+            uploadImageVariants(bucket, "thumbs/" + assetId, outputDir.resolve(POSTER_VARIANTS_DIR), posterWidths, ImageFormat.JPEG);
+            progressTracker.finalizing(assetId);
+            markLessonVideoReady(assetId, probe, posterThumbnailUrl(bucket, assetId, posterWidths));
         } finally {
             deleteDirectory(outputDir);
         }
@@ -270,26 +330,47 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
     /**
      * Handles process image.
      */
-    private void processImage(UUID contentId, Path input) throws IOException {
+    private void processImage(UUID contentId, Path input) throws IOException, InterruptedException {
         long start = System.nanoTime();
         String bucket = supabaseProperties.getStorage().getContentMedia();
         if (bucket == null || bucket.isBlank()) {
             throw new IllegalStateException("Supabase storage bucket for content media is not configured");
         }
         String extension = guessSuffix(input.getFileName().toString());
-        String objectPath = "images/" + contentId + "/original" + extension;
-        String contentType = extension.equalsIgnoreCase(".png") ? "image/png" : "image/jpeg";
+        ImageFormat fallback = ImageFormat.fallbackFor(extension);
+        String imageUrl;
+        String thumbnailUrl;
+        Path variantDir = Files.createTempDirectory(resolveTempDir(), "img-" + contentId + "-");
+        try {
+            long stepStart = System.nanoTime();
+            List<Integer> widths = ".gif".equalsIgnoreCase(extension)
+                ? List.of()
+                : deriveImageVariants(input, variantDir, fallback);
+            log.info("TIMING content {} image derivatives {}s", contentId, elapsedSeconds(stepStart));
+            stepStart = System.nanoTime();
+            if (widths.isEmpty()) {
+                String objectPath = "images/" + contentId + "/original" + extension;
+                String contentType = extension.equalsIgnoreCase(".png") ? "image/png" : "image/jpeg";
+                storageClient.uploadObject(bucket, objectPath, Files.readAllBytes(input), contentType, CACHE_CONTROL_IMAGE);
+                imageUrl = publicObjectUrl(bucket, objectPath);
+                thumbnailUrl = imageUrl;
+            } else {
+                String prefix = "images/" + contentId;
+                uploadImageVariants(bucket, prefix, variantDir, widths, fallback);
+                String directoryUrl = publicObjectUrl(bucket, prefix);
+                imageUrl = ImageVariantUrls.withManifest(directoryUrl, widths.get(widths.size() - 1), fallback, widths);
+                thumbnailUrl = ImageVariantUrls.withManifest(directoryUrl, imageDerivatives.thumbnailWidth(widths), fallback, widths);
+            }
+            log.info("TIMING content {} image upload {}s", contentId, elapsedSeconds(stepStart));
+        } finally {
+            deleteDirectory(variantDir);
+        }
         long stepStart = System.nanoTime();
-        storageClient.uploadObject(bucket, objectPath, Files.readAllBytes(input), contentType, CACHE_CONTROL_IMAGE);
-        log.info("TIMING content {} image upload {}s", contentId, elapsedSeconds(stepStart));
-        String publicUrlBase = normalizeBaseUrl();
-        String imageUrl = publicUrlBase + "/storage/v1/object/public/" + bucket + "/" + objectPath;
-        stepStart = System.nanoTime();
         patchContentSafely(
             contentId,
             Map.of(
                 "media_url", imageUrl,
-                "thumbnail_url", imageUrl,
+                "thumbnail_url", thumbnailUrl,
                 "media_status", "ready",
                 "updated_at", OffsetDateTime.now()
             )
@@ -302,7 +383,7 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
             Map.of(
                 "status", "ready",
                 "hls_url", imageUrl,
-                "thumbnail_url", imageUrl,
+                "thumbnail_url", thumbnailUrl,
                 "updated_at", OffsetDateTime.now()
             ),
             new com.fasterxml.jackson.core.type.TypeReference<List<Map<String, Object>>>() {}
@@ -314,19 +395,44 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
     /**
      * Handles process lesson image.
      */
-    private void processLessonImage(UUID assetId, Path input, String mediaKind, String sourceMimeType) throws IOException {
+    private void processLessonImage(UUID assetId, Path input, String mediaKind, String sourceMimeType)
+        throws IOException, InterruptedException {
         String bucket = lessonMediaBucket();
         String extension = guessSuffix(input.getFileName().toString());
-        String objectPath = "assets/" + assetId + "/original" + extension;
-        String contentType = normalizeImageContentType(mediaKind, extension, sourceMimeType);
-        storageClient.uploadObject(bucket, objectPath, Files.readAllBytes(input), contentType, CACHE_CONTROL_IMAGE);
+        ImageFormat fallback = ImageFormat.fallbackFor(extension);
+        String objectPath;
+        String contentType;
+        String mediaUrl;
+        String thumbnailUrl;
+        Path variantDir = Files.createTempDirectory(resolveTempDir(), "lesson-img-" + assetId + "-");
+        try {
+            List<Integer> widths = "image".equals(mediaKind)
+                ? deriveImageVariants(input, variantDir, fallback)
+                : List.of();
+            if (widths.isEmpty()) {
+                objectPath = "assets/" + assetId + "/original" + extension;
+                contentType = normalizeImageContentType(mediaKind, extension, sourceMimeType);
+                storageClient.uploadObject(bucket, objectPath, Files.readAllBytes(input), contentType, CACHE_CONTROL_IMAGE);
+                mediaUrl = publicObjectUrl(bucket, objectPath);
+                thumbnailUrl = mediaUrl;
+            } else {
+                String prefix = "assets/" + assetId;
+                int largest = widths.get(widths.size() - 1);
+                uploadImageVariants(bucket, prefix, variantDir, widths, fallback);
+                objectPath = prefix + "/" + new ImageVariant(largest, fallback).filename();
+                contentType = fallback.contentType();
+                String directoryUrl = publicObjectUrl(bucket, prefix);
+                mediaUrl = ImageVariantUrls.withManifest(directoryUrl, largest, fallback, widths);
+                thumbnailUrl = ImageVariantUrls.withManifest(directoryUrl, imageDerivatives.thumbnailWidth(widths), fallback, widths);
+            }
+        } finally {
+            deleteDirectory(variantDir);
+        }
 
-        String publicUrlBase = normalizeBaseUrl();
-        String mediaUrl = publicUrlBase + "/storage/v1/object/public/" + bucket + "/" + objectPath;
         Map<String, Object> patch = new LinkedHashMap<>();
         patch.put("status", "ready");
         patch.put("playback_url", mediaUrl);
-        patch.put("thumbnail_url", mediaUrl);
+        patch.put("thumbnail_url", thumbnailUrl);
         patch.put("storage_path", objectPath);
         patch.put("mime_type", contentType);
         patch.put("updated_at", OffsetDateTime.now());
@@ -385,80 +491,47 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
     /**
      * Handles generate hls variants.
      */
-    private void generateHlsVariants(Path input, Path outputDir, boolean hasAudio, int hlsTimeSeconds) throws IOException, InterruptedException {
-        List<Variant> variants = List.of(
-            new Variant("1080", 1080, 4500),
-            new Variant("720", 720, 2500)
+    private void generateHlsVariants(UUID jobId, Path input, Path outputDir, MediaProbe probe, int hlsTimeSeconds)
+        throws IOException, InterruptedException {
+        EncodingProfile profile = encodingCommandBuilder.activeProfile();
+        List<HlsRendition> renditions = encodingCommandBuilder.renditions(profile, probe);
+        long durationMs = probe.durationSeconds() * 1000L;
+        log.info(
+            "TIMING encoding profile {} ({}) segments {} fps {} renditions {}",
+            properties.getEncoding().getProfile(),
+            HlsEncodingCommandBuilder.describe(profile),
+            encodingCommandBuilder.segmentFormat(),
+            probe.frameRate(),
+            renditions.size()
         );
 
-        for (Variant variant : variants) {
-            Path variantDir = outputDir.resolve("v" + variant.label());
-            Files.createDirectories(variantDir);
-            List<String> command = new ArrayList<>();
-            command.add(properties.getFfmpegPath());
-            command.add("-y");
-            command.add("-i");
-            command.add(input.toString());
-            command.add("-vf");
-            command.add("scale=-2:" + variant.height());
-            command.add("-c:v");
-            command.add("h264");
-            command.add("-preset");
-            command.add("veryfast");
-            command.add("-b:v");
-            command.add(variant.bitrateKbps() + "k");
-            command.add("-maxrate");
-            command.add((int) (variant.bitrateKbps() * 1.07) + "k");
-            command.add("-bufsize");
-            command.add((variant.bitrateKbps() * 2) + "k");
-            command.add("-g");
-            command.add("48");
-            command.add("-keyint_min");
-            command.add("48");
-            command.add("-sc_threshold");
-            command.add("0");
-            if (hasAudio) {
-                command.add("-c:a");
-                command.add("aac");
-                command.add("-b:a");
-                command.add("128k");
-                command.add("-ar");
-                command.add("48000");
-            } else {
-                command.add("-an");
+        for (int index = 0; index < renditions.size(); index++) {
+            HlsRendition rendition = renditions.get(index);
+            int renditionIndex = index;
+            Path renditionDir = outputDir.resolve(rendition.directoryName());
+            Files.createDirectories(renditionDir);
+            List<String> command = encodingCommandBuilder.buildCommand(profile, probe, rendition, input, renditionDir, hlsTimeSeconds);
+
+            MediaProcessResult result = processRunner.run(
+                MediaProcessRequest.of(command, "ffmpeg").withProgressListener(progress -> progressTracker.encoding(
+                    jobId,
+                    renditionIndex,
+                    renditions.size(),
+                    progress.outTimeMs(),
+                    durationMs,
+                    progress.speed()
+                ))
+            );
+            if (result.lastProgress() != null) {
+                log.info("TIMING ffmpeg variant {} speed {}x", rendition.label(), result.lastProgress().speed());
             }
-            command.add("-hls_time");
-            command.add(String.valueOf(hlsTimeSeconds));
-            command.add("-hls_playlist_type");
-            command.add("vod");
-            command.add("-hls_segment_filename");
-            command.add(variantDir.resolve("seg_%03d.ts").toString());
-            command.add(variantDir.resolve("index.m3u8").toString());
-
-            runProcess(command, "ffmpeg");
         }
 
-        writeMasterPlaylist(outputDir, variants);
-    }
-
-    /**
-     * Handles write master playlist.
-     */
-    private void writeMasterPlaylist(Path outputDir, List<Variant> variants) throws IOException {
-        List<String> lines = new ArrayList<>();
-        lines.add("#EXTM3U");
-        lines.add("#EXT-X-VERSION:3");
-        for (Variant variant : variants) {
-            int bandwidth = variant.bitrateKbps() * 1000;
-            int width = switch (variant.height()) {
-                case 1080 -> 1920;
-                case 720 -> 1280;
-                default -> 1280;
-            };
-            lines.add("#EXT-X-STREAM-INF:BANDWIDTH=" + bandwidth + ",RESOLUTION=" + width + "x" + variant.height());
-            lines.add("v" + variant.label() + "/index.m3u8");
-        }
-        Files.write(outputDir.resolve("master.m3u8"), lines, StandardCharsets.UTF_8);
+        Files.write(
+            outputDir.resolve("master.m3u8"),
+            encodingCommandBuilder.masterPlaylist(renditions, probe),
+            StandardCharsets.UTF_8
+        );
     }
 
     /**
@@ -481,38 +554,73 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
         return poster;
     }
 
+    /**
+     * Renders resized, metadata-free variants of an image into {@code outputDir} and returns the
+     * widths written. Returns an empty list when derivatives are disabled or ffmpeg cannot decode
+     * the source, so callers fall back to the original file.
+     */
+    private List<Integer> deriveImageVariants(Path input, Path outputDir, ImageFormat fallback) throws InterruptedException {
+        if (!imageDerivatives.isEnabled() || input == null || !Files.exists(input)) {
+            return List.of();
+        }
+        try {
+            MediaProbe probe = probeMedia(input);
+            List<Integer> widths = imageDerivatives.targetWidths(probe.width());
+            Files.createDirectories(outputDir);
+            runProcess(imageDerivatives.buildCommand(input, outputDir, widths, fallback), "ffmpeg-image");
+            return widths;
+        } catch (IOException ex) {
+            log.warn("Image derivatives failed for {}, keeping the original: {}", input.getFileName(), ex.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Uploads every variant written by {@link #deriveImageVariants} under {@code prefix}.
+     */
+    private void uploadImageVariants(String bucket, String prefix, Path variantDir, List<Integer> widths, ImageFormat fallback)
+        throws IOException {
+        for (ImageVariant variant : imageDerivatives.variants(widths, fallback)) {
+            storageClient.uploadObject(
+                bucket,
+                prefix + "/" + variant.filename(),
+                Files.readAllBytes(variantDir.resolve(variant.filename())),
+                variant.format().contentType(),
+                CACHE_CONTROL_IMAGE
+            );
+        }
+    }
+
+    /**
+     * Returns the thumbnail URL for a video poster, preferring a sized variant when one exists.
+     */
+    private String posterThumbnailUrl(String bucket, UUID id, List<Integer> posterWidths) {
+        String prefix = "thumbs/" + id;
+        if (posterWidths.isEmpty()) {
+            return publicObjectUrl(bucket, prefix + "/poster.jpg");
+        }
+        return ImageVariantUrls.withManifest(
+            publicObjectUrl(bucket, prefix),
+            imageDerivatives.thumbnailWidth(posterWidths),
+            ImageFormat.JPEG,
+            posterWidths
+        );
+    }
+
+    /**
+     * Builds the public storage URL of an object.
+     */
+    private String publicObjectUrl(String bucket, String objectPath) {
+        return normalizeBaseUrl() + "/storage/v1/object/public/" + bucket + "/" + objectPath;
+    }
+
     /**
      * Handles probe media.
      */
     private MediaProbe probeMedia(Path input) throws IOException, InterruptedException {
-        List<String> command = List.of(
-            properties.getFfprobePath(),
-            "-v",
-            "error",
-            "-print_format",
-            "json",
-            "-show_format",
-            "-show_streams",
-            input.toString()
-        );
-        ProcessResult result = runProcess(command, "ffprobe");
-        JsonNode root = OBJECT_MAPPER.readTree(result.output());
-        JsonNode format = root.path("format");
-        int durationSeconds = (int) Math.round(format.path("duration").asDouble(0));
-        boolean hasAudio = false;
-        int width = 0;
-        int height = 0;
-        for (JsonNode stream : root.path("streams")) {
-            String codecType = stream.path("codec_type").asText();
-            if ("video".equals(codecType) && width == 0) {
-                width = stream.path("width").asInt(0);
-                height = stream.path("height").asInt(0);
-            }
-            if ("audio".equals(codecType)) {
-                hasAudio = true;
-            }
-        }
-        return new MediaProbe(durationSeconds, width, height, hasAudio);
+        List<String> command = MediaProbe.ffprobeCommand(properties.getFfprobePath(), input);
+        MediaProcessResult result = runJsonProcess(command, "ffprobe", probeTimeout());
+        return MediaProbe.fromFfprobeJson(OBJECT_MAPPER.readTree(result.output()));
     }
 
     /**
@@ -538,30 +646,31 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
                 .filter(path -> !Files.isDirectory(path))
                 .filter(path -> {
                     String filename = outputDir.relativize(path).toString().replace("\\", "/");
-                    return !"master.m3u8".equals(filename) && !"poster.jpg".equals(filename);
+                    return !"master.m3u8".equals(filename)
+                        && !"poster.jpg".equals(filename)
+                        && !filename.startsWith(POSTER_VARIANTS_DIR + "/");
                 })
                 .toList();
         }
 
         int concurrency = 8;
         log.info("TIMING content {} upload files {} with concurrency {}", contentId, files.size(), concurrency);
+        AtomicInteger uploaded = new AtomicInteger();
+        progressTracker.uploading(contentId, 0, files.size());
         java.util.concurrent.ExecutorService executor = java.util.concurrent.Executors.newFixedThreadPool(concurrency);
         List<java.util.concurrent.Future<Void>> futures = new java.util.ArrayList<>();
         for (Path path : files) {
             futures.add(executor.submit(() -> {
                 String filename = outputDir.relativize(path).toString().replace("\\", "/");
                 String targetPath = "hls/" + contentId + "/" + filename;
-                String contentType = filename.endsWith(".m3u8") ? "application/x-mpegURL"
-                    : filename.endsWith(".ts") ? "video/MP2T"
-                    : filename.endsWith(".jpg") ? "image/jpeg"
-                    : "application/octet-stream";
                 storageClient.uploadObject(
                     bucket,
                     targetPath,
                     Files.readAllBytes(path),
-                    contentType,
+                    contentTypeForFilename(filename),
                     cacheControlForFilename(filename)
                 );
+                progressTracker.uploading(contentId, uploaded.incrementAndGet(), files.size());
                 return null;
             }));
         }
@@ -612,25 +721,26 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
                 .filter(path -> !Files.isDirectory(path))
                 .filter(path -> {
                     String filename = outputDir.relativize(path).toString().replace("\\", "/");
-                    return !"master.m3u8".equals(filename) && !"poster.jpg".equals(filename);
+                    return !"master.m3u8".equals(filename)
+                        && !"poster.jpg".equals(filename)
+                        && !filename.startsWith(POSTER_VARIANTS_DIR + "/");
                 })
                 .toList();
         }
 
+        int uploaded = 0;
+        progressTracker.uploading(assetId, 0, files.size());
         for (Path path : files) {
             String filename = outputDir.relativize(path).toString().replace("\\", "/");
             String targetPath = "hls/" + assetId + "/" + filename;
-            String contentType = filename.endsWith(".m3u8") ? "application/x-mpegURL"
-                : filename.endsWith(".ts") ? "video/MP2T"
-                : filename.endsWith(".jpg") ? "image/jpeg"
-                : "application/octet-stream";
             storageClient.uploadObject(
                 bucket,
                 targetPath,
                 Files.readAllBytes(path),
-                contentType,
+                contentTypeForFilename(filename),
                 cacheControlForFilename(filename)
             );
+            progressTracker.uploading(assetId, ++uploaded, files.size());
         }
 
         if (posterPath != null && Files.exists(posterPath)) {
@@ -645,22 +755,26 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
     }
 
     /**
-     * Handles choose segment duration.
+     * Returns the storage content type for an HLS output file.
      */
-    private int chooseSegmentDuration(int durationSeconds) {
-        if (durationSeconds <= 0) {
-            return 4;
+    private String contentTypeForFilename(String filename) {
+        String lower = filename.toLowerCase();
+        if (lower.endsWith(".m3u8")) {
+            return "application/x-mpegURL";
+        }
+        if (lower.endsWith(".ts")) {
+            return "video/MP2T";
         }
-        if (durationSeconds < 60) {
-            return 4;
+        if (lower.endsWith(".m4s")) {
+            return "video/iso.segment";
         }
-        if (durationSeconds < 300) {
-            return 6;
+        if (lower.endsWith(".mp4")) {
+            return "video/mp4";
         }
-        if (durationSeconds < 900) {
-            return 10;
+        if (lower.endsWith(".jpg")) {
+            return "image/jpeg";
         }
-        return 15;
+        return "application/octet-stream";
     }
 
     /**
@@ -674,10 +788,10 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
         if (lower.endsWith(".m3u8")) {
             return CACHE_CONTROL_PLAYLIST;
         }
-        if (lower.endsWith(".ts")) {
+        if (lower.endsWith(".ts") || lower.endsWith(".m4s") || lower.endsWith(".mp4")) {
             return CACHE_CONTROL_SEGMENT;
         }
-        if (lower.endsWith(".jpg") || lower.endsWith(".jpeg") || lower.endsWith(".png")) {
+        if (lower.endsWith(".jpg") || lower.endsWith(".jpeg") || lower.endsWith(".png") || lower.endsWith(".webp")) {
             return CACHE_CONTROL_IMAGE;
         }
         return CACHE_CONTROL_PLAYLIST;
@@ -686,11 +800,10 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
     /**
      * Handles mark ready.
      */
-    private void markReady(UUID contentId, MediaProbe probe) {
+    private void markReady(UUID contentId, MediaProbe probe, String posterUrl) {
         String publicUrlBase = normalizeBaseUrl();
         String bucket = supabaseProperties.getStorage().getContentMedia();
         String hlsUrl = publicUrlBase + "/storage/v1/object/public/" + bucket + "/hls/" + contentId + "/master.m3u8";
-        String posterUrl = publicUrlBase + "/storage/v1/object/public/" + bucket + "/thumbs/" + contentId + "/poster.jpg";
 
         patchContentSafely(
             contentId,
@@ -743,11 +856,10 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
     /**
      * Handles mark lesson video ready.
      */
-    private void markLessonVideoReady(UUID assetId, MediaProbe probe) {
+    private void markLessonVideoReady(UUID assetId, MediaProbe probe, String posterUrl) {
         String publicUrlBase = normalizeBaseUrl();
         String bucket = lessonMediaBucket();
         String playbackUrl = publicUrlBase + "/storage/v1/object/public/" + bucket + "/hls/" + assetId + "/master.m3u8";
-        String posterUrl = publicUrlBase + "/storage/v1/object/public/" + bucket + "/thumbs/" + assetId + "/poster.jpg";
 
         Map<String, Object> patch = new LinkedHashMap<>();
         patch.put("status", "ready");
@@ -932,7 +1044,7 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
         command.add("--no-progress");
         command.add("--no-playlist");
         command.add(url);
-        ProcessResult result = runProcess(command, "yt-dlp-info");
+        MediaProcessResult result = runJsonProcess(command, "yt-dlp-info", downloadTimeout());
         JsonNode root = parseJsonFromYtDlpOutput(result.output());
         int duration = root.path("duration").asInt(0);
         return new YtDlpInfo(duration);
@@ -941,8 +1053,16 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
     /**
      * Handles download with yt dlp.
      */
-    private void downloadWithYtDlp(String url, Path output) throws IOException, InterruptedException {
-        runProcess(buildYtDlpDownloadCommand(url, output), "yt-dlp-download");
+    private void downloadWithYtDlp(UUID jobId, String url, Path output) throws IOException, InterruptedException {
+        processRunner.run(
+            MediaProcessRequest.of(buildYtDlpDownloadCommand(url, output), "yt-dlp-download")
+                .withTimeout(downloadTimeout())
+                .withProgressListener(progress -> {
+                    if (progress.downloadPercent() >= 0) {
+                        progressTracker.downloading(jobId, progress.downloadPercent());
+                    }
+                })
+        );
     }
 
     /**
@@ -952,6 +1072,7 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
         List<String> command = new ArrayList<>();
         command.add(properties.getYtdlpPath());
         command.add("--no-playlist");
+        command.add("--newline");
         String ffmpegLocation = resolveExecutableDirectory(properties.getFfmpegPath());
         if (ffmpegLocation != null) {
             command.add("--ffmpeg-location");
@@ -996,7 +1117,7 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
         }
         try {
             List<String> command = List.of(properties.getYtdlpPath(), "-U");
-            runProcess(command, "yt-dlp-update");
+            processRunner.run(MediaProcessRequest.of(command, "yt-dlp-update").withTimeout(downloadTimeout()));
         } catch (Exception ex) {
             String message = ex.getMessage() == null ? "" : ex.getMessage();
             if (looksLikePipManagedYtDlp(message) && tryPipUpdateYtDlp()) {
@@ -1030,7 +1151,7 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
         );
         for (List<String> command : commands) {
             try {
-                runProcess(command, "yt-dlp-update-pip");
+                processRunner.run(MediaProcessRequest.of(command, "yt-dlp-update-pip").withTimeout(downloadTimeout()));
                 return true;
             } catch (Exception ex) {
                 log.debug("yt-dlp pip update command failed: {}", command, ex);
@@ -1042,22 +1163,31 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
     /**
      * Handles run process.
      */
-    private ProcessResult runProcess(List<String> command, String label) throws IOException, InterruptedException {
-        ProcessBuilder builder = new ProcessBuilder(command);
-        builder.redirectErrorStream(true);
-        Process process = builder.start();
-        StringBuilder output = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                output.append(line).append("\n");
-            }
-        }
-        int exit = process.waitFor();
-        if (exit != 0) {
-            throw new IOException(label + " failed: " + output.toString().trim());
+    private MediaProcessResult runProcess(List<String> command, String label) throws IOException, InterruptedException {
+        return processRunner.run(MediaProcessRequest.of(command, label));
+    }
+
+    /**
+     * Runs a tool whose output is parsed as JSON, keeping enough output to hold the whole document.
+     */
+    private MediaProcessResult runJsonProcess(List<String> command, String label, Duration timeout)
+        throws IOException, InterruptedException {
+        int jsonLimitBytes = Math.max(1, properties.getProcess().getJsonOutputKb()) * 1024;
+        MediaProcessResult result = processRunner.run(
+            MediaProcessRequest.of(command, label).withTimeout(timeout).withOutputLimitBytes(jsonLimitBytes)
+        );
+        if (result.outputTruncated()) {
+            throw new IOException(label + " output exceeded " + jsonLimitBytes + " bytes");
         }
-        return new ProcessResult(exit, output.toString());
+        return result;
+    }
+
+    private Duration probeTimeout() {
+        return Duration.ofSeconds(properties.getProcess().getProbeTimeoutSeconds());
+    }
+
+    private Duration downloadTimeout() {
+        return Duration.ofSeconds(properties.getProcess().getDownloadTimeoutSeconds());
     }
 
     /**
@@ -1122,6 +1252,9 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
         if (lower.contains("upload_too_large")) {
             return "UPLOAD_TOO_LARGE";
         }
+        if (lower.contains("timed out after")) {
+            return "PROCESSING_TIMEOUT";
+        }
         return "PROCESSING_FAILED";
     }
 
@@ -1147,14 +1280,8 @@ public class MediaProcessingServiceImpl implements MediaProcessingService {
         }
     }
 
-    private record Variant(String label, int height, int bitrateKbps) {}
-
-    private record MediaProbe(int durationSeconds, int width, int height, boolean hasAudio) {}
-
     private record YtDlpInfo(int durationSeconds) {}
 
-    private record ProcessResult(int exitCode, String output) {}
-
     /**
      * Handles elapsed seconds.
      */
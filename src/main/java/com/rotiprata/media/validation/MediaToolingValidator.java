@@ -1,10 +1,11 @@
 package com.rotiprata.media.validation;
 
 import com.rotiprata.config.MediaProcessingProperties;
+import com.rotiprata.media.process.MediaProcessRequest;
+import com.rotiprata.media.process.MediaProcessResult;
+import com.rotiprata.media.process.MediaProcessRunner;
 import jakarta.annotation.PostConstruct;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,10 +15,14 @@ import org.springframework.stereotype.Component;
 public class MediaToolingValidator {
     private static final Logger log = LoggerFactory.getLogger(MediaToolingValidator.class);
 
+    private static final Duration VERSION_CHECK_TIMEOUT = Duration.ofSeconds(30);
+
     private final MediaProcessingProperties properties;
+    private final MediaProcessRunner processRunner;
 
-    public MediaToolingValidator(MediaProcessingProperties properties) {
+    public MediaToolingValidator(MediaProcessingProperties properties, MediaProcessRunner processRunner) {
         this.properties = properties;
+        this.processRunner = processRunner;
     }
 
     @PostConstruct
@@ -33,30 +38,19 @@ public class MediaToolingValidator {
     }
 
     private void assertExecutable(String binary, List<String> args, String name) {
+        MediaProcessResult result;
         try {
-            ProcessBuilder builder = new ProcessBuilder();
-            builder.command(buildCommand(binary, args));
-            builder.redirectErrorStream(true);
-            Process process = builder.start();
-            StringBuilder output = new StringBuilder();
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    output.append(line).append('\n');
-                }
-            }
-            int exit = process.waitFor();
-            if (exit != 0) {
-                failStartup(name + " failed to run. Output: " + output.toString().trim());
-                return;
-            }
-            log.info("{} available: {}", name, firstLine(output.toString()));
+            result = processRunner.run(
+                MediaProcessRequest.of(buildCommand(binary, args), name).withTimeout(VERSION_CHECK_TIMEOUT)
+            );
         } catch (Exception ex) {
             failStartup(
                 "Missing or invalid " + name + " executable. Set " + envHint(name)
                     + " or install the binary. Root error: " + ex.getMessage()
             );
+            return;
         }
+        log.info("{} available: {}", name, firstLine(result.output()));
     }
 
     private List<String> buildCommand(String binary, List<String> args) {
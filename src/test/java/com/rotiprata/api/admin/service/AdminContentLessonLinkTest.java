@@ -5,7 +5,10 @@ import com.rotiprata.api.content.domain.Content;
 import com.rotiprata.api.content.service.ContentCreatorEnrichmentService;
 import com.rotiprata.api.content.service.ContentService;
 import com.rotiprata.api.feed.service.ContentLessonLinkService;
+import com.rotiprata.api.user.service.LeaderboardEngine;
 import com.rotiprata.api.user.service.UserService;
+import com.rotiprata.infrastructure.supabase.PostgrestQuery;
+import com.rotiprata.infrastructure.supabase.SupabaseBatchFetcher;
 import com.rotiprata.security.authorization.AppRole;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminClient;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminRestClient;
@@ -50,6 +53,9 @@ class AdminContentLessonLinkTest {
     @Mock
     private AdminLoggingService adminLoggingService;
 
+    @Mock
+    private LeaderboardEngine leaderboardEngine;
+
     private AdminServiceImpl adminService;
     private UUID adminUserId;
     private UUID contentId;
@@ -66,7 +72,9 @@ class AdminContentLessonLinkTest {
             contentService,
             contentLessonLinkService,
             userService,
-            adminLoggingService
+            adminLoggingService,
+            new SupabaseBatchFetcher(PostgrestQuery.DEFAULT_IN_CHUNK_SIZE, Runnable::run),
+            leaderboardEngine
         );
         adminUserId = UUID.randomUUID();
         contentId = UUID.randomUUID();
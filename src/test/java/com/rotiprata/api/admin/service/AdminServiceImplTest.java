@@ -3,7 +3,10 @@ package com.rotiprata.api.admin.service;
 import com.rotiprata.api.content.service.ContentCreatorEnrichmentService;
 import com.rotiprata.api.content.service.ContentService;
 import com.rotiprata.api.feed.service.ContentLessonLinkService;
+import com.rotiprata.api.user.service.LeaderboardEngine;
 import com.rotiprata.api.user.service.UserService;
+import com.rotiprata.infrastructure.supabase.PostgrestQuery;
+import com.rotiprata.infrastructure.supabase.SupabaseBatchFetcher;
 import com.rotiprata.security.authorization.AppRole;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminClient;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminRestClient;
@@ -70,6 +73,9 @@ class AdminServiceImplTest {
     @Mock
     private AdminLoggingService adminLoggingService;
 
+    @Mock
+    private LeaderboardEngine leaderboardEngine;
+
     private AdminServiceImpl adminService;
     private UUID adminUserId;
     private UUID contentId;
@@ -86,7 +92,9 @@ class AdminServiceImplTest {
             contentService,
             contentLessonLinkService,
             userService,
-            adminLoggingService
+            adminLoggingService,
+            new SupabaseBatchFetcher(PostgrestQuery.DEFAULT_IN_CHUNK_SIZE, Runnable::run),
+            leaderboardEngine
         );
         adminUserId = UUID.randomUUID();
         contentId = UUID.randomUUID();
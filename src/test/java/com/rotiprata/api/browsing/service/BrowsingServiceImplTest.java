@@ -4,7 +4,10 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.rotiprata.api.browsing.dto.ContentSearchDTO;
 import com.rotiprata.api.browsing.dto.GetHistoryDTO;
 import com.rotiprata.api.browsing.dto.SaveHistoryDTO;
+import com.rotiprata.api.browsing.dto.SearchPageResponse;
+import com.rotiprata.api.content.dto.ContentSearchHit;
 import com.rotiprata.api.content.service.ContentService;
+import com.rotiprata.api.lesson.dto.LessonCardResponse;
 import com.rotiprata.api.lesson.service.LessonService;
 import com.rotiprata.infrastructure.supabase.SupabaseRestClient;
 
@@ -12,14 +15,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.lang.reflect.Method;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -40,7 +45,6 @@ class BrowsingServiceImplTest {
     @Mock
     private SupabaseRestClient supabaseRestClient;
 
-    @InjectMocks
     private BrowsingServiceImpl service;
 
     /**
@@ -49,6 +53,7 @@ class BrowsingServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this); // Initialize mocks before each test
+        service = new BrowsingServiceImpl(contentService, lessonService, supabaseRestClient, Runnable::run);
     }
 
     // ===== SEARCH =====
@@ -56,10 +61,10 @@ class BrowsingServiceImplTest {
     // Should return all content and lessons when no filter is applied
     void search_ShouldReturnAllResults_WhenFilterIsEmpty() {
         // Arrange: mock content and lesson search results
-        when(contentService.getFilteredContent(anyString(), isNull(), anyString()))
-                .thenReturn(List.of(new ContentSearchDTO("1", "video", "title1", "desc1", "snippet1")));
+        when(contentService.searchVideosByText("query", "token"))
+                .thenReturn(List.of(videoHit("1", "title1", "desc1", List.of(), 0)));
         when(lessonService.searchLessons(anyString(), anyString()))
-                .thenReturn(List.of(Map.of("id", "2", "title", "lessonTitle", "description", "lessonDesc")));
+                .thenReturn(List.of(lessonCard("lessonTitle", "lessonDesc")));
 
         // Act: perform search with empty filter
         List<ContentSearchDTO> results = service.search("query", "", "token");
@@ -69,8 +74,9 @@ class BrowsingServiceImplTest {
         assertTrue(results.stream().anyMatch(r -> r.content_type().equals("video")));
         assertTrue(results.stream().anyMatch(r -> r.content_type().equals("lesson")));
 
-        // Verify: services called exactly once
-        verify(contentService, times(1)).getFilteredContent(anyString(), isNull(), anyString());
+        // Verify: every source queried exactly once
+        verify(contentService, times(1)).searchVideosByText("query", "token");
+        verify(contentService, times(1)).searchVideosByTag("query", "token");
         verify(lessonService, times(1)).searchLessons(anyString(), anyString());
     }
 
@@ -81,8 +87,8 @@ class BrowsingServiceImplTest {
     // Should return only video results when filter is "video"
     void search_ShouldReturnOnlyVideos_WhenFilterIsVideo() {
         // Arrange: mock video content only
-        when(contentService.getFilteredContent(anyString(), eq("video"), anyString()))
-                .thenReturn(List.of(new ContentSearchDTO("1", "video", "title1", "desc1", "snippet1")));
+        when(contentService.searchVideosByText("query", "token"))
+                .thenReturn(List.of(videoHit("1", "title1", "desc1", List.of(), 0)));
 
         // Act: search with video filter
         List<ContentSearchDTO> results = service.search("query", "video", "token");
@@ -91,8 +97,8 @@ class BrowsingServiceImplTest {
         assertEquals(1, results.size());
         assertEquals("video", results.get(0).content_type());
 
-        // Verify service call
-        verify(contentService, times(1)).getFilteredContent(anyString(), eq("video"), anyString());
+        // Verify lesson service was not called
+        verifyNoInteractions(lessonService);
     }
 
     /**
@@ -103,7 +109,7 @@ class BrowsingServiceImplTest {
     void search_ShouldReturnOnlyLessons_WhenFilterIsLesson() {
         // Arrange: mock lesson search only
         when(lessonService.searchLessons(anyString(), anyString()))
-                .thenReturn(List.of(Map.of("id", "2", "title", "lessonTitle", "description", "lessonDesc")));
+                .thenReturn(List.of(lessonCard("lessonTitle", "lessonDesc")));
 
         // Act: search with lesson filter
         List<ContentSearchDTO> results = service.search("query", "lesson", "token");
@@ -113,8 +119,119 @@ class BrowsingServiceImplTest {
         assertEquals("lesson", results.get(0).content_type());
         assertEquals("lessonTitle", results.get(0).title());
 
-        // Verify lesson service was called
+        // Verify lesson service was called and content service was not
         verify(lessonService, times(1)).searchLessons(anyString(), anyString());
+        verifyNoInteractions(contentService);
+    }
+
+    /**
+     * Verifies that search should merge duplicate video hits and rank title matches above tag and body matches.
+     */
+    @Test
+    // Should rank across sources on one score and dedupe videos found by text and tag
+    void search_ShouldRankAcrossSources_WhenSourcesOverlap() {
+        // Arrange: a video found by both lookups, a tag-only video and a body-only lesson
+        when(contentService.searchVideosByText("rizz", "token"))
+                .thenReturn(List.of(videoHit("v1", "Peak rizz", "desc", List.of(), 10)));
+        when(contentService.searchVideosByTag("rizz", "token"))
+                .thenReturn(List.of(
+                        videoHit("v1", "Peak rizz", "desc", List.of("rizz"), 10),
+                        videoHit("v2", "Smooth talk", "desc", List.of("rizzler"), 10)
+                ));
+        when(lessonService.searchLessons("rizz", "token"))
+                .thenReturn(List.of(lessonCard("Charisma", "Also known as rizz")));
+
+        // Act: search without a filter
+        List<ContentSearchDTO> results = service.search("rizz", null, "token");
+
+        // Assert: title match first, then tag match, then body match
+        assertEquals(List.of("v1", "v2"), results.subList(0, 2).stream().map(ContentSearchDTO::id).toList());
+        assertEquals("lesson", results.get(2).content_type());
+        assertEquals(3, results.size());
+    }
+
+    /**
+     * Verifies that search should keep a lesson the index matched even when its text shares no exact term with the query.
+     */
+    @Test
+    // Should score index-matched lessons at least like a body match
+    void search_ShouldKeepIndexRelevance_WhenLessonMatchedByTypoOrSummary() {
+        // Arrange: a typo-matched lesson, a summary-only lesson and a body-matched video
+        when(contentService.searchVideosByText("rizz", "token"))
+                .thenReturn(List.of(videoHit("v1", "Smooth talk", "Pure rizz", List.of(), 0)));
+        when(contentService.searchVideosByTag("rizz", "token")).thenReturn(List.of());
+        LessonCardResponse typo = lessonCard("Rizzler basics", "Charm");
+        LessonCardResponse summaryOnly = new LessonCardResponse(
+                UUID.randomUUID(), "Charisma", "Talking to people", "Also known as rizz", null, null, null, null,
+                null, null, null, true, null, null
+        );
+        when(lessonService.searchLessons("rizz", "token")).thenReturn(List.of(typo, summaryOnly));
+
+        // Act: search without a filter
+        List<ContentSearchDTO> results = service.search("rizz", null, "token");
+
+        // Assert: the prefix-titled lesson leads and the summary match ties the video's body match
+        assertEquals(typo.id().toString(), results.get(0).id());
+        assertEquals(summaryOnly.id().toString(), results.get(1).id());
+        assertEquals("Talking to people", results.get(1).description());
+        assertEquals("v1", results.get(2).id());
+    }
+
+    /**
+     * Verifies that search page should continue after the cursor without repeating or skipping results.
+     */
+    @Test
+    // Should page through ranked results with a keyset cursor
+    void searchPage_ShouldContinueAfterCursor_WhenCursorIsProvided() {
+        // Arrange: three equally relevant lessons
+        when(lessonService.searchLessons("slay", "token"))
+                .thenReturn(List.of(lessonCard("Slay", "a"), lessonCard("Slay", "b"), lessonCard("Slay", "c")));
+
+        // Act: fetch two pages of two
+        SearchPageResponse first = service.searchPage("slay", "lesson", null, 2, "token");
+        SearchPageResponse second = service.searchPage("slay", "lesson", first.nextCursor(), 2, "token");
+
+        // Assert: pages are disjoint and cover every result
+        assertEquals(2, first.items().size());
+        assertTrue(first.hasMore());
+        assertEquals(1, second.items().size());
+        assertFalse(second.hasMore());
+        assertNull(second.nextCursor());
+        assertEquals(
+                service.search("slay", "lesson", "token"),
+                List.of(first.items().get(0), first.items().get(1), second.items().get(0))
+        );
+    }
+
+    /**
+     * Verifies that search page should reject a malformed cursor.
+     */
+    @Test
+    // Should return 400 when the cursor cannot be decoded
+    void searchPage_ShouldThrowBadRequest_WhenCursorIsInvalid() {
+        // Act & Assert: malformed cursor rejected before any lookup
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> service.searchPage("slay", null, "not-a-cursor", 10, "token"));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+
+        // Verify no source was queried
+        verifyNoInteractions(contentService, lessonService);
+    }
+
+    /**
+     * Verifies that search should surface a failing source's exception unchanged.
+     */
+    @Test
+    // Should rethrow the original exception when a parallel lookup fails
+    void search_ShouldRethrowSourceFailure_WhenVideoLookupFails() {
+        // Arrange: tag lookup fails
+        ResponseStatusException failure = new ResponseStatusException(HttpStatus.BAD_GATEWAY, "down");
+        when(contentService.searchVideosByTag("query", "token")).thenThrow(failure);
+
+        // Act & Assert: same exception surfaces
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> service.search("query", "video", "token"));
+        assertSame(failure, ex);
     }
 
     // ===== SAVE HISTORY =====
@@ -326,4 +443,15 @@ class BrowsingServiceImplTest {
         // Assert: returns null
         assertNull(result);
     }
+
+    private ContentSearchHit videoHit(String id, String title, String description, List<String> tags, long views) {
+        return new ContentSearchHit(id, title, description, tags, views, 0);
+    }
+
+    private LessonCardResponse lessonCard(String title, String description) {
+        return new LessonCardResponse(
+                UUID.randomUUID(), title, description, null, null, null, null, null,
+                null, null, null, true, null, null
+        );
+    }
 }
@@ -0,0 +1,68 @@
+package com.rotiprata.api.browsing.service;
+
+import com.rotiprata.api.browsing.service.SearchRanking.Candidate;
+import com.rotiprata.api.browsing.service.SearchRanking.Ranked;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers field weighting, phrase bonus and popularity tie-breaking for the shared search ranking.
+ */
+class SearchRankingTest {
+
+    /**
+     * Verifies that rank should order title, tag and body matches by field weight.
+     */
+    @Test
+    void rank_ShouldPreferTitleThenTagThenBody_WhenTermMatchesDifferentFields() {
+        // arrange
+        SearchRanking ranking = new SearchRanking("slay");
+        Candidate body = new Candidate("lesson", "1", "Exam tips", "She slayed it", List.of(), 0);
+        Candidate tag = new Candidate("video", "2", "Exam tips", null, List.of("slay"), 0);
+        Candidate title = new Candidate("video", "3", "Slaying", null, List.of(), 0);
+
+        // act
+        List<Ranked> ranked = ranking.rank(List.of(body, tag, title));
+
+        // assert
+        assertEquals(List.of(title, tag, body), ranked.stream().map(Ranked::candidate).toList());
+    }
+
+    /**
+     * Verifies that score should add a phrase bonus and break ties by popularity.
+     */
+    @Test
+    void score_ShouldRewardPhraseAndPopularity_WhenRelevanceIsOtherwiseEqual() {
+        // arrange
+        SearchRanking ranking = new SearchRanking("no cap");
+        Candidate phrase = new Candidate("lesson", "1", "No cap", null, List.of(), 0);
+        Candidate scattered = new Candidate("lesson", "2", "Cap or no", null, List.of(), 0);
+        Candidate popular = new Candidate("lesson", "3", "No cap", null, List.of(), 1_000);
+
+        // act & assert
+        assertTrue(ranking.score(phrase) > ranking.score(scattered));
+        assertTrue(ranking.score(popular) > ranking.score(phrase));
+        assertEquals(0.0, new SearchRanking("").score(phrase));
+    }
+
+    /**
+     * Verifies that score should count summary matches and floor index-matched candidates at a body match.
+     */
+    @Test
+    void score_ShouldMatchBodyWeight_WhenOnlySummaryOrIndexMatches() {
+        // arrange
+        SearchRanking ranking = new SearchRanking("rizz");
+        Candidate body = new Candidate("video", "1", "Charm", "Pure rizz", List.of(), 0);
+        Candidate summary = new Candidate("lesson", "2", "Charm", null, "Also known as rizz", List.of(), 0, false);
+        Candidate typo = new Candidate("lesson", "3", "Charm", "Ryzz", null, List.of(), 0, true);
+        Candidate unmatched = new Candidate("lesson", "4", "Charm", "Ryzz", null, List.of(), 0, false);
+
+        // act & assert
+        assertEquals(ranking.score(body), ranking.score(summary));
+        assertEquals(ranking.score(body), ranking.score(typo));
+        assertEquals(0.0, ranking.score(unmatched));
+    }
+}
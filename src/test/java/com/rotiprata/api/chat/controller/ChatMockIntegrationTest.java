@@ -65,7 +65,7 @@ class ChatControllerMockIntegrationTest {
     @Test
     void chat_ShouldReturnReply_WhenQuestionIsValid() {
         //arrange
-        when(chatService.ask("mocked-jwt-token", "What is Roti Prata?"))
+        when(chatService.ask("mocked-jwt-token", "user-123", "What is Roti Prata?"))
             .thenReturn("Roti Prata is a flaky flatbread.");
 
         //act
@@ -82,7 +82,7 @@ class ChatControllerMockIntegrationTest {
 
         //verify
         verify(chatRateLimiter).consumeOrThrow("user-123");
-        verify(chatService).ask("mocked-jwt-token", "What is Roti Prata?");
+        verify(chatService).ask("mocked-jwt-token", "user-123", "What is Roti Prata?");
     }
 
     /**
@@ -108,7 +108,7 @@ class ChatControllerMockIntegrationTest {
 
         //verify
         verify(chatRateLimiter, never()).consumeOrThrow(anyString());
-        verify(chatService, never()).ask(anyString(), anyString());
+        verify(chatService, never()).ask(anyString(), anyString(), anyString());
     }
 
     /**
@@ -135,7 +135,7 @@ class ChatControllerMockIntegrationTest {
 
         //verify
         verify(chatRateLimiter, never()).consumeOrThrow(anyString());
-        verify(chatService, never()).ask(anyString(), anyString());
+        verify(chatService, never()).ask(anyString(), anyString(), anyString());
     }
 
     /**
@@ -165,7 +165,7 @@ class ChatControllerMockIntegrationTest {
 
         //verify
         verify(chatRateLimiter).consumeOrThrow("user-123");
-        verify(chatService, never()).ask(anyString(), anyString());
+        verify(chatService, never()).ask(anyString(), anyString(), anyString());
     }
 
     /**
@@ -175,7 +175,7 @@ class ChatControllerMockIntegrationTest {
     @Test
     void chat_ShouldReturnInternalServerError_WhenChatServiceThrowsRuntimeException() {
         //arrange
-        when(chatService.ask("mocked-jwt-token", "hello"))
+        when(chatService.ask("mocked-jwt-token", "user-123", "hello"))
             .thenThrow(new RuntimeException("Chat backend unavailable"));
 
         //act
@@ -194,6 +194,6 @@ class ChatControllerMockIntegrationTest {
 
         //verify
         verify(chatRateLimiter).consumeOrThrow("user-123");
-        verify(chatService).ask("mocked-jwt-token", "hello");
+        verify(chatService).ask("mocked-jwt-token", "user-123", "hello");
     }
 }
@@ -1,12 +1,19 @@
 package com.rotiprata.api.chat.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.rotiprata.api.chat.dto.ChatHistoryPageResponse;
 import com.rotiprata.api.chat.dto.ChatbotMessageDTO;
+import com.rotiprata.api.generalutils.EmbeddingService;
 import com.rotiprata.api.exception.ChatServiceException;
+import com.rotiprata.api.lesson.dto.RelevantLessonContext;
 import com.rotiprata.api.lesson.service.LessonService;
+import com.rotiprata.config.ChatAnswerCacheProperties;
 import com.rotiprata.infrastructure.supabase.SupabaseRestClient;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -21,12 +28,18 @@ import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.model.Generation;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -48,6 +61,9 @@ class ChatServiceImplTest {
     @Mock
     private ModerationService moderationService;
 
+    @Mock
+    private EmbeddingService embeddingService;
+
     @Mock
     private ChatResponse chatResponse;
 
@@ -57,11 +73,30 @@ class ChatServiceImplTest {
     @Mock
     private AssistantMessage assistantMessage;
 
+    private static final String USER_ID = "user-1";
+
     private ChatServiceImpl service;
 
+    /**
+     * Returns retrieved lesson context from one lesson whose version follows its text.
+     */
+    private static RelevantLessonContext lessons(String context) {
+        return new RelevantLessonContext(context, List.of("lesson-1:" + Integer.toHexString(context.hashCode())));
+    }
+
     @BeforeEach
     void setUp() {
-        service = new ChatServiceImpl(openAiChatModel, lessonService, supabaseRestClient, moderationService);
+        service = new ChatServiceImpl(
+            openAiChatModel,
+            lessonService,
+            supabaseRestClient,
+            moderationService,
+            embeddingService,
+            new ChatAnswerCacheProperties(),
+            Runnable::run,
+            Runnable::run
+        );
+        lenient().when(lessonService.findRelevantLesson(any(), any())).thenReturn(lessons(""));
     }
 
     @Test
@@ -69,10 +104,9 @@ class ChatServiceImplTest {
     void ask_ShouldReturnModerationMessage_WhenQuestionIsFlagged() {
         when(moderationService.isFlagged("bad question")).thenReturn(true);
 
-        String result = service.ask("token", "bad question");
+        String result = service.ask("token", USER_ID, "bad question");
 
         assertEquals("Your question contains inappropriate content and cannot be processed.", result);
-        verify(lessonService, never()).findRelevantLesson(any(), any());
         verify(openAiChatModel, never()).call(any(Prompt.class));
         verify(supabaseRestClient, never()).postList(any(), any(), any(), ArgumentMatchers.<TypeReference<List<Map<String, Object>>>>any());
     }
@@ -84,7 +118,7 @@ class ChatServiceImplTest {
         // Arrange: Test that a safe question and assistant response are returned and both messages are saved
         when(moderationService.isFlagged("What is Newton's first law?")).thenReturn(false);
         when(lessonService.findRelevantLesson("token", "What is Newton's first law?"))
-            .thenReturn("Newton's first law is inertia.");
+            .thenReturn(lessons("Newton's first law is inertia."));
         when(openAiChatModel.call(any(Prompt.class))).thenReturn(chatResponse);
         when(chatResponse.getResult()).thenReturn(generation);
         when(generation.getOutput()).thenReturn(assistantMessage);
@@ -92,35 +126,33 @@ class ChatServiceImplTest {
         when(moderationService.isFlagged("An object keeps moving unless a force changes it.")).thenReturn(false);
 
         // Act
-        String result = service.ask("token", "What is Newton's first law?");
+        String result = service.ask("token", USER_ID, "What is Newton's first law?");
 
         // Assert response text
         assertEquals("An object keeps moving unless a force changes it.", result);
 
-        // Capture both calls to supabaseRestClient.postList
+        // Capture the single insert holding the whole turn
         ArgumentCaptor<List<ChatbotMessageDTO>> messagesCaptor = ArgumentCaptor.forClass(List.class);
-        verify(supabaseRestClient, times(2)).postList(
+        verify(supabaseRestClient).postList(
             eq("user_chatbot_history"),
             messagesCaptor.capture(),
             eq("token"),
             ArgumentMatchers.<TypeReference<List<Map<String, Object>>>>any()
         );
+        List<ChatbotMessageDTO> saved = messagesCaptor.getValue();
+        assertEquals(2, saved.size());
 
-        // Verify both saved messages
-        List<List<ChatbotMessageDTO>> captured = messagesCaptor.getAllValues();
-        assertEquals(2, captured.size());
-
-        // First call: user message
-        ChatbotMessageDTO userMessage = captured.get(0).get(0);
+        // User message first
+        ChatbotMessageDTO userMessage = saved.get(0);
         assertEquals("user", userMessage.getRole());
         assertEquals("What is Newton's first law?", userMessage.getMessage());
         assertNotNull(userMessage.getTimestamp());
 
-        // Second call: assistant message
-        ChatbotMessageDTO assistantSavedMessage = captured.get(1).get(0);
+        // Assistant message after it
+        ChatbotMessageDTO assistantSavedMessage = saved.get(1);
         assertEquals("assistant", assistantSavedMessage.getRole());
         assertEquals("An object keeps moving unless a force changes it.", assistantSavedMessage.getMessage());
-        assertNotNull(assistantSavedMessage.getTimestamp());
+        assertTrue(assistantSavedMessage.getTimestamp().isAfter(userMessage.getTimestamp()));
     }
 
     @Test
@@ -130,7 +162,7 @@ class ChatServiceImplTest {
         // Arrange: Test that flagged assistant responses return fallback message and both messages are saved
         when(moderationService.isFlagged("Tell me about photosynthesis.")).thenReturn(false);
         when(lessonService.findRelevantLesson("token", "Tell me about photosynthesis."))
-            .thenReturn("Plants use sunlight to make food.");
+            .thenReturn(lessons("Plants use sunlight to make food."));
         when(openAiChatModel.call(any(Prompt.class))).thenReturn(chatResponse);
         when(chatResponse.getResult()).thenReturn(generation);
         when(generation.getOutput()).thenReturn(assistantMessage);
@@ -138,25 +170,23 @@ class ChatServiceImplTest {
         when(moderationService.isFlagged("unsafe answer")).thenReturn(true);
 
         // Act
-        String result = service.ask("token", "Tell me about photosynthesis.");
+        String result = service.ask("token", USER_ID, "Tell me about photosynthesis.");
 
         // Assert fallback response
         assertEquals("The assistant's response was flagged for inappropriate content.", result);
 
-        // Capture both calls to supabaseRestClient.postList
+        // Capture the saved turn
         ArgumentCaptor<List<ChatbotMessageDTO>> messagesCaptor = ArgumentCaptor.forClass(List.class);
-        verify(supabaseRestClient, times(2)).postList(
+        verify(supabaseRestClient).postList(
             eq("user_chatbot_history"),
             messagesCaptor.capture(),
             eq("token"),
             ArgumentMatchers.<TypeReference<List<Map<String, Object>>>>any()
         );
+        assertEquals(2, messagesCaptor.getValue().size());
 
-        List<List<ChatbotMessageDTO>> captured = messagesCaptor.getAllValues();
-        assertEquals(2, captured.size());
-
-        // Second call: assistant fallback message
-        ChatbotMessageDTO assistantSavedMessage = captured.get(1).get(0);
+        // Assistant fallback message
+        ChatbotMessageDTO assistantSavedMessage = messagesCaptor.getValue().get(1);
         assertEquals("assistant", assistantSavedMessage.getRole());
         assertEquals("The assistant's response was flagged for inappropriate content.", assistantSavedMessage.getMessage());
     }
@@ -165,18 +195,272 @@ class ChatServiceImplTest {
     // Throws ChatServiceException when the OpenAI call fails
     void ask_ShouldThrowChatServiceException_WhenOpenAiCallFails() {
         when(moderationService.isFlagged("some question")).thenReturn(false);
-        when(lessonService.findRelevantLesson(any(), any())).thenReturn("context");
+        when(lessonService.findRelevantLesson(any(), any())).thenReturn(lessons("context"));
         when(openAiChatModel.call(any(Prompt.class))).thenThrow(new RuntimeException("AI failure"));
 
         ChatServiceException ex = assertThrows(
             ChatServiceException.class,
-            () -> service.ask("token", "some question")
+            () -> service.ask("token", USER_ID, "some question")
         );
 
         assertEquals("Failed to process chat request", ex.getMessage());
         assertNotNull(ex.getCause());
     }
 
+    @Test
+    // Serves a near-identical question about the same lessons from the answer cache
+    void ask_ShouldReuseCachedAnswer_WhenSimilarQuestionHasSameContext() {
+        // Arrange: both questions retrieve the same lesson and embed almost identically
+        when(lessonService.findRelevantLesson(eq("token"), anyString())).thenReturn(lessons("Rizz is charisma."));
+        when(embeddingService.generateEmbedding("What is rizz?")).thenReturn(new float[] {1f, 0f, 0.01f});
+        when(embeddingService.generateEmbedding("what is rizz")).thenReturn(new float[] {1f, 0.01f, 0f});
+        when(openAiChatModel.call(any(Prompt.class))).thenReturn(chatResponse);
+        when(chatResponse.getResult()).thenReturn(generation);
+        when(generation.getOutput()).thenReturn(assistantMessage);
+        when(assistantMessage.getText()).thenReturn("Rizz means charm.");
+
+        // Act
+        String first = service.ask("token", USER_ID, "What is rizz?");
+        String second = service.ask("token", USER_ID, "what is rizz");
+
+        // Assert: one model call and one output moderation, both answers saved
+        assertEquals("Rizz means charm.", first);
+        assertEquals("Rizz means charm.", second);
+        verify(openAiChatModel, times(1)).call(any(Prompt.class));
+        verify(moderationService, times(1)).isFlagged("Rizz means charm.");
+        verify(supabaseRestClient, times(2)).postList(
+            eq("user_chatbot_history"),
+            any(),
+            eq("token"),
+            ArgumentMatchers.<TypeReference<List<Map<String, Object>>>>any()
+        );
+    }
+
+    @Test
+    // Calls the model again when the same question retrieves different lesson context
+    void ask_ShouldCallModel_WhenSimilarQuestionHasDifferentContext() {
+        // Arrange: the lesson text changes between the two questions
+        when(lessonService.findRelevantLesson("token", "What is rizz?"))
+            .thenReturn(lessons("Rizz is charisma."))
+            .thenReturn(lessons("Rizz is charisma, updated."));
+        when(embeddingService.generateEmbedding("What is rizz?")).thenReturn(new float[] {1f, 0f, 0f});
+        when(openAiChatModel.call(any(Prompt.class))).thenReturn(chatResponse);
+        when(chatResponse.getResult()).thenReturn(generation);
+        when(generation.getOutput()).thenReturn(assistantMessage);
+        when(assistantMessage.getText()).thenReturn("Rizz means charm.");
+
+        // Act
+        service.ask("token", USER_ID, "What is rizz?");
+        service.ask("token", USER_ID, "What is rizz?");
+
+        // Assert
+        verify(openAiChatModel, times(2)).call(any(Prompt.class));
+    }
+
+    @Test
+    // Serves a paraphrase from the answer cache even when it packs different passages of the same lessons
+    void ask_ShouldReuseCachedAnswer_WhenParaphraseRetrievesSameLessonVersions() {
+        // Arrange: same lesson versions, different assembled context text
+        when(lessonService.findRelevantLesson("token", "What is rizz?"))
+            .thenReturn(new RelevantLessonContext("Rizz is charisma.", List.of("lesson-1:v1", "lesson-2:v1")));
+        when(lessonService.findRelevantLesson("token", "Explain rizz"))
+            .thenReturn(new RelevantLessonContext("Rizz came from streams.", List.of("lesson-2:v1", "lesson-1:v1")));
+        when(embeddingService.generateEmbedding("What is rizz?")).thenReturn(new float[] {1f, 0f, 0.01f});
+        when(embeddingService.generateEmbedding("Explain rizz")).thenReturn(new float[] {1f, 0.01f, 0f});
+        when(openAiChatModel.call(any(Prompt.class))).thenReturn(chatResponse);
+        when(chatResponse.getResult()).thenReturn(generation);
+        when(generation.getOutput()).thenReturn(assistantMessage);
+        when(assistantMessage.getText()).thenReturn("Rizz means charm.");
+
+        // Act
+        service.ask("token", USER_ID, "What is rizz?");
+        String second = service.ask("token", USER_ID, "Explain rizz");
+
+        // Assert
+        assertEquals("Rizz means charm.", second);
+        verify(openAiChatModel, times(1)).call(any(Prompt.class));
+    }
+
+    @Test
+    // Replays the ongoing conversation into the prompt and skips the answer cache for follow-ups
+    void ask_ShouldIncludeRecentTurnsAndBypassCache_WhenConversationIsOngoing() {
+        // arrange: the learner asked about rizz a moment ago
+        when(supabaseRestClient.getList(
+            eq("user_chatbot_history"),
+            ArgumentMatchers.startsWith("user_id=eq.user-1&timestamp=gte."),
+            eq("token"),
+            ArgumentMatchers.<TypeReference<List<ChatbotMessageDTO>>>any()
+        )).thenReturn(List.of(
+            new ChatbotMessageDTO("assistant", "Rizz means charm.", Instant.now().minusSeconds(30)),
+            new ChatbotMessageDTO("user", "What is rizz?", Instant.now().minusSeconds(31))
+        ));
+        when(lessonService.findRelevantLesson("token", "Give an example")).thenReturn(lessons("Rizz is charisma."));
+        when(embeddingService.generateEmbedding("Give an example")).thenReturn(new float[] {1f, 0f, 0f});
+        when(openAiChatModel.call(any(Prompt.class))).thenReturn(chatResponse);
+        when(chatResponse.getResult()).thenReturn(generation);
+        when(generation.getOutput()).thenReturn(assistantMessage);
+        when(assistantMessage.getText()).thenReturn("Complimenting someone smoothly.");
+
+        // act
+        service.ask("token", USER_ID, "Give an example");
+        service.ask("token", USER_ID, "Give an example");
+
+        // assert: history oldest first in the prompt, and the follow-up is never served from cache
+        ArgumentCaptor<Prompt> promptCaptor = ArgumentCaptor.forClass(Prompt.class);
+        verify(openAiChatModel, times(2)).call(promptCaptor.capture());
+        String prompt = promptCaptor.getValue().getContents();
+        assertTrue(prompt.contains("Learner: What is rizz?\nAssistant: Rizz means charm."));
+        assertTrue(prompt.contains("Question:\nGive an example"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    // Sends the answer once its chunk passes moderation and saves the full answer
+    void streamReply_ShouldSendModeratedChunksAndSaveAnswer_WhenOutputIsSafe() {
+        // Arrange: model streams three tokens, moderation passes everything
+        when(lessonService.findRelevantLesson("token", "What is rizz?")).thenReturn(lessons("Rizz is charisma."));
+        when(openAiChatModel.stream(any(Prompt.class))).thenReturn(Flux.just(
+            chunk("Rizz is "), chunk("charisma. "), chunk("Use it kindly.")
+        ));
+        when(moderationService.areFlagged(anyList())).thenAnswer(invocation ->
+            ((List<String>) invocation.getArgument(0)).stream().map(text -> false).toList());
+        List<String> events = new ArrayList<>();
+
+        // Act
+        ChatServiceImpl.StreamOutcome outcome = service.streamReply("token", USER_ID, "What is rizz?", (event, data) -> {
+            events.add(event + ":" + ((Map<String, Object>) data).get("text"));
+            return true;
+        });
+
+        // Assert: the short answer is one chunk, sent after moderation, and saved after the question
+        assertEquals(List.of("token:Rizz is charisma. Use it kindly."), events);
+        assertEquals("Rizz is charisma. Use it kindly.", outcome.reply());
+        assertFalse(outcome.retracted());
+        ArgumentCaptor<List<ChatbotMessageDTO>> messagesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(supabaseRestClient).postList(
+            eq("user_chatbot_history"),
+            messagesCaptor.capture(),
+            eq("token"),
+            ArgumentMatchers.<TypeReference<List<Map<String, Object>>>>any()
+        );
+        assertEquals("user", messagesCaptor.getValue().get(0).getRole());
+        assertEquals("Rizz is charisma. Use it kindly.", messagesCaptor.getValue().get(1).getMessage());
+        verify(moderationService).areFlagged(List.of("Rizz is charisma. Use it kindly."));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    // Never sends a flagged chunk and saves the fallback instead
+    void streamReply_ShouldRetractAnswer_WhenOutputChunkIsFlagged() {
+        // Arrange: the first sentence-aligned chunk is flagged
+        String unsafe = "x".repeat(210) + ". ";
+        when(openAiChatModel.stream(any(Prompt.class))).thenReturn(Flux.just(chunk(unsafe), chunk("more text")));
+        when(moderationService.areFlagged(anyList())).thenAnswer(invocation ->
+            ((List<String>) invocation.getArgument(0)).stream().map(unsafe::equals).toList());
+        List<String> events = new ArrayList<>();
+
+        // Act
+        ChatServiceImpl.StreamOutcome outcome = service.streamReply("token", USER_ID, "question", (event, data) -> {
+            events.add(event);
+            return true;
+        });
+
+        // Assert: the flagged text never reached the client, fallback saved
+        assertTrue(events.isEmpty());
+        assertTrue(outcome.retracted());
+        assertEquals("The assistant's response was flagged for inappropriate content.", outcome.reply());
+        ArgumentCaptor<List<ChatbotMessageDTO>> messagesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(supabaseRestClient).postList(
+            eq("user_chatbot_history"),
+            messagesCaptor.capture(),
+            eq("token"),
+            ArgumentMatchers.<TypeReference<List<Map<String, Object>>>>any()
+        );
+        assertEquals(outcome.reply(), messagesCaptor.getValue().get(1).getMessage());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    // Sends the chunks cleared before a flagged one and stops at the flagged chunk
+    void streamReply_ShouldSendOnlyClearedChunks_WhenLaterChunkIsFlagged() {
+        // Arrange: the first chunk is safe, the second is flagged
+        String safe = "s".repeat(210) + ". ";
+        String unsafe = "x".repeat(210) + ". ";
+        when(openAiChatModel.stream(any(Prompt.class))).thenReturn(Flux.just(
+            chunk(safe), chunk(unsafe), chunk("tail")
+        ));
+        when(moderationService.areFlagged(anyList())).thenAnswer(invocation ->
+            ((List<String>) invocation.getArgument(0)).stream().map(unsafe::equals).toList());
+        List<String> texts = new ArrayList<>();
+
+        // Act
+        ChatServiceImpl.StreamOutcome outcome = service.streamReply("token", USER_ID, "question", (event, data) -> {
+            texts.add((String) ((Map<String, Object>) data).get("text"));
+            return true;
+        });
+
+        // Assert
+        assertEquals(List.of(safe), texts);
+        assertTrue(outcome.retracted());
+        verify(moderationService, never()).areFlagged(List.of("tail"));
+    }
+
+    @Test
+    // Completes the stream with an error straight away when the stream pool rejects it
+    void streamAnswer_ShouldNotStartStream_WhenExecutorRejectsIt() {
+        // Arrange
+        ChatServiceImpl busy = new ChatServiceImpl(
+            openAiChatModel,
+            lessonService,
+            supabaseRestClient,
+            moderationService,
+            embeddingService,
+            new ChatAnswerCacheProperties(),
+            Runnable::run,
+            task -> {
+                throw new RejectedExecutionException("full");
+            }
+        );
+
+        // Act
+        SseEmitter emitter = assertDoesNotThrow(() -> busy.streamAnswer("token", USER_ID, "question"));
+
+        // Assert
+        assertNotNull(emitter);
+        verify(moderationService, never()).isFlagged(anyString());
+        verify(openAiChatModel, never()).stream(any(Prompt.class));
+    }
+
+    @Test
+    // Skips the model and history entirely when the question is flagged
+    void streamReply_ShouldReturnModerationMessage_WhenQuestionIsFlagged() {
+        // Arrange
+        when(moderationService.isFlagged("bad question")).thenReturn(true);
+
+        // Act
+        ChatServiceImpl.StreamOutcome outcome = service.streamReply("token", USER_ID, "bad question", (event, data) -> true);
+
+        // Assert
+        assertEquals("Your question contains inappropriate content and cannot be processed.", outcome.reply());
+        verify(openAiChatModel, never()).stream(any(Prompt.class));
+        verify(supabaseRestClient, never()).postList(any(), any(), any(), ArgumentMatchers.<TypeReference<List<Map<String, Object>>>>any());
+    }
+
+    @Test
+    // Stops without saving an answer when the client disconnects mid-stream
+    void streamReply_ShouldStopWithoutSavingAnswer_WhenClientDisconnects() {
+        // Arrange
+        when(openAiChatModel.stream(any(Prompt.class))).thenReturn(Flux.just(chunk("one "), chunk("two")));
+        when(moderationService.areFlagged(List.of("one two"))).thenReturn(List.of(false));
+
+        // Act
+        ChatServiceImpl.StreamOutcome outcome = service.streamReply("token", USER_ID, "question", (event, data) -> false);
+
+        // Assert: nothing was saved, not even the question
+        assertNull(outcome);
+        verify(supabaseRestClient, never()).postList(any(), any(), any(), ArgumentMatchers.<TypeReference<List<Map<String, Object>>>>any());
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     // Persists messages with correct role and content
@@ -216,18 +500,89 @@ class ChatServiceImplTest {
 
     @Test
     // Returns chat message history for a given user
-    void getMessageHistory_ShouldReturnRecordsFromSupabase_WhenUserIdProvided() {
-        List<ChatbotMessageDTO> expected = List.of(new ChatbotMessageDTO("user", "hi", null));
+    void getMessageHistory_ShouldReturnRecentRecordsInChronologicalOrder_WhenUserIdProvided() {
+        ChatbotMessageDTO question = new ChatbotMessageDTO("user", "hi", Instant.parse("2026-01-01T10:00:00Z"));
+        ChatbotMessageDTO answer = new ChatbotMessageDTO("assistant", "hello", Instant.parse("2026-01-01T10:00:01Z"));
         when(supabaseRestClient.getList(
             eq("user_chatbot_history"),
-            eq("user_id=eq.user-1&order=timestamp.asc"),
+            eq("user_id=eq.user-1&order=timestamp.desc,id.desc&limit=100"),
             eq("token"),
             ArgumentMatchers.<TypeReference<List<ChatbotMessageDTO>>>any()
-        )).thenReturn(expected);
+        )).thenReturn(List.of(answer, question));
 
         List<ChatbotMessageDTO> result = service.getMessageHistory("token", "user-1");
 
-        assertEquals(expected, result);
+        assertEquals(List.of(question, answer), result);
+    }
+
+    @Test
+    // Returns a page of the newest messages with a cursor to the next page when more remain
+    void getMessageHistoryPage_ShouldReturnCursor_WhenMoreMessagesRemain() {
+        // arrange: one row more than the page size comes back, the last two saved in the same instant
+        Instant newest = Instant.parse("2026-01-01T10:00:02Z");
+        Instant middle = Instant.parse("2026-01-01T10:00:01Z");
+        when(supabaseRestClient.getList(
+            eq("user_chatbot_history"),
+            eq("user_id=eq.user-1&order=timestamp.desc,id.desc&limit=3"),
+            eq("token"),
+            ArgumentMatchers.<TypeReference<List<ChatbotMessageDTO>>>any()
+        )).thenReturn(List.of(
+            new ChatbotMessageDTO("assistant", "c", newest, "3"),
+            new ChatbotMessageDTO("user", "b", middle, "2"),
+            new ChatbotMessageDTO("assistant", "a", middle, "1")
+        ));
+
+        // act
+        ChatHistoryPageResponse page = service.getMessageHistoryPage("token", "user-1", null, 2);
+
+        // assert
+        assertEquals(List.of("c", "b"), page.items().stream().map(ChatbotMessageDTO::getMessage).toList());
+        assertTrue(page.hasMore());
+        assertNotNull(page.nextCursor());
+
+        // act: the cursor continues strictly before the last message returned, ties broken by id
+        service.getMessageHistoryPage("token", "user-1", page.nextCursor(), 2);
+
+        // verify
+        verify(supabaseRestClient).getList(
+            eq("user_chatbot_history"),
+            eq("user_id=eq.user-1&or=(timestamp.lt.%22" + middle + "%22,and(timestamp.eq.%22" + middle
+                + "%22,id.lt.2))&order=timestamp.desc,id.desc&limit=3"),
+            eq("token"),
+            ArgumentMatchers.<TypeReference<List<ChatbotMessageDTO>>>any()
+        );
+    }
+
+    @Test
+    // Returns the last page without a cursor and caps oversized page requests
+    void getMessageHistoryPage_ShouldReturnNoCursor_WhenLastPage() {
+        // arrange
+        when(supabaseRestClient.getList(
+            eq("user_chatbot_history"),
+            eq("user_id=eq.user-1&order=timestamp.desc,id.desc&limit=51"),
+            eq("token"),
+            ArgumentMatchers.<TypeReference<List<ChatbotMessageDTO>>>any()
+        )).thenReturn(List.of(new ChatbotMessageDTO("user", "hi", Instant.parse("2026-01-01T10:00:00Z"))));
+
+        // act
+        ChatHistoryPageResponse page = service.getMessageHistoryPage("token", "user-1", null, 500);
+
+        // assert
+        assertEquals(1, page.items().size());
+        assertFalse(page.hasMore());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    // Rejects a cursor that was not issued by the history endpoint
+    void getMessageHistoryPage_ShouldThrowBadRequest_WhenCursorIsInvalid() {
+        ResponseStatusException ex = assertThrows(
+            ResponseStatusException.class,
+            () -> service.getMessageHistoryPage("token", "user-1", "not-a-cursor", 20)
+        );
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        verify(supabaseRestClient, never()).getList(anyString(), anyString(), anyString(), ArgumentMatchers.<TypeReference<List<ChatbotMessageDTO>>>any());
     }
 
     @Test
@@ -273,4 +628,8 @@ class ChatServiceImplTest {
         assertEquals("Failed to delete chat history", ex.getMessage());
         assertNotNull(ex.getCause());
     }
+
+    private static ChatResponse chunk(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
 }
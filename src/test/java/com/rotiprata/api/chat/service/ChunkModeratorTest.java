@@ -0,0 +1,84 @@
+package com.rotiprata.api.chat.service;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Covers batching and early stop for streamed answer moderation.
+ */
+class ChunkModeratorTest {
+
+    private final ModerationService moderationService = mock(ModerationService.class);
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private final ChunkModerator moderator = new ChunkModerator(moderationService, tasks::add);
+
+    /**
+     * Verifies that submit should batch chunks that arrive while a check is pending.
+     */
+    @Test
+    void submit_ShouldBatchChunks_WhenCheckIsAlreadyPending() {
+        // arrange
+        when(moderationService.areFlagged(List.of("one. ", "two. ", "three."))).thenReturn(List.of(false, false, false));
+
+        // act
+        CompletableFuture<Boolean> first = moderator.submit("one. ");
+        moderator.submit("two. ");
+        moderator.submit("three.");
+        tasks.forEach(Runnable::run);
+
+        // assert
+        assertFalse(moderator.await());
+        assertFalse(first.join());
+        verify(moderationService).areFlagged(List.of("one. ", "two. ", "three."));
+    }
+
+    /**
+     * Verifies that submit should drop later chunks once a chunk is flagged.
+     */
+    @Test
+    void submit_ShouldDropLaterChunks_WhenChunkIsFlagged() {
+        // arrange
+        when(moderationService.areFlagged(List.of("bad. "))).thenReturn(List.of(true));
+
+        // act
+        CompletableFuture<Boolean> bad = moderator.submit("bad. ");
+        tasks.poll().run();
+        CompletableFuture<Boolean> later = moderator.submit("later.");
+
+        // assert
+        assertTrue(bad.join());
+        assertTrue(later.join());
+        assertTrue(moderator.flagged());
+        assertTrue(moderator.await());
+        assertTrue(tasks.isEmpty());
+        verify(moderationService, never()).areFlagged(List.of("later."));
+    }
+
+    /**
+     * Verifies that await should rethrow a failed check unwrapped.
+     */
+    @Test
+    void await_ShouldRethrowFailure_WhenCheckFails() {
+        // arrange
+        when(moderationService.areFlagged(anyList())).thenThrow(new IllegalStateException("down"));
+
+        // act
+        moderator.submit("text.");
+        tasks.poll().run();
+
+        // assert
+        assertThrows(IllegalStateException.class, moderator::await);
+    }
+}
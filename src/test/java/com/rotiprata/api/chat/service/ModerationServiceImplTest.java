@@ -2,6 +2,7 @@ package com.rotiprata.api.chat.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.rotiprata.api.exception.ModerationServiceException;
+import com.rotiprata.config.ModerationProperties;
 import com.rotiprata.infrastructure.openai.OpenAiRestClient;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,10 +15,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -197,4 +202,165 @@ class ModerationServiceImplTest {
         assertNotNull(exception.getCause());
         assertSame(rootCause, exception.getCause());
     }
+
+    /**
+     * Verifies that is flagged should reuse the cached verdict when the same text is checked again.
+     */
+    @Test
+    void isFlagged_ShouldReuseCachedVerdict_WhenSameTextIsCheckedAgain() {
+        // Arrange
+        when(openAiRestClient.post(
+                eq(MODERATION_PATH),
+                any(),
+                ArgumentMatchers.<TypeReference<Map<String, Object>>>any()))
+            .thenReturn(Map.of("results", List.of(Map.of("flagged", true))));
+
+        // Act
+        boolean first = service.isFlagged("unsafe text");
+        boolean second = service.isFlagged("  unsafe text ");
+
+        // Assert
+        assertTrue(first);
+        assertTrue(second);
+        verify(openAiRestClient, times(1)).post(
+            eq(MODERATION_PATH),
+            any(),
+            ArgumentMatchers.<TypeReference<Map<String, Object>>>any()
+        );
+    }
+
+    /**
+     * Verifies that is flagged should call the API again when the previous check failed.
+     */
+    @Test
+    void isFlagged_ShouldRetry_WhenPreviousCheckFailed() {
+        // Arrange
+        when(openAiRestClient.post(
+                eq(MODERATION_PATH),
+                any(),
+                ArgumentMatchers.<TypeReference<Map<String, Object>>>any()))
+            .thenThrow(new RuntimeException("network error"))
+            .thenReturn(Map.of("results", List.of(Map.of("flagged", false))));
+
+        // Act
+        assertThrows(ModerationServiceException.class, () -> service.isFlagged("text"));
+        boolean result = service.isFlagged("text");
+
+        // Assert
+        assertFalse(result);
+        verify(openAiRestClient, times(2)).post(
+            eq(MODERATION_PATH),
+            any(),
+            ArgumentMatchers.<TypeReference<Map<String, Object>>>any()
+        );
+    }
+
+    /**
+     * Verifies that are flagged should send distinct uncached texts as one batched input.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void areFlagged_ShouldBatchDistinctUncachedTexts_WhenSeveralTextsAreChecked() {
+        // Arrange: "cached" was checked before, so only "a" and "b" need the API
+        when(openAiRestClient.post(
+                eq(MODERATION_PATH),
+                any(),
+                ArgumentMatchers.<TypeReference<Map<String, Object>>>any()))
+            .thenReturn(Map.of("results", List.of(Map.of("flagged", true))))
+            .thenReturn(Map.of("results", List.of(Map.of("flagged", false), Map.of("flagged", true))));
+        service.isFlagged("cached");
+
+        // Act
+        List<Boolean> result = service.areFlagged(List.of("a", "cached", "b", "a", " "));
+
+        // Assert
+        assertEquals(List.of(false, true, true, false, false), result);
+        ArgumentCaptor<Map<String, Object>> bodyCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(openAiRestClient, times(2)).post(
+            eq(MODERATION_PATH),
+            bodyCaptor.capture(),
+            ArgumentMatchers.<TypeReference<Map<String, Object>>>any()
+        );
+        assertEquals(List.of("a", "b"), bodyCaptor.getAllValues().get(1).get("input"));
+    }
+
+    /**
+     * Verifies that are flagged should split uncached texts into requests of the configured batch size.
+     */
+    @Test
+    void areFlagged_ShouldSplitRequests_WhenTextsExceedBatchSize() {
+        // Arrange
+        ModerationProperties properties = new ModerationProperties();
+        properties.setBatchSize(2);
+        service = new ModerationServiceImpl(openAiRestClient, MODERATION_PATH, properties);
+        when(openAiRestClient.post(
+                eq(MODERATION_PATH),
+                any(),
+                ArgumentMatchers.<TypeReference<Map<String, Object>>>any()))
+            .thenReturn(Map.of("results", List.of(Map.of("flagged", false), Map.of("flagged", false))))
+            .thenReturn(Map.of("results", List.of(Map.of("flagged", true))));
+
+        // Act
+        List<Boolean> result = service.areFlagged(List.of("a", "b", "c"));
+
+        // Assert
+        assertEquals(List.of(false, false, true), result);
+        verify(openAiRestClient, times(2)).post(
+            eq(MODERATION_PATH),
+            any(),
+            ArgumentMatchers.<TypeReference<Map<String, Object>>>any()
+        );
+    }
+
+    /**
+     * Verifies that is flagged should share one request when the same text is checked concurrently.
+     */
+    @Test
+    void isFlagged_ShouldCoalesceRequests_WhenSameTextIsInFlight() throws Exception {
+        // Arrange: the first request blocks until the second caller is waiting on it
+        CountDownLatch requestStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(openAiRestClient.post(
+                eq(MODERATION_PATH),
+                any(),
+                ArgumentMatchers.<TypeReference<Map<String, Object>>>any()))
+            .thenAnswer(invocation -> {
+                requestStarted.countDown();
+                assertTrue(release.await(5, TimeUnit.SECONDS));
+                return Map.of("results", List.of(Map.of("flagged", true)));
+            });
+
+        // Act
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> service.isFlagged("same text"));
+        assertTrue(requestStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() -> service.isFlagged("same text"));
+        Thread.sleep(50);
+        release.countDown();
+
+        // Assert
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+        verify(openAiRestClient, times(1)).post(
+            eq(MODERATION_PATH),
+            any(),
+            ArgumentMatchers.<TypeReference<Map<String, Object>>>any()
+        );
+    }
+
+    /**
+     * Verifies that are flagged should not call the API when there is nothing to check.
+     */
+    @Test
+    void areFlagged_ShouldSkipApi_WhenTextsAreBlank() {
+        // Act
+        List<Boolean> result = service.areFlagged(List.of("", "  "));
+
+        // Assert
+        assertEquals(List.of(false, false), result);
+        verify(openAiRestClient, never()).post(
+            any(),
+            any(),
+            ArgumentMatchers.<TypeReference<Map<String, Object>>>any()
+        );
+    }
 }
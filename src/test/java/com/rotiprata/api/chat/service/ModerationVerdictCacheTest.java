@@ -0,0 +1,66 @@
+package com.rotiprata.api.chat.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers expiry, eviction and key normalization for the moderation verdict cache.
+ */
+class ModerationVerdictCacheTest {
+
+    /**
+     * Verifies that get should drop a verdict once its TTL has passed.
+     */
+    @Test
+    void get_ShouldReturnNull_WhenVerdictHasExpired() {
+        // arrange
+        AtomicLong now = new AtomicLong(1_000);
+        ModerationVerdictCache cache = new ModerationVerdictCache(10, Duration.ofSeconds(60), now::get);
+        cache.put("key", true);
+
+        // act
+        Boolean fresh = cache.get("key");
+        now.addAndGet(60_000);
+        Boolean expired = cache.get("key");
+
+        // assert
+        assertTrue(fresh);
+        assertNull(expired);
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * Verifies that put should evict the least recently used verdict when the cache is full.
+     */
+    @Test
+    void put_ShouldEvictLeastRecentlyUsed_WhenFull() {
+        // arrange
+        ModerationVerdictCache cache = new ModerationVerdictCache(2, Duration.ofMinutes(5));
+        cache.put("a", false);
+        cache.put("b", true);
+        cache.get("a");
+
+        // act
+        cache.put("c", false);
+
+        // assert
+        assertEquals(false, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(false, cache.get("c"));
+    }
+
+    /**
+     * Verifies that key should ignore surrounding whitespace but keep inner text distinct.
+     */
+    @Test
+    void key_ShouldIgnoreSurroundingWhitespace_WhenTextsOtherwiseMatch() {
+        // act & assert
+        assertEquals(ModerationVerdictCache.key("hello there"), ModerationVerdictCache.key("  hello there\n"));
+        assertTrue(!ModerationVerdictCache.key("hello there").equals(ModerationVerdictCache.key("hello  there")));
+    }
+}
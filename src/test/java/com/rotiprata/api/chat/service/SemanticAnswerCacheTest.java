@@ -0,0 +1,83 @@
+package com.rotiprata.api.chat.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Covers similarity matching, context grouping, expiry, eviction and hit counting for the answer cache.
+ */
+class SemanticAnswerCacheTest {
+
+    private static final String CONTEXT = SemanticAnswerCache.contextKey(List.of("rizz:v1", "slay:v1"));
+    private static final String OTHER_CONTEXT = SemanticAnswerCache.contextKey(List.of("rizz:v2", "slay:v1"));
+
+    /**
+     * Verifies that find should return the answer only for similar questions about the same context.
+     */
+    @Test
+    void find_ShouldMatchSimilarQuestion_WhenContextIsTheSame() {
+        // arrange
+        SemanticAnswerCache cache = new SemanticAnswerCache(10, Duration.ofMinutes(5), 0.95);
+        cache.put(CONTEXT, new float[] {1f, 0f, 0f}, "Rizz means charm.");
+
+        // act & assert
+        assertEquals("Rizz means charm.", cache.find(CONTEXT, new float[] {2f, 0.1f, 0f}));
+        assertNull(cache.find(CONTEXT, new float[] {1f, 1f, 0f}));
+        assertNull(cache.find(OTHER_CONTEXT, new float[] {1f, 0f, 0f}));
+        assertEquals(CONTEXT, SemanticAnswerCache.contextKey(List.of("slay:v1", "rizz:v1")));
+        assertEquals(new SemanticAnswerCache.Stats(1, 2, 1), cache.stats());
+    }
+
+    /**
+     * Verifies that find should ignore answers older than the TTL.
+     */
+    @Test
+    void find_ShouldReturnNull_WhenAnswerHasExpired() {
+        // arrange
+        AtomicLong now = new AtomicLong();
+        SemanticAnswerCache cache = new SemanticAnswerCache(10, Duration.ofMinutes(5), 0.95, now::get);
+        cache.put(CONTEXT, new float[] {1f, 0f}, "Rizz means charm.");
+
+        // act
+        now.addAndGet(Duration.ofMinutes(5).toMillis());
+
+        // assert
+        assertNull(cache.find(CONTEXT, new float[] {1f, 0f}));
+        assertEquals(0, cache.stats().size());
+    }
+
+    /**
+     * Verifies that put should evict from the least recently used context when full.
+     */
+    @Test
+    void put_ShouldEvictLeastRecentlyUsedContext_WhenFull() {
+        // arrange
+        SemanticAnswerCache cache = new SemanticAnswerCache(2, Duration.ofMinutes(5), 0.95);
+        cache.put(CONTEXT, new float[] {1f, 0f}, "Rizz means charm.");
+        cache.put(OTHER_CONTEXT, new float[] {0f, 1f}, "Slay means excel.");
+        cache.find(CONTEXT, new float[] {1f, 0f});
+
+        // act
+        cache.put(CONTEXT, new float[] {0f, 1f}, "Rizz is not slay.");
+
+        // assert
+        assertEquals("Rizz means charm.", cache.find(CONTEXT, new float[] {1f, 0f}));
+        assertNull(cache.find(OTHER_CONTEXT, new float[] {0f, 1f}));
+        assertEquals(2, cache.stats().size());
+    }
+
+    /**
+     * Verifies that hit rate should divide hits by lookups.
+     */
+    @Test
+    void hitRate_ShouldDivideHitsByLookups_WhenLookupsWereMade() {
+        // act & assert
+        assertEquals(0.25, new SemanticAnswerCache.Stats(1, 3, 0).hitRate());
+        assertEquals(0, new SemanticAnswerCache.Stats(0, 0, 0).hitRate());
+    }
+}
@@ -0,0 +1,51 @@
+package com.rotiprata.api.chat.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers sentence-aligned chunking of streamed tokens for output moderation.
+ */
+class SentenceChunkerTest {
+
+    /**
+     * Verifies that append should release chunks only at sentence boundaries once long enough.
+     */
+    @Test
+    void append_ShouldReleaseSentenceAlignedChunks_WhenMinimumLengthReached() {
+        // arrange
+        SentenceChunker chunker = new SentenceChunker(10);
+        List<String> chunks = new ArrayList<>();
+
+        // act
+        for (String token : List.of("Hi. ", "Rizz is ", "charisma. It ", "works", "! Ok")) {
+            chunks.addAll(chunker.append(token));
+        }
+        String rest = chunker.flush();
+
+        // assert
+        assertEquals(List.of("Hi. Rizz is charisma. ", "It works! "), chunks);
+        assertEquals("Ok", rest);
+        assertTrue(chunker.flush().isEmpty());
+    }
+
+    /**
+     * Verifies that append should treat a newline as a boundary even without punctuation.
+     */
+    @Test
+    void append_ShouldSplitOnNewline_WhenNoPunctuation() {
+        // arrange
+        SentenceChunker chunker = new SentenceChunker(3);
+
+        // act
+        List<String> chunks = chunker.append("- item one\n- item");
+
+        // assert
+        assertEquals(List.of("- item one\n"), chunks);
+        assertEquals("- item", chunker.flush());
+    }
+}
@@ -288,7 +288,7 @@ class ContentControllerMockIntegrationTest {
         //arrange
         UUID contentId = randomId();
         when(contentDraftService.getMediaStatus(any(), eq(contentId)))
-            .thenReturn(new ContentMediaStatusResponse("ready", "https://hls", "https://thumb", null));
+            .thenReturn(new ContentMediaStatusResponse("ready", "https://hls", "https://thumb", null, null));
 
         //act
         given()
@@ -85,6 +85,34 @@ class ContentCreatorEnrichmentServiceImplTest {
         verify(supabaseAdminRestClient).getList(eq("profiles"), any(), any(TypeReference.class));
     }
 
+    /**
+     * Handles suppress warnings.
+     */
+    // Service should swap avatars that carry a variant manifest for the small WebP variant.
+    @Test
+    @SuppressWarnings("unchecked")
+    void enrichWithCreatorProfiles_ShouldUseSmallAvatarVariant_WhenAvatarUrlHasManifest() {
+        //arrange
+        ContentCreatorEnrichmentServiceImpl service = new ContentCreatorEnrichmentServiceImpl(supabaseAdminRestClient);
+        UUID creator = UUID.randomUUID();
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("creator_id", creator.toString());
+        List<Map<String, Object>> items = new ArrayList<>(List.of(item));
+        String avatarUrl = "https://img.example/avatars/u1/w1080.jpg?variants=320,640,1080";
+        when(supabaseAdminRestClient.getList(eq("profiles"), any(), any(TypeReference.class)))
+            .thenReturn(List.of(Map.of("user_id", creator.toString(), "display_name", "Ada", "avatar_url", avatarUrl)));
+
+        //act
+        List<Map<String, Object>> result = service.enrichWithCreatorProfiles(items);
+
+        //assert
+        Map<String, Object> profile = (Map<String, Object>) result.get(0).get("creator");
+        assertEquals("https://img.example/avatars/u1/w320.webp", profile.get("avatar_url"));
+
+        //verify
+        verify(supabaseAdminRestClient).getList(eq("profiles"), any(), any(TypeReference.class));
+    }
+
     /**
      * Handles suppress warnings.
      */
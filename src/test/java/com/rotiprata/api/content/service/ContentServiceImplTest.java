@@ -1,11 +1,14 @@
 package com.rotiprata.api.content.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.rotiprata.api.browsing.dto.ContentSearchDTO;
 import com.rotiprata.api.content.dto.ContentCommentCreateRequest;
 import com.rotiprata.api.content.dto.ContentFlagRequest;
 import com.rotiprata.api.content.dto.ContentPlaybackEventRequest;
+import com.rotiprata.api.content.dto.ContentSearchHit;
 import com.rotiprata.api.user.service.UserService;
+import com.rotiprata.config.SupabaseProperties;
+import com.rotiprata.infrastructure.supabase.PostgrestQuery;
+import com.rotiprata.infrastructure.supabase.SupabaseBatchFetcher;
 import com.rotiprata.security.authorization.AppRole;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminRestClient;
 import com.rotiprata.infrastructure.supabase.SupabaseRestClient;
@@ -21,6 +24,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
 import org.springframework.web.server.ResponseStatusException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -37,6 +43,8 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
 /**
  * Covers content service scenarios and regression behavior for the current branch changes.
@@ -69,7 +77,8 @@ class ContentServiceImplTest {
             supabaseAdminRestClient,
             contentEngagementService,
             contentCreatorEnrichmentService,
-            userService
+            userService,
+            new SupabaseBatchFetcher(PostgrestQuery.DEFAULT_IN_CHUNK_SIZE, Runnable::run)
         );
         userId = UUID.randomUUID();
         contentId = UUID.randomUUID();
@@ -250,31 +259,103 @@ class ContentServiceImplTest {
     }
 
     /**
-     * Handles suppress warnings.
+     * Verifies that search videos by text should map rows and embedded tags while escaping unsafe query chars.
      */
-    // Ensures search results merge title and tag hits while escaping unsafe query chars.
     @Test
     @SuppressWarnings("unchecked")
-    void getFilteredContent_ShouldMergeTagMatches_WhenQueryIsProvided() {
+    void searchVideosByText_ShouldMapHits_WhenQueryIsProvided() {
         //arrange
-        ContentSearchDTO titleHit = new ContentSearchDTO("c1", "video", "Roti", "x".repeat(130), null);
-        ContentSearchDTO tagHit = new ContentSearchDTO("c2", "video", "Prata", "desc", null);
-        when(supabaseRestClient.getList(eq("/content"), anyString(), eq("token"), any(TypeReference.class)))
-            .thenReturn(List.of(titleHit));
-        when(supabaseRestClient.getList(eq("/content_tags"), anyString(), eq("token"), any(TypeReference.class)))
-            .thenReturn(List.of(Map.of("content_id", "c2"), Map.of("content_id", "c2")));
-        when(supabaseRestClient.getList(eq("/content"), contains("id=in.(c2)"), eq("token"), any(TypeReference.class)))
-            .thenReturn(List.of(tagHit));
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", "c1");
+        row.put("title", "Roti");
+        row.put("description", "desc");
+        row.put("view_count", 12);
+        row.put("likes_count", 3);
+        row.put("content_tags", List.of(Map.of("tag", "food"), Map.of("tag", " ")));
+        when(supabaseRestClient.getList(eq("content"), anyString(), eq("token"), any(TypeReference.class)))
+            .thenReturn(List.of(row));
 
         //act
-        List<ContentSearchDTO> result = service.getFilteredContent("roti(),", "video", "token");
+        List<ContentSearchHit> result = service.searchVideosByText("roti(),", "token");
 
         //assert
-        assertEquals(2, result.size());
-        assertTrue(result.get(0).snippet().endsWith("..."));
+        assertEquals(List.of(new ContentSearchHit("c1", "Roti", "desc", List.of("food"), 12, 3)), result);
+        assertTrue(service.searchVideosByText(" ", "token").isEmpty());
 
         //verify
-        verify(supabaseRestClient).getList(eq("/content_tags"), contains("tag=ilike.*roti   *"), eq("token"), any(TypeReference.class));
+        verify(supabaseRestClient).getList(
+            eq("content"),
+            contains("or=(title.ilike.*roti   *,description.ilike.*roti   *)"),
+            eq("token"),
+            any(TypeReference.class)
+        );
+    }
+
+    /**
+     * Verifies that a multi-word search should reach Supabase with its spaces encoded exactly once.
+     */
+    @Test
+    void searchVideosByText_ShouldEncodeSpacesOnce_WhenSentThroughRestClient() {
+        //arrange
+        RestClient.Builder builder = RestClient.builder();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(builder).build();
+        SupabaseProperties properties = new SupabaseProperties();
+        properties.setRestUrl("https://example.supabase.co/rest/v1");
+        properties.setAnonKey("anon");
+        ContentServiceImpl restService = new ContentServiceImpl(
+            new SupabaseRestClient(properties, builder),
+            supabaseAdminRestClient,
+            contentEngagementService,
+            contentCreatorEnrichmentService,
+            userService,
+            new SupabaseBatchFetcher(PostgrestQuery.DEFAULT_IN_CHUNK_SIZE, Runnable::run)
+        );
+        server.expect(requestTo(
+                "https://example.supabase.co/rest/v1/content?select=id,title,description,view_count,likes_count,content_tags(tag)"
+                    + "&status=eq.approved&is_submitted=eq.true&content_type=eq.video"
+                    + "&or=(title.ilike.*roti%20prata*,description.ilike.*roti%20prata*)&limit=50"
+            ))
+            .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        //act
+        List<ContentSearchHit> result = restService.searchVideosByText("roti prata", "token");
+
+        //assert
+        assertTrue(result.isEmpty());
+
+        //verify
+        server.verify();
+    }
+
+    /**
+     * Verifies that search videos by tag should filter through an inner-joined tag embed in one request.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchVideosByTag_ShouldUseInnerJoinedTags_WhenQueryIsProvided() {
+        //arrange
+        when(supabaseRestClient.getList(eq("content"), anyString(), eq("token"), any(TypeReference.class)))
+            .thenReturn(List.of(Map.of("id", "c2", "title", "Prata", "content_tags", List.of(Map.of("tag", "roti")))));
+
+        //act
+        List<ContentSearchHit> result = service.searchVideosByTag("roti", "token");
+
+        //assert
+        assertEquals(List.of("roti"), result.get(0).tags());
+
+        //verify
+        verify(supabaseRestClient, times(1)).getList(
+            eq("content"),
+            contains("content_tags!inner(tag)"),
+            eq("token"),
+            any(TypeReference.class)
+        );
+        verify(supabaseRestClient).getList(
+            eq("content"),
+            contains("content_tags.tag=ilike.*roti*"),
+            eq("token"),
+            any(TypeReference.class)
+        );
     }
 
     /**
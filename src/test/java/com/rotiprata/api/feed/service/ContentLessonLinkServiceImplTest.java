@@ -1,7 +1,9 @@
 package com.rotiprata.api.feed.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.rotiprata.infrastructure.supabase.PostgrestQuery;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminRestClient;
+import com.rotiprata.infrastructure.supabase.SupabaseBatchFetcher;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -21,6 +23,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -40,7 +43,10 @@ class ContentLessonLinkServiceImplTest {
      */
     @BeforeEach
     void setUp() {
-        service = new ContentLessonLinkServiceImpl(supabaseAdminRestClient);
+        service = new ContentLessonLinkServiceImpl(
+            supabaseAdminRestClient,
+            new SupabaseBatchFetcher(PostgrestQuery.DEFAULT_IN_CHUNK_SIZE, Runnable::run)
+        );
     }
 
     /** Verifies null and empty content-id inputs short-circuit without any database calls. */
@@ -92,6 +98,54 @@ class ContentLessonLinkServiceImplTest {
         verify(supabaseAdminRestClient, never()).getList(eq("quizzes"), anyString(), any(TypeReference.class));
     }
 
+    /** Verifies id lookups are split into one request per chunk and the rows merged across chunks. */
+    @Test
+    void resolveLinkedLessons_ShouldFetchPerChunk_WhenContentIdsExceedChunkSize() {
+        // arrange
+        ContentLessonLinkService chunkedService = new ContentLessonLinkServiceImpl(
+            supabaseAdminRestClient,
+            new SupabaseBatchFetcher(1, Runnable::run)
+        );
+        UUID firstContentId = UUID.randomUUID();
+        UUID secondContentId = UUID.randomUUID();
+        UUID firstLessonId = UUID.randomUUID();
+        UUID secondLessonId = UUID.randomUUID();
+        when(supabaseAdminRestClient.getList(eq("lesson_concepts"), anyString(), any(TypeReference.class)))
+            .thenAnswer(invocation -> {
+                String query = invocation.getArgument(1);
+                boolean first = query.contains(firstContentId.toString());
+                return List.of(Map.of(
+                    "content_id", (first ? firstContentId : secondContentId).toString(),
+                    "lesson_id", (first ? firstLessonId : secondLessonId).toString(),
+                    "order_index", 0
+                ));
+            });
+        when(supabaseAdminRestClient.getList(eq("lessons"), anyString(), any(TypeReference.class)))
+            .thenAnswer(invocation -> {
+                String query = invocation.getArgument(1);
+                UUID lessonId = query.contains(firstLessonId.toString()) ? firstLessonId : secondLessonId;
+                return List.of(Map.of(
+                    "id", lessonId.toString(),
+                    "title", "Lesson",
+                    "is_published", true,
+                    "is_active", true
+                ));
+            });
+
+        // act
+        Map<UUID, List<ContentLessonLinkService.LinkedLesson>> linkedLessons = chunkedService.resolveLinkedLessons(
+            new java.util.LinkedHashSet<>(List.of(firstContentId, secondContentId))
+        );
+
+        // assert
+        assertEquals(firstLessonId, linkedLessons.get(firstContentId).get(0).lessonId());
+        assertEquals(secondLessonId, linkedLessons.get(secondContentId).get(0).lessonId());
+
+        // verify
+        verify(supabaseAdminRestClient, times(2)).getList(eq("lesson_concepts"), anyString(), any(TypeReference.class));
+        verify(supabaseAdminRestClient, times(2)).getList(eq("lessons"), anyString(), any(TypeReference.class));
+    }
+
     /** Verifies the service falls back to quiz links only when no direct lesson-concept rows exist. */
     @Test
     void resolveLinkedLessons_ShouldFallbackToQuizLinks_WhenConceptsAreMissing() {
@@ -8,7 +8,9 @@ import com.rotiprata.api.feed.service.ContentLessonLinkService.LinkSource;
 import com.rotiprata.api.feed.service.RecommendationScorer.ScoredRecommendation;
 import com.rotiprata.api.feed.response.FeedResponse;
 import com.rotiprata.api.feed.response.RecommendationResponse;
+import com.rotiprata.infrastructure.supabase.PostgrestQuery;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminRestClient;
+import com.rotiprata.infrastructure.supabase.SupabaseBatchFetcher;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
@@ -81,7 +83,8 @@ class RecommendationServiceImplTest {
             contentCreatorEnrichmentService,
             recommendationSignalService,
             contentLessonLinkService,
-            new RecommendationScorer()
+            new RecommendationScorer(),
+            new SupabaseBatchFetcher(PostgrestQuery.DEFAULT_IN_CHUNK_SIZE, Runnable::run)
         );
         userId = UUID.randomUUID();
     }
@@ -1,7 +1,9 @@
 package com.rotiprata.api.feed.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.rotiprata.infrastructure.supabase.PostgrestQuery;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminRestClient;
+import com.rotiprata.infrastructure.supabase.SupabaseBatchFetcher;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
@@ -43,7 +45,10 @@ class RecommendationSignalServiceImplTest {
      */
     @BeforeEach
     void setUp() {
-        recommendationSignalService = new RecommendationSignalServiceImpl(supabaseAdminRestClient);
+        recommendationSignalService = new RecommendationSignalServiceImpl(
+            supabaseAdminRestClient,
+            new SupabaseBatchFetcher(PostgrestQuery.DEFAULT_IN_CHUNK_SIZE, Runnable::run)
+        );
         userId = UUID.randomUUID();
     }
 
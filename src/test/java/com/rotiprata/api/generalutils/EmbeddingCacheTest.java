@@ -0,0 +1,116 @@
+package com.rotiprata.api.generalutils;
+
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers key normalization, LRU eviction and persistence for the embedding cache.
+ */
+class EmbeddingCacheTest {
+    private static final String MODEL = "text-embedding-3-small";
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Verifies that key should ignore surrounding and repeated whitespace but not wording.
+     */
+    @Test
+    void key_ShouldIgnoreWhitespace_WhenTextsDifferOnlyInSpacing() {
+        // act & assert
+        assertEquals(EmbeddingCache.key("what is  rizz"), EmbeddingCache.key(" what is\nrizz "));
+        assertNotEquals(EmbeddingCache.key("what is rizz"), EmbeddingCache.key("what is slay"));
+    }
+
+    /**
+     * Verifies that put should evict the least recently used entry when the cache is full.
+     */
+    @Test
+    void put_ShouldEvictLeastRecentlyUsed_WhenCacheIsFull() {
+        // arrange
+        EmbeddingCache cache = new EmbeddingCache(2, MODEL, 1);
+        cache.put("a", new float[] {1f});
+        cache.put("b", new float[] {2f});
+
+        // act
+        cache.get("a");
+        cache.put("c", new float[] {3f});
+
+        // assert
+        assertNull(cache.get("b"));
+        assertArrayEquals(new float[] {1f}, cache.get("a"));
+        assertEquals(2, cache.size());
+    }
+
+    /**
+     * Verifies that get should return a copy so callers cannot mutate the cached vector.
+     */
+    @Test
+    void get_ShouldReturnCopy_WhenCallerMutatesVector() {
+        // arrange
+        EmbeddingCache cache = new EmbeddingCache(2, MODEL, 1);
+        cache.put("a", new float[] {1f});
+
+        // act
+        cache.get("a")[0] = 9f;
+
+        // assert
+        assertArrayEquals(new float[] {1f}, cache.get("a"));
+    }
+
+    /**
+     * Verifies that save and load should round-trip every entry.
+     */
+    @Test
+    void save_ShouldRoundTripEntries_WhenLoadedIntoNewCache() throws Exception {
+        // arrange
+        Path file = tempDir.resolve("cache/embeddings.bin");
+        EmbeddingCache cache = new EmbeddingCache(10, MODEL, 2);
+        cache.put("a", new float[] {0.5f, -1f});
+        cache.put("b", new float[] {2f, 3f});
+
+        // act
+        cache.save(file);
+        EmbeddingCache restored = new EmbeddingCache(10, MODEL, 2);
+        boolean loaded = restored.load(file);
+        boolean missing = new EmbeddingCache(10, MODEL, 2).load(tempDir.resolve("missing.bin"));
+
+        // assert
+        assertTrue(loaded);
+        assertFalse(missing);
+        assertEquals(2, restored.size());
+        assertArrayEquals(new float[] {0.5f, -1f}, restored.get("a"));
+    }
+
+    /**
+     * Verifies that load should discard a file written for another model or dimension count.
+     */
+    @Test
+    void load_ShouldDiscardFile_WhenModelOrDimensionsDiffer() throws Exception {
+        // arrange
+        Path file = tempDir.resolve("embeddings.bin");
+        EmbeddingCache cache = new EmbeddingCache(10, MODEL, 2);
+        cache.put("a", new float[] {0.5f, -1f});
+        cache.save(file);
+        EmbeddingCache otherModel = new EmbeddingCache(10, "text-embedding-3-large", 2);
+        EmbeddingCache otherDimensions = new EmbeddingCache(10, MODEL, 3);
+
+        // act
+        boolean loadedOtherModel = otherModel.load(file);
+        boolean loadedOtherDimensions = otherDimensions.load(file);
+
+        // assert
+        assertFalse(loadedOtherModel);
+        assertFalse(loadedOtherDimensions);
+        assertEquals(0, otherModel.size());
+        assertEquals(0, otherDimensions.size());
+    }
+}
@@ -1,9 +1,13 @@
 package com.rotiprata.api.generalutils;
 
+import com.rotiprata.config.EmbeddingProperties;
+import java.nio.file.Path;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.ai.openai.OpenAiEmbeddingModel;
@@ -12,6 +16,7 @@ import org.springframework.web.server.ResponseStatusException;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.times;
@@ -175,4 +180,133 @@ class EmbeddingServiceImplTest {
         // assert
         assertEquals("Vector must not be null or empty", ex.getMessage());
     }
+
+    /**
+     * Verifies that generate embedding should reuse the cached vector when the same text repeats.
+     */
+    @Test
+    void generateEmbedding_ShouldCallModelOnce_WhenTextRepeats() {
+        // arrange
+        FakeEmbeddingModel model = new FakeEmbeddingModel();
+        EmbeddingServiceImpl cached = new EmbeddingServiceImpl(model);
+
+        // act
+        float[] first = cached.generateEmbedding("What is rizz?");
+        float[] second = cached.generateEmbedding("  What is   rizz? ");
+
+        // assert
+        assertArrayEquals(first, second);
+        assertNotSame(first, second);
+        assertEquals(1, model.requests().size());
+    }
+
+    /**
+     * Verifies that generate embeddings should embed only distinct uncached texts, in batches, and keep input order.
+     */
+    @Test
+    void generateEmbeddings_ShouldBatchUncachedTexts_WhenSomeAreCachedOrRepeated() {
+        // arrange
+        FakeEmbeddingModel model = new FakeEmbeddingModel();
+        EmbeddingProperties properties = new EmbeddingProperties();
+        properties.setBatchSize(2);
+        EmbeddingServiceImpl batched = new EmbeddingServiceImpl(model, properties);
+        batched.generateEmbedding("rizz");
+
+        // act
+        List<float[]> result = batched.generateEmbeddings(List.of("slay", "rizz", "no cap", "slay", "aura"));
+
+        // assert
+        assertEquals(5, result.size());
+        assertArrayEquals(FakeEmbeddingModel.vectorFor("rizz"), result.get(1));
+        assertArrayEquals(result.get(0), result.get(3));
+        assertArrayEquals(FakeEmbeddingModel.vectorFor("aura"), result.get(4));
+
+        // verify
+        assertEquals(List.of(List.of("rizz"), List.of("slay", "no cap"), List.of("aura")), model.requests());
+    }
+
+    /**
+     * Verifies that generate embeddings should reject the whole batch when any text is blank.
+     */
+    @Test
+    void generateEmbeddings_ShouldThrowBadRequest_WhenAnyTextIsBlank() {
+        // act & assert
+        ResponseStatusException ex = assertThrows(
+            ResponseStatusException.class,
+            () -> service.generateEmbeddings(List.of("ok", " "))
+        );
+
+        // assert
+        assertEquals(400, ex.getStatusCode().value());
+    }
+
+    /**
+     * Verifies that the cache should survive a restart when a persist path is configured.
+     */
+    @Test
+    void saveCache_ShouldRestoreEmbeddings_WhenServiceRestarts(@TempDir Path tempDir) {
+        // arrange
+        EmbeddingProperties properties = new EmbeddingProperties();
+        properties.setDimensions(FakeEmbeddingModel.DIMENSIONS);
+        properties.getCache().setPersistPath(tempDir.resolve("embeddings.bin").toString());
+        EmbeddingServiceImpl before = new EmbeddingServiceImpl(new FakeEmbeddingModel(), properties);
+        float[] expected = before.generateEmbedding("rizz");
+        before.saveCache();
+        FakeEmbeddingModel model = new FakeEmbeddingModel();
+        EmbeddingServiceImpl after = new EmbeddingServiceImpl(model, properties);
+
+        // act
+        after.loadCache();
+        float[] restored = after.generateEmbedding("rizz");
+
+        // assert
+        assertArrayEquals(expected, restored);
+        assertTrue(model.requests().isEmpty());
+    }
+
+    /**
+     * Verifies that a persisted cache should be ignored when the configured embedding model changes.
+     */
+    @Test
+    void loadCache_ShouldIgnorePersistedEmbeddings_WhenModelChanges(@TempDir Path tempDir) {
+        // arrange
+        EmbeddingProperties properties = new EmbeddingProperties();
+        properties.setDimensions(FakeEmbeddingModel.DIMENSIONS);
+        properties.getCache().setPersistPath(tempDir.resolve("embeddings.bin").toString());
+        EmbeddingServiceImpl before = new EmbeddingServiceImpl(new FakeEmbeddingModel(), properties);
+        before.generateEmbedding("rizz");
+        before.saveCache();
+        properties.setModel("text-embedding-3-large");
+        FakeEmbeddingModel model = new FakeEmbeddingModel();
+        EmbeddingServiceImpl after = new EmbeddingServiceImpl(model, properties);
+
+        // act
+        after.loadCache();
+        after.generateEmbedding("rizz");
+
+        // assert
+        assertEquals(List.of(List.of("rizz")), model.requests());
+    }
+
+    /**
+     * Verifies that refresh embeddings should call the model for cached texts and keep input order.
+     */
+    @Test
+    void refreshEmbeddings_ShouldBypassCache_WhenTextsWereAlreadyEmbedded() {
+        // arrange
+        FakeEmbeddingModel model = new FakeEmbeddingModel();
+        EmbeddingServiceImpl refreshing = new EmbeddingServiceImpl(model);
+        refreshing.generateEmbedding("rizz");
+
+        // act
+        List<float[]> result = refreshing.refreshEmbeddings(List.of("rizz", "slay", "rizz"));
+
+        // assert
+        assertEquals(3, result.size());
+        assertArrayEquals(FakeEmbeddingModel.vectorFor("slay"), result.get(1));
+        assertArrayEquals(result.get(0), result.get(2));
+
+        // verify
+        assertEquals(List.of(List.of("rizz"), List.of("rizz", "slay")), model.requests());
+    }
 }
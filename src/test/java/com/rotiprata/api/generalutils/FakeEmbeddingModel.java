@@ -0,0 +1,69 @@
+package com.rotiprata.api.generalutils;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+/**
+ * Deterministic local embedding model for tests: each analyzed term is hashed into one of a fixed
+ * number of dimensions and the result is normalized, so texts sharing words have similar vectors.
+ * Records every request so tests can assert how many model calls were made.
+ */
+public final class FakeEmbeddingModel implements EmbeddingModel {
+    public static final int DIMENSIONS = 64;
+
+    private final List<List<String>> requests = new ArrayList<>();
+
+    /**
+     * Returns the embedding this model produces for a text.
+     */
+    public static float[] vectorFor(String text) {
+        float[] vector = new float[DIMENSIONS];
+        for (String term : SearchText.analyze(text)) {
+            vector[Math.floorMod(term.hashCode(), DIMENSIONS)] += 1f;
+        }
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] *= scale;
+            }
+        }
+        return vector;
+    }
+
+    /**
+     * Returns the inputs of every request made so far, one list per model call.
+     */
+    public synchronized List<List<String>> requests() {
+        return List.copyOf(requests);
+    }
+
+    @Override
+    public synchronized EmbeddingResponse call(EmbeddingRequest request) {
+        List<String> inputs = List.copyOf(request.getInstructions());
+        requests.add(inputs);
+        List<Embedding> embeddings = new ArrayList<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            embeddings.add(new Embedding(vectorFor(inputs.get(i)), i));
+        }
+        return new EmbeddingResponse(embeddings);
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return call(new EmbeddingRequest(List.of(document.getText()), null)).getResult().getOutput();
+    }
+
+    @Override
+    public int dimensions() {
+        return DIMENSIONS;
+    }
+}
@@ -0,0 +1,37 @@
+package com.rotiprata.api.generalutils;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers tokenizing, folding and stemming for shared search text analysis.
+ */
+class SearchTextTest {
+
+    /**
+     * Verifies that analyze should fold accents, split punctuation and stem inflections.
+     */
+    @Test
+    void analyze_ShouldFoldAndStemTerms_WhenTextHasPunctuationAndAccents() {
+        // act
+        List<String> terms = SearchText.analyze("Café, (slaying) SLAYS! stories");
+
+        // assert
+        assertEquals(List.of("cafe", "slay", "slay", "story"), terms);
+        assertTrue(SearchText.analyze("  ").isEmpty());
+    }
+
+    /**
+     * Verifies that stem should leave short words and numbers unchanged.
+     */
+    @Test
+    void stem_ShouldKeepTerm_WhenTermIsShortOrNumeric() {
+        // act + assert
+        assertEquals("bus", SearchText.stem("bus"));
+        assertEquals("2024", SearchText.stem("2024"));
+        assertEquals("status", SearchText.stem("status"));
+    }
+}
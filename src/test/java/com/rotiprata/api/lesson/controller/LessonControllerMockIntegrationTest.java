@@ -7,6 +7,7 @@ import com.rotiprata.api.admin.dto.AdminLessonDraftResponse;
 import com.rotiprata.api.admin.dto.AdminPublishLessonResponse;
 import com.rotiprata.api.admin.dto.AdminStepSaveRequest;
 import com.rotiprata.api.admin.dto.AdminStepSaveResponse;
+import com.rotiprata.api.lesson.dto.LessonCardResponse;
 import com.rotiprata.api.lesson.dto.LessonFeedResponse;
 import com.rotiprata.api.lesson.dto.LessonHeartsStatusResponse;
 import com.rotiprata.api.lesson.dto.LessonHubResponse;
@@ -93,13 +94,16 @@ class LessonControllerMockIntegrationTest {
     @Test
     void lessons_ShouldReturnLessonList_WhenAuthenticated() {
         //arrange
-        when(lessonService.getLessons(anyString())).thenReturn(List.of(Map.of("id", LESSON_ID.toString())));
+        when(lessonService.getLessons(anyString())).thenReturn(List.of(lessonCard(LESSON_ID, "Bonjour")));
 
         //act
         var response = auth.when().get("/api/lessons");
 
         //assert
-        response.then().status(HttpStatus.OK).body("[0].id", equalTo(LESSON_ID.toString()));
+        response.then()
+            .status(HttpStatus.OK)
+            .body("[0].id", equalTo(LESSON_ID.toString()))
+            .body("[0].xp_reward", equalTo(50));
 
         //verify
         verify(lessonService).getLessons(eq(ACCESS_TOKEN));
@@ -159,7 +163,7 @@ class LessonControllerMockIntegrationTest {
     @Test
     void searchLessons_ShouldReturnSearchResults_WhenQueryProvided() {
         //arrange
-        when(lessonService.searchLessons(anyString(), anyString())).thenReturn(List.of(Map.of("title", "Bonjour")));
+        when(lessonService.searchLessons(anyString(), anyString())).thenReturn(List.of(lessonCard(LESSON_ID, "Bonjour")));
 
         //act
         var response = auth.queryParam("q", "bon").when().get("/api/lessons/search-results");
@@ -731,7 +735,7 @@ class LessonControllerMockIntegrationTest {
     void lessonMediaStatus_ShouldReturnStatusResponse_WhenAssetExists() {
         //arrange
         when(lessonService.getLessonMediaStatus(any(), any(), any(), anyString()))
-            .thenReturn(new LessonMediaStatusResponse(ASSET_ID, "ready", "video", "https://play", "https://thumb", null));
+            .thenReturn(new LessonMediaStatusResponse(ASSET_ID, "ready", "video", "https://play", "https://thumb", null, null));
 
         //act
         var response = auth.when().get("/api/admin/lessons/{lessonId}/media/{assetId}", LESSON_ID.toString(), ASSET_ID.toString());
@@ -776,4 +780,8 @@ class LessonControllerMockIntegrationTest {
         .then()
             .status(HttpStatus.OK);
     }
+
+    private LessonCardResponse lessonCard(UUID id, String title) {
+        return new LessonCardResponse(id, title, null, null, 1, 5, 50, 0, null, null, null, true, null, null);
+    }
 }
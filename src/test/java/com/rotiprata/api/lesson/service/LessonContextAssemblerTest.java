@@ -0,0 +1,76 @@
+package com.rotiprata.api.lesson.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers token estimation, section chunking and budgeted packing for the chatbot context assembler.
+ */
+class LessonContextAssemblerTest {
+
+    private final LessonContextAssembler assembler = new LessonContextAssembler(60, 20);
+
+    /**
+     * Verifies that estimate tokens should count word pieces and punctuation.
+     */
+    @Test
+    void estimateTokens_ShouldCountWordPiecesAndPunctuation_WhenTextIsGiven() {
+        // act & assert
+        assertEquals(0, LessonContextAssembler.estimateTokens(null));
+        assertEquals(3, LessonContextAssembler.estimateTokens("No cap."));
+        assertEquals(4, LessonContextAssembler.estimateTokens("extraordinary"));
+    }
+
+    /**
+     * Verifies that chunk should split long sections at sentence boundaries within the chunk size.
+     */
+    @Test
+    void chunk_ShouldSplitAtSentences_WhenSectionExceedsChunkSize() {
+        // arrange
+        Map<String, String> sections = new LinkedHashMap<>();
+        sections.put("Overview", "Rizz is charisma.");
+        sections.put("Lore", "It spread on streams in 2021. Fans clipped it everywhere. Then dictionaries added it. ");
+        sections.put("Usage Examples", "  ");
+
+        // act
+        List<LessonContextAssembler.Chunk> chunks = assembler.chunk(sections);
+
+        // assert
+        assertEquals(List.of("Overview", "Lore", "Lore"), chunks.stream().map(LessonContextAssembler.Chunk::section).toList());
+        assertEquals("It spread on streams in 2021. Fans clipped it everywhere.", chunks.get(1).text());
+        assertTrue(chunks.stream().allMatch(chunk -> chunk.tokens() <= 20 + 3));
+    }
+
+    /**
+     * Verifies that assemble should keep the chunks matching the question and drop the rest once the budget is spent.
+     */
+    @Test
+    void assemble_ShouldPreferMatchingChunks_WhenLessonsExceedBudget() {
+        // arrange
+        LessonContextAssembler.Lesson rizz = new LessonContextAssembler.Lesson("Rizz", assembler.chunk(Map.of(
+            "Overview", "Charisma when flirting."
+        )));
+        Map<String, String> slaySections = new LinkedHashMap<>();
+        slaySections.put("Overview", "Doing something very well.");
+        slaySections.put("Lore", "Ballroom culture popularised slay decades ago.");
+        slaySections.put("Comparison", "Unlike rizz, slay is not about flirting at all and applies to anything.");
+        slaySections.put("Evolution", "Later it moved to social media captions and comment sections everywhere.");
+        LessonContextAssembler.Lesson slay = new LessonContextAssembler.Lesson("Slay", assembler.chunk(slaySections));
+
+        // act
+        String context = new LessonContextAssembler(40, 20).assemble("Where does slay come from, ballroom?", List.of(slay, rizz));
+
+        // assert
+        assertTrue(context.startsWith("Slay\nOverview: Doing something very well.\nLore: Ballroom culture"));
+        assertTrue(context.endsWith("\n\nRizz\nOverview: Charisma when flirting."));
+        assertFalse(context.contains("Comparison:"));
+        assertFalse(context.contains("Evolution:"));
+        assertTrue(LessonContextAssembler.estimateTokens(context) <= 40);
+    }
+}
@@ -0,0 +1,54 @@
+package com.rotiprata.api.lesson.service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Covers expiry and eviction for the per-user hearts cache.
+ */
+class LessonHeartsCacheTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+    private final LessonHeartsCache cache = new LessonHeartsCache(Duration.ofSeconds(15), clock::get);
+    private final UUID userId = UUID.randomUUID();
+    private final LessonHeartsSnapshot snapshot = new LessonHeartsSnapshot(3, OffsetDateTime.now(), 3, OffsetDateTime.now());
+
+    /**
+     * Verifies that get should return the stored snapshot until the TTL elapses.
+     */
+    @Test
+    void get_ShouldReturnSnapshot_UntilTtlElapses() {
+        // arrange
+        cache.put(userId, snapshot);
+
+        // act
+        LessonHeartsSnapshot fresh = cache.get(userId);
+        clock.addAndGet(15_000);
+        LessonHeartsSnapshot expired = cache.get(userId);
+
+        // assert
+        assertSame(snapshot, fresh);
+        assertNull(expired);
+    }
+
+    /**
+     * Verifies that evict should drop the snapshot for the user.
+     */
+    @Test
+    void evict_ShouldDropSnapshot() {
+        // arrange
+        cache.put(userId, snapshot);
+
+        // act
+        cache.evict(userId);
+
+        // assert
+        assertNull(cache.get(userId));
+    }
+}
@@ -0,0 +1,94 @@
+package com.rotiprata.api.lesson.service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Covers lazy refill and deduction arithmetic for learner hearts.
+ */
+class LessonHeartsEngineTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.parse("2026-05-01T12:00:00Z");
+
+    private final LessonHeartsEngine engine = new LessonHeartsEngine(5, Duration.ofHours(24));
+
+    /**
+     * Verifies that read should keep stored hearts while the refill is pending.
+     */
+    @Test
+    void read_ShouldKeepStoredHearts_WhenRefillIsPending() {
+        // act
+        LessonHeartsSnapshot snapshot = engine.read(2, NOW.plusHours(3), NOW);
+
+        // assert
+        assertEquals(2, snapshot.heartsRemaining());
+        assertEquals(NOW.plusHours(3), snapshot.refillAt());
+        assertEquals(2, snapshot.storedHearts());
+    }
+
+    /**
+     * Verifies that read should refill and roll the schedule forward by whole intervals once refill time has passed.
+     */
+    @Test
+    void read_ShouldRefillAndRollScheduleForward_WhenRefillTimeHasPassed() {
+        // act
+        LessonHeartsSnapshot snapshot = engine.read(1, NOW.minusHours(30), NOW);
+
+        // assert
+        assertEquals(5, snapshot.heartsRemaining());
+        assertEquals(NOW.plusHours(18), snapshot.refillAt());
+        assertEquals(1, snapshot.storedHearts());
+        assertEquals(NOW.minusHours(30), snapshot.storedRefillAt());
+    }
+
+    /**
+     * Verifies that read should treat a missing refill time as full hearts.
+     */
+    @Test
+    void read_ShouldReturnFullHearts_WhenRefillTimeIsMissing() {
+        // act
+        LessonHeartsSnapshot snapshot = engine.read(0, null, NOW);
+
+        // assert
+        assertEquals(5, snapshot.heartsRemaining());
+        assertEquals(NOW.plusHours(24), snapshot.refillAt());
+        assertNull(snapshot.storedRefillAt());
+    }
+
+    /**
+     * Verifies that deduct should start a new refill window when hearts were full.
+     */
+    @Test
+    void deduct_ShouldStartRefillWindow_WhenHeartsWereFull() {
+        // arrange
+        LessonHeartsSnapshot current = engine.read(2, NOW.minusMinutes(1), NOW);
+
+        // act
+        LessonHeartsSnapshot next = engine.deduct(current, NOW);
+
+        // assert
+        assertEquals(4, next.heartsRemaining());
+        assertEquals(4, next.storedHearts());
+        assertEquals(NOW.plusHours(24), next.storedRefillAt());
+    }
+
+    /**
+     * Verifies that deduct should keep the pending refill time when hearts were not full.
+     */
+    @Test
+    void deduct_ShouldKeepPendingRefill_WhenHeartsWereNotFull() {
+        // arrange
+        LessonHeartsSnapshot current = engine.read(1, NOW.plusHours(5), NOW);
+
+        // act
+        LessonHeartsSnapshot next = engine.deduct(current, NOW);
+
+        // assert
+        assertEquals(0, next.heartsRemaining());
+        assertEquals(NOW.plusHours(5), next.refillAt());
+    }
+}
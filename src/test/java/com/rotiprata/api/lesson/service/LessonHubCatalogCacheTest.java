@@ -0,0 +1,99 @@
+package com.rotiprata.api.lesson.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Covers expiry, invalidation and load races for the lesson hub catalogue cache.
+ */
+class LessonHubCatalogCacheTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+    private final AtomicInteger loads = new AtomicInteger();
+    private LessonHubCatalogCache cache;
+
+    /**
+     * Builds the shared test fixture and default mock behavior for each scenario.
+     */
+    @BeforeEach
+    void setUp() {
+        cache = new LessonHubCatalogCache(Duration.ofSeconds(60), clock::get);
+    }
+
+    /**
+     * Verifies that get should reuse the loaded catalogue until the TTL elapses.
+     */
+    @Test
+    void get_ShouldReuseCatalog_UntilTtlElapses() {
+        // act
+        LessonHubCatalog first = cache.get(this::load);
+        LessonHubCatalog second = cache.get(this::load);
+        clock.addAndGet(Duration.ofSeconds(60).toMillis());
+        LessonHubCatalog expired = cache.get(this::load);
+
+        // assert
+        assertSame(first, second);
+        assertEquals(2, loads.get());
+        assertEquals(2, expired.totalLessons());
+    }
+
+    /**
+     * Verifies that invalidate should force the next get to reload.
+     */
+    @Test
+    void invalidate_ShouldReloadCatalog_OnNextGet() {
+        // arrange
+        cache.get(this::load);
+
+        // act
+        cache.invalidate();
+        LessonHubCatalog reloaded = cache.get(this::load);
+
+        // assert
+        assertEquals(2, loads.get());
+        assertEquals(2, reloaded.totalLessons());
+    }
+
+    /**
+     * Verifies that a load racing with an invalidation should not be stored.
+     */
+    @Test
+    void get_ShouldNotStoreCatalog_WhenInvalidatedDuringLoad() {
+        // act
+        cache.get(() -> {
+            cache.invalidate();
+            return load();
+        });
+        cache.get(this::load);
+
+        // assert
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * Verifies that loader failures should propagate and not be cached.
+     */
+    @Test
+    void get_ShouldNotCacheFailure_WhenLoaderThrows() {
+        // act
+        assertThrows(IllegalStateException.class, () -> cache.get(() -> {
+            throw new IllegalStateException("catalog unavailable");
+        }));
+        LessonHubCatalog loaded = cache.get(this::load);
+
+        // assert
+        assertEquals(1, loaded.totalLessons());
+    }
+
+    private LessonHubCatalog load() {
+        return new LessonHubCatalog(List.of(), loads.incrementAndGet());
+    }
+}
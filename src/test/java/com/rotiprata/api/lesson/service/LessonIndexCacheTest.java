@@ -0,0 +1,171 @@
+package com.rotiprata.api.lesson.service;
+
+import com.rotiprata.api.lesson.dto.LessonCardResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers full rebuilds, incremental change application and failure handling for the lesson index
+ * cache.
+ */
+class LessonIndexCacheTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+    private final AtomicInteger fullLoads = new AtomicInteger();
+    private final List<Set<UUID>> changedLoads = new ArrayList<>();
+    private final UUID lessonId = UUID.randomUUID();
+    private LessonIndexCache<LessonCardResponse, LessonSearchIndex> cache;
+
+    /**
+     * Builds the shared test fixture and default mock behavior for each scenario.
+     */
+    @BeforeEach
+    void setUp() {
+        cache = new LessonIndexCache<>(
+            Duration.ofMinutes(5),
+            clock::get,
+            LessonSearchIndex::build,
+            LessonSearchIndex::apply
+        );
+    }
+
+    /**
+     * Verifies that get should reuse the index until the TTL elapses.
+     */
+    @Test
+    void get_ShouldReuseIndex_UntilTtlElapses() {
+        // act
+        LessonSearchIndex first = cache.get(this::loadAll, this::loadChanged);
+        LessonSearchIndex second = cache.get(this::loadAll, this::loadChanged);
+        clock.addAndGet(Duration.ofMinutes(5).toMillis());
+        cache.get(this::loadAll, this::loadChanged);
+
+        // assert
+        assertSame(first, second);
+        assertEquals(2, fullLoads.get());
+        assertEquals(0, changedLoads.size());
+    }
+
+    /**
+     * Verifies that mark changed should reload only the changed lesson on the next get.
+     */
+    @Test
+    void markChanged_ShouldApplyOnlyChangedLessons_OnNextGet() {
+        // arrange
+        cache.get(this::loadAll, this::loadChanged);
+
+        // act
+        cache.markChanged(lessonId);
+        LessonSearchIndex updated = cache.get(this::loadAll, this::loadChanged);
+
+        // assert
+        assertEquals(1, fullLoads.get());
+        assertEquals(List.of(Set.of(lessonId)), changedLoads);
+        assertEquals(lessonId, updated.search("updated", 10).get(0).id());
+        assertSame(updated, cache.get(this::loadAll, this::loadChanged));
+    }
+
+    /**
+     * Verifies that get should keep changes queued when the incremental load fails.
+     */
+    @Test
+    void get_ShouldRequeueChanges_WhenChangedLoadFails() {
+        // arrange
+        cache.get(this::loadAll, this::loadChanged);
+        cache.markChanged(lessonId);
+
+        // act
+        assertThrows(IllegalStateException.class, () -> cache.get(this::loadAll, ids -> {
+            throw new IllegalStateException("boom");
+        }));
+        LessonSearchIndex retried = cache.get(this::loadAll, this::loadChanged);
+
+        // assert
+        assertEquals(List.of(Set.of(lessonId)), changedLoads);
+        assertEquals(1, retried.search("updated", 10).size());
+    }
+
+    /**
+     * Verifies that invalidate should force a full rebuild on the next get.
+     */
+    @Test
+    void invalidate_ShouldRebuildIndex_OnNextGet() {
+        // arrange
+        LessonSearchIndex first = cache.get(this::loadAll, this::loadChanged);
+
+        // act
+        cache.invalidate();
+        LessonSearchIndex rebuilt = cache.get(this::loadAll, this::loadChanged);
+
+        // assert
+        assertNotSame(first, rebuilt);
+        assertEquals(2, fullLoads.get());
+    }
+
+    /**
+     * Verifies that get should serve the stale index instead of reloading again while another thread rebuilds it.
+     */
+    @Test
+    void get_ShouldServeStaleIndex_WhileAnotherThreadRebuilds() throws Exception {
+        // arrange
+        LessonSearchIndex stale = cache.get(this::loadAll, this::loadChanged);
+        clock.addAndGet(Duration.ofMinutes(5).toMillis());
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<LessonSearchIndex> rebuilding = CompletableFuture.supplyAsync(() -> cache.get(() -> {
+            loading.countDown();
+            awaitQuietly(release);
+            return loadAll();
+        }, this::loadChanged));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // act
+        LessonSearchIndex served = cache.get(this::loadAll, this::loadChanged);
+        release.countDown();
+        LessonSearchIndex rebuilt = rebuilding.get(5, TimeUnit.SECONDS);
+
+        // assert
+        assertSame(stale, served);
+        assertNotSame(stale, rebuilt);
+        assertEquals(2, fullLoads.get());
+        assertSame(rebuilt, cache.get(this::loadAll, this::loadChanged));
+    }
+
+        private List<LessonCardResponse> loadAll() {
+        fullLoads.incrementAndGet();
+        return List.of(card(lessonId, "Original"));
+    }
+
+    private List<LessonCardResponse> loadChanged(Set<UUID> ids) {
+        changedLoads.add(Set.copyOf(ids));
+        return List.of(card(lessonId, "Updated"));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static LessonCardResponse card(UUID id, String title) {
+        return new LessonCardResponse(id, title, null, null, 1, 5, 50, 0, null, null, null, true, null, null);
+    }
+}
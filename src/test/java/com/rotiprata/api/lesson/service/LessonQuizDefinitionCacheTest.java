@@ -0,0 +1,86 @@
+package com.rotiprata.api.lesson.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Covers expiry, eviction and load races for the lesson quiz definition cache.
+ */
+class LessonQuizDefinitionCacheTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final UUID lessonId = UUID.randomUUID();
+    private LessonQuizDefinitionCache cache;
+
+    /**
+     * Builds the shared test fixture and default mock behavior for each scenario.
+     */
+    @BeforeEach
+    void setUp() {
+        cache = new LessonQuizDefinitionCache(Duration.ofMinutes(5), clock::get);
+    }
+
+    /**
+     * Verifies that get should reuse the loaded definition until the TTL elapses.
+     */
+    @Test
+    void get_ShouldReuseDefinition_UntilTtlElapses() {
+        // act
+        LessonQuizDefinition first = cache.get(lessonId, this::load);
+        LessonQuizDefinition second = cache.get(lessonId, this::load);
+        clock.addAndGet(Duration.ofMinutes(5).toMillis());
+        LessonQuizDefinition expired = cache.get(lessonId, this::load);
+
+        // assert
+        assertSame(first, second);
+        assertEquals(2, loads.get());
+        assertEquals("quiz-2", expired.quizId());
+    }
+
+    /**
+     * Verifies that a load racing with an eviction should not be stored.
+     */
+    @Test
+    void get_ShouldNotStoreDefinition_WhenEvictedDuringLoad() {
+        // act
+        cache.get(lessonId, () -> {
+            cache.evict(lessonId);
+            return load();
+        });
+        cache.get(lessonId, this::load);
+
+        // assert
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * Verifies that loader failures should propagate and not be cached.
+     */
+    @Test
+    void get_ShouldNotCacheFailure_WhenLoaderThrows() {
+        // act
+        assertThrows(IllegalStateException.class, () -> cache.get(lessonId, () -> {
+            throw new IllegalStateException("no quiz");
+        }));
+        LessonQuizDefinition loaded = cache.get(lessonId, this::load);
+
+        // assert
+        assertEquals("quiz-1", loaded.quizId());
+    }
+
+    private LessonQuizDefinition load() {
+        int version = loads.incrementAndGet();
+        return new LessonQuizDefinition(Map.of(), List.of(), Map.of("id", "quiz-" + version), List.of(), Map.of(), 0);
+    }
+}
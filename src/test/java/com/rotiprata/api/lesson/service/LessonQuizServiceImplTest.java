@@ -7,6 +7,7 @@ import com.rotiprata.api.lesson.dto.LessonQuizStateResponse;
 import com.rotiprata.api.lesson.utils.LessonFlowConstants;
 import com.rotiprata.api.lesson.utils.quiz.LessonQuizGraderRegistry;
 import com.rotiprata.api.lesson.utils.quiz.MultipleChoiceQuestionGrader;
+import com.rotiprata.api.user.service.LeaderboardEngine;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminRestClient;
 import com.rotiprata.infrastructure.supabase.SupabaseRestClient;
 import java.time.OffsetDateTime;
@@ -26,6 +27,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -52,6 +54,9 @@ class LessonQuizServiceImplTest {
     @Mock
     private SupabaseAdminRestClient supabaseAdminRestClient;
 
+    @Mock
+    private LeaderboardEngine leaderboardEngine;
+
     private LessonQuizServiceImpl lessonQuizService;
     private UUID userId;
     private UUID lessonId;
@@ -71,7 +76,9 @@ class LessonQuizServiceImplTest {
         lessonQuizService = new LessonQuizServiceImpl(
             supabaseRestClient,
             supabaseAdminRestClient,
-            new LessonQuizGraderRegistry(List.of(new MultipleChoiceQuestionGrader()))
+            new LessonQuizGraderRegistry(List.of(new MultipleChoiceQuestionGrader())),
+            leaderboardEngine,
+            false
         );
         userId = UUID.randomUUID();
         lessonId = UUID.randomUUID();
@@ -96,8 +103,6 @@ class LessonQuizServiceImplTest {
         OffsetDateTime consumedRefillAt = OffsetDateTime.now().plusHours(24);
         when(supabaseRestClient.getList(eq("lessons"), anyString(), eq(ACCESS_TOKEN), any()))
             .thenReturn(List.of(lesson));
-        when(supabaseRestClient.getList(eq("user_lesson_progress"), anyString(), eq(ACCESS_TOKEN), any()))
-            .thenReturn(List.of(completedProgressRow()));
         when(supabaseAdminRestClient.getList(eq("quizzes"), anyString(), any()))
             .thenReturn(List.of(quiz));
         when(supabaseAdminRestClient.getList(eq("quiz_questions"), anyString(), any()))
@@ -146,29 +151,21 @@ class LessonQuizServiceImplTest {
         Map<String, Object> attempt = activeAttempt("attempt-1", 0, 0, 0, 20, "in_progress");
         Map<String, Object> patchedAttempt = activeAttempt("attempt-1", 1, 0, 0, 20, "in_progress");
         OffsetDateTime staleRefillAt = OffsetDateTime.now().minusMinutes(5);
-        OffsetDateTime normalizedRefillAt = OffsetDateTime.now().plusHours(24);
         OffsetDateTime consumedRefillAt = OffsetDateTime.now().plusHours(24);
         when(supabaseRestClient.getList(eq("lessons"), anyString(), eq(ACCESS_TOKEN), any()))
             .thenReturn(List.of(lesson));
-        when(supabaseRestClient.getList(eq("user_lesson_progress"), anyString(), eq(ACCESS_TOKEN), any()))
-            .thenReturn(List.of(completedProgressRow()));
         when(supabaseAdminRestClient.getList(eq("quizzes"), anyString(), any()))
             .thenReturn(List.of(quiz));
         when(supabaseAdminRestClient.getList(eq("quiz_questions"), anyString(), any()))
             .thenReturn(List.of(firstQuestion, secondQuestion));
         when(supabaseRestClient.getList(eq("user_quiz_hearts"), anyString(), eq(ACCESS_TOKEN), any()))
-            .thenReturn(
-                List.of(heartsRow(5, staleRefillAt)),
-                List.of(heartsRow(5, normalizedRefillAt)),
-                List.of(heartsRow(4, consumedRefillAt)),
-                List.of(heartsRow(4, consumedRefillAt))
-            );
+            .thenReturn(List.of(heartsRow(5, staleRefillAt)));
         when(supabaseRestClient.getList(eq("user_lesson_quiz_attempts"), anyString(), eq(ACCESS_TOKEN), any()))
             .thenReturn(List.of(attempt));
         when(supabaseRestClient.patchList(eq("user_lesson_quiz_attempts"), anyString(), any(), eq(ACCESS_TOKEN), any()))
             .thenReturn(List.of(patchedAttempt));
         when(supabaseRestClient.patchList(eq("user_quiz_hearts"), anyString(), any(), eq(ACCESS_TOKEN), any()))
-            .thenReturn(List.of(heartsRow(5, normalizedRefillAt)), List.of(heartsRow(4, consumedRefillAt)));
+            .thenReturn(List.of(heartsRow(4, consumedRefillAt)));
 
         // act
         LessonQuizAnswerResponse response = lessonQuizService.answerQuestion(
@@ -186,13 +183,14 @@ class LessonQuizServiceImplTest {
         assertNotNull(refreshedHearts.heartsRefillAt());
 
         // verify
-        verify(supabaseRestClient, times(2)).patchList(eq("user_quiz_hearts"), anyString(), any(), eq(ACCESS_TOKEN), any());
         @SuppressWarnings("unchecked")
         ArgumentCaptor<Map<String, Object>> heartsPatchCaptor = ArgumentCaptor.forClass((Class<Map<String, Object>>) (Class<?>) Map.class);
-        verify(supabaseRestClient, times(2)).patchList(eq("user_quiz_hearts"), anyString(), heartsPatchCaptor.capture(), eq(ACCESS_TOKEN), any());
-        for (Map<String, Object> patch : heartsPatchCaptor.getAllValues()) {
-            assertNotNull(patch.get("refill_at"));
-        }
+        ArgumentCaptor<String> filterCaptor = ArgumentCaptor.forClass(String.class);
+        verify(supabaseRestClient).patchList(eq("user_quiz_hearts"), filterCaptor.capture(), heartsPatchCaptor.capture(), eq(ACCESS_TOKEN), any());
+        assertEquals(4, heartsPatchCaptor.getValue().get("hearts_remaining"));
+        assertNotNull(heartsPatchCaptor.getValue().get("refill_at"));
+        assertTrue(filterCaptor.getValue().contains("hearts_remaining=eq.5"));
+        verify(supabaseRestClient).getList(eq("user_quiz_hearts"), anyString(), eq(ACCESS_TOKEN), any());
     }
 
     /**
@@ -206,8 +204,6 @@ class LessonQuizServiceImplTest {
         OffsetDateTime scheduledRefillAt = OffsetDateTime.now().plusHours(12);
         when(supabaseRestClient.getList(eq("lessons"), anyString(), eq(ACCESS_TOKEN), any()))
             .thenReturn(List.of(lesson));
-        when(supabaseRestClient.getList(eq("user_lesson_progress"), anyString(), eq(ACCESS_TOKEN), any()))
-            .thenReturn(List.of(completedProgressRow()));
         when(supabaseAdminRestClient.getList(eq("quizzes"), anyString(), any()))
             .thenReturn(List.of(quiz));
         when(supabaseAdminRestClient.getList(eq("quiz_questions"), anyString(), any()))
@@ -237,6 +233,46 @@ class LessonQuizServiceImplTest {
         verify(supabaseRestClient, never()).patchList(eq("user_quiz_hearts"), anyString(), any(), eq(ACCESS_TOKEN), any());
     }
 
+    /**
+     * Verifies that answer question should reuse the cached quiz definition until it is evicted.
+     */
+    @Test
+    void answerQuestion_ShouldReuseCachedDefinition_UntilQuizDefinitionIsEvicted() {
+        // arrange
+        Map<String, Object> attempt = activeAttempt("attempt-1", 0, 0, 0, 20, "in_progress");
+        attempt.put("quiz_id", quizId);
+        Map<String, Object> patchedAttempt = activeAttempt("attempt-1", 1, 1, 10, 20, "in_progress");
+        OffsetDateTime scheduledRefillAt = OffsetDateTime.now().plusHours(12);
+        when(supabaseRestClient.getList(eq("lessons"), anyString(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of(lesson));
+        when(supabaseAdminRestClient.getList(eq("quizzes"), anyString(), any()))
+            .thenReturn(List.of(quiz));
+        when(supabaseAdminRestClient.getList(eq("quiz_questions"), anyString(), any()))
+            .thenReturn(List.of(firstQuestion, secondQuestion));
+        when(supabaseRestClient.getList(eq("user_quiz_hearts"), anyString(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of(heartsRow(5, scheduledRefillAt)));
+        when(supabaseRestClient.getList(eq("user_lesson_quiz_attempts"), anyString(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of(attempt));
+        when(supabaseRestClient.patchList(eq("user_lesson_quiz_attempts"), anyString(), any(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of(patchedAttempt));
+        LessonQuizAnswerRequest request = new LessonQuizAnswerRequest("attempt-1", firstQuestionId, Map.of("choiceId", "A"));
+
+        // act
+        lessonQuizService.answerQuestion(userId, lessonId, request, ACCESS_TOKEN);
+        LessonQuizAnswerResponse cached = lessonQuizService.answerQuestion(userId, lessonId, request, ACCESS_TOKEN);
+        lessonQuizService.evictQuizDefinition(lessonId);
+        lessonQuizService.answerQuestion(userId, lessonId, request, ACCESS_TOKEN);
+
+        // assert
+        assertTrue(cached.correct());
+        assertEquals(2, cached.totalQuestions());
+
+        // verify
+        verify(supabaseAdminRestClient, times(2)).getList(eq("quiz_questions"), anyString(), any());
+        verify(supabaseRestClient, times(2)).getList(eq("lessons"), anyString(), eq(ACCESS_TOKEN), any());
+        verify(supabaseRestClient, never()).getList(eq("user_lesson_progress"), anyString(), eq(ACCESS_TOKEN), any());
+    }
+
     /**
      * Verifies that answer question should block quiz when wrong answer consumes last heart.
      */
@@ -245,11 +281,9 @@ class LessonQuizServiceImplTest {
         // arrange
         Map<String, Object> attempt = activeAttempt("attempt-1", 0, 0, 0, 20, "in_progress");
         Map<String, Object> patchedAttempt = activeAttempt("attempt-1", 1, 0, 0, 20, "paused_no_hearts");
-        OffsetDateTime refillAt = OffsetDateTime.parse("2026-04-13T10:00:00Z");
+        OffsetDateTime refillAt = OffsetDateTime.now().plusHours(6);
         when(supabaseRestClient.getList(eq("lessons"), anyString(), eq(ACCESS_TOKEN), any()))
             .thenReturn(List.of(lesson));
-        when(supabaseRestClient.getList(eq("user_lesson_progress"), anyString(), eq(ACCESS_TOKEN), any()))
-            .thenReturn(List.of(completedProgressRow()));
         when(supabaseAdminRestClient.getList(eq("quizzes"), anyString(), any()))
             .thenReturn(List.of(quiz));
         when(supabaseAdminRestClient.getList(eq("quiz_questions"), anyString(), any()))
@@ -346,72 +380,120 @@ class LessonQuizServiceImplTest {
     }
 
     /**
-     * Verifies that get hearts status should refill to max when refill time has passed.
+     * Verifies that get hearts status should refill to max without writing when refill time has passed.
      */
     @Test
-    void getHeartsStatus_ShouldRefillToMax_WhenRefillTimeHasPassed() {
+    void getHeartsStatus_ShouldRefillToMaxWithoutWriting_WhenRefillTimeHasPassed() {
         // arrange
         OffsetDateTime expiredRefillAt = OffsetDateTime.now().minusMinutes(5);
-        OffsetDateTime refreshedRefillAt = OffsetDateTime.now().plusHours(24);
         when(supabaseRestClient.getList(eq("user_quiz_hearts"), anyString(), eq(ACCESS_TOKEN), any()))
-            .thenReturn(List.of(heartsRow(2, expiredRefillAt)), List.of(heartsRow(5, refreshedRefillAt)));
-        when(supabaseRestClient.patchList(eq("user_quiz_hearts"), anyString(), any(), eq(ACCESS_TOKEN), any()))
-            .thenReturn(List.of(heartsRow(5, refreshedRefillAt)));
+            .thenReturn(List.of(heartsRow(2, expiredRefillAt)));
 
         // act
         LessonHeartsStatusResponse response = lessonQuizService.getHeartsStatus(userId, ACCESS_TOKEN);
 
         // assert
         assertEquals(LessonFlowConstants.MAX_HEARTS, response.heartsRemaining());
-        assertNotNull(response.heartsRefillAt());
+        assertEquals(expiredRefillAt.plusHours(24), response.heartsRefillAt());
 
         // verify
-        verify(supabaseRestClient).patchList(eq("user_quiz_hearts"), anyString(), any(), eq(ACCESS_TOKEN), any());
+        verify(supabaseRestClient, never()).patchList(eq("user_quiz_hearts"), anyString(), any(), eq(ACCESS_TOKEN), any());
     }
 
     /**
-     * Verifies that get hearts status should reschedule refill time when hearts are already full.
+     * Verifies that get hearts status should roll the refill schedule forward without writing when hearts are already full.
      */
     @Test
-    void getHeartsStatus_ShouldRescheduleRefillTime_WhenHeartsAreAlreadyFull() {
+    void getHeartsStatus_ShouldRollRefillTimeForward_WhenHeartsAreAlreadyFull() {
         // arrange
-        OffsetDateTime staleRefillAt = OffsetDateTime.now().minusMinutes(5);
-        OffsetDateTime normalizedRefillAt = OffsetDateTime.now().plusHours(24);
+        OffsetDateTime staleRefillAt = OffsetDateTime.now().minusHours(50);
         when(supabaseRestClient.getList(eq("user_quiz_hearts"), anyString(), eq(ACCESS_TOKEN), any()))
-            .thenReturn(List.of(heartsRow(5, staleRefillAt)), List.of(heartsRow(5, normalizedRefillAt)));
-        when(supabaseRestClient.patchList(eq("user_quiz_hearts"), anyString(), any(), eq(ACCESS_TOKEN), any()))
-            .thenReturn(List.of(heartsRow(5, normalizedRefillAt)));
+            .thenReturn(List.of(heartsRow(5, staleRefillAt)));
 
         // act
         LessonHeartsStatusResponse response = lessonQuizService.getHeartsStatus(userId, ACCESS_TOKEN);
 
         // assert
         assertEquals(LessonFlowConstants.MAX_HEARTS, response.heartsRemaining());
-        assertNotNull(response.heartsRefillAt());
+        assertEquals(staleRefillAt.plusHours(72), response.heartsRefillAt());
 
         // verify
-        verify(supabaseRestClient).patchList(eq("user_quiz_hearts"), anyString(), any(), eq(ACCESS_TOKEN), any());
+        verify(supabaseRestClient, never()).patchList(eq("user_quiz_hearts"), anyString(), any(), eq(ACCESS_TOKEN), any());
+    }
+
+    /**
+     * Verifies that get hearts status should serve repeated polls from the per-user cache.
+     */
+    @Test
+    void getHeartsStatus_ShouldReadHeartsOnce_WhenPolledRepeatedly() {
+        // arrange
+        OffsetDateTime refillAt = OffsetDateTime.now().plusHours(3);
+        when(supabaseRestClient.getList(eq("user_quiz_hearts"), anyString(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of(heartsRow(3, refillAt)));
+
+        // act
+        lessonQuizService.getHeartsStatus(userId, ACCESS_TOKEN);
+        LessonHeartsStatusResponse response = lessonQuizService.getHeartsStatus(userId, ACCESS_TOKEN);
+
+        // assert
+        assertEquals(3, response.heartsRemaining());
+        assertEquals(refillAt, response.heartsRefillAt());
+
+        // verify
+        verify(supabaseRestClient).getList(eq("user_quiz_hearts"), anyString(), eq(ACCESS_TOKEN), any());
+        verify(supabaseRestClient, never()).patchList(eq("user_quiz_hearts"), anyString(), any(), eq(ACCESS_TOKEN), any());
+    }
+
+    /**
+     * Verifies that answer question should reject the deduction when the conditional hearts update matches no row.
+     */
+    @Test
+    void answerQuestion_ShouldRejectAnswer_WhenConditionalHeartsUpdateMatchesNoRow() {
+        // arrange
+        Map<String, Object> attempt = activeAttempt("attempt-1", 0, 0, 0, 20, "in_progress");
+        Map<String, Object> patchedAttempt = activeAttempt("attempt-1", 1, 0, 0, 20, "in_progress");
+        when(supabaseRestClient.getList(eq("lessons"), anyString(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of(lesson));
+        when(supabaseAdminRestClient.getList(eq("quizzes"), anyString(), any()))
+            .thenReturn(List.of(quiz));
+        when(supabaseAdminRestClient.getList(eq("quiz_questions"), anyString(), any()))
+            .thenReturn(List.of(firstQuestion, secondQuestion));
+        when(supabaseRestClient.getList(eq("user_quiz_hearts"), anyString(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of(heartsRow(3, OffsetDateTime.now().plusHours(2))));
+        when(supabaseRestClient.getList(eq("user_lesson_quiz_attempts"), anyString(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of(attempt));
+        when(supabaseRestClient.patchList(eq("user_lesson_quiz_attempts"), anyString(), any(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of(patchedAttempt));
+        when(supabaseRestClient.patchList(eq("user_quiz_hearts"), anyString(), any(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of());
+        LessonQuizAnswerRequest request = new LessonQuizAnswerRequest("attempt-1", firstQuestionId, Map.of("choiceId", "B"));
+
+        // act
+        ResponseStatusException ex = assertThrows(
+            ResponseStatusException.class,
+            () -> lessonQuizService.answerQuestion(userId, lessonId, request, ACCESS_TOKEN)
+        );
+
+        // assert
+        assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
     }
 
     /**
-     * Verifies that get progress metadata should repair missing refill schedule when full hearts loaded.
+     * Verifies that get progress metadata should derive a refill schedule without writing when full hearts have no refill time.
      */
     @Test
-    void getProgressMetadata_ShouldRepairMissingRefillSchedule_WhenFullHeartsLoaded() {
+    void getProgressMetadata_ShouldDeriveRefillSchedule_WhenFullHeartsHaveNoRefillTime() {
         // arrange
-        OffsetDateTime repairedRefillAt = OffsetDateTime.now().plusHours(24);
         List<Map<String, Object>> sections = List.of(
             Map.of("id", LessonFlowConstants.SECTION_INTRO),
             Map.of("id", LessonFlowConstants.SECTION_DEFINITION)
         );
         when(supabaseRestClient.getList(eq("user_quiz_hearts"), anyString(), eq(ACCESS_TOKEN), any()))
-            .thenReturn(List.of(heartsRow(5, null)), List.of(heartsRow(5, repairedRefillAt)));
+            .thenReturn(List.of(heartsRow(5, null)));
         when(supabaseAdminRestClient.getList(eq("quizzes"), anyString(), any()))
             .thenReturn(List.of(quiz));
         when(supabaseRestClient.getList(eq("user_lesson_quiz_attempts"), anyString(), eq(ACCESS_TOKEN), any()))
             .thenReturn(List.of());
-        when(supabaseRestClient.patchList(eq("user_quiz_hearts"), anyString(), any(), eq(ACCESS_TOKEN), any()))
-            .thenReturn(List.of(heartsRow(5, repairedRefillAt)));
 
         // act
         LessonQuizService.ProgressMetadata response = lessonQuizService.getProgressMetadata(
@@ -429,7 +511,7 @@ class LessonQuizServiceImplTest {
         assertNotNull(response.heartsRefillAt());
 
         // verify
-        verify(supabaseRestClient).patchList(eq("user_quiz_hearts"), anyString(), any(), eq(ACCESS_TOKEN), any());
+        verify(supabaseRestClient, never()).patchList(eq("user_quiz_hearts"), anyString(), any(), eq(ACCESS_TOKEN), any());
     }
 
     /**
@@ -502,6 +584,195 @@ class LessonQuizServiceImplTest {
         verify(supabaseAdminRestClient, never()).postList(eq("user_achievements"), any(), any());
     }
 
+    /**
+     * Verifies that answer question should persist a passing answer through a single RPC when it is enabled.
+     */
+    @Test
+    void answerQuestion_ShouldPersistPassingAnswerInOneRpc_WhenAnswerRpcIsEnabled() {
+        // arrange
+        LessonQuizServiceImpl rpcService = rpcEnabledService();
+        lesson.put("xp_reward", 25);
+        lesson.put("badge_name", "Sigma Starter");
+        Map<String, Object> attempt = activeAttempt("attempt-1", 0, 0, 0, 10, "in_progress");
+        OffsetDateTime scheduledRefillAt = OffsetDateTime.now().plusHours(8);
+        when(supabaseRestClient.getList(eq("lessons"), anyString(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of(lesson));
+        when(supabaseAdminRestClient.getList(eq("quizzes"), anyString(), any()))
+            .thenReturn(List.of(quiz));
+        when(supabaseAdminRestClient.getList(eq("quiz_questions"), anyString(), any()))
+            .thenReturn(List.of(firstQuestion));
+        when(supabaseRestClient.getList(eq("user_quiz_hearts"), anyString(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of(heartsRow(5, scheduledRefillAt)));
+        when(supabaseRestClient.getList(eq("user_lesson_quiz_attempts"), anyString(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of(attempt));
+        when(supabaseAdminRestClient.rpcList(eq("submit_lesson_quiz_answer"), any(), any()))
+            .thenReturn(List.of(heartsRow(5, scheduledRefillAt)));
+
+        // act
+        LessonQuizAnswerResponse response = rpcService.answerQuestion(
+            userId,
+            lessonId,
+            new LessonQuizAnswerRequest("attempt-1", firstQuestionId, Map.of("choiceId", "A")),
+            ACCESS_TOKEN
+        );
+
+        // assert
+        assertTrue(response.passed());
+        assertEquals(LessonFlowConstants.QUIZ_STATUS_PASSED, response.status());
+        assertEquals(5, response.hearts().heartsRemaining());
+
+        // verify
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Object>> paramsCaptor = ArgumentCaptor.forClass((Class<Map<String, Object>>) (Class<?>) Map.class);
+        verify(supabaseAdminRestClient).rpcList(eq("submit_lesson_quiz_answer"), paramsCaptor.capture(), any());
+        verify(supabaseRestClient, never()).rpcList(anyString(), any(), anyString(), any());
+        Map<String, Object> params = paramsCaptor.getValue();
+        assertEquals("attempt-1", params.get("p_attempt_id"));
+        assertEquals(0, params.get("p_expected_question_index"));
+        assertEquals("passed", params.get("p_status"));
+        assertEquals(true, params.get("p_passed"));
+        assertEquals(25, params.get("p_xp_reward"));
+        assertEquals("Sigma Starter", params.get("p_badge_name"));
+        assertNull(params.get("p_hearts_remaining"));
+        verify(supabaseRestClient, never()).patchList(anyString(), anyString(), any(), anyString(), any());
+        verify(supabaseRestClient, never()).postList(anyString(), any(), anyString(), any());
+        verify(supabaseAdminRestClient, never()).patchList(anyString(), anyString(), any(), any());
+    }
+
+    /**
+     * Verifies that answer question should send the heart deduction with the RPC when the answer is wrong.
+     */
+    @Test
+    void answerQuestion_ShouldDeductHeartInsideRpc_WhenAnswerIsWrong() {
+        // arrange
+        LessonQuizServiceImpl rpcService = rpcEnabledService();
+        Map<String, Object> attempt = activeAttempt("attempt-1", 0, 0, 0, 20, "in_progress");
+        OffsetDateTime scheduledRefillAt = OffsetDateTime.now().plusHours(6);
+        OffsetDateTime consumedRefillAt = OffsetDateTime.now().plusHours(24);
+        when(supabaseRestClient.getList(eq("lessons"), anyString(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of(lesson));
+        when(supabaseAdminRestClient.getList(eq("quizzes"), anyString(), any()))
+            .thenReturn(List.of(quiz));
+        when(supabaseAdminRestClient.getList(eq("quiz_questions"), anyString(), any()))
+            .thenReturn(List.of(firstQuestion, secondQuestion));
+        when(supabaseRestClient.getList(eq("user_quiz_hearts"), anyString(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of(heartsRow(5, scheduledRefillAt)));
+        when(supabaseRestClient.getList(eq("user_lesson_quiz_attempts"), anyString(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of(attempt));
+        when(supabaseAdminRestClient.rpcList(eq("submit_lesson_quiz_answer"), any(), any()))
+            .thenReturn(List.of(heartsRow(4, consumedRefillAt)));
+
+        // act
+        LessonQuizAnswerResponse response = rpcService.answerQuestion(
+            userId,
+            lessonId,
+            new LessonQuizAnswerRequest("attempt-1", firstQuestionId, Map.of("choiceId", "B")),
+            ACCESS_TOKEN
+        );
+
+        // assert
+        assertFalse(response.correct());
+        assertEquals(4, response.hearts().heartsRemaining());
+        assertEquals(consumedRefillAt, response.hearts().heartsRefillAt());
+
+        // verify
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Object>> paramsCaptor = ArgumentCaptor.forClass((Class<Map<String, Object>>) (Class<?>) Map.class);
+        verify(supabaseAdminRestClient).rpcList(eq("submit_lesson_quiz_answer"), paramsCaptor.capture(), any());
+        Map<String, Object> params = paramsCaptor.getValue();
+        assertEquals(5, params.get("p_expected_hearts"));
+        assertEquals(4, params.get("p_hearts_remaining"));
+        assertEquals(((OffsetDateTime) params.get("p_answered_at")).plusHours(24), params.get("p_hearts_refill_at"));
+        verify(supabaseRestClient, never()).patchList(eq("user_quiz_hearts"), anyString(), any(), eq(ACCESS_TOKEN), any());
+    }
+
+    /**
+     * Verifies that answer question should report a stale answer when the RPC rejects the attempt transition.
+     */
+    @Test
+    void answerQuestion_ShouldRejectStaleAnswer_WhenRpcReportsConflict() {
+        // arrange
+        LessonQuizServiceImpl rpcService = rpcEnabledService();
+        Map<String, Object> attempt = activeAttempt("attempt-1", 0, 0, 0, 20, "in_progress");
+        when(supabaseRestClient.getList(eq("lessons"), anyString(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of(lesson));
+        when(supabaseAdminRestClient.getList(eq("quizzes"), anyString(), any()))
+            .thenReturn(List.of(quiz));
+        when(supabaseAdminRestClient.getList(eq("quiz_questions"), anyString(), any()))
+            .thenReturn(List.of(firstQuestion, secondQuestion));
+        when(supabaseRestClient.getList(eq("user_quiz_hearts"), anyString(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of(heartsRow(5, OffsetDateTime.now().plusHours(6))));
+        when(supabaseRestClient.getList(eq("user_lesson_quiz_attempts"), anyString(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of(attempt));
+        when(supabaseAdminRestClient.rpcList(eq("submit_lesson_quiz_answer"), any(), any()))
+            .thenThrow(new ResponseStatusException(HttpStatus.CONFLICT, "Conflict"));
+        LessonQuizAnswerRequest request = new LessonQuizAnswerRequest("attempt-1", firstQuestionId, Map.of("choiceId", "A"));
+
+        // act
+        ResponseStatusException ex = assertThrows(
+            ResponseStatusException.class,
+            () -> rpcService.answerQuestion(userId, lessonId, request, ACCESS_TOKEN)
+        );
+
+        // assert
+        assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+        assertEquals("Quiz answer is stale. Refresh and try again.", ex.getReason());
+    }
+
+    /**
+     * Verifies that answer question should fall back to sequential writes once the RPC is reported missing.
+     */
+    @Test
+    void answerQuestion_ShouldFallBackToSequentialWrites_WhenAnswerRpcIsMissing() {
+        // arrange
+        LessonQuizServiceImpl rpcService = rpcEnabledService();
+        Map<String, Object> attempt = activeAttempt("attempt-1", 0, 0, 0, 20, "in_progress");
+        Map<String, Object> patchedAttempt = activeAttempt("attempt-1", 1, 1, 10, 20, "in_progress");
+        when(supabaseRestClient.getList(eq("lessons"), anyString(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of(lesson));
+        when(supabaseAdminRestClient.getList(eq("quizzes"), anyString(), any()))
+            .thenReturn(List.of(quiz));
+        when(supabaseAdminRestClient.getList(eq("quiz_questions"), anyString(), any()))
+            .thenReturn(List.of(firstQuestion, secondQuestion));
+        when(supabaseRestClient.getList(eq("user_quiz_hearts"), anyString(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of(heartsRow(5, OffsetDateTime.now().plusHours(6))));
+        when(supabaseRestClient.getList(eq("user_lesson_quiz_attempts"), anyString(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of(attempt));
+        when(supabaseAdminRestClient.rpcList(eq("submit_lesson_quiz_answer"), any(), any()))
+            .thenThrow(new ResponseStatusException(
+                HttpStatus.NOT_FOUND,
+                "PGRST202 Could not find the function public.submit_lesson_quiz_answer"
+            ));
+        when(supabaseRestClient.patchList(eq("user_lesson_quiz_attempts"), anyString(), any(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of(patchedAttempt));
+        LessonQuizAnswerRequest request = new LessonQuizAnswerRequest("attempt-1", firstQuestionId, Map.of("choiceId", "A"));
+
+        // act
+        LessonQuizAnswerResponse first = rpcService.answerQuestion(userId, lessonId, request, ACCESS_TOKEN);
+        LessonQuizAnswerResponse second = rpcService.answerQuestion(userId, lessonId, request, ACCESS_TOKEN);
+
+        // assert
+        assertTrue(first.correct());
+        assertTrue(second.correct());
+
+        // verify
+        verify(supabaseAdminRestClient).rpcList(eq("submit_lesson_quiz_answer"), any(), any());
+        verify(supabaseRestClient, times(2)).patchList(eq("user_lesson_quiz_attempts"), anyString(), any(), eq(ACCESS_TOKEN), any());
+    }
+
+    /**
+     * Creates a service instance that persists answers through the answer RPC.
+     */
+    private LessonQuizServiceImpl rpcEnabledService() {
+        return new LessonQuizServiceImpl(
+            supabaseRestClient,
+            supabaseAdminRestClient,
+            new LessonQuizGraderRegistry(List.of(new MultipleChoiceQuestionGrader())),
+            leaderboardEngine,
+            true
+        );
+    }
+
     /**
      * Handles learner lesson.
      */
@@ -0,0 +1,81 @@
+package com.rotiprata.api.lesson.service;
+
+import com.rotiprata.api.lesson.dto.LessonCardResponse;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers BM25 ranking, prefix and typo matching, and incremental updates for the lesson search index.
+ */
+class LessonSearchIndexTest {
+
+    private static final UUID RIZZ_ID = UUID.randomUUID();
+    private static final UUID SLAY_ID = UUID.randomUUID();
+    private static final UUID CAP_ID = UUID.randomUUID();
+
+    private final LessonSearchIndex index = LessonSearchIndex.build(List.of(
+        card(RIZZ_ID, "Rizz", "Charisma when flirting", "Where rizzler came from", "2026-01-01T00:00:00Z"),
+        card(SLAY_ID, "Slay", "Doing something exceptionally well", "She slayed the exam", "2026-01-02T00:00:00Z"),
+        card(CAP_ID, "No cap", "Not lying", "Cap means a lie; slaying is unrelated", "2026-01-03T00:00:00Z")
+    ));
+
+    /**
+     * Verifies that search should rank title matches above body mentions of the same term.
+     */
+    @Test
+    void search_ShouldRankTitleMatchFirst_WhenTermAppearsInSeveralLessons() {
+        // act
+        List<LessonCardResponse> results = index.search("slay", 10);
+
+        // assert
+        assertEquals(List.of(SLAY_ID, CAP_ID), ids(results));
+    }
+
+    /**
+     * Verifies that search should match partial words and small typos.
+     */
+    @Test
+    void search_ShouldMatchPrefixesAndTypos_WhenQueryIsIncomplete() {
+        // act
+        List<LessonCardResponse> prefix = index.search("rizzl", 10);
+        List<LessonCardResponse> typo = index.search("charsima", 10);
+
+        // assert
+        assertEquals(List.of(RIZZ_ID), ids(prefix));
+        assertEquals(List.of(RIZZ_ID), ids(typo));
+        assertTrue(index.search("zzzz", 10).isEmpty());
+    }
+
+    /**
+     * Verifies that apply should replace changed lessons and drop removed ones without touching others.
+     */
+    @Test
+    void apply_ShouldReindexChangedLessons_WhenLessonsAreUpdatedOrRemoved() {
+        // act
+        LessonSearchIndex updated = index.apply(
+            List.of(card(RIZZ_ID, "Aura", "Presence", "Formerly rizz", "2026-01-01T00:00:00Z")),
+            List.of(CAP_ID)
+        );
+
+        // assert
+        assertEquals(2, updated.size());
+        assertEquals(List.of(RIZZ_ID), ids(updated.search("aura", 10)));
+        assertTrue(updated.search("lying", 10).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    private static List<UUID> ids(List<LessonCardResponse> cards) {
+        return cards.stream().map(LessonCardResponse::id).toList();
+    }
+
+    private static LessonCardResponse card(UUID id, String title, String summary, String description, String createdAt) {
+        return new LessonCardResponse(
+            id, title, description, summary, 1, 5, 50, 0, null, null, null, true, OffsetDateTime.parse(createdAt), null
+        );
+    }
+}
@@ -3,9 +3,15 @@ package com.rotiprata.api.lesson.service;
 import com.rotiprata.api.admin.dto.AdminPublishLessonResponse;
 import com.rotiprata.api.admin.dto.AdminStepSaveRequest;
 import com.rotiprata.api.generalutils.EmbeddingService;
+import com.rotiprata.api.lesson.dto.LessonCardResponse;
+import com.rotiprata.api.lesson.dto.LessonHubResponse;
+import com.rotiprata.api.lesson.dto.LessonHubSummaryResponse;
+import com.rotiprata.api.lesson.dto.RelevantLessonContext;
 import com.rotiprata.api.lesson.utils.LessonFlowConstants;
+import com.rotiprata.config.ChatContextProperties;
 import com.rotiprata.media.service.MediaProcessingService;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminRestClient;
+import com.rotiprata.infrastructure.supabase.SupabaseBatchFetcher;
 import com.rotiprata.infrastructure.supabase.SupabaseRestClient;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -15,6 +21,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -27,7 +34,9 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -74,7 +83,9 @@ class LessonServiceImplTest {
             supabaseAdminRestClient,
             lessonQuizService,
             embeddingService,
-            mediaProcessingService
+            mediaProcessingService,
+            new ChatContextProperties(),
+            new SupabaseBatchFetcher(100, Runnable::run)
         );
         adminUserId = UUID.randomUUID();
         lessonId = UUID.randomUUID();
@@ -87,6 +98,40 @@ class LessonServiceImplTest {
             .thenReturn(List.of());
     }
 
+    /**
+     * Verifies that reembed lessons should embed every published lesson in one uncached batch call.
+     */
+    @Test
+    void reembedLessons_ShouldEmbedAllLessonsInOneBatch_WhenLessonsArePublished() {
+        // arrange
+        UUID otherLessonId = UUID.randomUUID();
+        when(supabaseAdminRestClient.getList(eq("lessons"), anyString(), any()))
+            .thenReturn(List.of(
+                new LinkedHashMap<>(Map.of("id", lessonId.toString(), "title", "Rizz")),
+                new LinkedHashMap<>(Map.of("id", otherLessonId.toString(), "title", "Slay"))
+            ));
+        when(embeddingService.refreshEmbeddings(any())).thenReturn(List.of(new float[] {0.1f}, new float[] {0.2f}));
+        when(embeddingService.toPgVector(any(float[].class))).thenReturn("[0.1]", "[0.2]");
+
+        // act
+        Map<String, Object> result = lessonService.reembedLessons(adminUserId, ACCESS_TOKEN);
+
+        // assert
+        assertEquals(2, result.get("reembedded"));
+
+        // verify
+        verify(embeddingService, times(1)).refreshEmbeddings(org.mockito.ArgumentMatchers.argThat(texts ->
+            texts.size() == 2 && texts.get(0).startsWith("Rizz") && texts.get(1).startsWith("Slay")
+        ));
+        verify(embeddingService, never()).generateEmbedding(anyString());
+        verify(supabaseAdminRestClient).patchList(
+            eq("lessons"),
+            org.mockito.ArgumentMatchers.contains(otherLessonId.toString()),
+            eq(Map.of("embedding", "[0.2]")),
+            any()
+        );
+    }
+
     /**
      * Verifies that create lesson should generate embedding when lesson is published.
      */
@@ -317,6 +362,37 @@ class LessonServiceImplTest {
         verify(embeddingService).generateEmbedding(anyString());
     }
 
+    /**
+     * Verifies that update lesson should evict the cached quiz definition only after the content sections are written.
+     */
+    @Test
+    void updateLesson_ShouldEvictQuizDefinition_AfterContentSectionsAreWritten() {
+        // arrange
+        Map<String, Object> existingLesson = completeLesson(false);
+        when(supabaseAdminRestClient.getList(eq("lessons"), anyString(), any()))
+            .thenReturn(List.of(existingLesson));
+        when(supabaseAdminRestClient.patchList(eq("lessons"), anyString(), any(), any()))
+            .thenReturn(List.of(completeLesson(false)));
+        when(supabaseAdminRestClient.deleteList(eq("lesson_section_blocks"), anyString(), any()))
+            .thenReturn(List.of());
+        when(supabaseAdminRestClient.postList(eq("lesson_section_blocks"), any(), any()))
+            .thenReturn(List.of());
+
+        // act
+        lessonService.updateLesson(
+            adminUserId,
+            lessonId,
+            Map.of("content_sections", fullContentSections("Fresh")),
+            ACCESS_TOKEN
+        );
+
+        // verify
+        InOrder order = inOrder(supabaseAdminRestClient, lessonQuizService);
+        order.verify(supabaseAdminRestClient).patchList(eq("lessons"), anyString(), any(), any());
+        order.verify(supabaseAdminRestClient).postList(eq("lesson_section_blocks"), any(), any());
+        order.verify(lessonQuizService).evictQuizDefinition(lessonId);
+    }
+
     /**
      * Verifies that update lesson should not reembed when only non content fields change.
      */
@@ -422,26 +498,130 @@ class LessonServiceImplTest {
     }
 
     /**
-     * Verifies that find relevant lesson should concatenate top klesson content when query provided.
+     * Verifies that find relevant lesson should concatenate the closest lessons from the in-memory vector index.
      */
     @Test
     void findRelevantLesson_ShouldConcatenateTopKLessonContent_WhenQueryProvided() {
-        // Test that top K lesson content is concatenated into a single string
         //arrange
-        when(embeddingService.generateEmbedding("What is roti prata?")).thenReturn(new float[] {0.5f, 0.5f});
-        when(embeddingService.toPgVector(any(float[].class))).thenReturn("[0.5,0.5]");
-        when(supabaseRestClient.rpcList(eq("top_k_lessons"), any(), eq(ACCESS_TOKEN), any()))
+        when(embeddingService.generateEmbedding("What is roti prata?")).thenReturn(new float[] {1f, 0f});
+        when(supabaseAdminRestClient.getList(eq("lessons"), anyString(), any()))
             .thenReturn(List.of(
-                Map.of("title", "Roti", "description", "Layered flatbread"),
-                Map.of("title", "Prata", "summary", "Crispy and flaky")
+                Map.of("id", UUID.randomUUID().toString(), "embedding", "[0.9,0.1]", "title", "Roti", "description", "Layered flatbread"),
+                Map.of("id", UUID.randomUUID().toString(), "embedding", "[0,1]", "title", "Unrelated"),
+                Map.of("id", UUID.randomUUID().toString(), "embedding", "[0.7,0.3]", "title", "Prata", "summary", "Crispy and flaky"),
+                Map.of("id", UUID.randomUUID().toString(), "embedding", "[0.5,0.5]", "title", "Teh tarik", "summary", "Pulled tea"),
+                Map.of("id", UUID.randomUUID().toString(), "embedding", "not-a-vector", "title", "Broken")
             ));
 
         //act
-        String result = lessonService.findRelevantLesson(ACCESS_TOKEN, "What is roti prata?");
+        RelevantLessonContext found = lessonService.findRelevantLesson(ACCESS_TOKEN, "What is roti prata?");
+        String result = found.context();
 
         //assert
-        assertTrue(result.contains("Roti Layered flatbread"));
+        assertTrue(result.startsWith("Roti\nOverview: Layered flatbread"));
         assertTrue(result.contains("Prata"));
+        assertTrue(result.contains("Teh tarik"));
+        assertFalse(result.contains("Unrelated"));
+        assertFalse(result.contains("Broken"));
+        assertEquals(3, found.lessonVersions().size());
+
+        //verify
+        verify(supabaseRestClient, never()).rpcList(anyString(), any(), anyString(), any());
+    }
+
+    /**
+     * Verifies that find relevant lesson should prefer structured section blocks and keep the context within the token budget.
+     */
+    @Test
+    void findRelevantLesson_ShouldUseSectionBlocksWithinBudget_WhenLessonIsLong() {
+        //arrange
+        when(embeddingService.generateEmbedding("where did rizz come from?")).thenReturn(new float[] {1f, 0f});
+        when(supabaseAdminRestClient.getList(eq("lessons"), anyString(), any()))
+            .thenReturn(List.of(Map.of(
+                "id", lessonId.toString(),
+                "embedding", "[1,0]",
+                "title", "Rizz",
+                "summary", "Charisma when flirting.",
+                "origin_content", "Legacy origin text.",
+                "lore_content", "Filler sentence about memes. ".repeat(200)
+            )));
+        when(supabaseAdminRestClient.getList(eq("lesson_section_blocks"), anyString(), any()))
+            .thenReturn(List.of(Map.of(
+                "lesson_id", lessonId.toString(),
+                "section_key", LessonFlowConstants.SECTION_INTRO,
+                "text_content", "Rizz came from Kai Cenat streams in 2021."
+            )));
+
+        //act
+        String result = lessonService.findRelevantLesson(ACCESS_TOKEN, "where did rizz come from?").context();
+
+        //assert
+        assertTrue(result.contains("Origin: Rizz came from Kai Cenat streams in 2021."));
+        assertFalse(result.contains("Legacy origin text."));
+        assertTrue(LessonContextAssembler.estimateTokens(result) <= new ChatContextProperties().getTokenBudget());
+
+        //verify
+        verify(supabaseAdminRestClient).getList(eq("lesson_section_blocks"), contains("block_type=eq.text"), any());
+        verify(supabaseAdminRestClient).getList(eq("lesson_section_blocks"), contains("lesson_id=in.(" + lessonId + ")"), any());
+    }
+
+    /**
+     * Verifies that find relevant lesson should read section blocks page by page until a short page.
+     */
+    @Test
+    void findRelevantLesson_ShouldPageSectionBlocks_WhenFirstPageIsFull() {
+        //arrange
+        when(embeddingService.generateEmbedding("rizz?")).thenReturn(new float[] {1f, 0f});
+        when(supabaseAdminRestClient.getList(eq("lessons"), anyString(), any()))
+            .thenReturn(List.of(Map.of("id", lessonId.toString(), "embedding", "[1,0]", "title", "Rizz")));
+        Map<String, Object> filler = Map.of(
+            "lesson_id", lessonId.toString(),
+            "section_key", LessonFlowConstants.SECTION_LORE,
+            "text_content", "Meme."
+        );
+        when(supabaseAdminRestClient.getList(eq("lesson_section_blocks"), contains("offset=0"), any()))
+            .thenReturn(java.util.Collections.nCopies(1000, filler));
+        when(supabaseAdminRestClient.getList(eq("lesson_section_blocks"), contains("offset=1000"), any()))
+            .thenReturn(List.of(Map.of(
+                "lesson_id", lessonId.toString(),
+                "section_key", LessonFlowConstants.SECTION_INTRO,
+                "text_content", "Rizz came from Kai Cenat streams."
+            )));
+
+        //act
+        String result = lessonService.findRelevantLesson(ACCESS_TOKEN, "rizz?").context();
+
+        //assert
+        assertTrue(result.contains("Rizz came from Kai Cenat streams."));
+
+        //verify
+        verify(supabaseAdminRestClient, times(2)).getList(eq("lesson_section_blocks"), contains("limit=1000"), any());
+    }
+
+    /**
+     * Verifies that find relevant lesson should reuse the loaded vector index and reload only lessons whose embedding changed.
+     */
+    @Test
+    void findRelevantLesson_ShouldReloadOnlyChangedLesson_WhenLessonIsDeleted() {
+        //arrange
+        when(embeddingService.generateEmbedding(anyString())).thenReturn(new float[] {1f, 0f});
+        when(supabaseAdminRestClient.getList(eq("lessons"), anyString(), any()))
+            .thenReturn(List.of(Map.of("id", lessonId.toString(), "embedding", "[1,0]", "title", "Rizz", "summary", "Charisma")))
+            .thenReturn(List.of(Map.of("id", lessonId.toString(), "is_active", true)))
+            .thenReturn(List.of());
+        lessonService.findRelevantLesson(ACCESS_TOKEN, "rizz?");
+
+        //act
+        String cached = lessonService.findRelevantLesson(ACCESS_TOKEN, "rizz?").context();
+        lessonService.deleteLesson(adminUserId, lessonId, ACCESS_TOKEN);
+        String afterDelete = lessonService.findRelevantLesson(ACCESS_TOKEN, "rizz?").context();
+
+        //assert
+        assertTrue(cached.startsWith("Rizz"));
+        assertEquals("", afterDelete);
+
+        //verify
+        verify(supabaseAdminRestClient).getList(eq("lessons"), contains("id=in.(" + lessonId + ")"), any());
     }
 
     /**
@@ -453,19 +633,19 @@ class LessonServiceImplTest {
         //arrange
         when(supabaseRestClient.getList(eq("lessons"), anyString(), eq(ACCESS_TOKEN), any()))
             .thenReturn(List.of(
-                Map.of("id", UUID.randomUUID().toString()),
-                Map.of("id", UUID.randomUUID().toString()),
-                Map.of("id", UUID.randomUUID().toString()),
-                Map.of("id", UUID.randomUUID().toString()),
-                Map.of("id", UUID.randomUUID().toString()),
-                Map.of("id", UUID.randomUUID().toString()),
-                Map.of("id", UUID.randomUUID().toString()),
-                Map.of("id", UUID.randomUUID().toString()),
-                Map.of("id", UUID.randomUUID().toString()),
-                Map.of("id", UUID.randomUUID().toString()),
-                Map.of("id", UUID.randomUUID().toString()),
-                Map.of("id", UUID.randomUUID().toString()),
-                Map.of("id", UUID.randomUUID().toString())
+                lessonCard(UUID.randomUUID()),
+                lessonCard(UUID.randomUUID()),
+                lessonCard(UUID.randomUUID()),
+                lessonCard(UUID.randomUUID()),
+                lessonCard(UUID.randomUUID()),
+                lessonCard(UUID.randomUUID()),
+                lessonCard(UUID.randomUUID()),
+                lessonCard(UUID.randomUUID()),
+                lessonCard(UUID.randomUUID()),
+                lessonCard(UUID.randomUUID()),
+                lessonCard(UUID.randomUUID()),
+                lessonCard(UUID.randomUUID()),
+                lessonCard(UUID.randomUUID())
             ));
         ArgumentCaptor<String> queryCaptor = ArgumentCaptor.forClass(String.class);
 
@@ -484,6 +664,8 @@ class LessonServiceImplTest {
         assertTrue(query.contains("limit=13"));
         assertTrue(query.contains("offset=0"));
         assertTrue(query.contains("order=completion_count.desc,created_at.desc"));
+        assertTrue(query.contains("select=id,title,description,summary"));
+        assertFalse(query.contains("definition_content"));
     }
 
     /**
@@ -491,10 +673,16 @@ class LessonServiceImplTest {
      */
     @Test
     void getLessonFeed_ShouldApplyAllFiltersAndBoundaries_WhenRequestHasFilters() {
-        // Test that getLessonFeed applies difficulty, duration, ordering, and title filters
+        // Test that getLessonFeed applies difficulty, duration, ordering, and indexed title matches
         //arrange
+        UUID matchingLessonId = UUID.randomUUID();
+        when(supabaseAdminRestClient.getList(eq("lessons"), anyString(), any()))
+            .thenReturn(List.of(
+                lessonCard(matchingLessonId, "Roti Prata 101", "Flaky layers"),
+                lessonCard(UUID.randomUUID(), "Teh Tarik", "Pulled tea")
+            ));
         when(supabaseRestClient.getList(eq("lessons"), anyString(), eq(ACCESS_TOKEN), any()))
-            .thenReturn(List.of(Map.of("id", UUID.randomUUID().toString())));
+            .thenReturn(List.of(lessonCard(matchingLessonId)));
         ArgumentCaptor<String> queryCaptor = ArgumentCaptor.forClass(String.class);
 
         //act
@@ -518,8 +706,69 @@ class LessonServiceImplTest {
         assertTrue(query.contains("order=xp_reward.desc"));
         assertTrue(query.contains("limit=51"));
         assertTrue(query.contains("offset=0"));
-        assertTrue(query.contains("title.ilike.*roti"));
-        assertTrue(query.contains("prata")); // relaxed to avoid wildcard/escape mismatch
+        assertTrue(query.contains("id=in.(" + matchingLessonId + ")"));
+        assertFalse(query.contains("ilike"));
+    }
+
+    /**
+     * Verifies that get lesson feed should cap the matched id list at one batch chunk.
+     */
+    @Test
+    void getLessonFeed_ShouldCapMatchedIdsAtChunkSize_WhenQueryMatchesManyLessons() {
+        //arrange
+        LessonServiceImpl chunkedService = new LessonServiceImpl(
+            supabaseRestClient,
+            supabaseAdminRestClient,
+            lessonQuizService,
+            embeddingService,
+            mediaProcessingService,
+            new ChatContextProperties(),
+            new SupabaseBatchFetcher(2, Runnable::run)
+        );
+        when(supabaseAdminRestClient.getList(eq("lessons"), anyString(), any()))
+            .thenReturn(List.of(
+                lessonCard(UUID.randomUUID(), "Roti Prata 101", "Flaky layers"),
+                lessonCard(UUID.randomUUID(), "Roti Canai", "Flaky layers"),
+                lessonCard(UUID.randomUUID(), "Roti John", "Omelette sandwich")
+            ));
+        when(supabaseRestClient.getList(eq("lessons"), anyString(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of());
+        ArgumentCaptor<String> queryCaptor = ArgumentCaptor.forClass(String.class);
+
+        //act
+        chunkedService.getLessonFeed(
+            ACCESS_TOKEN,
+            new com.rotiprata.api.lesson.dto.LessonFeedRequest("roti", null, null, null, 1, 10)
+        );
+
+        //verify
+        verify(supabaseRestClient).getList(eq("lessons"), queryCaptor.capture(), eq(ACCESS_TOKEN), any());
+        String idFilter = queryCaptor.getValue().replaceAll(".*id=in\\.\\(([^)]*)\\).*", "$1");
+        assertEquals(2, idFilter.split(",").length);
+    }
+
+    /**
+     * Verifies that get lesson feed should return an empty page without a feed query when nothing matches.
+     */
+    @Test
+    void getLessonFeed_ShouldReturnEmptyPage_WhenQueryMatchesNoIndexedLesson() {
+        //arrange
+        when(supabaseAdminRestClient.getList(eq("lessons"), anyString(), any()))
+            .thenReturn(List.of(lessonCard(UUID.randomUUID(), "Teh Tarik", "Pulled tea")));
+
+        //act
+        var response = lessonService.getLessonFeed(
+            ACCESS_TOKEN,
+            new com.rotiprata.api.lesson.dto.LessonFeedRequest("zzzz", null, null, null, 2, 10)
+        );
+
+        //assert
+        assertTrue(response.items().isEmpty());
+        assertFalse(response.hasMore());
+        assertEquals(2, response.page());
+
+        //verify
+        verify(supabaseRestClient, never()).getList(eq("lessons"), anyString(), eq(ACCESS_TOKEN), any());
     }
 
     /**
@@ -586,36 +835,79 @@ class LessonServiceImplTest {
         // Test that searchLessons returns all lessons if query is blank
         //arrange
         when(supabaseRestClient.getList(eq("lessons"), anyString(), eq(ACCESS_TOKEN), any()))
-            .thenReturn(List.of(Map.of("id", lessonId.toString())));
+            .thenReturn(List.of(lessonCard(lessonId)));
 
         //act
-        List<Map<String, Object>> results = lessonService.searchLessons("   ", ACCESS_TOKEN);
+        List<LessonCardResponse> results = lessonService.searchLessons("   ", ACCESS_TOKEN);
 
         //assert
         assertEquals(1, results.size());
+        assertEquals(lessonId, results.get(0).id());
+
+        //verify
+        verify(supabaseRestClient).getList(
+            eq("lessons"),
+            org.mockito.ArgumentMatchers.contains("select=id,title,description,summary"),
+            eq(ACCESS_TOKEN),
+            any()
+        );
+    }
+
+    /**
+     * Verifies that search lessons should rank indexed matches when query has special chars.
+     */
+    @Test
+    void searchLessons_ShouldRankIndexedMatches_WhenQueryHasSpecialChars() {
+        //arrange
+        UUID prataLessonId = UUID.randomUUID();
+        UUID rotiLessonId = UUID.randomUUID();
+        when(supabaseAdminRestClient.getList(eq("lessons"), anyString(), any()))
+            .thenReturn(List.of(
+                lessonCard(UUID.randomUUID(), "Teh Tarik", "Pulled tea"),
+                lessonCard(rotiLessonId, "Roti John", "Omelette sandwich"),
+                lessonCard(prataLessonId, "Roti Prata", "Flaky layered flatbread")
+            ));
+
+        //act
+        List<LessonCardResponse> results = lessonService.searchLessons("roti,(prata)", ACCESS_TOKEN);
+
+        //assert
+        assertEquals(List.of(prataLessonId, rotiLessonId), results.stream().map(LessonCardResponse::id).toList());
 
         //verify
-        verify(supabaseRestClient).getList(eq("lessons"), anyString(), eq(ACCESS_TOKEN), any());
+        verify(supabaseAdminRestClient).getList(
+            eq("lessons"),
+            org.mockito.ArgumentMatchers.contains("is_published=eq.true"),
+            any()
+        );
+        verify(supabaseRestClient, never()).getList(eq("lessons"), anyString(), eq(ACCESS_TOKEN), any());
     }
 
     /**
-     * Verifies that search lessons should escape unsafe characters when query has special chars.
+     * Verifies that search lessons should reload only the changed lesson after an admin write.
      */
     @Test
-    void searchLessons_ShouldEscapeUnsafeCharacters_WhenQueryHasSpecialChars() {
-        // Test that searchLessons escapes unsafe characters like parentheses
+    void searchLessons_ShouldReindexChangedLesson_WhenLessonIsArchived() {
         //arrange
-        when(supabaseRestClient.getList(eq("lessons"), anyString(), eq(ACCESS_TOKEN), any()))
-            .thenReturn(List.of(Map.of("id", lessonId.toString())));
-        ArgumentCaptor<String> queryCaptor = ArgumentCaptor.forClass(String.class);
+        when(supabaseAdminRestClient.getList(eq("lessons"), anyString(), any()))
+            .thenReturn(List.of(lessonCard(lessonId, "Roti Prata", "Flaky layered flatbread")))
+            .thenReturn(List.of(completeLesson(true)))
+            .thenReturn(List.of());
+        assertEquals(1, lessonService.searchLessons("prata", ACCESS_TOKEN).size());
 
         //act
-        lessonService.searchLessons("roti,(prata)", ACCESS_TOKEN);
+        lessonService.deleteLesson(adminUserId, lessonId, ACCESS_TOKEN);
+        List<LessonCardResponse> results = lessonService.searchLessons("prata", ACCESS_TOKEN);
+
+        //assert
+        assertTrue(results.isEmpty());
 
         //verify
-        verify(supabaseRestClient).getList(eq("lessons"), queryCaptor.capture(), eq(ACCESS_TOKEN), any());
-        assertTrue(queryCaptor.getValue().contains("title.ilike.*roti"));
-        assertTrue(queryCaptor.getValue().contains("prata")); // relaxed assertion
+        verify(supabaseAdminRestClient).getList(
+            eq("lessons"),
+            org.mockito.ArgumentMatchers.contains("id=in.(" + lessonId + ")"),
+            any()
+        );
     }
 
     /**
@@ -703,6 +995,79 @@ class LessonServiceImplTest {
         assertEquals(0, stats.get("hoursLearned"));
     }
 
+    /**
+     * Verifies that get lesson hub should reuse the shared catalogue and overlay each user's progress.
+     */
+    @Test
+    void getLessonHub_ShouldReuseCatalogAndOverlayProgress_WhenCalledForDifferentUsers() {
+        // arrange
+        UUID otherUserId = UUID.randomUUID();
+        UUID uncategorizedLessonId = UUID.randomUUID();
+        when(supabaseAdminRestClient.getList(eq("lessons"), anyString(), any()))
+            .thenReturn(List.of(
+                hubLesson(lessonId, categoryId, "Rizz", "2026-01-02T00:00:00Z"),
+                hubLesson(uncategorizedLessonId, null, "Aura", "2026-01-01T00:00:00Z")
+            ));
+        when(supabaseAdminRestClient.getList(eq("categories"), anyString(), any()))
+            .thenReturn(List.of(Map.of("id", categoryId.toString(), "name", "Slang", "type", "slang", "color", "#fff")));
+        when(supabaseRestClient.getList(eq("user_lesson_progress"), anyString(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of(Map.of("lesson_id", lessonId.toString(), "progress_percentage", 100)))
+            .thenReturn(List.of(Map.of("lesson_id", uncategorizedLessonId.toString(), "progress_percentage", 40)));
+        when(supabaseRestClient.getList(eq("profiles"), anyString(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of(Map.of("current_streak", 3)))
+            .thenReturn(List.of());
+
+        // act
+        LessonHubResponse first = lessonService.getLessonHub(adminUserId, ACCESS_TOKEN);
+        LessonHubResponse second = lessonService.getLessonHub(otherUserId, ACCESS_TOKEN);
+
+        // assert
+        assertEquals(2, first.categories().size());
+        assertEquals("Slang", first.categories().get(0).name());
+        assertTrue(first.categories().get(0).lessons().get(0).completed());
+        assertTrue(first.categories().get(1).isVirtual());
+        assertEquals(new LessonHubSummaryResponse(2, 1, 3), first.summary());
+        assertFalse(second.categories().get(0).lessons().get(0).completed());
+        assertTrue(second.categories().get(1).lessons().get(0).current());
+        assertEquals(new LessonHubSummaryResponse(2, 0, 0), second.summary());
+
+        // verify
+        verify(supabaseAdminRestClient, times(1)).getList(
+            eq("lessons"),
+            org.mockito.ArgumentMatchers.contains("select=id,title,summary"),
+            any()
+        );
+        verify(supabaseAdminRestClient, times(1)).getList(eq("categories"), anyString(), any());
+        verify(supabaseRestClient, never()).getList(eq("user_concepts_mastered"), anyString(), anyString(), any());
+    }
+
+    /**
+     * Verifies that get lesson hub should reload the catalogue after an admin archives a lesson.
+     */
+    @Test
+    void getLessonHub_ShouldReloadCatalog_WhenLessonIsDeleted() {
+        // arrange
+        when(supabaseAdminRestClient.getList(eq("lessons"), anyString(), any()))
+            .thenReturn(List.of(hubLesson(lessonId, null, "Rizz", "2026-01-02T00:00:00Z")))
+            .thenReturn(List.of(completeLesson(true)))
+            .thenReturn(List.of());
+        when(supabaseAdminRestClient.getList(eq("categories"), anyString(), any())).thenReturn(List.of());
+        when(supabaseRestClient.getList(eq("user_lesson_progress"), anyString(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of());
+        when(supabaseRestClient.getList(eq("profiles"), anyString(), eq(ACCESS_TOKEN), any()))
+            .thenReturn(List.of());
+
+        // act
+        LessonHubResponse before = lessonService.getLessonHub(adminUserId, ACCESS_TOKEN);
+        lessonService.deleteLesson(adminUserId, lessonId, ACCESS_TOKEN);
+        LessonHubResponse after = lessonService.getLessonHub(adminUserId, ACCESS_TOKEN);
+
+        // assert
+        assertEquals(1, before.summary().totalLessons());
+        assertEquals(0, after.summary().totalLessons());
+        assertTrue(after.categories().isEmpty());
+    }
+
     /**
      * Verifies that save lesson should ignore unique violation when conflict occurs.
      */
@@ -745,6 +1110,31 @@ class LessonServiceImplTest {
         assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
     }
 
+    /**
+     * Creates a lesson card projection.
+     */
+    private LessonCardResponse lessonCard(UUID id) {
+        return new LessonCardResponse(id, "Lesson", null, null, 1, 5, 50, 0, null, null, null, true, null, null);
+    }
+
+    private LessonCardResponse lessonCard(UUID id, String title, String summary) {
+        return new LessonCardResponse(id, title, null, summary, 1, 5, 50, 0, null, null, null, true, null, null);
+    }
+
+    /**
+     * Creates a hub-card lesson row.
+     */
+    private Map<String, Object> hubLesson(UUID id, UUID category, String title, String createdAt) {
+        Map<String, Object> lesson = new LinkedHashMap<>();
+        lesson.put("id", id.toString());
+        lesson.put("title", title);
+        lesson.put("summary", title + " summary");
+        lesson.put("category_id", category == null ? null : category.toString());
+        lesson.put("created_at", createdAt);
+        lesson.put("xp_reward", 100);
+        return lesson;
+    }
+
     /**
      * Creates the lesson payload.
      */
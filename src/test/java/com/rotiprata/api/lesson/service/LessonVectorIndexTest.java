@@ -0,0 +1,100 @@
+package com.rotiprata.api.lesson.service;
+
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers cosine top-k ordering, dimension checks and incremental updates for the lesson vector index.
+ */
+class LessonVectorIndexTest {
+
+    private static final UUID EAST_ID = UUID.randomUUID();
+    private static final UUID NORTH_EAST_ID = UUID.randomUUID();
+    private static final UUID NORTH_ID = UUID.randomUUID();
+    private static final UUID WEST_ID = UUID.randomUUID();
+
+    private final LessonVectorIndex index = LessonVectorIndex.build(List.of(
+        entry(NORTH_ID, 0f, 5f),
+        entry(EAST_ID, 3f, 0f),
+        entry(WEST_ID, -1f, 0f),
+        entry(NORTH_EAST_ID, 1f, 1f)
+    ));
+
+    /**
+     * Verifies that top k should return the most similar lessons by cosine, ignoring vector length.
+     */
+    @Test
+    void topK_ShouldReturnMostSimilarFirst_WhenIndexHasMoreThanK() {
+        // act
+        List<LessonVectorIndex.Entry> results = index.topK(new float[] {10f, 1f}, 3);
+
+        // assert
+        assertEquals(List.of(EAST_ID, NORTH_EAST_ID, NORTH_ID), ids(results));
+        assertEquals(4, index.topK(new float[] {1f, 0f}, 10).size());
+    }
+
+    /**
+     * Verifies that top k should return nothing when the query dimension does not match the index.
+     */
+    @Test
+    void topK_ShouldReturnEmpty_WhenQueryDimensionDiffers() {
+        // act & assert
+        assertTrue(index.topK(new float[] {1f, 0f, 0f}, 3).isEmpty());
+        assertTrue(LessonVectorIndex.EMPTY.topK(new float[] {1f, 0f}, 3).isEmpty());
+    }
+
+    /**
+     * Verifies that apply should replace, remove and skip mismatched entries without touching the original index.
+     */
+    @Test
+    void apply_ShouldReindexChangedLessons_WhenEntriesAreUpdatedOrRemoved() {
+        // act
+        LessonVectorIndex updated = index.apply(
+            List.of(entry(WEST_ID, 1f, 0.1f), new LessonVectorIndex.Entry(UUID.randomUUID(), new float[] {1f}, null)),
+            List.of(EAST_ID)
+        );
+
+        // assert
+        assertEquals(3, updated.size());
+        assertEquals(List.of(WEST_ID), ids(updated.topK(new float[] {1f, 0f}, 1)));
+        assertEquals(4, index.size());
+    }
+
+    /**
+     * Verifies that an entry version should follow its lesson text and ignore its embedding.
+     */
+    @Test
+    void entry_ShouldChangeVersion_WhenLessonTextChanges() {
+        // arrange
+        LessonContextAssembler.Lesson original = new LessonContextAssembler.Lesson(
+            "Rizz",
+            List.of(LessonContextAssembler.Chunk.of("Origin", "From streams."))
+        );
+        LessonContextAssembler.Lesson edited = new LessonContextAssembler.Lesson(
+            "Rizz",
+            List.of(LessonContextAssembler.Chunk.of("Origin", "From streams in 2021."))
+        );
+
+        // act
+        String version = new LessonVectorIndex.Entry(EAST_ID, new float[] {1f, 0f}, original).version();
+        String moved = new LessonVectorIndex.Entry(EAST_ID, new float[] {0f, 1f}, original).version();
+        String changed = new LessonVectorIndex.Entry(EAST_ID, new float[] {1f, 0f}, edited).version();
+
+        // assert
+        assertEquals(version, moved);
+        assertNotEquals(version, changed);
+    }
+
+    private static List<UUID> ids(List<LessonVectorIndex.Entry> entries) {
+        return entries.stream().map(LessonVectorIndex.Entry::id).toList();
+    }
+
+    private static LessonVectorIndex.Entry entry(UUID id, float x, float y) {
+        return new LessonVectorIndex.Entry(id, new float[] {x, y}, new LessonContextAssembler.Lesson(id.toString(), List.of()));
+    }
+}
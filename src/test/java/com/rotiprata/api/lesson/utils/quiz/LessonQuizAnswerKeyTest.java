@@ -0,0 +1,189 @@
+package com.rotiprata.api.lesson.utils.quiz;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers the answer keys compiled by each lesson quiz question grader.
+ */
+class LessonQuizAnswerKeyTest {
+
+    /**
+     * Verifies that a short text key should match normalized accepted answers.
+     */
+    @Test
+    void shortTextKey_ShouldMatchNormalizedAcceptedAnswers_WhenAnswerDiffersInCaseAndSpacing() {
+        // arrange
+        LessonQuizAnswerKey key = new ShortTextQuestionGrader().compile(
+            Map.of("correct_answer", "{\"accepted\":[\"No Cap\",\"for real\"]}")
+        );
+
+        // act
+        LessonQuizGradeResult accepted = key.grade(Map.of("text", "  no   CAP "));
+        LessonQuizGradeResult rejected = key.grade(Map.of("value", "cap"));
+
+        // assert
+        assertTrue(accepted.correct());
+        assertEquals(Map.of("text", "no   CAP"), accepted.normalizedResponse());
+        assertFalse(rejected.correct());
+    }
+
+    /**
+     * Verifies that a short text key should accept synonyms and near-miss spellings.
+     */
+    @Test
+    void shortTextKey_ShouldAcceptSynonymsAndTypos_WhenAnswerKeyListsSynonyms() {
+        // arrange
+        LessonQuizAnswerKey key = new ShortTextQuestionGrader().compile(
+            Map.of("correct_answer", "{\"accepted\":[\"situationship\"],\"synonyms\":[\"almost relationship\"]}")
+        );
+
+        // act
+        LessonQuizGradeResult synonym = key.grade(Map.of("text", "Almost-relationship!"));
+        LessonQuizGradeResult typo = key.grade(Map.of("text", "situationshp"));
+        LessonQuizGradeResult punctuationOnly = key.grade(Map.of("text", "?!"));
+
+        // assert
+        assertTrue(synonym.correct());
+        assertTrue(typo.correct());
+        assertFalse(punctuationOnly.correct());
+    }
+
+    /**
+     * Verifies that a short text key should reject blank answers with 400 instead of grading them wrong.
+     */
+    @Test
+    void shortTextKey_ShouldThrowBadRequest_WhenAnswerIsBlank() {
+        // arrange
+        LessonQuizAnswerKey key = new ShortTextQuestionGrader().compile(
+            Map.of("correct_answer", "{\"accepted\":[\"no cap\"]}")
+        );
+
+        // act
+        ResponseStatusException blank = assertThrows(ResponseStatusException.class, () -> key.grade(Map.of("text", "   ")));
+        ResponseStatusException unicodeBlank = assertThrows(
+            ResponseStatusException.class,
+            () -> key.grade(Map.of("text", "\u00A0\u200B\u3000"))
+        );
+        ResponseStatusException missing = assertThrows(ResponseStatusException.class, () -> key.grade(Map.of()));
+
+        // assert
+        assertEquals(HttpStatus.BAD_REQUEST, blank.getStatusCode());
+        assertEquals("Answer response is empty", blank.getReason());
+        assertEquals("Answer response is empty", unicodeBlank.getReason());
+        assertEquals("Answer response is missing text", missing.getReason());
+    }
+
+    /**
+     * Verifies that compiling a short text question should fail when it has no accepted answers.
+     */
+    @Test
+    void shortTextCompile_ShouldThrowBadRequest_WhenAcceptedAnswersAreEmpty() {
+        // arrange
+        ShortTextQuestionGrader grader = new ShortTextQuestionGrader();
+        Map<String, Object> question = Map.of("correct_answer", "[]");
+
+        // act
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> grader.compile(question));
+
+        // assert
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+    }
+
+    /**
+     * Verifies that a multiple choice key should grade case-insensitively and reject unknown options.
+     */
+    @Test
+    void multipleChoiceKey_ShouldGradeSelection_WhenChoiceIsKnown() {
+        // arrange
+        LessonQuizAnswerKey key = new MultipleChoiceQuestionGrader().compile(Map.of(
+            "correct_answer", "a",
+            "options", Map.of("choices", Map.of("A", "Correct", "B", "Wrong"))
+        ));
+
+        // act
+        LessonQuizGradeResult correct = key.grade(Map.of("choiceId", "a"));
+        LessonQuizGradeResult wrong = key.grade(Map.of("selectedOption", "B"));
+
+        // assert
+        assertTrue(correct.correct());
+        assertEquals(Map.of("choiceId", "A"), correct.normalizedResponse());
+        assertFalse(wrong.correct());
+        assertThrows(ResponseStatusException.class, () -> key.grade(Map.of("choiceId", "C")));
+    }
+
+    /**
+     * Verifies that a true false key should accept boolean-like responses.
+     */
+    @Test
+    void trueFalseKey_ShouldGradeBooleanLikeResponses() {
+        // arrange
+        LessonQuizAnswerKey key = new TrueFalseQuestionGrader().compile(Map.of("correct_answer", "TRUE"));
+
+        // act
+        LessonQuizGradeResult correct = key.grade(Map.of("choiceId", "true"));
+        LessonQuizGradeResult wrong = key.grade(Map.of("value", false));
+
+        // assert
+        assertTrue(correct.correct());
+        assertFalse(wrong.correct());
+        assertEquals(Map.of("value", false), wrong.normalizedResponse());
+    }
+
+    /**
+     * Verifies that a match pairs key should require every left item and compare against the expected pairs.
+     */
+    @Test
+    void matchPairsKey_ShouldGradePairs_WhenEveryLeftItemIsPaired() {
+        // arrange
+        LessonQuizAnswerKey key = new MatchPairsQuestionGrader().compile(matchPairsQuestion());
+
+        // act
+        LessonQuizGradeResult correct = key.grade(Map.of("pairs", Map.of("l1", "r1", "l2", "r2")));
+        LessonQuizGradeResult wrong = key.grade(Map.of("l1", "r2", "l2", "r1"));
+
+        // assert
+        assertTrue(correct.correct());
+        assertFalse(wrong.correct());
+        assertThrows(ResponseStatusException.class, () -> key.grade(Map.of("pairs", Map.of("l1", "r1"))));
+    }
+
+    /**
+     * Verifies that grading through the grader should match grading through its compiled key.
+     */
+    @Test
+    void grade_ShouldMatchCompiledKey_ForTheSameQuestion() {
+        // arrange
+        MatchPairsQuestionGrader grader = new MatchPairsQuestionGrader();
+        Map<String, Object> question = matchPairsQuestion();
+        Map<String, Object> response = Map.of("answers", Map.of("l1", "r1", "l2", "r2"));
+
+        // act
+        LessonQuizGradeResult direct = grader.grade(question, response);
+        LessonQuizGradeResult compiled = grader.compile(question).grade(response);
+
+        // assert
+        assertEquals(direct, compiled);
+    }
+
+    /**
+     * Builds a two-pair match question.
+     */
+    private Map<String, Object> matchPairsQuestion() {
+        return Map.of(
+            "correct_answer", "{\"l1\":\"r1\",\"l2\":\"r2\"}",
+            "options", Map.of(
+                "left", List.of(Map.of("id", "l1", "text", "rizz"), Map.of("id", "l2", "text", "mid")),
+                "right", List.of(Map.of("id", "r1", "text", "charm"), Map.of("id", "r2", "text", "average"))
+            )
+        );
+    }
+}
@@ -0,0 +1,101 @@
+package com.rotiprata.api.lesson.utils.quiz;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers normalization and bounded fuzzy matching for short_text answers.
+ */
+class ShortTextAnswerMatcherTest {
+
+    /**
+     * Verifies that normalize should strip accents, apostrophes and punctuation.
+     */
+    @Test
+    void normalize_ShouldFoldAccentsApostrophesAndPunctuation() {
+        // act
+        String normalized = ShortTextAnswerMatcher.normalize("  Can’t   STOP, wón't stop!!  ");
+
+        // assert
+        assertEquals("cant stop wont stop", normalized);
+    }
+
+    /**
+     * Verifies that normalize should keep emoji and return null when nothing matchable is left.
+     */
+    @Test
+    void normalize_ShouldKeepSymbols_AndReturnNullForPunctuationOnly() {
+        // act
+        String emoji = ShortTextAnswerMatcher.normalize("I'm dead 💀");
+        String empty = ShortTextAnswerMatcher.normalize("?!...");
+
+        // assert
+        assertEquals("im dead 💀", emoji);
+        assertNull(empty);
+    }
+
+    /**
+     * Verifies that matches should accept typos and transpositions within the length-based budget.
+     */
+    @Test
+    void matches_ShouldAcceptNearMisses_WithinLengthBasedBudget() {
+        // arrange
+        ShortTextAnswerMatcher matcher = new ShortTextAnswerMatcher(List.of("rizz", "situationship"), null);
+
+        // act & assert
+        assertTrue(matcher.matches("rizz"));
+        assertTrue(matcher.matches("rizzz"));
+        assertTrue(matcher.matches("sitautionship"));
+        assertTrue(matcher.matches("situationshp"));
+        assertFalse(matcher.matches("riz z z"));
+        assertFalse(matcher.matches("relationship"));
+    }
+
+    /**
+     * Verifies that matches should stay exact for short and numeric candidates.
+     */
+    @Test
+    void matches_ShouldRequireExactMatch_ForShortAndNumericCandidates() {
+        // arrange
+        ShortTextAnswerMatcher matcher = new ShortTextAnswerMatcher(List.of("mid", "2016"), null);
+
+        // act & assert
+        assertTrue(matcher.matches("mid"));
+        assertFalse(matcher.matches("mod"));
+        assertFalse(matcher.matches("2015"));
+    }
+
+    /**
+     * Verifies that matches should honor an explicit zero typo budget.
+     */
+    @Test
+    void matches_ShouldRequireExactMatch_WhenMaxTyposIsZero() {
+        // arrange
+        ShortTextAnswerMatcher matcher = new ShortTextAnswerMatcher(List.of("no cap"), 0);
+
+        // act & assert
+        assertTrue(matcher.matches("no cap"));
+        assertFalse(matcher.matches("no cp"));
+    }
+
+    /**
+     * Verifies that within distance should exit early once every cell in a row exceeds the budget.
+     */
+    @Test
+    void withinDistance_ShouldRespectBudget() {
+        // arrange
+        int[] a = new int[16];
+        int[] b = new int[16];
+        int[] c = new int[16];
+
+        // act & assert
+        assertTrue(ShortTextAnswerMatcher.withinDistance("bussin", "busisn", 1, a, b, c));
+        assertFalse(ShortTextAnswerMatcher.withinDistance("bussin", "bsisun", 1, a, b, c));
+        assertTrue(ShortTextAnswerMatcher.withinDistance("delulu", "delul", 1, a, b, c));
+    }
+}
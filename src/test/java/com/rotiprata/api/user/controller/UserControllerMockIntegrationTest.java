@@ -12,6 +12,7 @@ import com.rotiprata.api.lesson.service.LessonService;
 import com.rotiprata.api.user.domain.Profile;
 import com.rotiprata.api.user.dto.UserBadgeResponse;
 import com.rotiprata.api.user.service.UserService;
+import com.rotiprata.api.user.domain.LeaderboardPeriod;
 import com.rotiprata.api.user.response.LeaderboardResponse;
 import com.rotiprata.security.authorization.AppRole;
 import com.rotiprata.api.user.preference.ThemePreference;
@@ -38,6 +39,7 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
@@ -327,6 +329,39 @@ class UserControllerMockIntegrationTest {
         verify(userService).getLeaderboard(eq(USER_ID), eq(2), eq(10), eq("ali"), eq(TOKEN));
     }
 
+    /**
+     * Verifies that period leaderboard should return the weekly board when the period is weekly.
+     */
+    /** Verifies the weekly leaderboard is requested with the parsed period. */
+    @Test
+    void periodLeaderboard_ShouldReturnWeeklyLeaderboard_WhenPeriodIsWeekly() {
+        // arrange
+        LeaderboardResponse leaderboard = new LeaderboardResponse(List.of(), 1, 20, false, 3, "", null);
+        when(userService.getLeaderboard(eq(USER_ID), eq(LeaderboardPeriod.WEEKLY), eq(1), eq(20), isNull(), eq(TOKEN))).thenReturn(leaderboard);
+
+        // act
+        var response = auth.when().get("/api/users/leaderboard/weekly");
+
+        // assert
+        response.then().statusCode(HttpStatus.OK.value()).body("totalCount", equalTo(3));
+
+        // verify
+        verify(userService).getLeaderboard(eq(USER_ID), eq(LeaderboardPeriod.WEEKLY), eq(1), eq(20), isNull(), eq(TOKEN));
+    }
+
+    /**
+     * Verifies that period leaderboard should return bad request when the period is unknown.
+     */
+    /** Verifies an unknown leaderboard period is rejected. */
+    @Test
+    void periodLeaderboard_ShouldReturnBadRequest_WhenPeriodIsUnknown() {
+        // act
+        var response = auth.when().get("/api/users/leaderboard/yearly");
+
+        // assert
+        response.then().statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
     /**
      * Verifies that profile content should return content list when collection provided.
      */
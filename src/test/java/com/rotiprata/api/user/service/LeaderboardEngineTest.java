@@ -0,0 +1,198 @@
+package com.rotiprata.api.user.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.rotiprata.api.user.domain.LeaderboardPeriod;
+import com.rotiprata.api.user.domain.Profile;
+import com.rotiprata.api.user.domain.UserRole;
+import com.rotiprata.infrastructure.supabase.SupabaseAdminRestClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Covers seeding, in-place XP updates, targeted reloads, periodic refresh and windowed boards for the
+ * leaderboard engine.
+ */
+@ExtendWith(MockitoExtension.class)
+class LeaderboardEngineTest {
+
+    @Mock
+    private SupabaseAdminRestClient supabaseAdminRestClient;
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+    private final UUID leaderId = UUID.randomUUID();
+    private final UUID learnerId = UUID.randomUUID();
+    private LeaderboardEngine engine;
+
+    /**
+     * Builds the shared test fixture and default mock behavior for each scenario.
+     */
+    @BeforeEach
+    void setUp() {
+        engine = new LeaderboardEngine(supabaseAdminRestClient, Duration.ofMinutes(10), clock::get);
+        when(supabaseAdminRestClient.getList(eq("user_roles"), anyString(), any())).thenReturn(List.of());
+        when(supabaseAdminRestClient.getList(eq("profiles"), contains("offset=0"), any()))
+            .thenReturn(List.of(profile(leaderId, "leader", 100), profile(learnerId, "learner", 50)));
+    }
+
+    /**
+     * Verifies that record xp should reorder the board without reading profiles again.
+     */
+    @Test
+    void recordXp_ShouldMoveLearnerWithoutReload_WhenLearnerIsOnBoard() {
+        // arrange
+        engine.slice(learnerId, null, 1, 10);
+
+        // act
+        engine.recordXp(learnerId, 120);
+        LeaderboardIndex.Slice slice = engine.slice(learnerId, null, 1, 10);
+
+        // assert
+        assertEquals(learnerId, slice.items().get(0).entry().userId());
+        assertEquals(1, slice.currentUser().rank());
+
+        // verify
+        verify(supabaseAdminRestClient, times(1)).getList(eq("profiles"), anyString(), any());
+    }
+
+    /**
+     * Verifies that mark changed should reload only the changed learner and drop them once they are an admin.
+     */
+    @Test
+    void markChanged_ShouldReloadOnlyChangedLearner_WhenLearnerBecomesAdmin() {
+        // arrange
+        engine.slice(learnerId, null, 1, 10);
+        UserRole adminRole = new UserRole();
+        adminRole.setUserId(leaderId);
+        when(supabaseAdminRestClient.getList(eq("user_roles"), contains("user_id=in."), any())).thenReturn(List.of(adminRole));
+        when(supabaseAdminRestClient.getList(eq("profiles"), contains("user_id=in."), any()))
+            .thenReturn(List.of(profile(leaderId, "leader", 100)));
+
+        // act
+        engine.markChanged(leaderId);
+        LeaderboardIndex.Slice slice = engine.slice(learnerId, null, 1, 10);
+
+        // assert
+        assertEquals(1, slice.totalCount());
+        assertEquals(1, slice.currentUser().rank());
+
+        // verify
+        verify(supabaseAdminRestClient).getList(eq("profiles"), contains("user_id=in.(" + leaderId + ")"), any());
+    }
+
+    /**
+     * Verifies that slice should reload the whole board once the refresh interval elapses.
+     */
+    @Test
+    void slice_ShouldReloadBoard_WhenRefreshIntervalElapses() {
+        // act
+        engine.slice(null, null, 1, 10);
+        engine.slice(null, null, 1, 10);
+        clock.addAndGet(Duration.ofMinutes(10).toMillis());
+        engine.slice(null, null, 1, 10);
+
+        // verify
+        verify(supabaseAdminRestClient, times(2)).getList(eq("profiles"), anyString(), any());
+    }
+
+    /**
+     * Verifies that the weekly board should rank XP earned in the window and roll forward by day.
+     */
+    @Test
+    void slice_ShouldRankWindowXp_WhenPeriodIsWeekly() {
+        // arrange: the leader earned nothing lately, the learner earned 30 XP six days ago
+        Instant now = Instant.ofEpochMilli(clock.get());
+        when(supabaseAdminRestClient.getList(eq("user_lesson_rewards"), contains("offset=0"), any())).thenReturn(List.of(
+            Map.of("user_id", learnerId.toString(), "xp_awarded", 30, "awarded_at", now.minus(Duration.ofDays(6)).toString())
+        ));
+        // a long refresh interval keeps the next-day lookup on the in-memory roll-forward
+        engine = new LeaderboardEngine(supabaseAdminRestClient, Duration.ofDays(30), clock::get);
+
+        // act
+        LeaderboardIndex.Slice weekly = engine.slice(LeaderboardPeriod.WEEKLY, learnerId, null, 1, 10);
+        engine.recordReward(leaderId, 5, now);
+        LeaderboardIndex.Slice afterReward = engine.slice(LeaderboardPeriod.WEEKLY, learnerId, null, 1, 10);
+        clock.addAndGet(Duration.ofDays(1).toMillis());
+        LeaderboardIndex.Slice nextDay = engine.slice(LeaderboardPeriod.WEEKLY, learnerId, null, 1, 10);
+
+        // assert
+        assertEquals(1, weekly.totalCount());
+        assertEquals(30, weekly.currentUser().entry().xp());
+        assertEquals(1, weekly.currentUser().rank());
+        assertEquals(2, afterReward.totalCount());
+        assertEquals(learnerId, afterReward.items().get(0).entry().userId());
+        assertEquals(1, nextDay.totalCount());
+        assertEquals(leaderId, nextDay.items().get(0).entry().userId());
+        assertNull(nextDay.currentUser());
+    }
+
+    /**
+     * Verifies that a reward earned after UTC midnight should count before the board has rolled over.
+     */
+    @Test
+    void recordReward_ShouldCountReward_WhenDatedOneDayAfterBoardDay() {
+        // arrange: the board is built today and nothing is read until tomorrow
+        engine = new LeaderboardEngine(supabaseAdminRestClient, Duration.ofDays(30), clock::get);
+        engine.slice(LeaderboardPeriod.WEEKLY, learnerId, null, 1, 10);
+        clock.addAndGet(Duration.ofDays(1).toMillis());
+
+        // act
+        engine.recordReward(leaderId, 5, Instant.ofEpochMilli(clock.get()));
+        LeaderboardIndex.Slice weekly = engine.slice(LeaderboardPeriod.WEEKLY, learnerId, null, 1, 10);
+
+        // assert
+        assertEquals(1, weekly.totalCount());
+        assertEquals(leaderId, weekly.items().get(0).entry().userId());
+        assertEquals(5, weekly.items().get(0).entry().xp());
+    }
+
+    /**
+     * Verifies that a learner reloaded after UTC midnight should keep the XP they earned that day.
+     */
+    @Test
+    void slice_ShouldKeepTodaysRewards_WhenChangedLearnerIsReloadedAfterMidnight() {
+        // arrange: the learner's reload returns a reward dated the day after the board was built
+        engine = new LeaderboardEngine(supabaseAdminRestClient, Duration.ofDays(30), clock::get);
+        engine.slice(LeaderboardPeriod.WEEKLY, learnerId, null, 1, 10);
+        clock.addAndGet(Duration.ofDays(1).toMillis());
+        Instant now = Instant.ofEpochMilli(clock.get());
+        when(supabaseAdminRestClient.getList(eq("profiles"), contains("user_id=in."), any()))
+            .thenReturn(List.of(profile(learnerId, "learner", 60)));
+        when(supabaseAdminRestClient.getList(eq("user_lesson_rewards"), contains("user_id=in."), any())).thenReturn(List.of(
+            Map.of("user_id", learnerId.toString(), "xp_awarded", 10, "awarded_at", now.toString())
+        ));
+
+        // act
+        engine.markChanged(learnerId);
+        LeaderboardIndex.Slice weekly = engine.slice(LeaderboardPeriod.WEEKLY, learnerId, null, 1, 10);
+
+        // assert
+        assertEquals(1, weekly.totalCount());
+        assertEquals(10, weekly.currentUser().entry().xp());
+    }
+
+    private static Profile profile(UUID userId, String displayName, int xp) {
+        Profile profile = new Profile();
+        profile.setUserId(userId);
+        profile.setDisplayName(displayName);
+        profile.setReputationPoints(xp);
+        return profile;
+    }
+}
@@ -0,0 +1,154 @@
+package com.rotiprata.api.user.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers ordering, competition ranks, paging and prefix search for the leaderboard index.
+ */
+class LeaderboardIndexTest {
+
+    /**
+     * Verifies that slice should assign competition ranks when learners tie on XP.
+     */
+    @Test
+    void slice_ShouldAssignCompetitionRanks_WhenLearnersTie() {
+        // arrange
+        LeaderboardIndex index = LeaderboardIndex.of(List.of(
+            entry("Zed", 100), entry("alpha", 100), entry("Mia", 250), entry(null, 40)
+        ));
+
+        // act
+        LeaderboardIndex.Slice slice = index.slice(null, null, 1, 10);
+
+        // assert
+        assertEquals(List.of("Mia", "alpha", "Zed", "?"), names(slice));
+        assertEquals(List.of(1, 2, 2, 4), slice.items().stream().map(LeaderboardIndex.Ranked::rank).toList());
+        assertEquals(4, slice.totalCount());
+        assertFalse(slice.hasNext());
+    }
+
+    /**
+     * Verifies that slice should keep tie ranks across a page boundary and clamp the page number.
+     */
+    @Test
+    void slice_ShouldKeepTieRankAcrossPages_WhenPageStartsInsideTie() {
+        // arrange
+        LeaderboardIndex index = LeaderboardIndex.of(List.of(
+            entry("a", 300), entry("b", 200), entry("c", 200), entry("d", 200), entry("e", 10)
+        ));
+
+        // act
+        LeaderboardIndex.Slice second = index.slice(null, null, 2, 2);
+        LeaderboardIndex.Slice beyond = index.slice(null, null, 9, 2);
+
+        // assert
+        assertEquals(List.of("c", "d"), names(second));
+        assertEquals(List.of(2, 2), second.items().stream().map(LeaderboardIndex.Ranked::rank).toList());
+        assertTrue(second.hasNext());
+        assertEquals(3, beyond.page());
+        assertEquals(List.of("e"), names(beyond));
+        assertEquals(5, beyond.items().get(0).rank());
+    }
+
+    /**
+     * Verifies that slice should page only matching learners when a display name prefix is given.
+     */
+    @Test
+    void slice_ShouldFilterByPrefixWithBoardRanks_WhenPrefixGiven() {
+        // arrange
+        LeaderboardIndex.Entry current = entry("Alice", 50);
+        LeaderboardIndex index = LeaderboardIndex.of(List.of(
+            entry("Albert", 500), entry("bob", 400), current, entry("malia", 60)
+        ));
+
+        // act
+        LeaderboardIndex.Slice slice = index.slice(current.userId(), "al", 1, 10);
+
+        // assert
+        assertEquals(List.of("Albert", "Alice"), names(slice));
+        assertEquals(List.of(1, 4), slice.items().stream().map(LeaderboardIndex.Ranked::rank).toList());
+        assertEquals(2, slice.totalCount());
+        assertEquals(4, slice.currentUser().rank());
+    }
+
+    /**
+     * Verifies that upsert should move a learner and remove should drop them from every lookup.
+     */
+    @Test
+    void upsert_ShouldReorderBoard_WhenXpChanges() {
+        // arrange
+        LeaderboardIndex.Entry climber = entry("climber", 10);
+        LeaderboardIndex.Entry leaver = entry("leaver", 90);
+        LeaderboardIndex index = LeaderboardIndex.of(List.of(entry("top", 100), climber, leaver));
+
+        // act
+        index.upsert(climber.withXp(150));
+        index.remove(leaver.userId());
+
+        // assert
+        assertEquals(List.of("climber", "top"), names(index.slice(null, null, 1, 10)));
+        assertEquals(1, index.rankOf(climber.userId()).rank());
+        assertNull(index.rankOf(leaver.userId()));
+        assertEquals(0, index.slice(null, "lea", 1, 10).totalCount());
+    }
+
+    /**
+     * Verifies that the index should match a full sort after many random updates.
+     */
+    @Test
+    void slice_ShouldMatchFullSort_AfterRandomUpdates() {
+        // arrange
+        SplittableRandom random = new SplittableRandom(7);
+        LeaderboardIndex index = new LeaderboardIndex(new SplittableRandom(11));
+        Map<UUID, LeaderboardIndex.Entry> expected = new HashMap<>();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            ids.add(UUID.randomUUID());
+        }
+
+        // act
+        for (int step = 0; step < 3000; step++) {
+            UUID userId = ids.get(random.nextInt(ids.size()));
+            if (random.nextInt(5) == 0) {
+                index.remove(userId);
+                expected.remove(userId);
+            } else {
+                LeaderboardIndex.Entry entry = new LeaderboardIndex.Entry(userId, "u" + random.nextInt(50), null, random.nextInt(40), 0);
+                index.upsert(entry);
+                expected.put(userId, entry);
+            }
+        }
+
+        // assert
+        List<LeaderboardIndex.Entry> sorted = expected.values().stream().sorted(LeaderboardIndex.ORDER).toList();
+        LeaderboardIndex.Slice all = index.slice(null, null, 1, sorted.size() + 1);
+        assertEquals(sorted, all.items().stream().map(LeaderboardIndex.Ranked::entry).toList());
+        for (int page = 1; page <= 4; page++) {
+            for (LeaderboardIndex.Ranked ranked : index.slice(null, null, page, 17).items()) {
+                long above = sorted.stream().filter(entry -> entry.xp() > ranked.entry().xp()).count();
+                assertEquals(above + 1, ranked.rank());
+            }
+        }
+    }
+
+    private static LeaderboardIndex.Entry entry(String displayName, int xp) {
+        return new LeaderboardIndex.Entry(UUID.randomUUID(), displayName, null, xp, 0);
+    }
+
+    private static List<String> names(LeaderboardIndex.Slice slice) {
+        return slice.items().stream()
+            .map(ranked -> ranked.entry().displayName() == null ? "?" : ranked.entry().displayName())
+            .toList();
+    }
+}
@@ -23,6 +23,7 @@ import com.rotiprata.security.authorization.AppRole;
 import com.rotiprata.api.user.preference.ThemePreference;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminRestClient;
 import com.rotiprata.infrastructure.supabase.SupabaseRestClient;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -59,7 +60,11 @@ class UserServiceImplTest {
      */
     @BeforeEach
     void setUp() {
-        service = new UserServiceImpl(supabaseRestClient, supabaseAdminRestClient);
+        service = new UserServiceImpl(
+            supabaseRestClient,
+            supabaseAdminRestClient,
+            new LeaderboardEngine(supabaseAdminRestClient, Duration.ofMinutes(10), () -> 0L)
+        );
     }
 
     /**
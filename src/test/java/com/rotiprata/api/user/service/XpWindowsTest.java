@@ -0,0 +1,94 @@
+package com.rotiprata.api.user.service;
+
+import com.rotiprata.api.user.domain.LeaderboardPeriod;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers rolling sums, day expiry and learner removal for the windowed XP buckets.
+ */
+class XpWindowsTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 31);
+    private final UUID learner = UUID.randomUUID();
+    private final List<String> changes = new ArrayList<>();
+
+    /**
+     * Verifies that add should count XP only in the windows covering its day.
+     */
+    @Test
+    void add_ShouldCountXpInCoveringWindows_WhenDayIsInsideWindow() {
+        // arrange
+        XpWindows windows = new XpWindows(TODAY);
+
+        // act
+        windows.add(learner, 10, TODAY, this::changed);
+        windows.add(learner, 20, TODAY.minusDays(6), this::changed);
+        windows.add(learner, 40, TODAY.minusDays(7), this::changed);
+        windows.add(learner, 80, TODAY.minusDays(30), this::changed);
+        windows.add(learner, 160, TODAY.plusDays(1), this::changed);
+
+        // assert
+        assertEquals(30, windows.sum(LeaderboardPeriod.WEEKLY, learner));
+        assertEquals(70, windows.sum(LeaderboardPeriod.MONTHLY, learner));
+        assertEquals(5, changes.size());
+    }
+
+    /**
+     * Verifies that advance to should subtract the days that leave each window.
+     */
+    @Test
+    void advanceTo_ShouldExpireBuckets_WhenDaysLeaveWindow() {
+        // arrange
+        XpWindows windows = new XpWindows(TODAY);
+        windows.add(learner, 10, TODAY, this::changed);
+        windows.add(learner, 20, TODAY.minusDays(6), this::changed);
+        windows.add(learner, 40, TODAY.minusDays(29), this::changed);
+        changes.clear();
+
+        // act
+        windows.advanceTo(TODAY.plusDays(1), this::changed);
+
+        // assert
+        assertEquals(10, windows.sum(LeaderboardPeriod.WEEKLY, learner));
+        assertEquals(30, windows.sum(LeaderboardPeriod.MONTHLY, learner));
+        assertEquals(List.of("WEEKLY", "MONTHLY"), changes.stream().sorted((a, b) -> b.compareTo(a)).toList());
+
+        // act: a long gap empties every window
+        windows.advanceTo(TODAY.plusDays(60), this::changed);
+
+        // assert
+        assertEquals(0, windows.sum(LeaderboardPeriod.WEEKLY, learner));
+        assertEquals(0, windows.sum(LeaderboardPeriod.MONTHLY, learner));
+    }
+
+    /**
+     * Verifies that remove user should clear every window for the learner.
+     */
+    @Test
+    void removeUser_ShouldClearSums_WhenLearnerHasXp() {
+        // arrange
+        XpWindows windows = new XpWindows(TODAY);
+        windows.add(learner, 10, TODAY, this::changed);
+        changes.clear();
+
+        // act
+        windows.removeUser(learner, this::changed);
+        windows.advanceTo(TODAY.plusDays(7), this::changed);
+
+        // assert
+        assertEquals(0, windows.sum(LeaderboardPeriod.WEEKLY, learner));
+        assertTrue(changes.containsAll(List.of("WEEKLY", "MONTHLY")));
+        assertEquals(2, changes.size());
+    }
+
+    private void changed(LeaderboardPeriod period, UUID userId) {
+        changes.add(period.name());
+    }
+}
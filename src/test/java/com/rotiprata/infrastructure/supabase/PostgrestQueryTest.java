@@ -0,0 +1,133 @@
+package com.rotiprata.infrastructure.supabase;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers encoding parity, typed filters and in-list chunking for the PostgREST query builder.
+ */
+class PostgrestQueryTest {
+
+    /**
+     * Verifies that of should encode exactly like the UriComponentsBuilder helpers it replaces.
+     */
+    @Test
+    void of_ShouldMatchUriComponentsBuilder_WhenValuesNeedEscaping() {
+        // arrange
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("select", "id,title,category:categories(name)");
+        params.put("or", "(title.ilike.*roti prata*,description.ilike.*café & co*)");
+        params.put("and", "(estimated_minutes.gte.11,estimated_minutes.lte.20)");
+        params.put("tag", "eq.50%+off=yes#1 {x} 😀");
+        params.put("order", "created_at.desc,id.desc");
+        params.put("created_at", "lt.2026-01-01T00:00:00+08:00");
+
+        // act
+        String query = PostgrestQuery.of(params);
+
+        // assert
+        assertEquals(legacyBuildQuery(params), query);
+    }
+
+    /**
+     * Verifies that typed filters should render the same string as the equivalent parameter map.
+     */
+    @Test
+    void build_ShouldRenderTypedFilters_InInsertionOrder() {
+        // arrange
+        UUID userId = UUID.randomUUID();
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("select", "id,title");
+        params.put("user_id", "eq." + userId);
+        params.put("archived_at", "is.null");
+        params.put("xp_reward", "gte.10");
+        params.put("order", "created_at.desc");
+        params.put("limit", "25");
+        params.put("offset", "50");
+
+        // act
+        String query = PostgrestQuery.select(PostgrestSelect.of("id,title"))
+            .eq("user_id", userId)
+            .is("archived_at", "null")
+            .gte("xp_reward", 10)
+            .order("created_at.desc")
+            .limit(25)
+            .offset(50)
+            .build();
+
+        // assert
+        assertEquals(legacyBuildQuery(params), query);
+    }
+
+    /**
+     * Verifies that in should quote values PostgREST would otherwise split.
+     */
+    @Test
+    void in_ShouldQuoteReservedValues_WhenValuesContainDelimiters() {
+        // arrange
+        UUID id = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+        // act
+        String query = PostgrestQuery.create()
+            .in("tag", List.of(id, "no cap", "a,b", "say \"hi\""))
+            .build();
+
+        // assert
+        assertEquals(
+            "tag=in.(11111111-1111-1111-1111-111111111111,%22no%20cap%22,%22a,b%22,%22say%20%5C%22hi%5C%22%22)",
+            query
+        );
+    }
+
+    /**
+     * Verifies that build chunked should split the in-list and repeat the base query per chunk.
+     */
+    @Test
+    void buildChunked_ShouldSplitValues_WhenListExceedsChunkSize() {
+        // arrange
+        Set<UUID> ids = new LinkedHashSet<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        List<UUID> ordered = List.copyOf(ids);
+
+        // act
+        List<String> queries = PostgrestQuery.select("content_id,tag").buildChunked("content_id", ids, 2);
+
+        // assert
+        assertEquals(3, queries.size());
+        assertEquals("select=content_id,tag&content_id=in.(" + ordered.get(0) + "," + ordered.get(1) + ")", queries.get(0));
+        assertEquals("select=content_id,tag&content_id=in.(" + ordered.get(4) + ")", queries.get(2));
+        assertTrue(PostgrestQuery.create().buildChunked("id", List.of(), 2).isEmpty());
+        assertEquals(List.of("id=in.(1,2)"), PostgrestQuery.create().buildChunked("id", List.of(1, 2), 2));
+    }
+
+    /**
+     * Verifies that build chunked should reject a non-positive chunk size.
+     */
+    @Test
+    void buildChunked_ShouldThrow_WhenChunkSizeIsNotPositive() {
+        // act + assert
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> PostgrestQuery.create().buildChunked("id", List.of(1), 0)
+        );
+    }
+
+    private static String legacyBuildQuery(Map<String, String> params) {
+        UriComponentsBuilder builder = UriComponentsBuilder.newInstance();
+        params.forEach(builder::queryParam);
+        String uri = builder.build().encode().toUriString();
+        return uri.startsWith("?") ? uri.substring(1) : uri;
+    }
+}
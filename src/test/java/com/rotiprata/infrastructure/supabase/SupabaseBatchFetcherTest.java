@@ -0,0 +1,152 @@
+package com.rotiprata.infrastructure.supabase;
+
+import com.rotiprata.config.SupabaseProperties;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers chunking, ordering and error propagation for the batched in-list fetcher.
+ */
+class SupabaseBatchFetcherTest {
+
+    /**
+     * Verifies that fetch in should issue one query per chunk and merge rows in chunk order.
+     */
+    @Test
+    void fetchIn_ShouldMergeRowsInChunkOrder_WhenChunksCompleteOutOfOrder() {
+        // arrange
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        SupabaseBatchFetcher fetcher = new SupabaseBatchFetcher(2, executor);
+        List<String> queries = Collections.synchronizedList(new ArrayList<>());
+
+        try {
+            // act
+            List<String> rows = fetcher.fetchIn(
+                PostgrestQuery.select("id"),
+                "id",
+                List.of(1, 2, 3, 4, 5),
+                query -> {
+                    queries.add(query);
+                    if (query.endsWith("in.(1,2)")) {
+                        sleep(50);
+                    }
+                    return List.of(query.substring(query.indexOf("in.(")));
+                }
+            );
+
+            // assert
+            assertEquals(List.of("in.(1,2)", "in.(3,4)", "in.(5)"), rows);
+            assertEquals(3, queries.size());
+            assertTrue(queries.contains("select=id&id=in.(5)"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Verifies that the property-based constructor should chunk by the configured size on the injected pool.
+     */
+    @Test
+    void fetchChunks_ShouldUseConfiguredChunkSizeAndExecutor_WhenBuiltFromProperties() {
+        // arrange
+        SupabaseProperties properties = new SupabaseProperties();
+        properties.getBatch().setInChunkSize(2);
+        AtomicInteger handedOff = new AtomicInteger();
+        SupabaseBatchFetcher fetcher = new SupabaseBatchFetcher(properties, runnable -> {
+            handedOff.incrementAndGet();
+            runnable.run();
+        });
+
+        // act
+        List<Integer> rows = fetcher.fetchChunks(List.of(1, 2, 3, 4, 5), chunk -> List.of(chunk.size()));
+
+        // assert
+        assertEquals(2, fetcher.chunkSize());
+        assertEquals(List.of(2, 2, 1), rows);
+        assertEquals(2, handedOff.get());
+    }
+
+    /**
+     * Verifies that fetch in should run a single chunk on the calling thread.
+     */
+    @Test
+    void fetchIn_ShouldFetchInline_WhenValuesFitInOneChunk() {
+        // arrange
+        SupabaseBatchFetcher fetcher = new SupabaseBatchFetcher(10, runnable -> {
+            throw new AssertionError("executor should not be used");
+        });
+        Thread caller = Thread.currentThread();
+
+        // act
+        List<Thread> rows = fetcher.fetchIn(PostgrestQuery.create(), "id", List.of(1, 2), query -> List.of(Thread.currentThread()));
+
+        // assert
+        assertSame(caller, rows.get(0));
+        assertTrue(fetcher.fetchIn(PostgrestQuery.create(), "id", List.of(), query -> List.of(caller)).isEmpty());
+    }
+
+    /**
+     * Verifies that fetch chunks should rethrow the failing chunk's exception unchanged.
+     */
+    @Test
+    void fetchChunks_ShouldRethrowChunkException_WhenAnyChunkFails() {
+        // arrange
+        SupabaseBatchFetcher fetcher = new SupabaseBatchFetcher(1, Runnable::run);
+        ResponseStatusException failure = new ResponseStatusException(HttpStatus.BAD_GATEWAY, "boom");
+
+        // act
+        ResponseStatusException ex = assertThrows(
+            ResponseStatusException.class,
+            () -> fetcher.fetchChunks(List.of("a", "b", "c"), chunk -> {
+                if (chunk.contains("b")) {
+                    throw failure;
+                }
+                return chunk;
+            })
+        );
+
+        // assert
+        assertSame(failure, ex);
+    }
+
+    /**
+     * Verifies that fetch chunks should pass contiguous sub-lists in input order.
+     */
+    @Test
+    void fetchChunks_ShouldPassOrderedChunks_WhenValuesExceedChunkSize() {
+        // arrange
+        SupabaseBatchFetcher fetcher = new SupabaseBatchFetcher(2, Runnable::run);
+        List<List<String>> seen = new ArrayList<>();
+
+        // act
+        List<String> rows = fetcher.fetchChunks(List.of("a", "b", "c"), chunk -> {
+            seen.add(chunk);
+            return chunk;
+        });
+
+        // assert
+        assertEquals(List.of("a", "b", "c"), rows);
+        assertTrue(seen.contains(List.of("a", "b")));
+        assertTrue(seen.contains(List.of("c")));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
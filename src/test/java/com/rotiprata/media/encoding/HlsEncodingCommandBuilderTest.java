@@ -0,0 +1,195 @@
+package com.rotiprata.media.encoding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rotiprata.config.MediaProcessingProperties;
+import com.rotiprata.config.MediaProcessingProperties.EncodingProfile;
+import com.rotiprata.config.MediaProcessingProperties.RateControl;
+import com.rotiprata.config.MediaProcessingProperties.SegmentFormat;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers encoding profile selection, keyframe derivation and ffmpeg command assembly for HLS output.
+ */
+class HlsEncodingCommandBuilderTest {
+
+    private static final MediaProbe HD_PROBE = new MediaProbe(30, 1920, 1080, true, 60.0);
+
+    private MediaProcessingProperties properties;
+    private HlsEncodingCommandBuilder builder;
+
+    /**
+     * Builds the shared test fixture and default mock behavior for each scenario.
+     */
+    @BeforeEach
+    void setUp() {
+        properties = new MediaProcessingProperties();
+        builder = new HlsEncodingCommandBuilder(properties);
+    }
+
+    /**
+     * Verifies that the keyframe interval should follow the probed frame rate and divide the segment duration.
+     */
+    @Test
+    void keyframeInterval_ShouldFollowFrameRateAndDivideSegment_WhenSourceIsSixtyFps() {
+        EncodingProfile profile = properties.getEncoding().activeProfile();
+
+        // act
+        int keyframeSeconds = builder.keyframeIntervalSeconds(profile, 15);
+        int frames = builder.keyframeIntervalFrames(60.0, builder.keyframeIntervalSeconds(profile, 6));
+
+        // assert
+        assertEquals(1, keyframeSeconds);
+        assertEquals(120, frames);
+        assertEquals(60, builder.keyframeIntervalFrames(0, 2));
+    }
+
+    /**
+     * Verifies that build command should emit CRF with a bitrate cap when the capped CRF profile is active.
+     */
+    @Test
+    void buildCommand_ShouldUseCrfWithCap_WhenCappedCrfProfileIsActive() {
+        properties.getEncoding().setProfile("capped-crf");
+        EncodingProfile profile = builder.activeProfile();
+        HlsRendition rendition = builder.renditions(profile, HD_PROBE).get(0);
+
+        // act
+        List<String> command = builder.buildCommand(profile, HD_PROBE, rendition, Path.of("in.mp4"), Path.of("v1080"), 6);
+
+        // assert
+        assertEquals(RateControl.CAPPED_CRF, profile.getRateControl());
+        assertEquals("23", command.get(command.indexOf("-crf") + 1));
+        assertEquals("4500k", command.get(command.indexOf("-maxrate") + 1));
+        assertFalse(command.contains("-b:v"));
+        assertEquals("120", command.get(command.indexOf("-g") + 1));
+    }
+
+    /**
+     * Verifies that the default profile should derive its GOP from the frame rate and force keyframes on the segment grid.
+     */
+    @Test
+    void buildCommand_ShouldDeriveGopAndForceKeyframes_WhenDefaultProfileIsActive() {
+        EncodingProfile profile = builder.activeProfile();
+        HlsRendition rendition = builder.renditions(profile, HD_PROBE).get(0);
+
+        // act
+        List<String> command = builder.buildCommand(profile, HD_PROBE, rendition, Path.of("in.mp4"), Path.of("v1080"), 6);
+
+        // assert
+        assertEquals("4500k", command.get(command.indexOf("-b:v") + 1));
+        assertEquals("4815k", command.get(command.indexOf("-maxrate") + 1));
+        assertEquals("120", command.get(command.indexOf("-g") + 1));
+        assertEquals("120", command.get(command.indexOf("-keyint_min") + 1));
+        assertEquals("expr:gte(t,n_forced*2)", command.get(command.indexOf("-force_key_frames") + 1));
+    }
+
+    /**
+     * Verifies that the default ladder should drop rungs taller than the source but keep the smallest rung.
+     */
+    @Test
+    void renditions_ShouldKeepOnlySmallestRung_WhenSourceIsShorterThanEveryRung() {
+        EncodingProfile profile = builder.activeProfile();
+        MediaProbe sdProbe = new MediaProbe(30, 854, 480, true, 30.0);
+
+        // act
+        List<HlsRendition> hd = builder.renditions(profile, HD_PROBE);
+        List<HlsRendition> sd = builder.renditions(profile, sdProbe);
+
+        // assert
+        assertEquals(List.of("1080", "720"), hd.stream().map(HlsRendition::label).toList());
+        assertEquals(List.of("720"), sd.stream().map(HlsRendition::label).toList());
+    }
+
+    /**
+     * Verifies that build command should apply profile threads before falling back to the process default.
+     */
+    @Test
+    void buildCommand_ShouldPreferProfileThreads_WhenBothAreConfigured() {
+        properties.getProcess().setFfmpegThreads(4);
+        EncodingProfile profile = builder.activeProfile();
+        HlsRendition rendition = builder.renditions(profile, HD_PROBE).get(0);
+
+        // act
+        List<String> fallback = builder.buildCommand(profile, HD_PROBE, rendition, Path.of("in.mp4"), Path.of("v"), 6);
+        profile.setThreads(2);
+        List<String> overridden = builder.buildCommand(profile, HD_PROBE, rendition, Path.of("in.mp4"), Path.of("v"), 6);
+
+        // assert
+        assertEquals("4", fallback.get(fallback.indexOf("-threads") + 1));
+        assertEquals("2", overridden.get(overridden.indexOf("-threads") + 1));
+    }
+
+    /**
+     * Verifies that renditions should add a mono audio-only rung and skip upscaling when configured.
+     */
+    @Test
+    void renditions_ShouldAddMonoAudioOnlyRungAndSkipUpscale_WhenSourceIsSmall() {
+        EncodingProfile profile = builder.activeProfile();
+        profile.setAudioOnlyRung(true);
+        profile.setMonoAudio(true);
+        MediaProbe smallProbe = new MediaProbe(30, 1280, 720, true, 30.0);
+
+        // act
+        List<HlsRendition> renditions = builder.renditions(profile, smallProbe);
+        HlsRendition audio = renditions.get(renditions.size() - 1);
+        List<String> command = builder.buildCommand(profile, smallProbe, audio, Path.of("in.mp4"), Path.of("vaudio"), 4);
+        List<String> master = builder.masterPlaylist(renditions, smallProbe);
+
+        // assert
+        assertEquals(List.of("720", "audio"), renditions.stream().map(HlsRendition::label).toList());
+        assertTrue(command.contains("-vn"));
+        assertEquals("1", command.get(command.indexOf("-ac") + 1));
+        assertEquals("#EXT-X-STREAM-INF:BANDWIDTH=2628000,RESOLUTION=1280x720", master.get(2));
+        assertTrue(master.get(4).contains("CODECS=\"mp4a.40.2\""));
+    }
+
+    /**
+     * Verifies that build command should write CMAF segments with a shared init segment when fMP4 is configured.
+     */
+    @Test
+    void buildCommand_ShouldWriteFmp4SegmentsWithInit_WhenSegmentFormatIsFmp4() {
+        properties.getEncoding().setSegmentFormat(SegmentFormat.FMP4);
+        EncodingProfile profile = builder.activeProfile();
+        List<HlsRendition> renditions = builder.renditions(profile, HD_PROBE);
+
+        // act
+        List<String> command = builder.buildCommand(profile, HD_PROBE, renditions.get(0), Path.of("in.mp4"), Path.of("v1080"), 6);
+        List<String> tsCommand = builder.buildCommand(
+            profile, HD_PROBE, renditions.get(0), Path.of("in.mp4"), Path.of("v1080"), 6, SegmentFormat.TS
+        );
+        List<String> master = builder.masterPlaylist(renditions, HD_PROBE);
+
+        // assert
+        assertEquals("fmp4", command.get(command.indexOf("-hls_segment_type") + 1));
+        assertEquals("init.mp4", command.get(command.indexOf("-hls_fmp4_init_filename") + 1));
+        assertEquals(Path.of("v1080").resolve("seg_%03d.m4s").toString(), command.get(command.indexOf("-hls_segment_filename") + 1));
+        assertFalse(tsCommand.contains("-hls_segment_type"));
+        assertEquals("#EXT-X-VERSION:7", master.get(1));
+    }
+
+    /**
+     * Verifies that the probe should read fractional frame rates from ffprobe output.
+     */
+    @Test
+    void fromFfprobeJson_ShouldReadFractionalFrameRate_WhenAvgFrameRateIsPresent() throws Exception {
+        String json = """
+            {"format":{"duration":"12.4"},"streams":[
+              {"codec_type":"video","width":1080,"height":1920,"avg_frame_rate":"30000/1001"},
+              {"codec_type":"audio"}]}
+            """;
+
+        // act
+        MediaProbe probe = MediaProbe.fromFfprobeJson(new ObjectMapper().readTree(json));
+
+        // assert
+        assertEquals(12, probe.durationSeconds());
+        assertEquals(29.97, probe.frameRate(), 0.01);
+        assertTrue(probe.hasAudio());
+    }
+}
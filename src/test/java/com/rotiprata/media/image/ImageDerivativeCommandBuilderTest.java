@@ -0,0 +1,97 @@
+package com.rotiprata.media.image;
+
+import com.rotiprata.config.MediaProcessingProperties;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers width selection and ffmpeg command assembly for image derivatives.
+ */
+class ImageDerivativeCommandBuilderTest {
+
+    private MediaProcessingProperties properties;
+    private ImageDerivativeCommandBuilder builder;
+
+    /**
+     * Builds the shared test fixture and default mock behavior for each scenario.
+     */
+    @BeforeEach
+    void setUp() {
+        properties = new MediaProcessingProperties();
+        builder = new ImageDerivativeCommandBuilder(properties);
+    }
+
+    /**
+     * Verifies that target widths should never upscale and should keep the source width as the top variant.
+     */
+    @Test
+    void targetWidths_ShouldSkipUpscaleAndKeepSourceWidth_WhenSourceIsNarrow() {
+        // act
+        List<Integer> narrow = builder.targetWidths(800);
+        List<Integer> wide = builder.targetWidths(4032);
+        List<Integer> unknown = builder.targetWidths(0);
+
+        // assert
+        assertEquals(List.of(320, 640, 800), narrow);
+        assertEquals(List.of(320, 640, 1080), wide);
+        assertEquals(List.of(320, 640, 1080), unknown);
+        assertEquals(List.of(200), builder.targetWidths(200));
+    }
+
+    /**
+     * Verifies that thumbnail width should prefer the configured width and fall back to the largest available.
+     */
+    @Test
+    void thumbnailWidth_ShouldPreferConfiguredWidth_WhenAvailable() {
+        // act
+        int preferred = builder.thumbnailWidth(List.of(320, 640, 1080));
+        int fallback = builder.thumbnailWidth(List.of(200));
+
+        // assert
+        assertEquals(640, preferred);
+        assertEquals(200, fallback);
+    }
+
+    /**
+     * Verifies that build command should decode once and write a WebP and fallback per width without metadata.
+     */
+    @Test
+    void buildCommand_ShouldSplitOnceAndStripMetadata_WhenWritingVariants() {
+        Path out = Path.of("out");
+
+        // act
+        List<String> command = builder.buildCommand(Path.of("in.png"), out, List.of(320, 640), ImageFormat.PNG);
+        List<ImageVariant> variants = builder.variants(List.of(320, 640), ImageFormat.PNG);
+
+        // assert
+        String graph = command.get(command.indexOf("-filter_complex") + 1);
+        assertTrue(graph.startsWith("[0:v]split=2[s0][s1]"));
+        assertEquals(1, command.stream().filter("-i"::equals).count());
+        assertEquals(4, command.stream().filter("-map_metadata"::equals).count());
+        assertTrue(command.contains(out.resolve("w320.webp").toString()));
+        assertTrue(command.contains(out.resolve("w640.png").toString()));
+        assertFalse(command.contains("-q:v"));
+        assertEquals(4, variants.size());
+        assertEquals("image/png", variants.get(1).format().contentType());
+    }
+
+    /**
+     * Verifies that derivatives should be disabled when no widths are configured.
+     */
+    @Test
+    void isEnabled_ShouldReturnFalse_WhenNoWidthsConfigured() {
+        properties.getImages().setWidths(List.of());
+
+        // act
+        boolean enabled = builder.isEnabled();
+
+        // assert
+        assertFalse(enabled);
+    }
+}
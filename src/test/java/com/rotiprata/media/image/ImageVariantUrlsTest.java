@@ -0,0 +1,65 @@
+package com.rotiprata.media.image;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Covers manifest encoding, srcset building and size selection for variant image URLs.
+ */
+class ImageVariantUrlsTest {
+
+    private static final String DIRECTORY = "https://cdn.test/storage/v1/object/public/content-media/images/abc";
+
+    /**
+     * Verifies that srcset should list every manifest width when the URL carries a manifest.
+     */
+    @Test
+    void srcset_ShouldListEveryWidth_WhenUrlCarriesManifest() {
+        String url = ImageVariantUrls.withManifest(DIRECTORY, 640, ImageFormat.JPEG, List.of(320, 640, 1080));
+
+        // act
+        String srcset = ImageVariantUrls.srcset(url, ImageFormat.WEBP);
+
+        // assert
+        assertEquals(DIRECTORY + "/w640.jpg?variants=320,640,1080", url);
+        assertEquals(
+            DIRECTORY + "/w320.webp 320w, " + DIRECTORY + "/w640.webp 640w, " + DIRECTORY + "/w1080.webp 1080w",
+            srcset
+        );
+    }
+
+    /**
+     * Verifies that resolve should pick the smallest sufficient width or the largest available.
+     */
+    @Test
+    void resolve_ShouldPickSmallestSufficientWidth_WhenManifestPresent() {
+        String url = ImageVariantUrls.withManifest(DIRECTORY, 1080, ImageFormat.JPEG, List.of(320, 640, 1080));
+
+        // act
+        String small = ImageVariantUrls.resolve(url, 160, ImageFormat.WEBP);
+        String large = ImageVariantUrls.resolve(url, 2000, ImageFormat.JPEG);
+
+        // assert
+        assertEquals(DIRECTORY + "/w320.webp", small);
+        assertEquals(DIRECTORY + "/w1080.jpg", large);
+    }
+
+    /**
+     * Verifies that URLs without a manifest should pass through unchanged.
+     */
+    @Test
+    void resolve_ShouldReturnUrlUnchanged_WhenManifestMissing() {
+        String legacy = DIRECTORY + "/original.jpg";
+
+        // act
+        String resolved = ImageVariantUrls.resolve(legacy, 160, ImageFormat.WEBP);
+
+        // assert
+        assertEquals(legacy, resolved);
+        assertNull(ImageVariantUrls.srcset(legacy, ImageFormat.WEBP));
+        assertNull(ImageVariantUrls.srcset(null, ImageFormat.WEBP));
+    }
+}
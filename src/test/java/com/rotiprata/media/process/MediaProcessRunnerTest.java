@@ -0,0 +1,198 @@
+package com.rotiprata.media.process;
+
+import com.rotiprata.config.MediaProcessingProperties;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers bounded output capture, timeouts, progress parsing and metrics for the media process runner.
+ */
+class MediaProcessRunnerTest {
+
+    private MediaProcessingProperties properties;
+    private MediaProcessMetrics metrics;
+    private MediaProcessRunner runner;
+
+    /**
+     * Builds the shared test fixture and default mock behavior for each scenario.
+     */
+    @BeforeEach
+    void setUp() {
+        properties = new MediaProcessingProperties();
+        metrics = new MediaProcessMetrics();
+        runner = new MediaProcessRunner(properties, metrics);
+    }
+
+    /**
+     * Verifies that the output buffer should keep only the most recent bytes when capacity is exceeded.
+     */
+    @Test
+    void outputBuffer_ShouldKeepTail_WhenCapacityIsExceeded() {
+        ProcessOutputBuffer buffer = new ProcessOutputBuffer(8);
+        byte[] first = "abcdef".getBytes(StandardCharsets.UTF_8);
+        byte[] second = "ghijk".getBytes(StandardCharsets.UTF_8);
+
+        // act
+        buffer.write(first, 0, first.length);
+        buffer.write(second, 0, second.length);
+
+        // assert
+        assertTrue(buffer.isTruncated());
+        assertEquals(11, buffer.totalBytes());
+        assertEquals("defghijk", buffer.contentAsString());
+    }
+
+    /**
+     * Verifies that the output buffer should return everything when capacity is not exceeded.
+     */
+    @Test
+    void outputBuffer_ShouldReturnAllBytes_WhenWithinCapacity() {
+        ProcessOutputBuffer buffer = new ProcessOutputBuffer(16);
+        byte[] data = "hello".getBytes(StandardCharsets.UTF_8);
+
+        // act
+        buffer.write(data, 0, data.length);
+
+        // assert
+        assertFalse(buffer.isTruncated());
+        assertEquals("hello", buffer.contentAsString());
+    }
+
+    /**
+     * Verifies that the progress parser should emit a snapshot when a progress block closes.
+     */
+    @Test
+    void progressParser_ShouldEmitSnapshot_WhenProgressBlockCloses() {
+        ToolProgressParser parser = new ToolProgressParser();
+
+        // act
+        assertNull(parser.accept("frame=120"));
+        assertNull(parser.accept("fps=59.94"));
+        assertNull(parser.accept("out_time_us=4000000"));
+        assertNull(parser.accept("total_size=N/A"));
+        assertNull(parser.accept("speed=2.5x"));
+        MediaProcessProgress progress = parser.accept("progress=end");
+
+        // assert
+        assertNotNull(progress);
+        assertEquals(120, progress.frame());
+        assertEquals(4000, progress.outTimeMs());
+        assertEquals(-1, progress.totalSizeBytes());
+        assertEquals(2.5, progress.speed());
+        assertTrue(progress.finished());
+    }
+
+    /**
+     * Verifies that the progress parser should ignore regular log lines on the merged stream.
+     */
+    @Test
+    void progressParser_ShouldIgnoreLogLines_WhenLineIsNotAProgressKey() {
+        ToolProgressParser parser = new ToolProgressParser();
+
+        // act + assert
+        assertNull(parser.accept("Input #0, mov,mp4,m4a,3gp,3g2,mj2, from 'in.mp4':"));
+        assertNull(parser.accept("  encoder = Lavf60.3.100"));
+        assertNull(parser.last());
+    }
+
+    /**
+     * Verifies that the progress parser should read the percentage when yt-dlp reports download progress.
+     */
+    @Test
+    void progressParser_ShouldReadDownloadPercent_WhenYtDlpReportsProgress() {
+        ToolProgressParser parser = new ToolProgressParser();
+
+        // act
+        MediaProcessProgress progress = parser.accept("[download]  42.5% of ~  3.21MiB at  1.20MiB/s ETA 00:02");
+
+        // assert
+        assertNotNull(progress);
+        assertEquals(42.5, progress.downloadPercent());
+        assertFalse(progress.finished());
+        assertNull(parser.accept("[download] Destination: /tmp/link-1.mp4"));
+    }
+
+    /**
+     * Verifies that run should capture output and record metrics when the tool succeeds.
+     */
+    @Test
+    void run_ShouldCaptureOutputAndRecordMetrics_WhenToolSucceeds() throws Exception {
+        // act
+        MediaProcessResult result = runner.run(MediaProcessRequest.of(javaCommand("-version"), "java-version"));
+
+        // assert
+        assertEquals(0, result.exitCode());
+        assertTrue(result.output().contains("version"));
+        assertEquals(1, metrics.snapshot().get("java-version").runs());
+        assertEquals(0, metrics.snapshot().get("java-version").failures());
+    }
+
+    /**
+     * Verifies that run should throw with output and count a failure when the tool exits non-zero.
+     */
+    @Test
+    void run_ShouldThrowAndRecordFailure_WhenToolExitsNonZero() {
+        // act
+        IOException ex = assertThrows(
+            IOException.class,
+            () -> runner.run(MediaProcessRequest.of(javaCommand("-definitely-not-an-option"), "java-bad-flag"))
+        );
+
+        // assert
+        assertTrue(ex.getMessage().startsWith("java-bad-flag failed:"));
+        assertEquals(1, metrics.snapshot().get("java-bad-flag").failures());
+    }
+
+    /**
+     * Verifies that run should kill the tool and count a timeout when the wall-clock budget is exceeded.
+     */
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void run_ShouldKillAndRecordTimeout_WhenWallClockLimitIsExceeded() {
+        MediaProcessRequest request = MediaProcessRequest.of(List.of("sleep", "30"), "sleep")
+            .withTimeout(Duration.ofMillis(500));
+
+        // act
+        long start = System.nanoTime();
+        MediaProcessTimeoutException ex = assertThrows(MediaProcessTimeoutException.class, () -> runner.run(request));
+
+        // assert
+        assertTrue(ex.getMessage().startsWith("sleep timed out after"));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toSeconds() < 10);
+        assertEquals(1, metrics.snapshot().get("sleep").timeouts());
+    }
+
+    /**
+     * Verifies that apply niceness should prefix nice only when a positive niceness is configured.
+     */
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void applyNiceness_ShouldPrefixNice_WhenNicenessIsPositive() {
+        List<String> command = List.of("ffmpeg", "-version");
+
+        // act + assert
+        assertEquals(command, runner.applyNiceness(command, 0));
+        assertEquals(List.of("nice", "-n", "10", "ffmpeg", "-version"), runner.applyNiceness(command, 10));
+    }
+
+    private List<String> javaCommand(String... args) {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(List.of(args));
+        return command;
+    }
+}
@@ -0,0 +1,132 @@
+package com.rotiprata.media.progress;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers in-memory media job progress tracking and subscriber notifications.
+ */
+class MediaJobProgressTrackerTest {
+
+    private MediaJobProgressTracker tracker;
+    private UUID jobId;
+
+    /**
+     * Builds the shared test fixture and default mock behavior for each scenario.
+     */
+    @BeforeEach
+    void setUp() {
+        tracker = new MediaJobProgressTracker(Runnable::run);
+        jobId = UUID.randomUUID();
+    }
+
+    /**
+     * Verifies that get should weight stages into an overall percent when a link job is encoding.
+     */
+    @Test
+    void get_ShouldWeightStagesIntoOverallPercent_WhenLinkJobIsEncoding() {
+        tracker.start(jobId, true);
+
+        // act
+        tracker.encoding(jobId, 1, 2, 5_000, 10_000, 3.0);
+        MediaJobProgress progress = tracker.get(jobId).orElseThrow();
+
+        // assert
+        assertEquals(MediaJobStage.ENCODING, progress.stage());
+        assertEquals(20 + (int) (65 * 0.75), progress.percent());
+        assertEquals(5_000, progress.encodedMs());
+        assertEquals(3.0, progress.encodeSpeed());
+    }
+
+    /**
+     * Verifies that get should report upload counts when an upload job is uploading segments.
+     */
+    @Test
+    void get_ShouldReportSegmentCounts_WhenUploadJobIsUploading() {
+        tracker.start(jobId, false);
+
+        // act
+        tracker.uploading(jobId, 3, 6);
+        MediaJobProgress progress = tracker.get(jobId).orElseThrow();
+
+        // assert
+        assertEquals(MediaJobStage.UPLOADING, progress.stage());
+        assertEquals(3, progress.segmentsUploaded());
+        assertEquals(6, progress.segmentsTotal());
+        assertEquals(85 + 7, progress.percent());
+    }
+
+    /**
+     * Verifies that subscribers should be throttled within a stage but notified on stage changes and finish.
+     */
+    @Test
+    void subscribe_ShouldThrottleWithinStageAndNotifyOnFinish_WhenJobProgresses() {
+        List<MediaJobProgress> received = new ArrayList<>();
+        tracker.start(jobId, true);
+        tracker.subscribe(jobId, received::add);
+
+        // act
+        tracker.downloading(jobId, 10);
+        tracker.downloading(jobId, 20);
+        tracker.encoding(jobId, 0, 2, 100, 10_000, 1.0);
+        tracker.finish(jobId);
+
+        // assert
+        assertEquals(3, received.size());
+        assertEquals(MediaJobStage.DOWNLOADING, received.get(0).stage());
+        assertEquals(MediaJobStage.ENCODING, received.get(1).stage());
+        assertEquals(MediaJobStage.FINISHED, received.get(2).stage());
+        assertTrue(tracker.get(jobId).isEmpty());
+    }
+
+    /**
+     * Verifies that unsubscribing should stop further notifications.
+     */
+    @Test
+    void subscribe_ShouldStopNotifying_WhenHandleIsRun() {
+        List<MediaJobProgress> received = new ArrayList<>();
+        tracker.start(jobId, false);
+        Runnable unsubscribe = tracker.subscribe(jobId, received::add);
+
+        // act
+        unsubscribe.run();
+        tracker.finish(jobId);
+
+        // assert
+        assertTrue(received.isEmpty());
+    }
+
+    /**
+     * Verifies that subscribers should be notified on the executor with only the newest pending snapshot.
+     */
+    @Test
+    void subscribe_ShouldDeliverOffThreadAndCoalesce_WhenSubscriberIsBusy() {
+        Deque<Runnable> queued = new ArrayDeque<>();
+        MediaJobProgressTracker queuedTracker = new MediaJobProgressTracker(queued::add);
+        List<MediaJobProgress> received = new ArrayList<>();
+        queuedTracker.start(jobId, true);
+        queuedTracker.subscribe(jobId, received::add);
+
+        // act
+        queuedTracker.downloading(jobId, 10);
+        queuedTracker.encoding(jobId, 0, 1, 100, 10_000, 1.0);
+        queuedTracker.uploading(jobId, 1, 4);
+        int receivedBeforeDrain = received.size();
+        while (!queued.isEmpty()) {
+            queued.poll().run();
+        }
+
+        // assert
+        assertEquals(0, receivedBeforeDrain);
+        assertEquals(1, received.size());
+        assertEquals(MediaJobStage.UPLOADING, received.get(0).stage());
+    }
+}
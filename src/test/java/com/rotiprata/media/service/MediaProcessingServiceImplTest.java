@@ -4,6 +4,9 @@ import com.rotiprata.config.MediaProcessingProperties;
 import com.rotiprata.config.SupabaseProperties;
 import com.rotiprata.infrastructure.supabase.SupabaseAdminRestClient;
 import com.rotiprata.infrastructure.supabase.SupabaseStorageClient;
+import com.rotiprata.media.process.MediaProcessMetrics;
+import com.rotiprata.media.process.MediaProcessRunner;
+import com.rotiprata.media.progress.MediaJobProgressTracker;
 import java.nio.file.Path;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
@@ -46,7 +49,9 @@ class MediaProcessingServiceImplTest {
             new SupabaseProperties(),
             adminRestClient,
             storageClient,
-            executor
+            executor,
+            new MediaProcessRunner(properties, new MediaProcessMetrics()),
+            new MediaJobProgressTracker(Runnable::run)
         );
     }
 